@@ -0,0 +1,133 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH result file in CSV format (as produced by "-rf csv") against the checked-in baseline and
+ * reports each benchmark whose throughput dropped by more than the tolerance.
+ * <p>
+ * Usage: BenchmarkBaselineCompare &lt;baseline.csv&gt; &lt;current.csv&gt; [tolerance-percent]
+ * <p>
+ * Exits with status 1 when at least one benchmark regressed so that the comparison can gate a release build.
+ */
+public class BenchmarkBaselineCompare {
+    private static final double DEFAULT_TOLERANCE_PERCENT = 10;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: BenchmarkBaselineCompare <baseline.csv> <current.csv> [tolerance-percent]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE_PERCENT;
+        Map<String, Double> baseline = read(args[0]);
+        Map<String, Double> current = read(args[1]);
+        List<String> regressions = compare(baseline, current, tolerance);
+        for (String regression : regressions) {
+            System.out.println(regression);
+        }
+        System.out.println(regressions.size() + " regression(s) beyond " + tolerance + "% in " + current.size() + " benchmark(s)");
+        System.exit(regressions.isEmpty() ? 0 : 1);
+    }
+
+    /**
+     * Compares scores, higher is better, for all benchmarks present in both result sets.
+     *
+     * @param baseline         baseline scores by benchmark key
+     * @param current          current scores by benchmark key
+     * @param tolerancePercent allowed drop in percent
+     * @return description of each regression
+     */
+    public static List<String> compare(Map<String, Double> baseline, Map<String, Double> current, double tolerancePercent) {
+        List<String> regressions = new ArrayList<String>();
+        for (Map.Entry<String, Double> entry : current.entrySet()) {
+            Double base = baseline.get(entry.getKey());
+            if (base == null || base <= 0) {
+                continue;
+            }
+            double changePercent = (entry.getValue() - base) * 100d / base;
+            if (changePercent < -tolerancePercent) {
+                regressions.add(String.format("REGRESSION %s baseline %.3f current %.3f (%.1f%%)", entry.getKey(), base, entry.getValue(), changePercent));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Reads a JMH CSV result file keying each score by benchmark name and parameter values.
+     *
+     * @param filename file
+     * @return scores
+     * @throws IOException when the file cannot be read
+     */
+    public static Map<String, Double> read(String filename) throws IOException {
+        Map<String, Double> scores = new LinkedHashMap<String, Double>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(filename), StandardCharsets.UTF_8));
+        try {
+            String[] header = split(reader.readLine());
+            int scoreColumn = indexOf(header, "Score");
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                String[] columns = split(line);
+                StringBuilder key = new StringBuilder(columns[0]);
+                for (int i = 0; i < header.length && i < columns.length; i++) {
+                    if (header[i].startsWith("Param: ")) {
+                        key.append(' ').append(header[i].substring(7)).append('=').append(columns[i]);
+                    }
+                }
+                scores.put(key.toString(), Double.parseDouble(columns[scoreColumn]));
+            }
+        } finally {
+            reader.close();
+        }
+        return scores;
+    }
+
+    private static int indexOf(String[] header, String name) {
+        for (int i = 0; i < header.length; i++) {
+            if (header[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Column '" + name + "' not found in result file header");
+    }
+
+    private static String[] split(String line) {
+        List<String> columns = new ArrayList<String>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                columns.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        columns.add(current.toString());
+        return columns.toArray(new String[columns.size()]);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.epl;
+
+import com.espertech.esper.benchmark.support.BenchmarkEngineUtil;
+import com.espertech.esper.benchmark.support.SupportCountingListener;
+import com.espertech.esper.benchmark.support.SupportTick;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures grouped aggregation with several numeric aggregation functions over a varying number of groups.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GroupedAggregationBenchmark {
+
+    @Param({"10", "100000"})
+    public int numGroups;
+
+    @Param({"", "#length(10000)"})
+    public String window;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private SupportCountingListener listener;
+    private SupportTick[] ticks;
+    private int index;
+
+    @Setup
+    public void setup() {
+        epService = BenchmarkEngineUtil.allocate(BenchmarkEngineUtil.getConfiguration());
+        runtime = epService.getEPRuntime();
+        listener = BenchmarkEngineUtil.createWithListener(epService, "select symbol, sum(price), count(*), avg(volume) from Tick" + window + " group by symbol");
+        ticks = BenchmarkEngineUtil.makeTicks(Math.max(numGroups, 1024), numGroups);
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public long sendEvent() {
+        runtime.sendEvent(ticks[index]);
+        if (++index == ticks.length) {
+            index = 0;
+        }
+        return listener.getCount();
+    }
+}
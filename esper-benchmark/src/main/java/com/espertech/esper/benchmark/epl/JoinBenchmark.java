@@ -0,0 +1,81 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.epl;
+
+import com.espertech.esper.benchmark.support.BenchmarkEngineUtil;
+import com.espertech.esper.benchmark.support.SupportCountingListener;
+import com.espertech.esper.benchmark.support.SupportQuote;
+import com.espertech.esper.benchmark.support.SupportTick;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures an equi-join between ticks and quotes, either as a unidirectional lookup into a unique-by window
+ * or as a symmetric join between two data windows.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JoinBenchmark {
+    private static final int NUM_EVENTS = 1024;
+    private static final int NUM_SYMBOLS = 1000;
+
+    @Param({"UNIDIRECTIONAL", "WINDOWED"})
+    public String joinType;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private SupportCountingListener listener;
+    private SupportTick[] ticks;
+    private SupportQuote[] quotes;
+    private int index;
+
+    @Setup
+    public void setup() {
+        epService = BenchmarkEngineUtil.allocate(BenchmarkEngineUtil.getConfiguration());
+        runtime = epService.getEPRuntime();
+        String epl;
+        if (joinType.equals("UNIDIRECTIONAL")) {
+            epl = "select t.symbol, t.price, q.bid from Tick as t unidirectional, Quote#unique(symbol) as q where t.symbol = q.symbol";
+        } else {
+            epl = "select t.symbol, t.price, q.bid from Tick#length(1000) as t, Quote#length(1000) as q where t.symbol = q.symbol";
+        }
+        listener = BenchmarkEngineUtil.createWithListener(epService, epl);
+
+        ticks = BenchmarkEngineUtil.makeTicks(NUM_EVENTS, NUM_SYMBOLS);
+        quotes = new SupportQuote[NUM_EVENTS];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            quotes[i] = new SupportQuote(BenchmarkEngineUtil.SYMBOLS[(i * 31) % NUM_SYMBOLS], i);
+        }
+        for (int i = 0; i < NUM_SYMBOLS; i++) {
+            runtime.sendEvent(new SupportQuote(BenchmarkEngineUtil.SYMBOLS[i], i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public long sendEvent() {
+        runtime.sendEvent(ticks[index]);
+        runtime.sendEvent(quotes[index]);
+        index = (index + 1) & (NUM_EVENTS - 1);
+        return listener.getCount();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.filter;
+
+import com.espertech.esper.benchmark.support.BenchmarkEngineUtil;
+import com.espertech.esper.benchmark.support.SupportTick;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.filter.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures matching of a single event against one filter parameter index holding a given number of filter constants.
+ * <p>
+ * Indexes are obtained from {@link IndexFactory} so that the benchmark follows whatever index implementation the engine
+ * would choose for the operator.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FilterParamIndexBenchmark {
+    private static final int NUM_EVENTS = 1024;
+
+    @Param({"EQUAL", "NOT_EQUAL", "GREATER", "RANGE_CLOSED"})
+    public String filterOperator;
+
+    @Param({"10", "1000"})
+    public int numConstants;
+
+    private EPServiceProvider epService;
+    private FilterParamIndexBase index;
+    private EventBean[] events;
+    private List<FilterHandle> matches;
+    private int eventIndex;
+
+    @Setup
+    public void setup() {
+        epService = BenchmarkEngineUtil.allocate(BenchmarkEngineUtil.getConfiguration());
+        EPServiceProviderSPI spi = (EPServiceProviderSPI) epService;
+        EventType eventType = spi.getEventAdapterService().getExistsTypeByName("Tick");
+
+        FilterOperator operator = FilterOperator.valueOf(filterOperator);
+        boolean isString = operator == FilterOperator.EQUAL || operator == FilterOperator.NOT_EQUAL;
+        String propertyName = isString ? "symbol" : "price";
+        FilterSpecLookupable lookupable = new FilterSpecLookupable(propertyName, eventType.getGetter(propertyName), eventType.getPropertyType(propertyName), false);
+        index = IndexFactory.createIndex(lookupable, new FilterServiceGranularLockFactoryReentrant(), operator);
+
+        for (int i = 0; i < numConstants; i++) {
+            FilterHandleSetNode node = new FilterHandleSetNode(new FilterServiceGranularLockFactoryReentrant().obtainNew());
+            final int statementId = i;
+            node.add(new FilterHandle() {
+                public int getStatementId() {
+                    return statementId;
+                }
+            });
+            Object constant;
+            if (isString) {
+                constant = BenchmarkEngineUtil.SYMBOLS[i % BenchmarkEngineUtil.SYMBOLS.length];
+            } else if (operator == FilterOperator.RANGE_CLOSED) {
+                constant = new DoubleRange((double) i, (double) i + 10);
+            } else {
+                constant = (double) i;
+            }
+            index.put(constant, node);
+        }
+
+        SupportTick[] ticks = BenchmarkEngineUtil.makeTicks(NUM_EVENTS, Math.min(numConstants, BenchmarkEngineUtil.SYMBOLS.length));
+        events = new EventBean[NUM_EVENTS];
+        for (int i = 0; i < ticks.length; i++) {
+            events[i] = spi.getEventAdapterService().adapterForBean(ticks[i]);
+        }
+        matches = new ArrayList<FilterHandle>();
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public int matchEvent() {
+        EventBean theEvent = events[eventIndex];
+        eventIndex = (eventIndex + 1) & (NUM_EVENTS - 1);
+        matches.clear();
+        index.matchEvent(theEvent, matches);
+        return matches.size();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.filter;
+
+import com.espertech.esper.benchmark.support.BenchmarkEngineUtil;
+import com.espertech.esper.benchmark.support.SupportCountingListener;
+import com.espertech.esper.benchmark.support.SupportTick;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures end-to-end filter evaluation with many filtered statements on the same event type,
+ * exercising the filter index tree built by the filter service.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FilterServiceBenchmark {
+    private static final int NUM_EVENTS = 1024;
+
+    @Param({"100", "1000"})
+    public int numStatements;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private SupportCountingListener listener;
+    private SupportTick[] ticks;
+    private int index;
+
+    @Setup
+    public void setup() {
+        epService = BenchmarkEngineUtil.allocate(BenchmarkEngineUtil.getConfiguration());
+        runtime = epService.getEPRuntime();
+        listener = new SupportCountingListener();
+        for (int i = 0; i < numStatements; i++) {
+            String symbol = BenchmarkEngineUtil.SYMBOLS[i % BenchmarkEngineUtil.SYMBOLS.length];
+            epService.getEPAdministrator().createEPL("select * from Tick(symbol='" + symbol + "', price between " + i + " and " + (i + 100) + ", volume > 50)").addListener(listener);
+        }
+        ticks = BenchmarkEngineUtil.makeTicks(NUM_EVENTS, Math.min(numStatements, BenchmarkEngineUtil.SYMBOLS.length));
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public long sendEvent() {
+        runtime.sendEvent(ticks[index]);
+        index = (index + 1) & (NUM_EVENTS - 1);
+        return listener.getCount();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.rowregex;
+
+import com.espertech.esper.benchmark.support.BenchmarkEngineUtil;
+import com.espertech.esper.benchmark.support.SupportCountingListener;
+import com.espertech.esper.benchmark.support.SupportTick;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a partitioned match-recognize statement detecting a rising price sequence per symbol.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MatchRecognizeBenchmark {
+
+    @Param({"10", "10000"})
+    public int numPartitions;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private SupportCountingListener listener;
+    private SupportTick[] ticks;
+    private int index;
+
+    @Setup
+    public void setup() {
+        epService = BenchmarkEngineUtil.allocate(BenchmarkEngineUtil.getConfiguration());
+        runtime = epService.getEPRuntime();
+        String epl = "select * from Tick match_recognize (" +
+                "partition by symbol " +
+                "measures A.price as a, B.price as b, C.price as c " +
+                "pattern (A B C) " +
+                "define B as B.price > A.price, C as C.price > B.price)";
+        listener = BenchmarkEngineUtil.createWithListener(epService, epl);
+        ticks = BenchmarkEngineUtil.makeTicks(Math.max(numPartitions, 1024) * 4, numPartitions);
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public long sendEvent() {
+        runtime.sendEvent(ticks[index]);
+        if (++index == ticks.length) {
+            index = 0;
+        }
+        return listener.getCount();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.runtime;
+
+import com.espertech.esper.avro.core.AvroConstant;
+import com.espertech.esper.benchmark.support.BenchmarkEngineUtil;
+import com.espertech.esper.benchmark.support.SupportCountingListener;
+import com.espertech.esper.benchmark.support.SupportTick;
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.ConfigurationEventTypeAvro;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.avro.SchemaBuilder.record;
+
+/**
+ * Measures {@link EPRuntime#sendEvent} throughput for each event representation against a single filtered statement.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RuntimeSendEventBenchmark {
+    private static final int NUM_EVENTS = 1024;
+
+    @Param({"BEAN", "MAP", "OBJECTARRAY", "AVRO"})
+    public String representation;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private SupportCountingListener listener;
+    private Object[] payloads;
+    private int index;
+
+    @Setup
+    public void setup() {
+        Configuration configuration = BenchmarkEngineUtil.getConfiguration();
+        Map<String, Object> mapType = new HashMap<String, Object>();
+        mapType.put("symbol", String.class);
+        mapType.put("price", double.class);
+        mapType.put("volume", long.class);
+        configuration.addEventType("TickMap", mapType);
+        configuration.addEventType("TickOA", new String[]{"symbol", "price", "volume"}, new Object[]{String.class, double.class, long.class});
+        Schema schema = record("TickAvro").fields()
+                .name("symbol").type().stringBuilder().prop(AvroConstant.PROP_JAVA_STRING_KEY, AvroConstant.PROP_JAVA_STRING_VALUE).endString().noDefault()
+                .requiredDouble("price")
+                .requiredLong("volume")
+                .endRecord();
+        configuration.addEventTypeAvro("TickAvro", new ConfigurationEventTypeAvro(schema));
+
+        epService = BenchmarkEngineUtil.allocate(configuration);
+        runtime = epService.getEPRuntime();
+
+        String typeName = getTypeName();
+        listener = BenchmarkEngineUtil.createWithListener(epService, "select symbol, price from " + typeName + "(symbol='S1', price > 500)");
+
+        SupportTick[] ticks = BenchmarkEngineUtil.makeTicks(NUM_EVENTS, 10);
+        payloads = new Object[NUM_EVENTS];
+        for (int i = 0; i < ticks.length; i++) {
+            SupportTick tick = ticks[i];
+            if (representation.equals("BEAN")) {
+                payloads[i] = tick;
+            } else if (representation.equals("MAP")) {
+                Map<String, Object> map = new HashMap<String, Object>();
+                map.put("symbol", tick.getSymbol());
+                map.put("price", tick.getPrice());
+                map.put("volume", tick.getVolume());
+                payloads[i] = map;
+            } else if (representation.equals("OBJECTARRAY")) {
+                payloads[i] = new Object[]{tick.getSymbol(), tick.getPrice(), tick.getVolume()};
+            } else {
+                GenericData.Record avroRecord = new GenericData.Record(schema);
+                avroRecord.put("symbol", tick.getSymbol());
+                avroRecord.put("price", tick.getPrice());
+                avroRecord.put("volume", tick.getVolume());
+                payloads[i] = avroRecord;
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public long sendEvent() {
+        Object payload = payloads[index];
+        index = (index + 1) & (NUM_EVENTS - 1);
+        if (representation.equals("BEAN")) {
+            runtime.sendEvent(payload);
+        } else if (representation.equals("MAP")) {
+            runtime.sendEvent((Map) payload, "TickMap");
+        } else if (representation.equals("OBJECTARRAY")) {
+            runtime.sendEvent((Object[]) payload, "TickOA");
+        } else {
+            runtime.sendEventAvro(payload, "TickAvro");
+        }
+        return listener.getCount();
+    }
+
+    private String getTypeName() {
+        if (representation.equals("BEAN")) {
+            return "Tick";
+        } else if (representation.equals("MAP")) {
+            return "TickMap";
+        } else if (representation.equals("OBJECTARRAY")) {
+            return "TickOA";
+        }
+        return "TickAvro";
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.schedule;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.schedule.ScheduleHandle;
+import com.espertech.esper.schedule.SchedulingServiceProvider;
+import com.espertech.esper.schedule.SchedulingServiceSPI;
+import com.espertech.esper.timer.TimeSourceServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the scheduling service under a steady state of outstanding schedules: each operation advances time
+ * by one millisecond, evaluates and re-adds the handles that fired, similar to a large number of time windows.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SchedulingServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    public int numHandles;
+
+    @Param({"SORTED", "TIMINGWHEEL"})
+    public ConfigurationEngineDefaults.SchedulingServiceProfile profile;
+
+    private SchedulingServiceSPI service;
+    private ArrayDeque<ScheduleHandle> fired;
+    private ScheduleHandle[] handles;
+    private long time;
+
+    @Setup
+    public void setup() {
+        service = SchedulingServiceProvider.newService(profile, new TimeSourceServiceImpl());
+        service.setTime(0);
+        fired = new ArrayDeque<ScheduleHandle>();
+        handles = new ScheduleHandle[numHandles];
+        for (int i = 0; i < numHandles; i++) {
+            final int statementId = i;
+            handles[i] = new ScheduleHandle() {
+                public int getStatementId() {
+                    return statementId;
+                }
+
+                public int getAgentInstanceId() {
+                    return -1;
+                }
+            };
+            service.add(1 + (i % 1000), handles[i], i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.destroy();
+    }
+
+    @Benchmark
+    public int evaluate() {
+        time++;
+        service.setTime(time);
+        service.evaluate(fired);
+        int count = fired.size();
+        while (!fired.isEmpty()) {
+            ScheduleHandle handle = fired.poll();
+            service.add(1000, handle, handle.getStatementId());
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int addRemove() {
+        ScheduleHandle handle = handles[(int) (time++ % numHandles)];
+        service.remove(handle, handle.getStatementId());
+        service.add(1 + (time % 1000), handle, handle.getStatementId());
+        return 0;
+    }
+}
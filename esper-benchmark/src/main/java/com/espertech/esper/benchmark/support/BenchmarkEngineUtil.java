@@ -0,0 +1,96 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.support;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+
+import java.util.UUID;
+
+/**
+ * Engine setup shared by the benchmark suites.
+ * <p>
+ * Each benchmark trial obtains its own engine instance with the internal timer disabled so that
+ * time advances only through {@link CurrentTimeEvent} and results do not depend on wall-clock time.
+ */
+public class BenchmarkEngineUtil {
+    /**
+     * Symbols used for generated ticks.
+     */
+    public static final String[] SYMBOLS = makeSymbols(100000);
+
+    /**
+     * Returns a configuration with external timer and the tick event type registered.
+     *
+     * @return configuration
+     */
+    public static Configuration getConfiguration() {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.getEngineDefaults().getLogging().setEnableExecutionDebug(false);
+        configuration.getEngineDefaults().getLogging().setEnableTimerDebug(false);
+        configuration.addEventType("Tick", SupportTick.class);
+        configuration.addEventType("Quote", SupportQuote.class);
+        return configuration;
+    }
+
+    /**
+     * Allocates a new engine instance under a unique URI and sets time to zero.
+     *
+     * @param configuration configuration
+     * @return engine
+     */
+    public static EPServiceProvider allocate(Configuration configuration) {
+        EPServiceProvider epService = EPServiceProviderManager.getProvider("benchmark-" + UUID.randomUUID().toString(), configuration);
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        return epService;
+    }
+
+    /**
+     * Creates a statement and attaches a counting listener.
+     *
+     * @param epService engine
+     * @param epl       statement text
+     * @return listener
+     */
+    public static SupportCountingListener createWithListener(EPServiceProvider epService, String epl) {
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        SupportCountingListener listener = new SupportCountingListener();
+        stmt.addListener(listener);
+        return listener;
+    }
+
+    /**
+     * Pre-generates ticks cycling through the given number of symbols.
+     *
+     * @param count       number of ticks
+     * @param numSymbols  number of distinct symbols
+     * @return ticks
+     */
+    public static SupportTick[] makeTicks(int count, int numSymbols) {
+        SupportTick[] ticks = new SupportTick[count];
+        for (int i = 0; i < count; i++) {
+            ticks[i] = new SupportTick(SYMBOLS[i % numSymbols], (i * 7) % 1000, i % 100);
+        }
+        return ticks;
+    }
+
+    private static String[] makeSymbols(int count) {
+        String[] symbols = new String[count];
+        for (int i = 0; i < count; i++) {
+            symbols[i] = "S" + i;
+        }
+        return symbols;
+    }
+}
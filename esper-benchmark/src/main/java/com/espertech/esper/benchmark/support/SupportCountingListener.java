@@ -0,0 +1,31 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.support;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.UpdateListener;
+
+/**
+ * Listener that only counts delivered events so that statement output is not optimized away.
+ */
+public class SupportCountingListener implements UpdateListener {
+    private long count;
+
+    public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+        if (newEvents != null) {
+            count += newEvents.length;
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
@@ -8,22 +8,25 @@
  *  a copy of which has been included with this distribution in the license.txt file.  *
  ***************************************************************************************
  */
-package com.espertech.esper.collection;
+package com.espertech.esper.benchmark.support;
 
-import java.util.ArrayDeque;
+/**
+ * Quote event joined against ticks by the join benchmark.
+ */
+public class SupportQuote {
+    private final String symbol;
+    private final double bid;
+
+    public SupportQuote(String symbol, double bid) {
+        this.symbol = symbol;
+        this.bid = bid;
+    }
 
-public final class TimeWindowIterator extends MixedEventBeanAndCollectionIteratorBase {
-    /**
-     * Ctor.
-     *
-     * @param window is the time-slotted collection
-     */
-    public TimeWindowIterator(ArrayDeque<TimeWindowPair> window) {
-        super(window.iterator());
-        init();
+    public String getSymbol() {
+        return symbol;
     }
 
-    protected Object getValue(Object iteratorKeyValue) {
-        return ((TimeWindowPair) iteratorKeyValue).getEventHolder();
+    public double getBid() {
+        return bid;
     }
 }
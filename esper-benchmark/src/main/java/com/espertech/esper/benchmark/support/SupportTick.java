@@ -8,30 +8,31 @@
  *  a copy of which has been included with this distribution in the license.txt file.  *
  ***************************************************************************************
  */
-package com.espertech.esper.collection;
+package com.espertech.esper.benchmark.support;
 
-public final class TimeWindowPair {
-    private long timestamp;
-    private Object eventHolder;
-
-    public TimeWindowPair(long timestamp, Object eventHolder) {
-        this.timestamp = timestamp;
-        this.eventHolder = eventHolder;
-    }
+/**
+ * Market data tick used as the event class by the benchmark suites.
+ */
+public class SupportTick {
+    private final String symbol;
+    private final double price;
+    private final long volume;
 
-    public long getTimestamp() {
-        return timestamp;
+    public SupportTick(String symbol, double price, long volume) {
+        this.symbol = symbol;
+        this.price = price;
+        this.volume = volume;
     }
 
-    public Object getEventHolder() {
-        return eventHolder;
+    public String getSymbol() {
+        return symbol;
     }
 
-    public void setEventHolder(Object eventHolder) {
-        this.eventHolder = eventHolder;
+    public double getPrice() {
+        return price;
     }
 
-    public void setTimestamp(long timestamp) {
-        this.timestamp = timestamp;
+    public long getVolume() {
+        return volume;
     }
 }
@@ -0,0 +1,72 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.benchmark.view;
+
+import com.espertech.esper.benchmark.support.BenchmarkEngineUtil;
+import com.espertech.esper.benchmark.support.SupportCountingListener;
+import com.espertech.esper.benchmark.support.SupportTick;
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures insert and expiry cost of the data windows in steady state.
+ * <p>
+ * Engine time advances by one millisecond every {@link #EVENTS_PER_MSEC} events so that time-based windows
+ * hold roughly ten thousand events and expire continuously.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DataWindowBenchmark {
+    private static final int NUM_EVENTS = 1024;
+    private static final int EVENTS_PER_MSEC = 10;
+
+    @Param({"#time(1 sec)", "#length(10000)", "#time_batch(1 sec)", "#length_batch(10000)", "#unique(symbol)"})
+    public String window;
+
+    private EPServiceProvider epService;
+    private EPRuntime runtime;
+    private SupportCountingListener listener;
+    private SupportTick[] ticks;
+    private int index;
+    private long count;
+    private long time;
+
+    @Setup
+    public void setup() {
+        epService = BenchmarkEngineUtil.allocate(BenchmarkEngineUtil.getConfiguration());
+        runtime = epService.getEPRuntime();
+        listener = BenchmarkEngineUtil.createWithListener(epService, "select irstream symbol, price from Tick" + window);
+        ticks = BenchmarkEngineUtil.makeTicks(NUM_EVENTS, 1000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        epService.destroy();
+    }
+
+    @Benchmark
+    public long sendEvent() {
+        if (++count % EVENTS_PER_MSEC == 0) {
+            runtime.sendEvent(new CurrentTimeEvent(++time));
+        }
+        runtime.sendEvent(ticks[index]);
+        index = (index + 1) & (NUM_EVENTS - 1);
+        return listener.getCount();
+    }
+}
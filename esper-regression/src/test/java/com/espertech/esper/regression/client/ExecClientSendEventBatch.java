@@ -0,0 +1,187 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderIsolated;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventSender;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class ExecClientSendEventBatch implements RegressionExecution {
+    public void configure(Configuration configuration) throws Exception {
+        configuration.getEngineDefaults().getExecution().setAllowIsolatedService(true);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        epService.getEPAdministrator().getConfiguration().addEventType("SupportBean", SupportBean.class);
+        Map<String, Object> mapType = new HashMap<>();
+        mapType.put("id", String.class);
+        epService.getEPAdministrator().getConfiguration().addEventType("MyMapEvent", mapType);
+
+        runAssertionRuntimeSendEvents(epService);
+        runAssertionInsertIntoOrder(epService);
+        runAssertionEventSender(epService);
+        runAssertionTimerEventInBatch(epService);
+        runAssertionNamedWindowConsumer(epService);
+        runAssertionStatementOrder(epService);
+        runAssertionIsolatedNamedWindowConsumer(epService);
+    }
+
+    private void runAssertionRuntimeSendEvents(EPServiceProvider epService) {
+        String[] fields = "theString,intPrimitive".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select * from SupportBean");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvents(new Object[]{new SupportBean("E1", 1), null, new SupportBean("E2", 2), new SupportBean("E3", 3)});
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), fields, new Object[][]{{"E1", 1}, {"E2", 2}, {"E3", 3}});
+        listener.reset();
+
+        epService.getEPRuntime().sendEvents(new Object[0]);
+        assertFalse(listener.isInvoked());
+
+        stmt.destroy();
+    }
+
+    private void runAssertionInsertIntoOrder(EPServiceProvider epService) {
+        String[] fields = "theString,intPrimitive".split(",");
+        epService.getEPAdministrator().createEPL("insert into SupportBeanCopy select * from SupportBean");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select * from SupportBeanCopy");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+        EPStatement stmtWindow = epService.getEPAdministrator().createEPL("select sum(intPrimitive) as total from SupportBeanCopy#length(2)");
+        SupportUpdateListener listenerWindow = new SupportUpdateListener();
+        stmtWindow.addListener(listenerWindow);
+
+        epService.getEPRuntime().sendEvents(new Object[]{new SupportBean("E1", 10), new SupportBean("E2", 20), new SupportBean("E3", 30)});
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), fields, new Object[][]{{"E1", 10}, {"E2", 20}, {"E3", 30}});
+        EPAssertionUtil.assertPropsPerRow(listenerWindow.getNewDataListFlattened(), new String[]{"total"}, new Object[][]{{10}, {30}, {50}});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionEventSender(EPServiceProvider epService) {
+        EPStatement stmtBean = epService.getEPAdministrator().createEPL("select theString from SupportBean");
+        SupportUpdateListener listenerBean = new SupportUpdateListener();
+        stmtBean.addListener(listenerBean);
+        EPStatement stmtMap = epService.getEPAdministrator().createEPL("select id from MyMapEvent");
+        SupportUpdateListener listenerMap = new SupportUpdateListener();
+        stmtMap.addListener(listenerMap);
+
+        EventSender senderBean = epService.getEPRuntime().getEventSender("SupportBean");
+        senderBean.sendEvents(new Object[]{new SupportBean("E1", 1), new SupportBean("E2", 2)});
+        EPAssertionUtil.assertPropsPerRow(listenerBean.getNewDataListFlattened(), new String[]{"theString"}, new Object[][]{{"E1"}, {"E2"}});
+
+        EventSender senderMap = epService.getEPRuntime().getEventSender("MyMapEvent");
+        senderMap.sendEvents(new Object[]{makeMap("M1"), makeMap("M2"), makeMap("M3")});
+        EPAssertionUtil.assertPropsPerRow(listenerMap.getNewDataListFlattened(), new String[]{"id"}, new Object[][]{{"M1"}, {"M2"}, {"M3"}});
+        listenerMap.reset();
+
+        try {
+            senderMap.sendEvents(new Object[]{makeMap("M4"), new SupportBean()});
+            fail();
+        } catch (EPException ex) {
+            assertEquals("Unexpected event object of type " + SupportBean.class.getName() + ", expected " + Map.class.getName(), ex.getMessage());
+        }
+        assertFalse(listenerMap.isInvoked());
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionTimerEventInBatch(EPServiceProvider epService) {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select count(*) as cnt from SupportBean#time(10 sec)");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvents(new Object[]{new SupportBean("E1", 1), new CurrentTimeEvent(5000), new SupportBean("E2", 2), new CurrentTimeEvent(10000)});
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), new String[]{"cnt"}, new Object[][]{{1L}, {2L}, {1L}});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionNamedWindowConsumer(EPServiceProvider epService) {
+        epService.getEPAdministrator().createEPL("create window MyBatchWindow#keepall as SupportBean");
+        epService.getEPAdministrator().createEPL("insert into MyBatchWindow select * from SupportBean");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select theString, count(*) as cnt from MyBatchWindow");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        // consumers see the changes of each event of the batch before the next event is processed
+        epService.getEPRuntime().sendEvents(new Object[]{new SupportBean("E1", 1), new SupportBean("E2", 2), new SupportBean("E3", 3)});
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "theString,cnt".split(","), new Object[][]{{"E1", 1L}, {"E2", 2L}, {"E3", 3L}});
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionStatementOrder(EPServiceProvider epService) {
+        epService.getEPAdministrator().createEPL("create variable int myBatchVar = 0");
+        epService.getEPAdministrator().createEPL("on SupportBean set myBatchVar = intPrimitive");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select theString, myBatchVar from SupportBean");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        // each event is processed by all statements before the next event, same as when sending events one by one
+        for (int i = 1; i <= 3; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + i, i));
+        }
+        EventBean[] expected = listener.getNewDataListFlattened();
+        listener.reset();
+        epService.getEPRuntime().setVariableValue("myBatchVar", 0);
+
+        epService.getEPRuntime().sendEvents(new Object[]{new SupportBean("E1", 1), new SupportBean("E2", 2), new SupportBean("E3", 3)});
+        EventBean[] received = listener.getNewDataListFlattened();
+        assertEquals(3, received.length);
+        for (int i = 0; i < received.length; i++) {
+            EPAssertionUtil.assertProps(received[i], "theString,myBatchVar".split(","), new Object[]{expected[i].get("theString"), expected[i].get("myBatchVar")});
+        }
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionIsolatedNamedWindowConsumer(EPServiceProvider epService) {
+        EPStatement stmtCreate = epService.getEPAdministrator().createEPL("create window MyIsolatedBatchWindow#keepall as SupportBean");
+        EPStatement stmtInsert = epService.getEPAdministrator().createEPL("insert into MyIsolatedBatchWindow select * from SupportBean");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select theString, count(*) as cnt from MyIsolatedBatchWindow");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+        EPServiceProviderIsolated isolated = epService.getEPServiceIsolated("BatchIsolated");
+        isolated.getEPAdministrator().addStatement(new EPStatement[]{stmtCreate, stmtInsert});
+
+        // consumers see the changes of each event of the batch before the next event is processed
+        isolated.getEPRuntime().getEventSender("SupportBean").sendEvents(new Object[]{new SupportBean("E1", 1), new SupportBean("E2", 2), new SupportBean("E3", 3)});
+        EPAssertionUtil.assertPropsPerRow(listener.getNewDataListFlattened(), "theString,cnt".split(","), new Object[][]{{"E1", 1L}, {"E2", 2L}, {"E3", 3L}});
+
+        isolated.destroy();
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private static Map<String, Object> makeMap(String id) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", id);
+        return map;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+import com.espertech.esper.util.SnapshotValueSerde;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class ExecClientSnapshot implements RegressionExecution {
+    private final static String EPL =
+            "create variable long myCounter = 0;\n" +
+            "create variable string myLabel;\n" +
+            "create constant variable int myConstant = 10;\n" +
+            "create objectarray schema MyOAEvent(id string, amount double, total java.math.BigDecimal, codes int[]);\n" +
+            "create map schema MyMapEvent(key string, value long);\n" +
+            "create window MyOAWindow#length(3) as MyOAEvent;\n" +
+            "create window MyMapWindow#keepall as MyMapEvent;\n" +
+            "create table MyTable(key string primary key, value int);\n" +
+            "insert into MyOAWindow select * from MyOAEvent;\n" +
+            "insert into MyMapWindow select * from MyMapEvent;\n" +
+            "on SupportBean merge MyTable where key = theString when not matched then insert select theString as key, intPrimitive as value;\n";
+
+    public void run(EPServiceProvider epService) throws Exception {
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean.class);
+        runAssertionWriteRestore(epService);
+        runAssertionFormatVersion(epService);
+        runAssertionInvalid(epService);
+    }
+
+    private void runAssertionWriteRestore(EPServiceProvider epService) throws Exception {
+        deploy(epService);
+        epService.getEPRuntime().setVariableValue("myCounter", 100L);
+        epService.getEPRuntime().setVariableValue("myLabel", "snapshot-\u00e9");
+        for (int i = 0; i < 4; i++) {
+            epService.getEPRuntime().sendEvent(new Object[]{"E" + i, i * 1.5d, new BigDecimal("1.0" + i), new int[]{i, i + 1}}, "MyOAEvent");
+        }
+        epService.getEPRuntime().sendEvent(Collections.<String, Object>singletonMap("key", "K1"), "MyMapEvent");
+        epService.getEPRuntime().sendEvent(new SupportBean("T1", 1));
+        epService.getEPRuntime().sendEvent(new SupportBean("T2", 2));
+
+        File file = File.createTempFile("esper-snapshot", ".bin");
+        try {
+            epService.getEPAdministrator().getSnapshotAdmin().writeSnapshot(file);
+            assertTrue(file.length() > 0);
+
+            EPServiceProvider restored = EPServiceProviderManager.getProvider(this.getClass().getName() + "_restore", SupportConfigFactory.getConfiguration());
+            try {
+                restored.getEPAdministrator().getConfiguration().addEventType(SupportBean.class);
+                deploy(restored);
+                SupportUpdateListener listener = new SupportUpdateListener();
+                restored.getEPAdministrator().createEPL("select * from MyOAWindow").addListener(listener);
+
+                restored.getEPAdministrator().getSnapshotAdmin().restoreSnapshot(file);
+
+                assertEquals(100L, restored.getEPRuntime().getVariableValue("myCounter"));
+                assertEquals("snapshot-\u00e9", restored.getEPRuntime().getVariableValue("myLabel"));
+                assertEquals(3, listener.getNewDataListFlattened().length);
+
+                EPAssertionUtil.assertPropsPerRow(restored.getEPRuntime().executeQuery("select * from MyOAWindow").getArray(), "id,amount,total".split(","),
+                        new Object[][]{{"E1", 1.5d, new BigDecimal("1.01")}, {"E2", 3d, new BigDecimal("1.02")}, {"E3", 4.5d, new BigDecimal("1.03")}});
+                assertArrayEquals(new int[]{3, 4}, (int[]) restored.getEPRuntime().executeQuery("select codes from MyOAWindow where id = 'E3'").getArray()[0].get("codes"));
+                EPAssertionUtil.assertPropsPerRow(restored.getEPRuntime().executeQuery("select * from MyMapWindow").getArray(), "key,value".split(","),
+                        new Object[][]{{"K1", null}});
+                EPAssertionUtil.assertPropsPerRowAnyOrder(restored.getEPRuntime().executeQuery("select * from MyTable").getArray(), "key,value".split(","),
+                        new Object[][]{{"T1", 1}, {"T2", 2}});
+
+                // restored state continues to process events
+                restored.getEPRuntime().sendEvent(new Object[]{"E4", 6d, null, null}, "MyOAEvent");
+                EPAssertionUtil.assertPropsPerRow(restored.getEPRuntime().executeQuery("select id from MyOAWindow").getArray(), "id".split(","),
+                        new Object[][]{{"E2"}, {"E3"}, {"E4"}});
+                restored.getEPRuntime().sendEvent(new SupportBean("T1", 5));
+                assertEquals(1, restored.getEPRuntime().executeQuery("select * from MyTable where key = 'T1'").getArray()[0].get("value"));
+
+                // restore into an engine that does not declare the same state
+                restored.getEPAdministrator().destroyAllStatements();
+                try {
+                    restored.getEPAdministrator().getSnapshotAdmin().restoreSnapshot(file);
+                    fail();
+                } catch (EPException ex) {
+                    assertEquals("Snapshot named window 'MyMapWindow' is not a declared named window without context", ex.getMessage());
+                }
+            } finally {
+                restored.destroy();
+            }
+        } finally {
+            file.delete();
+        }
+
+        epService.getEPAdministrator().destroyAllStatements();
+        epService.getEPAdministrator().getConfiguration().removeEventType("MyOAEvent", true);
+        epService.getEPAdministrator().getConfiguration().removeEventType("MyMapEvent", true);
+    }
+
+    private void runAssertionFormatVersion(EPServiceProvider epService) throws Exception {
+        epService.getEPAdministrator().createEPL("create variable long myVersionVar = 0");
+        File file = File.createTempFile("esper-snapshot", ".bin");
+        try {
+            // version 1 has no write-ahead log segment
+            writeVariableSnapshot(file, 1, 5L);
+            epService.getEPAdministrator().getSnapshotAdmin().restoreSnapshot(file);
+            assertEquals(5L, epService.getEPRuntime().getVariableValue("myVersionVar"));
+
+            writeVariableSnapshot(file, 3, 6L);
+            try {
+                epService.getEPAdministrator().getSnapshotAdmin().restoreSnapshot(file);
+                fail();
+            } catch (IOException ex) {
+                assertEquals("Unsupported snapshot format version 3, expecting version 1 or 2", ex.getMessage());
+            }
+            assertEquals(5L, epService.getEPRuntime().getVariableValue("myVersionVar"));
+        } finally {
+            file.delete();
+        }
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private static void writeVariableSnapshot(File file, int version, long value) throws IOException {
+        DataOutputStream output = new DataOutputStream(new FileOutputStream(file));
+        try {
+            output.writeInt(0x45535043);
+            output.writeInt(version);
+            if (version != 1) {
+                output.writeLong(-1);
+            }
+            output.writeByte(1);
+            SnapshotValueSerde.writeString("myVersionVar", output);
+            SnapshotValueSerde.write(value, output);
+            output.writeByte(0);
+        } finally {
+            output.close();
+        }
+    }
+
+    private void runAssertionInvalid(EPServiceProvider epService) throws Exception {
+        File file = File.createTempFile("esper-snapshot", ".bin");
+        try {
+            epService.getEPAdministrator().createEPL("create window MyBeanWindow#keepall as SupportBean");
+            tryInvalidWrite(epService, file, "Snapshot of named window 'MyBeanWindow' is only supported for map and object-array event types");
+            epService.getEPAdministrator().destroyAllStatements();
+
+            epService.getEPAdministrator().createEPL("create table MyAggTable(total sum(int))");
+            tryInvalidWrite(epService, file, "Snapshot of table 'MyAggTable' is not supported as column 'total' is an aggregation");
+            epService.getEPAdministrator().destroyAllStatements();
+
+            try {
+                File notSnapshot = File.createTempFile("esper-snapshot", ".txt");
+                notSnapshot.deleteOnExit();
+                epService.getEPAdministrator().getSnapshotAdmin().restoreSnapshot(notSnapshot);
+                fail();
+            } catch (IOException ex) {
+                // expected
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void tryInvalidWrite(EPServiceProvider epService, File file, String message) throws IOException {
+        try {
+            epService.getEPAdministrator().getSnapshotAdmin().writeSnapshot(file);
+            fail();
+        } catch (EPException ex) {
+            assertEquals(message, ex.getMessage());
+        }
+    }
+
+    private static void deploy(EPServiceProvider epService) throws Exception {
+        epService.getEPAdministrator().getDeploymentAdmin().parseDeploy(EPL);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.UpdateListener;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExecClientThreadedConfigRouteSharded implements RegressionExecution {
+    private final static int NUM_EVENTS = 1000;
+    private final static int NUM_STATEMENTS = 8;
+    private final static int NUM_KEYS = 20;
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.getEngineDefaults().getThreading().setThreadPoolRouteExec(true);
+        configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecNumThreads(4);
+        configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecSharded(true);
+        configuration.addEventType("SupportBean", SupportBean.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionStatementOrdering(epService);
+        runAssertionHashContextOrdering(epService);
+    }
+
+    private void runAssertionStatementOrdering(EPServiceProvider epService) throws Exception {
+        RecordingListener[] listeners = new RecordingListener[NUM_STATEMENTS];
+        for (int i = 0; i < NUM_STATEMENTS; i++) {
+            EPStatement stmt = epService.getEPAdministrator().createEPL("select intPrimitive from SupportBean");
+            listeners[i] = new RecordingListener("intPrimitive");
+            stmt.addListener(listeners[i]);
+        }
+
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + i, i));
+        }
+
+        Set<String> threadsAllStatements = new HashSet<>();
+        for (RecordingListener listener : listeners) {
+            listener.waitForCount(NUM_EVENTS);
+            List<Object> values = listener.getValues();
+            for (int i = 0; i < NUM_EVENTS; i++) {
+                assertEquals(i, values.get(i));
+            }
+            // each statement is pinned to a single thread
+            assertEquals(1, listener.getThreads().size());
+            threadsAllStatements.addAll(listener.getThreads());
+        }
+        assertTrue(threadsAllStatements.size() > 1);
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionHashContextOrdering(EPServiceProvider epService) throws Exception {
+        epService.getEPAdministrator().createEPL("create context HashCtx coalesce by consistent_hash_crc32(theString) from SupportBean granularity 16 preallocate");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("context HashCtx select theString, count(*) as cnt from SupportBean group by theString");
+        RecordingListener listener = new RecordingListener("theString", "cnt");
+        stmt.addListener(listener);
+
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("K" + (i % NUM_KEYS), i));
+        }
+
+        listener.waitForCount(NUM_EVENTS);
+        Map<Object, Long> lastCountPerKey = new HashMap<>();
+        for (Object value : listener.getValues()) {
+            Object[] row = (Object[]) value;
+            Long last = lastCountPerKey.get(row[0]);
+            long expected = last == null ? 1 : last + 1;
+            assertEquals(expected, row[1]);
+            lastCountPerKey.put(row[0], expected);
+        }
+        assertEquals(NUM_KEYS, lastCountPerKey.size());
+        // context partitions of the same statement are spread across threads
+        assertTrue(listener.getThreads().size() > 1);
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private static class RecordingListener implements UpdateListener {
+        private final String[] properties;
+        private final List<Object> values = new ArrayList<>();
+        private final Set<String> threads = new HashSet<>();
+
+        RecordingListener(String... properties) {
+            this.properties = properties;
+        }
+
+        public synchronized void update(EventBean[] newEvents, EventBean[] oldEvents) {
+            threads.add(Thread.currentThread().getName());
+            for (EventBean theEvent : newEvents) {
+                if (properties.length == 1) {
+                    values.add(theEvent.get(properties[0]));
+                } else {
+                    Object[] row = new Object[properties.length];
+                    for (int i = 0; i < properties.length; i++) {
+                        row[i] = theEvent.get(properties[i]);
+                    }
+                    values.add(row);
+                }
+            }
+        }
+
+        synchronized List<Object> getValues() {
+            return new ArrayList<>(values);
+        }
+
+        synchronized Set<String> getThreads() {
+            return new HashSet<>(threads);
+        }
+
+        void waitForCount(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10000;
+            while (System.currentTimeMillis() < deadline) {
+                synchronized (this) {
+                    if (values.size() >= count) {
+                        return;
+                    }
+                }
+                Thread.sleep(10);
+            }
+            synchronized (this) {
+                assertEquals(count, values.size());
+            }
+        }
+    }
+}
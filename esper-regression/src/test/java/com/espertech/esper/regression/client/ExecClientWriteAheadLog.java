@@ -0,0 +1,359 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.UpdateListener;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.core.service.EPRuntimeSPI;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.espertech.esper.supportregression.util.SupportMessageAssertUtil.tryInvalid;
+import static org.junit.Assert.*;
+
+public class ExecClientWriteAheadLog implements RegressionExecution {
+    private final static String EPL =
+            "create variable long myCounter = 0;\n" +
+            "create objectarray schema MyOAEvent(id string, amount double);\n" +
+            "create map schema MyMapEvent(key string, value long);\n" +
+            "create window MyOAWindow#length(1) as MyOAEvent;\n" +
+            "create window MyMapWindow#keepall as MyMapEvent;\n" +
+            "insert into MyOAWindow select * from MyOAEvent;\n" +
+            "insert into MyMapWindow select * from MyMapEvent;\n" +
+            "on MyMapEvent set myCounter = myCounter + value;\n";
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionSnapshotReplay();
+        runAssertionReplayWithoutSnapshot();
+        runAssertionTimedForce();
+        runAssertionSendDuringReplay();
+        runAssertionCorruptRecord();
+        runAssertionConcurrentAppend();
+        runAssertionInvalid();
+    }
+
+    private void runAssertionSnapshotReplay() throws Exception {
+        File directory = makeDirectory();
+        File snapshot = new File(directory, "snapshot.bin");
+        try {
+            EPServiceProvider engine = makeEngine("_snapshot_1", directory);
+            engine.getEPRuntime().sendEvent(new CurrentTimeEvent(1000));
+            engine.getEPRuntime().sendEvent(new Object[]{"E1", 1d}, "MyOAEvent");
+            engine.getEPRuntime().sendEvent(makeMapEvent("K1", 10L), "MyMapEvent");
+            engine.getEPAdministrator().getSnapshotAdmin().writeSnapshot(snapshot);
+
+            // events after the snapshot are only in the log
+            engine.getEPRuntime().sendEvent(new CurrentTimeEvent(5000));
+            engine.getEPRuntime().sendEvent(new Object[]{"E2", 2d}, "MyOAEvent");
+            engine.getEPRuntime().sendEvent(makeMapEvent("K2", 20L), "MyMapEvent");
+            engine.getEPRuntime().sendEvent(new CurrentTimeEvent(11500));
+            engine.destroy();
+
+            EPServiceProvider restored = makeEngine("_snapshot_2", directory);
+            try {
+                // the snapshot does not hold engine time, restored events arrive at the time of restore
+                restored.getEPRuntime().sendEvent(new CurrentTimeEvent(1000));
+                restored.getEPAdministrator().getSnapshotAdmin().restoreSnapshot(snapshot);
+
+                assertEquals(11500L, restored.getEPRuntime().getCurrentTime());
+                assertEquals(30L, restored.getEPRuntime().getVariableValue("myCounter"));
+                EPAssertionUtil.assertPropsPerRow(restored.getEPRuntime().executeQuery("select id from MyOAWindow").getArray(), "id".split(","),
+                        new Object[][]{{"E2"}});
+                EPAssertionUtil.assertPropsPerRowAnyOrder(restored.getEPRuntime().executeQuery("select * from MyMapWindow").getArray(), "key,value".split(","),
+                        new Object[][]{{"K1", 10L}, {"K2", 20L}});
+            } finally {
+                restored.destroy();
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    private void runAssertionReplayWithoutSnapshot() throws Exception {
+        File directory = makeDirectory();
+        try {
+            EPServiceProvider engine = makeEngine("_replay_1", directory);
+            engine.getEPRuntime().sendEvent(new CurrentTimeEvent(2000));
+            engine.getEPRuntime().sendEvent(new Object[]{"E1", 1d}, "MyOAEvent");
+            engine.getEPRuntime().sendEvent(makeMapEvent("K1", 5L), "MyMapEvent");
+            engine.destroy();
+
+            EPServiceProvider restored = makeEngine("_replay_2", directory);
+            try {
+                restored.getEPAdministrator().getSnapshotAdmin().replayWriteAheadLog();
+
+                assertEquals(2000L, restored.getEPRuntime().getCurrentTime());
+                assertEquals(5L, restored.getEPRuntime().getVariableValue("myCounter"));
+                EPAssertionUtil.assertPropsPerRow(restored.getEPRuntime().executeQuery("select * from MyOAWindow").getArray(), "id,amount".split(","),
+                        new Object[][]{{"E1", 1d}});
+
+                // replayed events are not logged again, new events are
+                restored.getEPRuntime().sendEvent(makeMapEvent("K2", 7L), "MyMapEvent");
+            } finally {
+                restored.destroy();
+            }
+
+            EPServiceProvider again = makeEngine("_replay_3", directory);
+            try {
+                again.getEPAdministrator().getSnapshotAdmin().replayWriteAheadLog();
+                assertEquals(12L, again.getEPRuntime().getVariableValue("myCounter"));
+            } finally {
+                again.destroy();
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    private void runAssertionTimedForce() throws Exception {
+        File directory = makeDirectory();
+        try {
+            EPServiceProvider engine = makeEngine("_timedforce", directory, 10000, 50);
+            try {
+                engine.getEPRuntime().sendEvent(new Object[]{"E1", 1d}, "MyOAEvent");
+                engine.getEPRuntime().sendEvent(new Object[]{"E2", 2d}, "MyOAEvent");
+
+                // no further records arrive, the timer forces the records within the group commit interval
+                long deadline = System.currentTimeMillis() + 5000;
+                while (((EPRuntimeSPI) engine.getEPRuntime()).getWriteAheadLog().getNumUnforced() > 0 && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(10);
+                }
+                assertEquals(0, ((EPRuntimeSPI) engine.getEPRuntime()).getWriteAheadLog().getNumUnforced());
+            } finally {
+                engine.destroy();
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    private void runAssertionSendDuringReplay() throws Exception {
+        File directory = makeDirectory();
+        try {
+            EPServiceProvider engine = makeEngine("_concurrent_1", directory);
+            engine.getEPRuntime().sendEvent(new Object[]{"E1", 1d}, "MyOAEvent");
+            engine.destroy();
+
+            final EPServiceProvider restored = makeEngine("_concurrent_2", directory);
+            try {
+                // another thread sends an event while the replayed event is processed
+                final AtomicReference<Exception> received = new AtomicReference<Exception>();
+                restored.getEPAdministrator().createEPL("select * from MyOAEvent").addListener(new UpdateListener() {
+                    public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+                        Thread sender = new Thread(new Runnable() {
+                            public void run() {
+                                try {
+                                    restored.getEPRuntime().sendEvent(makeMapEvent("K1", 1L), "MyMapEvent");
+                                } catch (Exception ex) {
+                                    received.set(ex);
+                                }
+                            }
+                        });
+                        sender.start();
+                        try {
+                            sender.join();
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                });
+                restored.getEPAdministrator().getSnapshotAdmin().replayWriteAheadLog();
+
+                assertTrue(received.get() instanceof EPException);
+                assertTrue(received.get().getMessage().contains("Events cannot be sent while the write-ahead log is being replayed"));
+                assertEquals(0L, restored.getEPRuntime().getVariableValue("myCounter"));
+                EPAssertionUtil.assertPropsPerRow(restored.getEPRuntime().executeQuery("select id from MyOAWindow").getArray(), "id".split(","),
+                        new Object[][]{{"E1"}});
+
+                // after replay other threads send again
+                restored.getEPRuntime().sendEvent(makeMapEvent("K2", 3L), "MyMapEvent");
+                assertEquals(3L, restored.getEPRuntime().getVariableValue("myCounter"));
+            } finally {
+                restored.destroy();
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    private void runAssertionCorruptRecord() throws Exception {
+        File directory = makeDirectory();
+        try {
+            EPServiceProvider engine = makeEngine("_corrupt_1", directory);
+            engine.getEPRuntime().sendEvent(makeMapEvent("K1", 1L), "MyMapEvent");
+            engine.getEPRuntime().sendEvent(makeMapEvent("K2", 2L), "MyMapEvent");
+            engine.getEPRuntime().sendEvent(makeMapEvent("K3", 4L), "MyMapEvent");
+            engine.destroy();
+
+            // change a payload byte of the second record, records are preceded by length and checksum
+            File[] segments = directory.listFiles();
+            assertEquals(1, segments.length);
+            RandomAccessFile segment = new RandomAccessFile(segments[0], "rw");
+            try {
+                segment.seek(4);
+                int lengthFirst = segment.readInt();
+                long position = 4 + 8 + lengthFirst + 8 + 1;
+                segment.seek(position);
+                int value = segment.read();
+                segment.seek(position);
+                segment.write(value ^ 0xff);
+            } finally {
+                segment.close();
+            }
+
+            EPServiceProvider restored = makeEngine("_corrupt_2", directory);
+            try {
+                // replay stops at the corrupt record
+                restored.getEPAdministrator().getSnapshotAdmin().replayWriteAheadLog();
+                assertEquals(1L, restored.getEPRuntime().getVariableValue("myCounter"));
+                EPAssertionUtil.assertPropsPerRow(restored.getEPRuntime().executeQuery("select key from MyMapWindow").getArray(), "key".split(","),
+                        new Object[][]{{"K1"}});
+            } finally {
+                restored.destroy();
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    private void runAssertionConcurrentAppend() throws Exception {
+        File directory = makeDirectory();
+        try {
+            final EPServiceProvider engine = makeEngine("_threads_1", directory);
+            final int numThreads = 4;
+            final int numEvents = 2000;
+            final AtomicReference<Exception> received = new AtomicReference<Exception>();
+            Thread[] threads = new Thread[numThreads];
+            for (int i = 0; i < numThreads; i++) {
+                final String prefix = "T" + i + "_";
+                threads[i] = new Thread(new Runnable() {
+                    public void run() {
+                        try {
+                            for (int j = 0; j < numEvents; j++) {
+                                engine.getEPRuntime().sendEvent(makeMapEvent(prefix + j, 1L), "MyMapEvent");
+                            }
+                        } catch (Exception ex) {
+                            received.set(ex);
+                        }
+                    }
+                });
+                threads[i].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertNull(received.get());
+
+            // the records fill several segments
+            assertTrue(((EPRuntimeSPI) engine.getEPRuntime()).getWriteAheadLog().getSegmentNumber() > 1);
+            engine.destroy();
+
+            EPServiceProvider restored = makeEngine("_threads_2", directory);
+            try {
+                restored.getEPAdministrator().getSnapshotAdmin().replayWriteAheadLog();
+                assertEquals((long) numThreads * numEvents, restored.getEPRuntime().getVariableValue("myCounter"));
+                assertEquals(numThreads * numEvents, restored.getEPRuntime().executeQuery("select * from MyMapWindow").getArray().length);
+            } finally {
+                restored.destroy();
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    private void runAssertionInvalid() throws Exception {
+        File directory = makeDirectory();
+        try {
+            EPServiceProvider engine = makeEngine("_invalid", directory);
+            try {
+                try {
+                    engine.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+                    fail();
+                } catch (EPException ex) {
+                    assertTrue(ex.getMessage().contains("Write-ahead log supports object-array and map events only, received an event of type 'SupportBean'"));
+                }
+
+                // statements that hold state recovery cannot restore
+                String message = "Error starting statement: Write-ahead log recovery restores variables and named window and table rows only and does not support ";
+                tryInvalid(engine, "select count(*) from MyOAEvent", message + "aggregation functions");
+                tryInvalid(engine, "select * from MyOAEvent#time(10 sec)", message + "data windows other than those of named windows");
+                tryInvalid(engine, "create window MyTimeWindow#time(10 sec) as MyOAEvent", message + "named windows with data windows other than keep-all, length, unique and last-event");
+                tryInvalid(engine, "select * from pattern[every MyOAEvent]", message + "patterns");
+                tryInvalid(engine, "select prior(1, id) from MyOAEvent", message + "previous and prior functions");
+                tryInvalid(engine, "select * from MyOAEvent output every 10 events", message + "output rate limiting");
+                tryInvalid(engine, "select (select sum(value) from MyMapWindow) from MyOAEvent", message + "aggregation functions");
+                tryInvalid(engine, "select (select key from MyMapEvent#lastevent) from MyOAEvent", message + "subqueries against streams other than named windows and tables");
+                tryInvalid(engine, "create table MyAggTable(total sum(long))", message + "tables with aggregation columns");
+
+                // statements that only read or change restored state
+                engine.getEPAdministrator().createEPL("select (select value from MyMapWindow where key = oa.id) from MyOAEvent as oa");
+                engine.getEPAdministrator().createEPL("on MyOAEvent select count(*) from MyMapWindow");
+            } finally {
+                engine.destroy();
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    private EPServiceProvider makeEngine(String suffix, File directory) throws Exception {
+        return makeEngine(suffix, directory, 1000, 100);
+    }
+
+    private EPServiceProvider makeEngine(String suffix, File directory, int groupCommitEvents, long groupCommitMsec) throws Exception {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType(SupportBean.class);
+        configuration.getEngineDefaults().getWriteAheadLog().setDirectory(directory.getAbsolutePath());
+        configuration.getEngineDefaults().getWriteAheadLog().setSegmentSize(64 * 1024);
+        configuration.getEngineDefaults().getWriteAheadLog().setGroupCommitEvents(groupCommitEvents);
+        configuration.getEngineDefaults().getWriteAheadLog().setGroupCommitMsec(groupCommitMsec);
+        EPServiceProvider engine = EPServiceProviderManager.getProvider(this.getClass().getName() + suffix, configuration);
+        engine.getEPAdministrator().getDeploymentAdmin().parseDeploy(EPL);
+        return engine;
+    }
+
+    private static Map<String, Object> makeMapEvent(String key, long value) {
+        Map<String, Object> event = new HashMap<String, Object>();
+        event.put("key", key);
+        event.put("value", value);
+        return event;
+    }
+
+    private static File makeDirectory() throws Exception {
+        File directory = File.createTempFile("esper-wal", "");
+        directory.delete();
+        directory.mkdirs();
+        return directory;
+    }
+
+    private static void deleteDirectory(File directory) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+}
@@ -30,6 +30,14 @@ public class TestSuiteClient extends TestCase {
         RegressionRunner.run(new ExecClientAudit());
     }
 
+    public void testExecClientSnapshot() {
+        RegressionRunner.run(new ExecClientSnapshot());
+    }
+
+    public void testExecClientWriteAheadLog() {
+        RegressionRunner.run(new ExecClientWriteAheadLog());
+    }
+
     public void testExecClientMicrosecondResolution() {
         RegressionRunner.run(new ExecClientMicrosecondResolution());
     }
@@ -138,6 +146,10 @@ public class TestSuiteClient extends TestCase {
         RegressionRunner.run(new ExecClientPriorityAndDropInstructions());
     }
 
+    public void testExecClientSendEventBatch() {
+        RegressionRunner.run(new ExecClientSendEventBatch());
+    }
+
     public void testExecClientSingleRowFunctionPlugIn() {
         RegressionRunner.run(new ExecClientSingleRowFunctionPlugIn());
     }
@@ -190,6 +202,10 @@ public class TestSuiteClient extends TestCase {
         RegressionRunner.run(new ExecClientThreadedConfigRoute());
     }
 
+    public void testExecClientThreadedConfigRouteSharded() {
+        RegressionRunner.run(new ExecClientThreadedConfigRouteSharded());
+    }
+
     public void testExecClientThreadedConfigTimer() {
         RegressionRunner.run(new ExecClientThreadedConfigTimer());
     }
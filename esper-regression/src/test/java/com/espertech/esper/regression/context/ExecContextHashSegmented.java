@@ -29,9 +29,12 @@ import com.espertech.esper.supportregression.context.SupportSelectorByHashCode;
 import com.espertech.esper.supportregression.execution.RegressionExecution;
 import com.espertech.esper.supportregression.util.AgentInstanceAssertionUtil;
 import com.espertech.esper.util.EventRepresentationChoice;
+import com.espertech.esper.util.Serializer;
+import com.espertech.esper.util.SerializerFactory;
 import org.apache.avro.generic.GenericData;
 
 import java.util.*;
+import java.util.zip.CRC32;
 
 import static com.espertech.esper.supportregression.util.SupportMessageAssertUtil.tryInvalid;
 import static org.junit.Assert.*;
@@ -49,6 +52,8 @@ public class ExecContextHashSegmented implements RegressionExecution {
         runAssertionContextPartitionSelection(epService);
         runAssertionHashSegmentedFilter(epService);
         runAssertionHashSegmentedManyArg(epService);
+        runAssertionHashSegmentedManyArgCode(epService);
+        runAssertionHashSegmentedAllAllocated(epService);
         runAssertionHashSegmentedMulti(epService);
         runAssertionHashSegmented(epService);
         runAssertionHashSegmentedBySingleRowFunc(epService);
@@ -222,6 +227,71 @@ public class ExecContextHashSegmented implements RegressionExecution {
         tryHash(epService, "hash_code(theString, intPrimitive)");
     }
 
+    private void runAssertionHashSegmentedManyArgCode(EPServiceProvider epService) throws Exception {
+        epService.getEPAdministrator().createEPL("create context MyCtx as coalesce " +
+                "consistent_hash_crc32(theString, intPrimitive, longPrimitive, doublePrimitive, boolPrimitive) from SupportBean granularity 100000");
+        epService.getEPAdministrator().createEPL("context MyCtx select count(*) from SupportBean");
+
+        SupportBean bean = makeBean("E\u00e9\u4e2d\u0000", -5, 1L << 40);
+        bean.setDoublePrimitive(-1.5d);
+        bean.setBoolPrimitive(true);
+        epService.getEPRuntime().sendEvent(bean);
+
+        // partition assignment must remain the CRC32 of the serialized parameter values
+        Serializer[] serializers = SerializerFactory.getSerializers(new Class[]{String.class, int.class, long.class, double.class, boolean.class});
+        byte[] bytes = SerializerFactory.serialize(serializers, new Object[]{bean.getTheString(), bean.getIntPrimitive(), bean.getLongPrimitive(), bean.getDoublePrimitive(), bean.isBoolPrimitive()});
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        int expected = (int) (crc.getValue() % 100000);
+
+        ContextPartitionCollection partitions = epService.getEPAdministrator().getContextPartitionAdmin().getContextPartitions("MyCtx", ContextPartitionSelectorAll.INSTANCE);
+        assertEquals(1, partitions.getDescriptors().size());
+        ContextPartitionIdentifierHash identifier = (ContextPartitionIdentifierHash) partitions.getDescriptors().values().iterator().next().getIdentifier();
+        assertEquals(expected, identifier.getHash());
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionHashSegmentedAllAllocated(EPServiceProvider epService) {
+        FilterServiceSPI filterSPI = (FilterServiceSPI) ((EPServiceProviderSPI) epService).getFilterService();
+        epService.getEPAdministrator().createEPL("create context MyCtx as coalesce consistent_hash_crc32(theString) from SupportBean granularity 4");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("context MyCtx select theString as c0, count(*) as c1 from SupportBean");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+        assertEquals(1, filterSPI.getFilterCountApprox());
+
+        // allocate each hash code, the context filter remains until all are allocated
+        SupportHashCodeFuncGranularCRC32 codeFunc = new SupportHashCodeFuncGranularCRC32(4);
+        String[] keys = new String[4];
+        int allocated = 0;
+        for (int i = 0; allocated < 4; i++) {
+            String key = "E" + i;
+            int code = codeFunc.codeFor(key);
+            if (keys[code] != null) {
+                continue;
+            }
+            keys[code] = key;
+            allocated++;
+            epService.getEPRuntime().sendEvent(new SupportBean(key, 0));
+            EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "c0,c1".split(","), new Object[]{key, 1L});
+            assertEquals(allocated == 4 ? 4 : allocated + 1, filterSPI.getFilterCountApprox());
+        }
+
+        epService.getEPRuntime().sendEvent(new SupportBean(keys[2], 0));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "c0,c1".split(","), new Object[]{keys[2], 2L});
+
+        // destroying a partition brings back the context filter so the partition can be allocated again
+        epService.getEPAdministrator().getContextPartitionAdmin().destroyContextPartitions("MyCtx", new SupportSelectorByHashCode(2));
+        assertEquals(4, filterSPI.getFilterCountApprox());
+
+        epService.getEPRuntime().sendEvent(new SupportBean(keys[2], 0));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), "c0,c1".split(","), new Object[]{keys[2], 1L});
+        assertEquals(4, filterSPI.getFilterCountApprox());
+
+        epService.getEPAdministrator().destroyAllStatements();
+        assertEquals(0, filterSPI.getFilterCountApprox());
+    }
+
     private void tryHash(EPServiceProvider epService, String hashFunc) {
         String eplCtxCRC32 = "@Name('context') create context Ctx1 as coalesce " +
                 hashFunc + " from SupportBean " +
@@ -61,6 +61,8 @@ public class ExecContextPartitioned implements RegressionExecution {
         runAssertionJoinWhereClauseOnPartitionKey(epService);
         runAssertionNullSingleKey(epService);
         runAssertionNullKeyMultiKey(epService);
+        runAssertionReclaimAged(epService);
+        runAssertionReclaimMax(epService);
         runAssertionInvalid(epService);
     }
 
@@ -82,6 +84,84 @@ public class ExecContextPartitioned implements RegressionExecution {
         epService.getEPAdministrator().destroyAllStatements();
     }
 
+    private void runAssertionReclaimAged(EPServiceProvider epService) {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        epService.getEPAdministrator().createEPL("@Hint('reclaim_partition_aged=10,reclaim_partition_freq=5') create context SegmentedByString partition by theString from SupportBean");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("context SegmentedByString select theString as c0, count(*) as c1 from SupportBean");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+        String[] fields = "c0,c1".split(",");
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 0));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 0));
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(8000));
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 0));
+        EPAssertionUtil.assertProps(listener.getAndResetLastNewData()[0], fields, new Object[]{"E1", 2L});
+        assertPartitionKeys(epService, "SegmentedByString", "E1", "E2");
+
+        // E2 idle for more than 10 seconds, sweep occurs upon the next event
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(15000));
+        epService.getEPRuntime().sendEvent(new SupportBean("E3", 0));
+        assertPartitionKeys(epService, "SegmentedByString", "E1", "E3");
+        assertEquals(1, epService.getEPAdministrator().getContextPartitionAdmin().getContextPartitionsReclaimed("SegmentedByString"));
+
+        // a new event for a reclaimed key allocates a new context partition
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 0));
+        EPAssertionUtil.assertProps(listener.getAndResetLastNewData()[0], fields, new Object[]{"E2", 1L});
+
+        // E1 and E3 idle for more than 10 seconds
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(26000));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 0));
+        EPAssertionUtil.assertProps(listener.getAndResetLastNewData()[0], fields, new Object[]{"E2", 2L});
+        assertPartitionKeys(epService, "SegmentedByString", "E2");
+        assertEquals(3, epService.getEPAdministrator().getContextPartitionAdmin().getContextPartitionsReclaimed("SegmentedByString"));
+
+        tryInvalid(epService, "@Hint('reclaim_partition_aged=x') create context InvalidCtx partition by theString from SupportBean",
+                "Error starting statement: Failed to parse hint parameter value 'x' as a double-typed seconds value");
+        tryInvalid(epService, "@Hint('reclaim_partition_max=0') create context InvalidCtx partition by theString from SupportBean",
+                "Error starting statement: Hint parameter value '0' is an invalid value, expecting a positive integer-typed maximum number of context partitions");
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionReclaimMax(EPServiceProvider epService) {
+        FilterServiceSPI filterSPI = (FilterServiceSPI) ((EPServiceProviderSPI) epService).getFilterService();
+        epService.getEPAdministrator().createEPL("@Hint('reclaim_partition_max=2') create context SegmentedByString partition by theString from SupportBean");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("context SegmentedByString select theString as c0, count(*) as c1 from SupportBean");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+        String[] fields = "c0,c1".split(",");
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 0));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 0));
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 0));
+        assertPartitionKeys(epService, "SegmentedByString", "E1", "E2");
+
+        // E2 is least recently used
+        epService.getEPRuntime().sendEvent(new SupportBean("E3", 0));
+        assertPartitionKeys(epService, "SegmentedByString", "E1", "E3");
+        assertEquals(3, filterSPI.getFilterCountApprox());
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 0));
+        EPAssertionUtil.assertProps(listener.getAndResetLastNewData()[0], fields, new Object[]{"E1", 3L});
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 0));
+        EPAssertionUtil.assertProps(listener.getAndResetLastNewData()[0], fields, new Object[]{"E2", 1L});
+        assertPartitionKeys(epService, "SegmentedByString", "E1", "E2");
+        assertEquals(2, epService.getEPAdministrator().getContextPartitionAdmin().getContextPartitionsReclaimed("SegmentedByString"));
+
+        epService.getEPAdministrator().destroyAllStatements();
+        assertEquals(0, filterSPI.getFilterCountApprox());
+    }
+
+    private void assertPartitionKeys(EPServiceProvider epService, String contextName, String... keys) {
+        ContextPartitionCollection partitions = epService.getEPAdministrator().getContextPartitionAdmin().getContextPartitions(contextName, ContextPartitionSelectorAll.INSTANCE);
+        List<Object> actual = new ArrayList<Object>();
+        for (ContextPartitionDescriptor descriptor : partitions.getDescriptors().values()) {
+            actual.add(((ContextPartitionIdentifierPartitioned) descriptor.getIdentifier()).getKeys()[0]);
+        }
+        EPAssertionUtil.assertEqualsAnyOrder(keys, actual.toArray());
+    }
+
     private void runAssertionMatchRecognize(EPServiceProvider epService) {
 
         String eplContextOne = "create context SegmentedByString partition by theString from SupportBean";
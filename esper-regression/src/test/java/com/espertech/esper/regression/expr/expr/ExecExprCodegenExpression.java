@@ -0,0 +1,104 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.expr.expr;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.client.SupportConfigFactory;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExecExprCodegenExpression implements RegressionExecution {
+    private final static String[] FIELDS = "c0,c1,c2,c3".split(",");
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.addEventType(SupportBean.class);
+        configuration.getEngineDefaults().getExecution().getCodeGeneration().setEnableExpression(true);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        assertTrue(((EPServiceProviderSPI) epService).getEngineImportService().isCodegenExprEvaluators());
+
+        // the same statements without compiled expressions provide the expected results
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType(SupportBean.class);
+        EPServiceProvider interpreted = EPServiceProviderManager.getProvider(this.getClass().getName() + "_interpreted", configuration);
+        try {
+            runAssertionFilterSelect(epService, interpreted);
+            runAssertionAggregation(epService, interpreted);
+        } finally {
+            interpreted.destroy();
+        }
+    }
+
+    private void runAssertionFilterSelect(EPServiceProvider epService, EPServiceProvider interpreted) {
+        String epl = "select intPrimitive * 2 + longBoxed as c0, doublePrimitive / intBoxed as c1, cast(doubleBoxed, int) % 3 as c2, " +
+                "not(intBoxed != doubleBoxed) or boolBoxed as c3 " +
+                "from SupportBean where (intPrimitive * 2 + longBoxed) > 10.5 or theString is null";
+        assertSameResults(epService, interpreted, epl, FIELDS);
+    }
+
+    private void runAssertionAggregation(EPServiceProvider epService, EPServiceProvider interpreted) {
+        String epl = "select sum(intPrimitive * 2) as c0, avg(doublePrimitive - intPrimitive) as c1, count(longBoxed + 1) as c2, max(intPrimitive + 1) as c3 " +
+                "from SupportBean where intPrimitive > 1";
+        assertSameResults(epService, interpreted, epl, FIELDS);
+    }
+
+    private void assertSameResults(EPServiceProvider epService, EPServiceProvider interpreted, String epl, String[] fields) {
+        SupportUpdateListener listener = new SupportUpdateListener();
+        SupportUpdateListener listenerInterpreted = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL(epl).addListener(listener);
+        interpreted.getEPAdministrator().createEPL(epl).addListener(listenerInterpreted);
+
+        SupportBean[] beans = new SupportBean[]{
+            makeBean("E1", 5, 1L, 5, 5d, null, 2.5),
+            makeBean("E1", 1, 1L, null, null, false, 0),
+            makeBean("E2", 10, null, 0, 0d, true, -1),
+            makeBean(null, 3, 10L, 3, 7.9d, null, 9),
+            makeBean("E3", -4, 20L, 2, -1.5d, true, 4)
+        };
+        int countOutput = 0;
+        for (SupportBean bean : beans) {
+            epService.getEPRuntime().sendEvent(bean);
+            interpreted.getEPRuntime().sendEvent(bean);
+            assertEquals(listenerInterpreted.isInvoked(), listener.isInvoked());
+            if (listenerInterpreted.isInvoked()) {
+                EventBean expected = listenerInterpreted.assertOneGetNewAndReset();
+                EventBean received = listener.assertOneGetNewAndReset();
+                for (String field : fields) {
+                    assertEquals(field, expected.get(field), received.get(field));
+                }
+                countOutput++;
+            }
+        }
+        assertTrue(countOutput > 1);
+
+        epService.getEPAdministrator().destroyAllStatements();
+        interpreted.getEPAdministrator().destroyAllStatements();
+    }
+
+    private static SupportBean makeBean(String theString, int intPrimitive, Long longBoxed, Integer intBoxed, Double doubleBoxed, Boolean boolBoxed, double doublePrimitive) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setLongBoxed(longBoxed);
+        bean.setIntBoxed(intBoxed);
+        bean.setDoubleBoxed(doubleBoxed);
+        bean.setBoolBoxed(boolBoxed);
+        bean.setDoublePrimitive(doublePrimitive);
+        return bean;
+    }
+}
@@ -94,6 +94,10 @@ public class TestSuiteExpr extends TestCase {
         RegressionRunner.run(new ExecExprNewStruct());
     }
 
+    public void testExecExprCodegenExpression() {
+        RegressionRunner.run(new ExecExprCodegenExpression());
+    }
+
     public void testExecExprConcat() {
         RegressionRunner.run(new ExecExprConcat());
     }
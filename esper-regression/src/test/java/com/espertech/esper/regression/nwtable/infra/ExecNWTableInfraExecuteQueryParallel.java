@@ -0,0 +1,127 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.nwtable.infra;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import static com.espertech.esper.supportregression.util.SupportMessageAssertUtil.tryInvalidFAF;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExecNWTableInfraExecuteQueryParallel implements RegressionExecution {
+    private static final String HINT = "@Hint('enable_faf_parallel') ";
+    private static final int NUM_EVENTS = 20000;
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.addEventType(SupportBean.class);
+        configuration.addVariable("myvar", int.class, 7);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionFilterAggregate(epService, true);
+        runAssertionFilterAggregate(epService, false);
+
+        runAssertionContextPartitioned(epService, true);
+        runAssertionContextPartitioned(epService, false);
+    }
+
+    private void runAssertionFilterAggregate(EPServiceProvider epService, boolean isNamedWindow) {
+        String eplCreate = isNamedWindow ?
+                "create window MyInfra#keepall as select * from SupportBean" :
+                "create table MyInfra as (theString string primary key, intPrimitive int primary key, longPrimitive long)";
+        epService.getEPAdministrator().createEPL(eplCreate);
+        String eplInsert = isNamedWindow ?
+                "insert into MyInfra select * from SupportBean" :
+                "insert into MyInfra select theString, intPrimitive, longPrimitive from SupportBean";
+        epService.getEPAdministrator().createEPL(eplInsert);
+        sendEvents(epService);
+
+        EventBean[] rows = assertSameResult(epService, "select * from MyInfra where intPrimitive = 5", "theString,intPrimitive,longPrimitive".split(","));
+        assertEquals(NUM_EVENTS / 100, rows.length);
+
+        rows = assertSameResult(epService, "select theString, longPrimitive from MyInfra(longPrimitive > 100) where intPrimitive between 10 and 12 order by longPrimitive", "theString,longPrimitive".split(","));
+        assertEquals(597, rows.length);
+
+        // aggregation is not parallelized
+        String message = "Error executing statement: The ENABLE_FAF_PARALLEL hint is not supported for queries with aggregation functions or group-by as aggregation is not parallelized";
+        tryInvalidFAF(epService, HINT + "select count(*) as c0, sum(longPrimitive) as c1 from MyInfra where intPrimitive < 50", message);
+        tryInvalidFAF(epService, HINT + "select intPrimitive from MyInfra group by intPrimitive", message);
+
+        // variables in the filter are evaluated sequentially
+        rows = assertSameResult(epService, "select theString from MyInfra where intPrimitive = myvar and longPrimitive < 1000", "theString".split(","));
+        assertEquals(10, rows.length);
+
+        rows = assertSameResult(epService, "select * from MyInfra where theString = 'E100'", "theString,intPrimitive,longPrimitive".split(","));
+        EPAssertionUtil.assertPropsPerRow(rows, "theString,intPrimitive".split(","), new Object[][]{{"E100", 0}});
+
+        // like and regexp with a pattern computed per row are evaluated sequentially
+        rows = assertSameResult(epService, "select theString from MyInfra where theString like ('E' || cast(intPrimitive, string) || '%') and intPrimitive > 0", "theString".split(","));
+        assertEquals(497, rows.length);
+        rows = assertSameResult(epService, "select theString from MyInfra where theString regexp ('E[0-9]*' || cast(intPrimitive, string))", "theString".split(","));
+        assertEquals(NUM_EVENTS, rows.length);
+        rows = assertSameResult(epService, "select theString from MyInfra where theString regexp ('E' || cast(intPrimitive, string) || '[0-9]')", "theString".split(","));
+        assertEquals(9, rows.length);
+
+        epService.getEPAdministrator().destroyAllStatements();
+        epService.getEPAdministrator().getConfiguration().removeEventType("MyInfra", false);
+    }
+
+    private void runAssertionContextPartitioned(EPServiceProvider epService, boolean isNamedWindow) {
+        epService.getEPAdministrator().createEPL("create context MyCtx coalesce consistent_hash_crc32(theString) from SupportBean granularity 4 preallocate");
+        String eplCreate = isNamedWindow ?
+                "context MyCtx create window CtxInfra#keepall as SupportBean" :
+                "context MyCtx create table CtxInfra (theString string primary key, intPrimitive int, longPrimitive long)";
+        epService.getEPAdministrator().createEPL(eplCreate);
+        String eplInsert = isNamedWindow ?
+                "context MyCtx insert into CtxInfra select * from SupportBean" :
+                "context MyCtx insert into CtxInfra select theString, intPrimitive, longPrimitive from SupportBean";
+        epService.getEPAdministrator().createEPL(eplInsert);
+        sendEvents(epService);
+
+        EventBean[] rows = assertSameResult(epService, "select theString from CtxInfra where intPrimitive = 3", "theString".split(","));
+        assertEquals(NUM_EVENTS / 100, rows.length);
+
+        rows = assertSameResult(epService, "context MyCtx select theString from CtxInfra where intPrimitive >= 90", "theString".split(","));
+        assertEquals(NUM_EVENTS / 10, rows.length);
+
+        epService.getEPAdministrator().destroyAllStatements();
+        epService.getEPAdministrator().getConfiguration().removeEventType("CtxInfra", false);
+    }
+
+    private EventBean[] assertSameResult(EPServiceProvider epService, String epl, String[] fields) {
+        EventBean[] expected = epService.getEPRuntime().executeQuery(epl).getArray();
+        EventBean[] parallel = epService.getEPRuntime().executeQuery(HINT + epl).getArray();
+        EventBean[] prepared = epService.getEPRuntime().prepareQuery(HINT + epl).execute().getArray();
+        assertTrue(expected.length > 0);
+        assertEquals(expected.length, parallel.length);
+        assertEquals(expected.length, prepared.length);
+        for (int i = 0; i < expected.length; i++) {
+            for (String field : fields) {
+                assertEquals(expected[i].get(field), parallel[i].get(field));
+                assertEquals(expected[i].get(field), prepared[i].get(field));
+            }
+        }
+        return parallel;
+    }
+
+    private void sendEvents(EPServiceProvider epService) {
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            SupportBean bean = new SupportBean("E" + i, i % 100);
+            bean.setLongPrimitive(i);
+            epService.getEPRuntime().sendEvent(bean);
+        }
+    }
+}
@@ -34,6 +34,10 @@ public class TestSuiteInfra extends TestCase {
         RegressionRunner.run(new ExecNWTableInfraExecuteQuery());
     }
 
+    public void testExecNWTableInfraExecuteQueryParallel() {
+        RegressionRunner.run(new ExecNWTableInfraExecuteQueryParallel());
+    }
+
     public void testExecNWTableInfraIndexFAF() {
         RegressionRunner.run(new ExecNWTableInfraIndexFAF());
     }
@@ -0,0 +1,91 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.nwtable.namedwindow;
+
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.event.arr.ObjectArrayOffHeapEventBean;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import static com.espertech.esper.supportregression.util.SupportMessageAssertUtil.tryInvalid;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExecNamedWindowOffHeap implements RegressionExecution {
+    public void run(EPServiceProvider epService) throws Exception {
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean.class);
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean_S0.class);
+        runAssertionWindow(epService);
+        runAssertionInvalid(epService);
+    }
+
+    private void runAssertionWindow(EPServiceProvider epService) {
+        String[] fields = "id,num,amount,flag,code".split(",");
+        epService.getEPAdministrator().createEPL("create objectarray schema MyOffHeapEvent(id string, num int, amount double, flag boolean, code char)");
+        EPStatement stmtWindow = epService.getEPAdministrator().createEPL("@Hint('ENABLE_WINDOW_OFFHEAP_STORAGE') create window MyOffHeapWindow#length(3) as MyOffHeapEvent");
+        SupportUpdateListener listenerWindow = new SupportUpdateListener();
+        stmtWindow.addListener(listenerWindow);
+        epService.getEPAdministrator().createEPL("insert into MyOffHeapWindow select * from MyOffHeapEvent");
+        epService.getEPAdministrator().createEPL("on SupportBean_S0 as s0 delete from MyOffHeapWindow as w where w.id = s0.p00");
+        epService.getEPAdministrator().createEPL("on SupportBean as sb update MyOffHeapWindow as w set num = sb.intPrimitive where w.id = sb.theString");
+        SupportUpdateListener listenerConsumer = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL("select irstream * from MyOffHeapWindow").addListener(listenerConsumer);
+
+        epService.getEPRuntime().sendEvent(new Object[]{"E1", 10, 1.5d, true, 'a'}, "MyOffHeapEvent");
+        listenerConsumer.reset();
+        epService.getEPRuntime().sendEvent(new Object[]{"E2", null, 2.5d, false, null}, "MyOffHeapEvent");
+        EPAssertionUtil.assertProps(listenerConsumer.assertOneGetNewAndReset(), fields, new Object[]{"E2", null, 2.5d, false, null});
+        listenerWindow.reset();
+        assertTrue(stmtWindow.iterator().next() instanceof ObjectArrayOffHeapEventBean);
+        EPAssertionUtil.assertPropsPerRow(stmtWindow.iterator(), fields, new Object[][]{{"E1", 10, 1.5d, true, 'a'}, {"E2", null, 2.5d, false, null}});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 11));
+        EPAssertionUtil.assertProps(listenerWindow.getLastNewData()[0], fields, new Object[]{"E1", 11, 1.5d, true, 'a'});
+        EPAssertionUtil.assertProps(listenerWindow.getLastOldData()[0], fields, new Object[]{"E1", 10, 1.5d, true, 'a'});
+        listenerWindow.reset();
+
+        epService.getEPRuntime().sendEvent(new Object[]{"E3", 30, 3.5d, true, null}, "MyOffHeapEvent");
+        epService.getEPRuntime().sendEvent(new Object[]{"E4", 40, 4.5d, false, null}, "MyOffHeapEvent");
+        EventBean expired = listenerWindow.getLastOldData()[0];
+        EPAssertionUtil.assertProps(expired, fields, new Object[]{"E2", null, 2.5d, false, null});
+        listenerWindow.reset();
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1, "E3"));
+        EPAssertionUtil.assertProps(listenerWindow.assertOneGetOldAndReset(), fields, new Object[]{"E3", 30, 3.5d, true, null});
+        EPAssertionUtil.assertPropsPerRow(epService.getEPRuntime().executeQuery("select * from MyOffHeapWindow order by id").getArray(), fields,
+                new Object[][]{{"E1", 11, 1.5d, true, 'a'}, {"E4", 40, 4.5d, false, null}});
+
+        // events that left the window remain readable after their storage is reused
+        for (int i = 0; i < 2000; i++) {
+            epService.getEPRuntime().sendEvent(new Object[]{"X" + i, i, (double) i, true, null}, "MyOffHeapEvent");
+        }
+        EPAssertionUtil.assertProps(expired, fields, new Object[]{"E2", null, 2.5d, false, null});
+        EPAssertionUtil.assertPropsPerRow(stmtWindow.iterator(), "id,num".split(","), new Object[][]{{"X1997", 1997}, {"X1998", 1998}, {"X1999", 1999}});
+        assertEquals(3L, epService.getEPRuntime().executeQuery("select count(*) as cnt from MyOffHeapWindow").getArray()[0].get("cnt"));
+        assertEquals(0, epService.getEPRuntime().executeQuery("select * from MyOffHeapWindow where id = 'E1'").getArray().length);
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionInvalid(EPServiceProvider epService) {
+        tryInvalid(epService, "@Hint('ENABLE_WINDOW_OFFHEAP_STORAGE') create window MyOffHeapInvalid#keepall as SupportBean",
+                "Error starting statement: Off-heap storage requires a named window of an object-array event type and is not supported for revision event types or virtual data windows [@Hint('ENABLE_WINDOW_OFFHEAP_STORAGE') create window MyOffHeapInvalid#keepall as SupportBean]");
+
+        epService.getEPAdministrator().createEPL("create objectarray schema MyHeapEvent(id string, tags java.util.List)");
+        tryInvalid(epService, "@Hint('ENABLE_WINDOW_OFFHEAP_STORAGE') create window MyOffHeapInvalidTags#keepall as MyHeapEvent",
+                "Error starting statement: Off-heap storage requires that all properties of the named window event type are primitives or strings, property 'tags' is not supported [@Hint('ENABLE_WINDOW_OFFHEAP_STORAGE') create window MyOffHeapInvalidTags#keepall as MyHeapEvent]");
+    }
+}
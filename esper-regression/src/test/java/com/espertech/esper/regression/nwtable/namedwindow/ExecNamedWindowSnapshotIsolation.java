@@ -0,0 +1,119 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.nwtable.namedwindow;
+
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_A;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.espertech.esper.supportregression.util.SupportMessageAssertUtil.tryInvalid;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ExecNamedWindowSnapshotIsolation implements RegressionExecution {
+    public void run(EPServiceProvider epService) throws Exception {
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean.class);
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean_A.class);
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean_S0.class);
+        runAssertionWindow(epService);
+        runAssertionConcurrentWriter(epService);
+        runAssertionInvalid(epService);
+    }
+
+    private void runAssertionWindow(EPServiceProvider epService) {
+        String[] fields = "theString,intPrimitive".split(",");
+        EPStatement stmtWindow = epService.getEPAdministrator().createEPL("@Hint('ENABLE_WINDOW_SNAPSHOT_ISOLATION') create window MyWindow#length(3) as SupportBean");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select * from SupportBean");
+        epService.getEPAdministrator().createEPL("on SupportBean_S0 as s0 delete from MyWindow as w where w.theString = s0.p00");
+        epService.getEPAdministrator().createEPL("on SupportBean_A as a update MyWindow as w set intPrimitive = intPrimitive + 100 where w.theString = a.id");
+
+        assertEquals(0, epService.getEPRuntime().executeQuery("select * from MyWindow").getArray().length);
+        assertEquals(false, stmtWindow.iterator().hasNext());
+
+        epService.getEPRuntime().sendEvent(new SupportBean("E1", 1));
+        epService.getEPRuntime().sendEvent(new SupportBean("E2", 2));
+        epService.getEPRuntime().sendEvent(new SupportBean("E3", 3));
+        epService.getEPRuntime().sendEvent(new SupportBean("E4", 4));
+        EPAssertionUtil.assertPropsPerRow(stmtWindow.iterator(), fields, new Object[][]{{"E2", 2}, {"E3", 3}, {"E4", 4}});
+        EPAssertionUtil.assertPropsPerRow(epService.getEPRuntime().executeQuery("select * from MyWindow").getArray(), fields,
+                new Object[][]{{"E2", 2}, {"E3", 3}, {"E4", 4}});
+
+        // an updated event takes the place of the original at the end of arrival order
+        epService.getEPRuntime().sendEvent(new SupportBean_A("E3"));
+        EPAssertionUtil.assertPropsPerRow(epService.getEPRuntime().executeQuery("select * from MyWindow").getArray(), fields,
+                new Object[][]{{"E2", 2}, {"E4", 4}, {"E3", 103}});
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1, "E2"));
+        EPAssertionUtil.assertPropsPerRow(epService.getEPRuntime().executeQuery("select * from MyWindow").getArray(), fields,
+                new Object[][]{{"E4", 4}, {"E3", 103}});
+
+        // queries that use an index read under the lock
+        EventBean[] result = epService.getEPRuntime().executeQuery("select * from MyWindow where theString = 'E4'").getArray();
+        EPAssertionUtil.assertPropsPerRow(result, fields, new Object[][]{{"E4", 4}});
+        assertEquals(2L, epService.getEPRuntime().executeQuery("select count(*) as cnt from MyWindow").getArray()[0].get("cnt"));
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionConcurrentWriter(final EPServiceProvider epService) throws Exception {
+        epService.getEPAdministrator().createEPL("@Hint('ENABLE_WINDOW_SNAPSHOT_ISOLATION') create window MyConcurrentWindow#length(10) as SupportBean");
+        epService.getEPAdministrator().createEPL("insert into MyConcurrentWindow select * from SupportBean");
+        for (int i = 0; i < 10; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E", i));
+        }
+
+        final int numEvents = 20000;
+        final AtomicReference<String> failure = new AtomicReference<String>();
+        Thread writer = new Thread(new Runnable() {
+            public void run() {
+                for (int i = 10; i < numEvents; i++) {
+                    epService.getEPRuntime().sendEvent(new SupportBean("E", i));
+                }
+            }
+        });
+        writer.start();
+        while (writer.isAlive() && failure.get() == null) {
+            EventBean[] rows = epService.getEPRuntime().executeQuery("select intPrimitive from MyConcurrentWindow").getArray();
+            if (rows.length != 10) {
+                failure.set("Expected 10 rows but received " + rows.length);
+                break;
+            }
+            int first = (Integer) rows[0].get("intPrimitive");
+            for (int i = 1; i < rows.length; i++) {
+                if ((Integer) rows[i].get("intPrimitive") != first + i) {
+                    failure.set("Non-contiguous rows starting at " + first);
+                    break;
+                }
+            }
+        }
+        writer.join();
+        assertNull(failure.get(), failure.get());
+        assertEquals(numEvents - 1, epService.getEPRuntime().executeQuery("select max(intPrimitive) as mx from MyConcurrentWindow").getArray()[0].get("mx"));
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionInvalid(EPServiceProvider epService) {
+        tryInvalid(epService, "@Hint('ENABLE_WINDOW_SNAPSHOT_ISOLATION') create window MyInvalidWindow#length_batch(3) as SupportBean",
+                "Error starting statement: Snapshot isolation is not supported for named windows with batch data windows, revision event types or virtual data windows [@Hint('ENABLE_WINDOW_SNAPSHOT_ISOLATION') create window MyInvalidWindow#length_batch(3) as SupportBean]");
+        tryInvalid(epService, "@Hint('ENABLE_WINDOW_SNAPSHOT_ISOLATION') create window MyInvalidWindow#sort(3, intPrimitive) as SupportBean",
+                "Error starting statement: Snapshot isolation requires data windows that iterate in arrival order and is not supported for sorted, ranked, time-ordered, unique or grouped data windows [@Hint('ENABLE_WINDOW_SNAPSHOT_ISOLATION') create window MyInvalidWindow#sort(3, intPrimitive) as SupportBean]");
+        tryInvalid(epService, "@Hint('ENABLE_WINDOW_SNAPSHOT_ISOLATION') create window MyInvalidWindow#length(3)#unique(theString) as SupportBean",
+                "Error starting statement: Snapshot isolation requires data windows that iterate in arrival order and is not supported for sorted, ranked, time-ordered, unique or grouped data windows [@Hint('ENABLE_WINDOW_SNAPSHOT_ISOLATION') create window MyInvalidWindow#length(3)#unique(theString) as SupportBean]");
+    }
+}
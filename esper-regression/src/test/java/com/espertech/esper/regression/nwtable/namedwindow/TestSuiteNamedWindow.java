@@ -44,6 +44,10 @@ public class TestSuiteNamedWindow extends TestCase {
         RegressionRunner.run(new ExecNamedWindowOM());
     }
 
+    public void testExecNamedWindowOffHeap() {
+        RegressionRunner.run(new ExecNamedWindowOffHeap());
+    }
+
     public void testExecNamedWindowOnDelete() {
         RegressionRunner.run(new ExecNamedWindowOnDelete());
     }
@@ -79,6 +83,10 @@ public class TestSuiteNamedWindow extends TestCase {
         RegressionRunner.run(new ExecNamedWindowRemoveStream());
     }
 
+    public void testExecNamedWindowSnapshotIsolation() {
+        RegressionRunner.run(new ExecNamedWindowSnapshotIsolation());
+    }
+
     public void testExecNamedWindowStartStop() {
         RegressionRunner.run(new ExecNamedWindowStartStop());
     }
@@ -0,0 +1,134 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.pattern;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.filter.FilterServiceSPI;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ExecPatternOperatorFollowedByCorrelationIndex implements RegressionExecution {
+    private final static String HINT = "@Hint('ENABLE_PATTERN_CORRELATION_INDEX') ";
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.addEventType("SupportBean", SupportBean.class);
+        configuration.addEventType("SupportBean_S0", SupportBean_S0.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionFilterCount(epService);
+        runAssertionSameResults(epService);
+    }
+
+    private void runAssertionFilterCount(EPServiceProvider epService) {
+        FilterServiceSPI filterService = (FilterServiceSPI) ((EPServiceProviderSPI) epService).getFilterService();
+        String epl = "select a.id as aid, b.theString as bs from pattern [every a=SupportBean_S0 -> b=SupportBean(intPrimitive=a.id, longPrimitive>10)]";
+        SupportUpdateListener listener = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL(HINT + epl).addListener(listener);
+        assertEquals(1, filterService.getFilterCountApprox());
+
+        for (int i = 0; i < 100; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean_S0(i));
+        }
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(50));
+        assertEquals(2, filterService.getFilterCountApprox());
+
+        sendBean(epService, "E1", 50, 5);
+        assertFalse(listener.isInvoked());
+
+        sendBean(epService, "E2", 50, 20);
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), "aid,bs".split(","), new Object[][]{{50, "E2"}, {50, "E2"}});
+
+        sendBean(epService, "E3", 50, 20);
+        sendBean(epService, "E4", 100, 20);
+        assertFalse(listener.isInvoked());
+
+        for (int i = 0; i < 100; i++) {
+            if (i != 50) {
+                sendBean(epService, "E" + i, i, 20);
+            }
+        }
+        assertEquals(99, listener.getNewDataListFlattened().length);
+        listener.reset();
+        assertEquals(1, filterService.getFilterCountApprox());
+
+        // without the hint each outstanding instance registers its own filter
+        epService.getEPAdministrator().destroyAllStatements();
+        epService.getEPAdministrator().createEPL(epl);
+        for (int i = 0; i < 100; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean_S0(i));
+        }
+        assertEquals(101, filterService.getFilterCountApprox());
+
+        epService.getEPAdministrator().destroyAllStatements();
+        assertEquals(0, filterService.getFilterCountApprox());
+    }
+
+    private void runAssertionSameResults(EPServiceProvider epService) {
+        String[] patterns = new String[]{
+            "every a=SupportBean_S0 -> b=SupportBean(intPrimitive=a.id)",
+            "every a=SupportBean_S0 -> b=SupportBean(intPrimitive=a.id, theString=a.p00, longPrimitive<5)",
+            "every a=SupportBean_S0 -> every b=SupportBean(intPrimitive=a.id)",
+            "every a=SupportBean_S0 -> (b=SupportBean(intPrimitive=a.id) where timer:within(10 sec))",
+            "every a=SupportBean -> b=SupportBean(intPrimitive=a.intPrimitive)",
+            "a=SupportBean_S0 -> every b=SupportBean(theString=a.p00)",
+        };
+        for (String pattern : patterns) {
+            tryAssertionSameResults(epService, pattern);
+        }
+    }
+
+    private void tryAssertionSameResults(EPServiceProvider epService, String pattern) {
+        String epl = "select * from pattern [" + pattern + "]";
+        SupportUpdateListener listenerPlain = new SupportUpdateListener();
+        SupportUpdateListener listenerIndexed = new SupportUpdateListener();
+        epService.getEPAdministrator().createEPL(epl).addListener(listenerPlain);
+        epService.getEPAdministrator().createEPL(HINT + epl).addListener(listenerIndexed);
+
+        Random random = new Random(1);
+        String[] strings = new String[]{"X", "Y", null};
+        for (int i = 0; i < 500; i++) {
+            if (random.nextInt(3) == 0) {
+                epService.getEPRuntime().sendEvent(new SupportBean_S0(random.nextInt(5), strings[random.nextInt(3)]));
+            } else {
+                sendBean(epService, strings[random.nextInt(3)], random.nextInt(5), random.nextInt(10));
+            }
+            EventBean[] expected = listenerPlain.getNewDataListFlattened();
+            EventBean[] received = listenerIndexed.getNewDataListFlattened();
+            assertEquals(pattern, expected.length, received.length);
+            for (int j = 0; j < expected.length; j++) {
+                assertEquals(pattern, expected[j].get("a"), received[j].get("a"));
+                assertEquals(pattern, expected[j].get("b"), received[j].get("b"));
+            }
+            listenerPlain.reset();
+            listenerIndexed.reset();
+        }
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private static void sendBean(EPServiceProvider epService, String theString, int intPrimitive, long longPrimitive) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setLongPrimitive(longPrimitive);
+        epService.getEPRuntime().sendEvent(bean);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.pattern;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.filter.FilterServiceSPI;
+import com.espertech.esper.pattern.share.PatternPrefixShareService;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.bean.SupportBean_S0;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ExecPatternOperatorFollowedByPrefixShare implements RegressionExecution {
+    private final static String[] FIELDS = "aid,bs".split(",");
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.addEventType("SupportBean", SupportBean.class);
+        configuration.addEventType("SupportBean_S0", SupportBean_S0.class);
+        configuration.getEngineDefaults().getPatterns().setPrefixSharing(true);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionSharedPrefix(epService);
+        runAssertionNotShared(epService);
+    }
+
+    private void runAssertionSharedPrefix(EPServiceProvider epService) {
+        PatternPrefixShareService shareService = ((EPServiceProviderSPI) epService).getServicesContext().getPatternPrefixShareSvc();
+        FilterServiceSPI filterService = (FilterServiceSPI) ((EPServiceProviderSPI) epService).getFilterService();
+
+        SupportUpdateListener[] listeners = new SupportUpdateListener[3];
+        EPStatement[] statements = new EPStatement[3];
+        for (int i = 0; i < 3; i++) {
+            statements[i] = epService.getEPAdministrator().createEPL(makeEPL((i + 1) * 10));
+            listeners[i] = new SupportUpdateListener();
+            statements[i].addListener(listeners[i]);
+        }
+        assertEquals(1, shareService.getNumGroups());
+        assertEquals(1, filterService.getFilterCountApprox());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1, "X"));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(2, "X"));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(3, "Y"));
+        assertEquals(3, filterService.getFilterCountApprox());
+        assertEquals(2, shareService.getNumInstances());
+
+        // each statement receives the first event that satisfies its constant criteria
+        sendBean(epService, "E1", 1, 15);
+        assertReceived(listeners, new Object[][]{{1, "E1"}, null, null});
+
+        sendBean(epService, "E2", 1, 25);
+        assertReceived(listeners, new Object[][]{null, {1, "E2"}, null});
+
+        sendBean(epService, "E3", 1, 35);
+        assertReceived(listeners, new Object[][]{null, null, {1, "E3"}});
+        assertEquals(1, shareService.getNumInstances());
+        assertEquals(2, filterService.getFilterCountApprox());
+
+        sendBean(epService, "E4", 1, 100);
+        sendBean(epService, "E5", 3, 100);
+        assertReceived(listeners, new Object[][]{null, null, null});
+
+        sendBean(epService, "E6", 2, 100);
+        assertReceived(listeners, new Object[][]{{2, "E6"}, {2, "E6"}, {2, "E6"}});
+        assertEquals(0, shareService.getNumInstances());
+        assertEquals(1, filterService.getFilterCountApprox());
+
+        // a statement created later does not receive matches of instances started before it
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(4, "X"));
+        EPStatement stmtLate = epService.getEPAdministrator().createEPL(makeEPL(0));
+        SupportUpdateListener listenerLate = new SupportUpdateListener();
+        stmtLate.addListener(listenerLate);
+        assertEquals(1, shareService.getNumGroups());
+
+        sendBean(epService, "E7", 4, 50);
+        assertReceived(listeners, new Object[][]{{4, "E7"}, {4, "E7"}, {4, "E7"}});
+        assertFalse(listenerLate.isInvoked());
+        assertEquals(0, shareService.getNumInstances());
+
+        // a stopped statement no longer holds instances
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(5, "X"));
+        sendBean(epService, "E8", 5, 5);
+        EPAssertionUtil.assertProps(listenerLate.assertOneGetNewAndReset(), FIELDS, new Object[]{5, "E8"});
+        sendBean(epService, "E9", 5, 15);
+        assertReceived(listeners, new Object[][]{{5, "E9"}, null, null});
+        statements[1].destroy();
+        statements[2].destroy();
+        assertEquals(0, shareService.getNumInstances());
+
+        epService.getEPAdministrator().destroyAllStatements();
+        assertEquals(0, shareService.getNumGroups());
+        assertEquals(0, filterService.getFilterCountApprox());
+    }
+
+    private void runAssertionNotShared(EPServiceProvider epService) {
+        PatternPrefixShareService shareService = ((EPServiceProviderSPI) epService).getServicesContext().getPatternPrefixShareSvc();
+
+        // patterns with guards, followed-by filters that are not correlated by property, and contexts evaluate independently
+        epService.getEPAdministrator().createEPL("select * from pattern [every a=SupportBean_S0 -> b=SupportBean(intPrimitive=a.id) where timer:within(10 sec)]");
+        epService.getEPAdministrator().createEPL("select * from pattern [every a=SupportBean_S0 -> b=SupportBean(intPrimitive=a.id+1)]");
+        epService.getEPAdministrator().createEPL("create context SegmentedByString partition by theString from SupportBean");
+        epService.getEPAdministrator().createEPL("context SegmentedByString select * from pattern [every a=SupportBean_S0 -> b=SupportBean(intPrimitive=a.id)]");
+        assertEquals(0, shareService.getNumGroups());
+
+        // the same prefix without constant criteria is shared and remains correct
+        SupportUpdateListener listenerOne = new SupportUpdateListener();
+        SupportUpdateListener listenerTwo = new SupportUpdateListener();
+        String epl = "select a.id as aid, b.theString as bs from pattern [every a=SupportBean_S0 -> b=SupportBean(intPrimitive=a.id)]";
+        epService.getEPAdministrator().createEPL(epl).addListener(listenerOne);
+        epService.getEPAdministrator().createEPL(epl).addListener(listenerTwo);
+        assertEquals(1, shareService.getNumGroups());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(10));
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(10));
+        sendBean(epService, "E1", 10, 0);
+        EPAssertionUtil.assertPropsPerRow(listenerOne.getAndResetLastNewData(), FIELDS, new Object[][]{{10, "E1"}, {10, "E1"}});
+        EPAssertionUtil.assertPropsPerRow(listenerTwo.getAndResetLastNewData(), FIELDS, new Object[][]{{10, "E1"}, {10, "E1"}});
+
+        sendBean(epService, "E2", 10, 0);
+        assertFalse(listenerOne.isInvoked() || listenerTwo.isInvoked());
+
+        epService.getEPAdministrator().destroyAllStatements();
+        assertEquals(0, shareService.getNumGroups());
+    }
+
+    private static String makeEPL(int minQuantity) {
+        return "select a.id as aid, b.theString as bs from pattern [" +
+                "every a=SupportBean_S0(p00='X') -> b=SupportBean(intPrimitive=a.id, longPrimitive>" + minQuantity + ")]";
+    }
+
+    private static void assertReceived(SupportUpdateListener[] listeners, Object[][] expected) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (expected[i] == null) {
+                assertFalse(listeners[i].isInvoked());
+            } else {
+                EPAssertionUtil.assertProps(listeners[i].assertOneGetNewAndReset(), FIELDS, expected[i]);
+            }
+        }
+    }
+
+    private static void sendBean(EPServiceProvider epService, String theString, int intPrimitive, long longPrimitive) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setLongPrimitive(longPrimitive);
+        epService.getEPRuntime().sendEvent(bean);
+    }
+}
@@ -54,6 +54,14 @@ public class TestSuitePattern extends TestCase {
         RegressionRunner.run(new ExecPatternOperatorFollowedByMax4Prevent());
     }
 
+    public void testExecPatternOperatorFollowedByPrefixShare() {
+        RegressionRunner.run(new ExecPatternOperatorFollowedByPrefixShare());
+    }
+
+    public void testExecPatternOperatorFollowedByCorrelationIndex() {
+        RegressionRunner.run(new ExecPatternOperatorFollowedByCorrelationIndex());
+    }
+
     public void testExecPatternOperatorFollowedByMax2Prevent() {
         RegressionRunner.run(new ExecPatternOperatorFollowedByMax2Prevent());
     }
@@ -0,0 +1,138 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.resultset.aggregate;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.soda.EPStatementObjectModel;
+import com.espertech.esper.supportregression.bean.SupportBean;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+
+import static com.espertech.esper.supportregression.util.SupportMessageAssertUtil.tryInvalid;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExecAggregateApproximate implements RegressionExecution {
+
+    public void configure(Configuration configuration) throws Exception {
+        configuration.addEventType("SupportBean", SupportBean.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionGrouped(epService);
+        runAssertionManyValues(epService);
+        runAssertionTable(epService);
+        runAssertionInvalid(epService);
+    }
+
+    private void runAssertionGrouped(EPServiceProvider epService) {
+        String epl = "select theString as c0, " +
+                "approxCountDistinct(intPrimitive) as c1, " +
+                "approxPercentile(intPrimitive,0.5d) as c2, " +
+                "approxCountDistinct(longPrimitive,intPrimitive>1) as c3, " +
+                "approxPercentile(longPrimitive,1,intPrimitive>1) as c4 " +
+                "from SupportBean#length(2) " +
+                "group by theString";
+        EPStatementObjectModel model = epService.getEPAdministrator().compileEPL(epl);
+        assertEquals(epl, model.toEPL());
+
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+        assertEquals(long.class, stmt.getEventType().getPropertyType("c1"));
+        assertEquals(Double.class, stmt.getEventType().getPropertyType("c2"));
+        String[] fields = "c0,c1,c2,c3,c4".split(",");
+
+        epService.getEPRuntime().sendEvent(makeEvent("A", 1, 10));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"A", 1L, 1d, 0L, null});
+
+        epService.getEPRuntime().sendEvent(makeEvent("A", 2, 20));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"A", 2L, 1.5d, 1L, 20d});
+
+        // values leaving the data window remain counted
+        epService.getEPRuntime().sendEvent(makeEvent("A", 2, 30));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{"A", 2L, 2d, 2L, 30d});
+
+        epService.getEPRuntime().sendEvent(makeEvent("B", 5, 10));
+        EPAssertionUtil.assertPropsPerRowAnyOrder(listener.getAndResetLastNewData(), fields,
+                new Object[][]{{"A", 2L, 2d, 2L, 30d}, {"B", 1L, 5d, 1L, 10d}});
+
+        stmt.destroy();
+    }
+
+    private void runAssertionManyValues(EPServiceProvider epService) {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select approxCountDistinct(theString) as c0, approxPercentile(doublePrimitive, 0.9) as c1 from SupportBean");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        for (int i = 0; i < 20000; i++) {
+            SupportBean bean = new SupportBean("E" + (i % 5000), 0);
+            bean.setDoublePrimitive(i % 1000);
+            epService.getEPRuntime().sendEvent(bean);
+        }
+        EventBean result = listener.getLastNewData()[0];
+        long count = (Long) result.get("c0");
+        double percentile = (Double) result.get("c1");
+        assertTrue("count " + count, Math.abs(count - 5000) < 250);
+        assertTrue("percentile " + percentile, Math.abs(percentile - 900) < 10);
+
+        stmt.destroy();
+    }
+
+    private void runAssertionTable(EPServiceProvider epService) {
+        epService.getEPAdministrator().createEPL("create table MyApproxTable(k string primary key, cd approxCountDistinct(int), p90 approxPercentile(double, 0.9))");
+        epService.getEPAdministrator().createEPL("into table MyApproxTable select approxCountDistinct(intPrimitive) as cd, approxPercentile(doublePrimitive, 0.9) as p90 from SupportBean group by theString");
+
+        for (int i = 0; i < 100; i++) {
+            SupportBean bean = new SupportBean(i % 2 == 0 ? "A" : "B", i % 20);
+            bean.setDoublePrimitive(i);
+            epService.getEPRuntime().sendEvent(bean);
+        }
+
+        EventBean[] rows = epService.getEPRuntime().executeQuery("select k, cd, p90 from MyApproxTable order by k").getArray();
+        assertEquals(2, rows.length);
+        EPAssertionUtil.assertProps(rows[0], "k,cd".split(","), new Object[]{"A", 10L});
+        EPAssertionUtil.assertProps(rows[1], "k,cd".split(","), new Object[]{"B", 10L});
+        double p90 = (Double) rows[0].get("p90");
+        assertTrue("p90 " + p90, p90 >= 86 && p90 <= 92);
+
+
+        tryInvalid(epService, "into table MyApproxTable select approxPercentile(doublePrimitive, 0.5) as p90 from SupportBean group by theString",
+                "Error starting statement: Incompatible aggregation function for table 'MyApproxTable' column 'p90', expecting 'approxPercentile(double,0.9)' and received 'approxPercentile(doublePrimitive,0.5)': The percentile is 0.9 and provided is 0.5");
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    private void runAssertionInvalid(EPServiceProvider epService) {
+        tryInvalid(epService, "select approxPercentile(intPrimitive) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxPercentile(intPrimitive)': The approxPercentile aggregation function requires two parameters, an expression returning numeric values and a constant percentile between zero and one");
+        tryInvalid(epService, "select approxPercentile(intPrimitive, 1.5) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxPercentile(intPrimitive,1.5)': The approxPercentile aggregation function requires two parameters");
+        tryInvalid(epService, "select approxPercentile(intPrimitive, intPrimitive) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxPercentile(intPrimitive,intPr...(43 chars)': The approxPercentile aggregation function requires two parameters");
+        tryInvalid(epService, "select approxPercentile(theString, 0.5) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxPercentile(theString,0.5)': Implicit conversion from datatype 'String' to numeric is not allowed for aggregation function 'approxPercentile'");
+        tryInvalid(epService, "select approxCountDistinct(distinct intPrimitive) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxCountDistinct(distinct intPri...(42 chars)': Aggregation function 'approxCountDistinct' does now allow distinct");
+        tryInvalid(epService, "select approxCountDistinct(intPrimitive, theString) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxCountDistinct(intPrimitive,th...(43 chars)': Invalid filter expression parameter to the aggregation function 'approxCountDistinct' is expected to return a boolean value but returns java.lang.String");
+    }
+
+    private static SupportBean makeEvent(String theString, int intPrimitive, long longPrimitive) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setLongPrimitive(longPrimitive);
+        return bean;
+    }
+}
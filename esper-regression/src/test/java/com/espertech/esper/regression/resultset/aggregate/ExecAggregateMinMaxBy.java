@@ -40,6 +40,7 @@ public class ExecAggregateMinMaxBy implements RegressionExecution {
         runAssertionMultipleOverlappingCategories(epService);
         runAssertionMultipleCriteria(epService);
         runAssertionNoDataWindow(epService);
+        runAssertionSortedFloatingPointNullCriteria(epService);
         runAssertionInvalid(epService);
     }
 
@@ -429,6 +430,50 @@ public class ExecAggregateMinMaxBy implements RegressionExecution {
         stmt.destroy();
     }
 
+    private void runAssertionSortedFloatingPointNullCriteria(EPServiceProvider epService) {
+        String[] fields = "c0,c1,c2,c3".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select " +
+                "sorted(doubleBoxed desc) as c0, " +
+                "sorted(doubleBoxed) as c1, " +
+                "maxby(doubleBoxed).theString as c2, " +
+                "minby(doubleBoxed).theString as c3 " +
+                "from SupportBean#length(4)");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        SupportBean eventOne = makeEvent("E1", 2.5d);
+        SupportBean eventTwo = makeEvent("E2", null);
+        SupportBean eventThree = makeEvent("E3", -1d);
+        SupportBean eventFour = makeEvent("E4", 2.5d);
+        epService.getEPRuntime().sendEvent(eventOne);
+        epService.getEPRuntime().sendEvent(eventTwo);
+        epService.getEPRuntime().sendEvent(eventThree);
+        epService.getEPRuntime().sendEvent(eventFour);
+        EPAssertionUtil.assertProps(listener.getAndResetLastNewData()[0], fields, new Object[]{
+            new Object[]{eventOne, eventFour, eventThree, eventTwo},
+            new Object[]{eventTwo, eventThree, eventOne, eventFour}, "E1", "E2"});
+
+        SupportBean eventFive = makeEvent("E5", 3d);   // pushes out E1
+        epService.getEPRuntime().sendEvent(eventFive);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{
+            new Object[]{eventFive, eventFour, eventThree, eventTwo},
+            new Object[]{eventTwo, eventThree, eventFour, eventFive}, "E5", "E2"});
+
+        SupportBean eventSix = makeEvent("E6", -0d);   // pushes out E2
+        epService.getEPRuntime().sendEvent(eventSix);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{
+            new Object[]{eventFive, eventFour, eventSix, eventThree},
+            new Object[]{eventThree, eventSix, eventFour, eventFive}, "E5", "E3"});
+
+        stmt.destroy();
+    }
+
+    private static SupportBean makeEvent(String string, Double doubleBoxed) {
+        SupportBean event = new SupportBean(string, 0);
+        event.setDoubleBoxed(doubleBoxed);
+        return event;
+    }
+
     private void runAssertionInvalid(EPServiceProvider epService) {
         tryInvalid(epService, "select maxBy(p00||p10) from S0#lastevent, S1#lastevent",
                 "Error starting statement: Failed to validate select-clause expression 'maxby(p00||p10)': The 'maxby' aggregation function requires that any parameter expressions evaluate properties of the same stream [select maxBy(p00||p10) from S0#lastevent, S1#lastevent]");
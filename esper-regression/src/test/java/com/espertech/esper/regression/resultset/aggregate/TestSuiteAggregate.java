@@ -70,6 +70,10 @@ public class TestSuiteAggregate extends TestCase {
         RegressionRunner.run(new ExecAggregateMaxMinGroupBy());
     }
 
+    public void testExecAggregateApproximate() {
+        RegressionRunner.run(new ExecAggregateApproximate());
+    }
+
     public void testExecAggregateMedianAndDeviation() {
         RegressionRunner.run(new ExecAggregateMedianAndDeviation());
     }
@@ -0,0 +1,109 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.regression.rowrecog;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.supportregression.execution.RegressionExecution;
+import com.espertech.esper.supportregression.rowrecog.SupportRecogBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ExecRowRecogSingleRowSequence implements RegressionExecution {
+    public void configure(Configuration configuration) throws Exception {
+        configuration.addEventType("MyEvent", SupportRecogBean.class);
+    }
+
+    public void run(EPServiceProvider epService) throws Exception {
+        runAssertionSequence(epService);
+        runAssertionSameAsDataWindow(epService);
+    }
+
+    private void runAssertionSequence(EPServiceProvider epService) {
+        String[] fields = "a,b,c".split(",");
+        String text = "select * from MyEvent " +
+                "match_recognize (" +
+                "  partition by cat " +
+                "  measures A.theString as a, B.theString as b, C.theString as c " +
+                "  pattern (A B C) " +
+                "  define A as A.value = 1, B as B.value > A.value, C as C.value > B.value" +
+                ")";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(text);
+        SupportUpdateListener listener = new SupportUpdateListener();
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportRecogBean("E1", "X", 1));
+        epService.getEPRuntime().sendEvent(new SupportRecogBean("E2", "Y", 1));
+        epService.getEPRuntime().sendEvent(new SupportRecogBean("E3", "X", 2));
+        epService.getEPRuntime().sendEvent(new SupportRecogBean("E4", "Y", 5));
+        assertFalse(listener.isInvoked());
+
+        epService.getEPRuntime().sendEvent(new SupportRecogBean("E5", "X", 3));
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), fields, new Object[][]{{"E1", "E3", "E5"}});
+
+        epService.getEPRuntime().sendEvent(new SupportRecogBean("E6", "Y", 4));
+        assertFalse(listener.isInvoked());
+
+        epService.getEPRuntime().sendEvent(new SupportRecogBean("E7", "Y", 1));
+        epService.getEPRuntime().sendEvent(new SupportRecogBean("E8", "Y", 1));
+        epService.getEPRuntime().sendEvent(new SupportRecogBean("E9", "Y", 2));
+        epService.getEPRuntime().sendEvent(new SupportRecogBean("E10", "Y", 3));
+        EPAssertionUtil.assertPropsPerRow(listener.getAndResetLastNewData(), fields, new Object[][]{{"E8", "E9", "E10"}});
+
+        stmt.destroy();
+    }
+
+    private void runAssertionSameAsDataWindow(EPServiceProvider epService) {
+        String[] patterns = new String[]{
+            "  pattern (A B) define B as B.value > A.value",
+            "  pattern (A B C) define A as A.value < 5, B as B.value > A.value, C as C.value > B.value",
+            "  after match skip to next row pattern (A B C) define B as B.value > A.value, C as C.value < B.value",
+            "  all matches pattern (A B C D) define B as B.value >= A.value, C as C.value >= B.value, D as D.value < A.value",
+            "  pattern (A B) define A as A.value > prev(A.value), B as B.value < prev(B.value, 2)",
+        };
+        for (String pattern : patterns) {
+            String measures = "partition by cat measures A.theString as a, B.theString as b " + pattern;
+            SupportUpdateListener listenerUnbound = new SupportUpdateListener();
+            SupportUpdateListener listenerWindow = new SupportUpdateListener();
+            epService.getEPAdministrator().createEPL("select * from MyEvent match_recognize (" + measures + ")").addListener(listenerUnbound);
+            epService.getEPAdministrator().createEPL("select * from MyEvent#keepall match_recognize (" + measures + ")").addListener(listenerWindow);
+
+            Random random = new Random(1);
+            for (int i = 0; i < 2000; i++) {
+                epService.getEPRuntime().sendEvent(new SupportRecogBean("E" + i, "C" + random.nextInt(4), random.nextInt(10)));
+            }
+
+            List<String> received = toStrings(listenerUnbound.getNewDataListFlattened());
+            assertTrue(pattern, received.size() > 10);
+            assertEquals(pattern, toStrings(listenerWindow.getNewDataListFlattened()), received);
+
+            epService.getEPAdministrator().destroyAllStatements();
+        }
+    }
+
+    private static List<String> toStrings(EventBean[] events) {
+        List<String> result = new ArrayList<String>(events.length);
+        for (EventBean event : events) {
+            result.add(event.get("a") + "," + event.get("b"));
+        }
+        return result;
+    }
+}
@@ -110,6 +110,10 @@ public class TestSuiteRowRecog extends TestCase {
         RegressionRunner.run(new ExecRowRecogRepetition());
     }
 
+    public void testExecRowRecogSingleRowSequence() {
+        RegressionRunner.run(new ExecRowRecogSingleRowSequence());
+    }
+
     public void testExecRowRecogVariantStream() {
         RegressionRunner.run(new ExecRowRecogVariantStream());
     }
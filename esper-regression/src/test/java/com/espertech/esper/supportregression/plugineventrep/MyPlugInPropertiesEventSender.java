@@ -34,6 +34,12 @@ public class MyPlugInPropertiesEventSender implements EventSender {
         runtimeSender.processWrappedEvent(eventBean);
     }
 
+    public void sendEvents(Object[] events) {
+        for (Object theEvent : events) {
+            sendEvent(theEvent);
+        }
+    }
+
     public void route(Object theEvent) {
         if (!(theEvent instanceof Properties)) {
             throw new EPException("Sender expects a properties event");
@@ -45,6 +45,7 @@ public class ConfigurationEngineDefaults implements Serializable {
     private Patterns patterns;
     private MatchRecognize matchRecognize;
     private Scripts scripts;
+    private WriteAheadLog writeAheadLog;
 
     /**
      * Ctor.
@@ -67,6 +68,7 @@ public class ConfigurationEngineDefaults implements Serializable {
         patterns = new Patterns();
         matchRecognize = new MatchRecognize();
         scripts = new Scripts();
+        writeAheadLog = new WriteAheadLog();
     }
 
     /**
@@ -277,6 +279,24 @@ public class ConfigurationEngineDefaults implements Serializable {
         this.scripts = scripts;
     }
 
+    /**
+     * Returns write-ahead log settings.
+     *
+     * @return write-ahead log settings
+     */
+    public WriteAheadLog getWriteAheadLog() {
+        return writeAheadLog;
+    }
+
+    /**
+     * Sets write-ahead log settings.
+     *
+     * @param writeAheadLog write-ahead log settings
+     */
+    public void setWriteAheadLog(WriteAheadLog writeAheadLog) {
+        this.writeAheadLog = writeAheadLog;
+    }
+
     /**
      * Holds threading settings.
      */
@@ -310,6 +330,7 @@ public class ConfigurationEngineDefaults implements Serializable {
         private Integer threadPoolInboundCapacity;
         private Integer threadPoolRouteExecCapacity;
         private Integer threadPoolOutboundCapacity;
+        private boolean isThreadPoolRouteExecSharded;
 
         private boolean engineFairlock;
 
@@ -708,6 +729,30 @@ public class ConfigurationEngineDefaults implements Serializable {
             this.threadPoolRouteExecCapacity = capacity;
         }
 
+        /**
+         * Returns true if route execution is sharded, the default is false.
+         * <p>
+         * When sharded, each statement and each context partition is assigned to exactly one route execution thread
+         * that has its own queue. All event and timer processing for the statement or context partition
+         * then executes on that thread in the order submitted.
+         * </p>
+         *
+         * @return indicator whether route execution is sharded
+         */
+        public boolean isThreadPoolRouteExecSharded() {
+            return isThreadPoolRouteExecSharded;
+        }
+
+        /**
+         * Set to true to shard route execution by statement and context partition, the default is false.
+         * Only applies when route execution threading is enabled.
+         *
+         * @param threadPoolRouteExecSharded indicator whether route execution is sharded
+         */
+        public void setThreadPoolRouteExecSharded(boolean threadPoolRouteExecSharded) {
+            isThreadPoolRouteExecSharded = threadPoolRouteExecSharded;
+        }
+
         /**
          * Returns the capacity of the outbound queue, or null if none defined (the unbounded case, default).
          *
@@ -1319,6 +1364,97 @@ public class ConfigurationEngineDefaults implements Serializable {
         }
     }
 
+    /**
+     * Holds write-ahead log settings.
+     * <p>
+     * When a directory is set, the engine appends each object-array and map event it receives through the runtime
+     * and each external time advance to memory-mapped segment files in that directory before processing it.
+     * Writing a snapshot starts a new segment and removes the segments the snapshot covers, and restoring
+     * the snapshot replays the segments written after it.
+     * <p>
+     * As recovery only restores variables and named window and table rows, the engine rejects statements that
+     * hold other state, such as aggregations, data windows on streams, patterns and contexts, when a directory is set.
+     */
+    public static class WriteAheadLog implements Serializable {
+        private static final long serialVersionUID = 4315871206484720617L;
+        private String directory;
+        private int segmentSize = 64 * 1024 * 1024;
+        private int groupCommitEvents = 1000;
+        private long groupCommitMsec = 100;
+
+        /**
+         * Returns the directory for log segment files, or null (the default) when the write-ahead log is disabled.
+         *
+         * @return directory
+         */
+        public String getDirectory() {
+            return directory;
+        }
+
+        /**
+         * Sets the directory for log segment files, or null to disable the write-ahead log.
+         *
+         * @param directory directory
+         */
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Returns the size in bytes of each log segment file, 64 MB by default.
+         *
+         * @return segment size
+         */
+        public int getSegmentSize() {
+            return segmentSize;
+        }
+
+        /**
+         * Sets the size in bytes of each log segment file.
+         *
+         * @param segmentSize segment size
+         */
+        public void setSegmentSize(int segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+
+        /**
+         * Returns the number of appended records after which the log is forced to storage, 1000 by default.
+         *
+         * @return number of records
+         */
+        public int getGroupCommitEvents() {
+            return groupCommitEvents;
+        }
+
+        /**
+         * Sets the number of appended records after which the log is forced to storage.
+         *
+         * @param groupCommitEvents number of records
+         */
+        public void setGroupCommitEvents(int groupCommitEvents) {
+            this.groupCommitEvents = groupCommitEvents;
+        }
+
+        /**
+         * Returns the number of milliseconds since the last force after which an append forces the log to storage, 100 by default.
+         *
+         * @return milliseconds
+         */
+        public long getGroupCommitMsec() {
+            return groupCommitMsec;
+        }
+
+        /**
+         * Sets the number of milliseconds since the last force after which an append forces the log to storage.
+         *
+         * @param groupCommitMsec milliseconds
+         */
+        public void setGroupCommitMsec(long groupCommitMsec) {
+            this.groupCommitMsec = groupCommitMsec;
+        }
+    }
+
     /**
      * Holds pattern settings.
      */
@@ -1326,6 +1462,7 @@ public class ConfigurationEngineDefaults implements Serializable {
         private static final long serialVersionUID = -7596853289989573800L;
         private Long maxSubexpressions;
         private boolean maxSubexpressionPreventStart = true;
+        private boolean prefixSharing;
 
         /**
          * Returns the maximum number of subexpressions
@@ -1364,6 +1501,26 @@ public class ConfigurationEngineDefaults implements Serializable {
         public void setMaxSubexpressionPreventStart(boolean maxSubexpressionPreventStart) {
             this.maxSubexpressionPreventStart = maxSubexpressionPreventStart;
         }
+
+        /**
+         * Returns true to indicate that pattern statements of the form "every a=A -&gt; b=B(...)" that differ only in constant
+         * criteria of the followed-by filter share a single engine-wide evaluation of the common prefix, the default is false.
+         *
+         * @return indicator whether pattern prefixes are shared
+         */
+        public boolean isPrefixSharing() {
+            return prefixSharing;
+        }
+
+        /**
+         * Set to true to indicate that pattern statements of the form "every a=A -&gt; b=B(...)" that differ only in constant
+         * criteria of the followed-by filter share a single engine-wide evaluation of the common prefix, the default is false.
+         *
+         * @param prefixSharing indicator whether pattern prefixes are shared
+         */
+        public void setPrefixSharing(boolean prefixSharing) {
+            this.prefixSharing = prefixSharing;
+        }
     }
 
     /**
@@ -1751,6 +1908,7 @@ public class ConfigurationEngineDefaults implements Serializable {
         private boolean allowIsolatedService;
         private ThreadingProfile threadingProfile = ThreadingProfile.NORMAL;
         private FilterServiceProfile filterServiceProfile = FilterServiceProfile.READMOSTLY;
+        private SchedulingServiceProfile schedulingServiceProfile = SchedulingServiceProfile.SORTED;
         private int filterServiceMaxFilterWidth = 16;
         private int declaredExprValueCacheSize = 1;
         private CodeGeneration codeGeneration = new CodeGeneration();
@@ -1878,6 +2036,24 @@ public class ConfigurationEngineDefaults implements Serializable {
             this.filterServiceProfile = filterServiceProfile;
         }
 
+        /**
+         * Returns the scheduling service profile for tuning schedule add, remove and evaluation.
+         *
+         * @return scheduling service profile
+         */
+        public SchedulingServiceProfile getSchedulingServiceProfile() {
+            return schedulingServiceProfile;
+        }
+
+        /**
+         * Set the scheduling service profile for tuning schedule add, remove and evaluation.
+         *
+         * @param schedulingServiceProfile scheduling service profile
+         */
+        public void setSchedulingServiceProfile(SchedulingServiceProfile schedulingServiceProfile) {
+            this.schedulingServiceProfile = schedulingServiceProfile;
+        }
+
         /**
          * Returns the maximum width for breaking up "or" expression in filters to
          * subexpressions for reverse indexing.
@@ -1963,6 +2139,22 @@ public class ConfigurationEngineDefaults implements Serializable {
         READWRITE
     }
 
+    /**
+     * Scheduling service profile.
+     */
+    public enum SchedulingServiceProfile {
+        /**
+         * Schedules kept in a sorted map, the default.
+         */
+        SORTED,
+
+        /**
+         * Schedules kept in a hierarchical timing wheel with constant-time add and remove,
+         * for a large number of outstanding schedules such as many time windows and pattern timers.
+         */
+        TIMINGWHEEL
+    }
+
     /**
      * Time source type.
      */
@@ -2278,6 +2470,7 @@ public class ConfigurationEngineDefaults implements Serializable {
      */
     public static class CodeGeneration implements Serializable {
         private boolean enablePropertyGetter = false;
+        private boolean enableExpression = false;
 
         /**
          * Returns indicator whether to enable code generation for event property getters (false by default).
@@ -2294,5 +2487,29 @@ public class ConfigurationEngineDefaults implements Serializable {
         public void setEnablePropertyGetter(boolean enablePropertyGetter) {
             this.enablePropertyGetter = enablePropertyGetter;
         }
+
+        /**
+         * Returns indicator whether to enable code generation for expressions (false by default).
+         * @return indicator
+         */
+        public boolean isEnableExpression() {
+            return enableExpression;
+        }
+
+        /**
+         * Sets indicator whether to enable code generation for expressions (false by default).
+         * <p>
+         *     When enabled, the engine compiles the where-clause and the select-clause expressions of
+         *     statements, and the parameter expression of aggregation functions that take a single parameter
+         *     and no filter, into evaluator classes, falling back to interpreted evaluation for those
+         *     expressions that cannot be compiled. Other expressions, such as having-clause, order-by and group-by
+         *     expressions, multi-parameter or filtered aggregation parameters and the parameters of
+         *     match-recognize aggregations, are interpreted.
+         * </p>
+         * @param enableExpression indicator
+         */
+        public void setEnableExpression(boolean enableExpression) {
+            this.enableExpression = enableExpression;
+        }
     }
 }
@@ -867,6 +867,9 @@ class ConfigurationParser {
             if (subElement.getNodeName().equals("scripts")) {
                 handleDefaultScriptConfig(configuration, subElement);
             }
+            if (subElement.getNodeName().equals("write-ahead-log")) {
+                handleWriteAheadLog(configuration, subElement);
+            }
         }
     }
 
@@ -962,6 +965,10 @@ class ConfigurationParser {
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExec(result.isEnabled());
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecCapacity(result.getCapacity());
+                String shardedStr = getOptionalAttribute(subElement, "sharded");
+                if (shardedStr != null) {
+                    configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecSharded(Boolean.parseBoolean(shardedStr));
+                }
             }
         }
     }
@@ -1060,6 +1067,10 @@ class ConfigurationParser {
                     configuration.getEngineDefaults().getPatterns().setMaxSubexpressionPreventStart(Boolean.parseBoolean(preventText));
                 }
             }
+            if (subElement.getNodeName().equals("prefix-sharing")) {
+                String valueText = getRequiredAttribute(subElement, "enabled");
+                configuration.getEngineDefaults().getPatterns().setPrefixSharing(Boolean.parseBoolean(valueText));
+            }
         }
     }
 
@@ -1279,6 +1290,11 @@ class ConfigurationParser {
             ConfigurationEngineDefaults.FilterServiceProfile profile = ConfigurationEngineDefaults.FilterServiceProfile.valueOf(filterServiceProfileStr.toUpperCase(Locale.ENGLISH));
             configuration.getEngineDefaults().getExecution().setFilterServiceProfile(profile);
         }
+        String schedulingServiceProfileStr = getOptionalAttribute(parentElement, "scheduling-service-profile");
+        if (schedulingServiceProfileStr != null) {
+            ConfigurationEngineDefaults.SchedulingServiceProfile profile = ConfigurationEngineDefaults.SchedulingServiceProfile.valueOf(schedulingServiceProfileStr.toUpperCase(Locale.ENGLISH));
+            configuration.getEngineDefaults().getExecution().setSchedulingServiceProfile(profile);
+        }
         String filterServiceMaxFilterWidthStr = getOptionalAttribute(parentElement, "filter-service-max-filter-width");
         if (filterServiceMaxFilterWidthStr != null) {
             configuration.getEngineDefaults().getExecution().setFilterServiceMaxFilterWidth(Integer.parseInt(filterServiceMaxFilterWidthStr));
@@ -1301,6 +1317,23 @@ class ConfigurationParser {
         }
     }
 
+    private static void handleWriteAheadLog(Configuration configuration, Element parentElement) {
+        ConfigurationEngineDefaults.WriteAheadLog writeAheadLog = configuration.getEngineDefaults().getWriteAheadLog();
+        writeAheadLog.setDirectory(getRequiredAttribute(parentElement, "directory"));
+        String segmentSize = getOptionalAttribute(parentElement, "segment-size");
+        if (segmentSize != null) {
+            writeAheadLog.setSegmentSize(Integer.parseInt(segmentSize));
+        }
+        String groupCommitEvents = getOptionalAttribute(parentElement, "group-commit-events");
+        if (groupCommitEvents != null) {
+            writeAheadLog.setGroupCommitEvents(Integer.parseInt(groupCommitEvents));
+        }
+        String groupCommitMsec = getOptionalAttribute(parentElement, "group-commit-msec");
+        if (groupCommitMsec != null) {
+            writeAheadLog.setGroupCommitMsec(Long.parseLong(groupCommitMsec));
+        }
+    }
+
     private static List<String> getHandlerFactories(Element parentElement) {
         List<String> list = new ArrayList<String>();
         DOMElementIterator nodeIterator = new DOMElementIterator(parentElement.getChildNodes());
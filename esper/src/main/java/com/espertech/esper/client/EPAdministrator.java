@@ -297,4 +297,11 @@ public interface EPAdministrator {
      * @return context partition administrative interface
      */
     public EPContextPartitionAdmin getContextPartitionAdmin();
+
+    /**
+     * Returns the administrative interface for writing and restoring snapshots of variable values and named window and table rows.
+     *
+     * @return snapshot administrative interface
+     */
+    public EPSnapshotAdmin getSnapshotAdmin();
 }
@@ -37,6 +37,22 @@ public interface EPRuntime {
      */
     public void sendEvent(Object object) throws EPException;
 
+    /**
+     * Send a batch of events represented by plain Java objects or {@link EventBean} instances to the event stream processing runtime.
+     * <p>
+     * Events are processed in array order and each event is matched against the filters as they stand after processing
+     * the previous event, same as with sendEvent. The runtime however acquires the event processing lock once for
+     * consecutive events and delivers results to listeners and subscribers once, after the batch or
+     * before any events routed or inserted-into by the batch are processed, so listeners may receive the
+     * results of multiple events in a single invocation.
+     * <p>
+     * Null elements are ignored. Timer events in the batch are processed as by sendEvent, in array order.
+     *
+     * @param events is the events to send to the runtime
+     * @throws EPException is thrown when the processing of an event lead to an error
+     */
+    public void sendEvents(Object[] events) throws EPException;
+
     /**
      * Send a map containing event property values to the event stream processing runtime.
      * <p>
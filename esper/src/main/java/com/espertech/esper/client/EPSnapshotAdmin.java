@@ -0,0 +1,69 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.client;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Administrative interface for writing a snapshot of variable values and named window and table rows to a file
+ * and restoring such a snapshot.
+ * <p>
+ * A snapshot contains the values of non-constant variables, the contents of named windows of map
+ * or object-array event type and the rows of tables that have no aggregation columns, for variables,
+ * named windows and tables that are not associated to a context. Values are written in a compact binary format
+ * and must be of a primitive, boxed, string, big number or array type.
+ * <p>
+ * A snapshot is not a checkpoint of engine state: it does not contain engine time, statement state such as
+ * aggregation values, data window timestamps and ordering, pattern and match-recognize state or schedules.
+ * <p>
+ * Restore requires that the engine declares the same variables, named windows and tables, typically by
+ * creating the same statements before restoring. Restored rows are inserted into the named windows as new events:
+ * they are delivered to consuming statements and time-based data windows consider them as arriving at restore time.
+ * <p>
+ * When the engine keeps a write-ahead log, writing a snapshot also starts a new log segment and restoring a snapshot
+ * replays the events and time advances logged after it.
+ */
+public interface EPSnapshotAdmin {
+    /**
+     * Write a snapshot of variable values and named window and table rows to the file, replacing the file only once
+     * the snapshot is complete.
+     * <p>
+     * Event processing is held off while the snapshot is written so that all variables, named windows and tables
+     * are written as of the same point in time.
+     *
+     * @param file to write
+     * @throws IOException  when the file could not be written
+     * @throws EPException when the engine holds state that cannot be written to a snapshot
+     */
+    public void writeSnapshot(File file) throws IOException, EPException;
+
+    /**
+     * Restore variable values and named window and table rows from a snapshot file.
+     * <p>
+     * When the engine keeps a write-ahead log, the events and time advances logged after the snapshot are replayed
+     * after the snapshot state is restored.
+     *
+     * @param file to read
+     * @throws IOException  when the file could not be read or is not a snapshot
+     * @throws EPException when the engine does not declare the variables, named windows or tables of the snapshot or their types differ
+     */
+    public void restoreSnapshot(File file) throws IOException, EPException;
+
+    /**
+     * Replay all events and time advances of the write-ahead log that were logged by a previous engine run,
+     * for use when no snapshot was written. Has no effect when the engine does not keep a write-ahead log.
+     *
+     * @throws IOException  when the log could not be read
+     * @throws EPException when processing a replayed event failed
+     */
+    public void replayWriteAheadLog() throws IOException, EPException;
+}
@@ -32,6 +32,14 @@ public interface EventSender {
      */
     public void sendEvent(Object theEvent) throws EPException;
 
+    /**
+     * Processes a batch of event objects, see {@link EPRuntime#sendEvents(Object[])} for the batch semantics.
+     *
+     * @param events to process
+     * @throws EPException if a runtime error occured.
+     */
+    public void sendEvents(Object[] events) throws EPException;
+
     /**
      * Route the event object back to the event stream processing runtime for internal dispatching,
      * to avoid the possibility of a stack overflow due to nested calls to sendEvent.
@@ -42,6 +42,24 @@ public enum HintEnum {
      */
     RECLAIM_GROUP_FREQ("RECLAIM_GROUP_FREQ", true, true, false),
 
+    /**
+     * For use with create-context statements declaring a keyed segmented context, reclaim context partitions based on time.
+     * The number of seconds after which a context partition is reclaimed if no event arrived for its key.
+     */
+    RECLAIM_PARTITION_AGED("RECLAIM_PARTITION_AGED", true, true, false),
+
+    /**
+     * For use with create-context statements declaring a keyed segmented context, this number is the frequency in seconds
+     * at which a sweep occurs for aged context partitions, if not provided then the sweep frequency is the same number as the age.
+     */
+    RECLAIM_PARTITION_FREQ("RECLAIM_PARTITION_FREQ", true, true, false),
+
+    /**
+     * For use with create-context statements declaring a keyed segmented context, the maximum number of context partitions
+     * after which the context partition that least recently received an event for its key is reclaimed.
+     */
+    RECLAIM_PARTITION_MAX("RECLAIM_PARTITION_MAX", true, true, false),
+
     /**
      * For use with create-named-window statements only, to indicate that statements that subquery the named window
      * use named window data structures (unless the subquery statement specifies below DISBABLE hint and as listed below).
@@ -61,6 +79,26 @@ public enum HintEnum {
      */
     DISABLE_WINDOW_SUBQUERY_INDEXSHARE("DISABLE_WINDOW_SUBQUERY_INDEXSHARE", false, false, false),
 
+    /**
+     * For use with create-named-window statements only, to indicate that the named window stores the property values
+     * of its object-array events in off-heap memory, decoding the values when accessed.
+     */
+    ENABLE_WINDOW_OFFHEAP_STORAGE("ENABLE_WINDOW_OFFHEAP_STORAGE", false, false, false),
+
+    /**
+     * For use with create-named-window statements only, to indicate that iterators and fire-and-forget queries that
+     * do not use an index read a point-in-time version of the named window contents, in arrival order,
+     * without taking the named window lock.
+     */
+    ENABLE_WINDOW_SNAPSHOT_ISOLATION("ENABLE_WINDOW_SNAPSHOT_ISOLATION", false, false, false),
+
+    /**
+     * For use with fire-and-forget queries to evaluate the where-clause and stream filters over the snapshot of a
+     * named window or table, and snapshot the context partitions of a named window, in parallel using fork-join tasks.
+     * Not supported for queries with aggregation functions or group-by.
+     */
+    ENABLE_FAF_PARALLEL("ENABLE_FAF_PARALLEL", false, false, false),
+
     /**
      * For use with subqueries and on-select, on-merge, on-update and on-delete to specify the query engine neither
      * build an implicit index nor use an existing index, always performing a full table scan.
@@ -105,7 +143,12 @@ public enum HintEnum {
     /**
      * For use with output rate limiting to enable certain optimization that may however change output.
      */
-    ENABLE_OUTPUTLIMIT_OPT("ENABLE_OUTPUTLIMIT_OPT", false, false, false);
+    ENABLE_OUTPUTLIMIT_OPT("ENABLE_OUTPUTLIMIT_OPT", false, false, false),
+
+    /**
+     * For use with patterns to index outstanding correlated filter instances in place of registering each with the filter service.
+     */
+    ENABLE_PATTERN_CORRELATION_INDEX("ENABLE_PATTERN_CORRELATION_INDEX", false, false, false);
 
     private final String value;
     private final boolean acceptsParameters;
@@ -37,6 +37,19 @@ public interface EPContextPartitionAdmin {
      */
     public int getContextNestingLevel(String contextName);
 
+    /**
+     * Returns the number of context partitions of a keyed segmented context that the engine reclaimed
+     * according to the reclaim_partition_aged or reclaim_partition_max hint.
+     * <p>
+     * For nested contexts the number is the total over all keyed segmented nesting levels.
+     * </p>
+     *
+     * @param contextName context name
+     * @return number of context partitions reclaimed since the context was declared
+     * @throws IllegalArgumentException if a context by that name was not declared
+     */
+    public long getContextPartitionsReclaimed(String contextName);
+
     /**
      * Destroy one or more context partitions dropping the associated state and removing associated context partition metadata.
      * <p>
@@ -76,6 +76,19 @@ public class CodegenCompiler {
         }
     }
 
+    /**
+     * For testing, returns the source code for a class.
+     *
+     * @param clazz             class
+     * @param classLevelComment optional comment
+     * @return source code
+     */
+    static String generateCode(CodegenClass clazz, String classLevelComment) {
+        Set<CodegenMember> memberSet = new LinkedHashSet<>(clazz.getMembers());
+        Map<Class, String> imports = compileImports(clazz.getReferencedClasses());
+        return generateCode(imports, clazz, memberSet, classLevelComment);
+    }
+
     @SuppressWarnings("unchecked")
     private static void setupJanino() {
         String classnameCompiler = "org.codehaus.janino.SimpleCompiler";
@@ -0,0 +1,79 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.codegen.compile;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.util.ClassLoaderProvider;
+import com.espertech.esper.codegen.core.*;
+import com.espertech.esper.epl.expression.core.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.espertech.esper.codegen.compile.CodegenExprNode.*;
+import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.localMethod;
+import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.ref;
+import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.staticMethod;
+
+/**
+ * Compiles a validated expression tree into a class implementing {@link ExprEvaluatorPrimitive}.
+ * <p>
+ * The primitive-typed methods unbox the result of the generated evaluation in the same way as
+ * {@link ExprEvaluatorPrimitiveUtil}.
+ */
+public class CodegenExprEvaluator {
+    public static ExprEvaluatorPrimitive compile(String engineURI, ClassLoaderProvider classLoaderProvider, ExprNode node, String expressionText) {
+        CodegenClass clazz = makeClass(engineURI, node);
+        String debugInfo = null;
+        if (CodegenCompiler.DEBUG) {
+            debugInfo = "Expression '" + expressionText + "'";
+        }
+        return CodegenCompiler.compile(clazz, classLoaderProvider, ExprEvaluatorPrimitive.class, debugInfo);
+    }
+
+    static CodegenClass makeClass(String engineURI, ExprNode node) {
+        CodegenContext codegenContext = new CodegenContext();
+        List<CodegenNamedParam> evaluateParams = CodegenNamedParam.from(EventBean[].class, REF_EPS, boolean.class, REF_ISNEWDATA, ExprEvaluatorContext.class, REF_CTX);
+
+        // For: public Object evaluate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context);
+        // For: public Class getType();
+        CodegenMethod evaluateMethod = new CodegenMethod(Object.class, "evaluate", evaluateParams, null);
+        evaluateMethod.statements().methodReturn(CodegenExprNode.codegen(node, codegenContext));
+        CodegenMember type = codegenContext.makeAddMember(Class.class, node.getExprEvaluator().getType());
+        CodegenMethod getTypeMethod = new CodegenMethod(Class.class, "getType", Collections.<CodegenNamedParam>emptyList(), null);
+        getTypeMethod.statements().methodReturn(ref(type.getMemberName()));
+
+        // For: public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag);
+        // For: public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag);
+        // For: public boolean evaluateBoolean(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag);
+        CodegenMethod evaluateDoubleMethod = makeUnboxMethod(double.class, "evaluateDouble", "unboxDouble");
+        CodegenMethod evaluateLongMethod = makeUnboxMethod(long.class, "evaluateLong", "unboxLong");
+        CodegenMethod evaluateBooleanMethod = makeUnboxMethod(boolean.class, "evaluateBoolean", "unboxBoolean");
+
+        return new CodegenClass(
+                "com.espertech.esper.codegen.uri_" + engineURI,
+                ExprEvaluator.class.getSimpleName() + "_" + CodeGenerationIDGenerator.generateClass(),
+                ExprEvaluatorPrimitive.class,
+                codegenContext.getMembers(),
+                Arrays.asList(evaluateMethod, getTypeMethod, evaluateDoubleMethod, evaluateLongMethod, evaluateBooleanMethod),
+                codegenContext.getMethods()
+        );
+    }
+
+    private static CodegenMethod makeUnboxMethod(Class returnType, String methodName, String unboxMethodName) {
+        List<CodegenNamedParam> params = CodegenNamedParam.from(EventBean[].class, REF_EPS, boolean.class, REF_ISNEWDATA, ExprEvaluatorContext.class, REF_CTX, ExprEvaluatorNullFlag.class, REF_NULLFLAG);
+        CodegenMethod method = new CodegenMethod(returnType, methodName, params, null);
+        method.statements().methodReturn(staticMethod(ExprEvaluatorPrimitiveUtil.class, unboxMethodName,
+                localMethod("evaluate", ref(REF_EPS), ref(REF_ISNEWDATA), ref(REF_CTX)), ref(REF_NULLFLAG)));
+        return method;
+    }
+}
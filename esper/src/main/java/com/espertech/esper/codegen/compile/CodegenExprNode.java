@@ -0,0 +1,331 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.codegen.compile;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.codegen.core.CodegenBlock;
+import com.espertech.esper.codegen.core.CodegenContext;
+import com.espertech.esper.codegen.core.CodegenMember;
+import com.espertech.esper.codegen.core.CodegenNamedParam;
+import com.espertech.esper.codegen.model.expression.CodegenExpression;
+import com.espertech.esper.epl.expression.core.*;
+import com.espertech.esper.epl.expression.funcs.ExprCastNode;
+import com.espertech.esper.epl.expression.ops.*;
+import com.espertech.esper.event.EventPropertyGetterSPI;
+import com.espertech.esper.type.MathArithTypeEnum;
+import com.espertech.esper.util.CoercionException;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.espertech.esper.codegen.model.expression.CodegenExpressionBuilder.*;
+
+/**
+ * Generates code for validated expression trees.
+ * <p>
+ * Arithmetic, relational, equals, logical and cast nodes as well as constants and event property access
+ * are generated as code. Any other node is evaluated by invoking its interpreted evaluator.
+ * Each generated node is a private method that takes the same parameters as {@link ExprEvaluator#evaluate}
+ * and that returns the boxed value type of the node, so that operands are not cast from {@link Object}.
+ * </p>
+ */
+public class CodegenExprNode {
+    protected static final String REF_EPS = "eps";
+    protected static final String REF_ISNEWDATA = "isNewData";
+    protected static final String REF_CTX = "ctx";
+    protected static final String REF_NULLFLAG = "nullFlag";
+
+    private static final List<CodegenNamedParam> PARAMS = CodegenNamedParam.from(EventBean[].class, REF_EPS, boolean.class, REF_ISNEWDATA, ExprEvaluatorContext.class, REF_CTX);
+    private static final Set<Class> NUMERIC_TYPES = new HashSet<>(Arrays.<Class>asList(Integer.class, Long.class, Double.class, Float.class, Short.class, Byte.class));
+    private static final Set<Class> VALUE_TYPES = new HashSet<>(Arrays.<Class>asList(Integer.class, Long.class, Double.class, Float.class, Short.class, Byte.class, Boolean.class, String.class, Character.class));
+
+    /**
+     * Returns true if the root node of an expression tree is generated as code rather than interpreted.
+     *
+     * @param node root node
+     * @return indicator
+     */
+    public static boolean isCompilableRoot(ExprNode node) {
+        if (node instanceof ExprMathNode) {
+            return isCompilableMath((ExprMathNode) node);
+        }
+        if (node instanceof ExprRelationalOpNodeImpl) {
+            return isCompilableRelational((ExprRelationalOpNodeImpl) node);
+        }
+        if (node instanceof ExprEqualsNodeImpl) {
+            return getEqualsCoercionType((ExprEqualsNodeImpl) node) != null;
+        }
+        if (node instanceof ExprAndNodeImpl || node instanceof ExprOrNode || node instanceof ExprNotNode) {
+            return isAllChildTypes(node, Boolean.class);
+        }
+        if (node instanceof ExprCastNode) {
+            return isCompilableCast((ExprCastNode) node);
+        }
+        return false;
+    }
+
+    /**
+     * Returns the boxed type of the value returned by the code generated for the node.
+     *
+     * @param node node
+     * @return value type, or Object if the type is not one of the supported value types
+     */
+    public static Class getValueType(ExprNode node) {
+        Class type = JavaClassHelper.getBoxedType(node.getExprEvaluator().getType());
+        return VALUE_TYPES.contains(type) ? type : Object.class;
+    }
+
+    /**
+     * Generates code for a node, returning an expression that evaluates the node and returns its value type.
+     *
+     * @param node           node to generate code for
+     * @param codegenContext context that receives members and methods
+     * @return expression
+     */
+    public static CodegenExpression codegen(ExprNode node, CodegenContext codegenContext) {
+        if (node instanceof ExprConstantNode && ((ExprConstantNode) node).isConstantValue()) {
+            Object value = ((ExprConstantNode) node).getConstantValue(null);
+            CodegenMember member = codegenContext.makeAddMember(getValueType(node), value);
+            return ref(member.getMemberName());
+        }
+        if (node instanceof ExprIdentNode) {
+            CodegenExpression ident = codegenIdent((ExprIdentNode) node, codegenContext);
+            if (ident != null) {
+                return ident;
+            }
+        }
+        if (isCompilableRoot(node)) {
+            CodegenBlock block = codegenContext.addMethod(getValueType(node), PARAMS, CodegenExprNode.class);
+            String method;
+            if (node instanceof ExprMathNode) {
+                method = codegenMath((ExprMathNode) node, block, codegenContext);
+            } else if (node instanceof ExprRelationalOpNodeImpl) {
+                method = codegenRelational((ExprRelationalOpNodeImpl) node, block, codegenContext);
+            } else if (node instanceof ExprEqualsNodeImpl) {
+                method = codegenEquals((ExprEqualsNodeImpl) node, block, codegenContext);
+            } else if (node instanceof ExprAndNodeImpl) {
+                method = codegenAndOr(node, true, block, codegenContext);
+            } else if (node instanceof ExprOrNode) {
+                method = codegenAndOr(node, false, block, codegenContext);
+            } else if (node instanceof ExprNotNode) {
+                method = codegenNot((ExprNotNode) node, block, codegenContext);
+            } else {
+                method = codegenCast((ExprCastNode) node, block, codegenContext);
+            }
+            return localMethod(method, ref(REF_EPS), ref(REF_ISNEWDATA), ref(REF_CTX));
+        }
+        return codegenInterpreted(node, codegenContext);
+    }
+
+    private static CodegenExpression codegenInterpreted(ExprNode node, CodegenContext codegenContext) {
+        CodegenMember member = codegenContext.makeAddMember(ExprEvaluator.class, node.getExprEvaluator());
+        CodegenExpression evaluate = exprDotMethod(ref(member.getMemberName()), "evaluate", ref(REF_EPS), ref(REF_ISNEWDATA), ref(REF_CTX));
+        Class valueType = getValueType(node);
+        return valueType == Object.class ? evaluate : cast(valueType, evaluate);
+    }
+
+    private static CodegenExpression codegenIdent(ExprIdentNode node, CodegenContext codegenContext) {
+        ExprEvaluator evaluator = node.getExprEvaluator();
+        if (evaluator.getClass() != ExprIdentNodeEvaluatorImpl.class) {
+            return null;
+        }
+        ExprIdentNodeEvaluatorImpl identEvaluator = (ExprIdentNodeEvaluatorImpl) evaluator;
+        if (!(identEvaluator.getGetter() instanceof EventPropertyGetterSPI)) {
+            return null;
+        }
+        EventPropertyGetterSPI getter = (EventPropertyGetterSPI) identEvaluator.getGetter();
+        Class valueType = getValueType(node);
+        CodegenBlock block = codegenContext.addMethod(valueType, PARAMS, CodegenExprNode.class)
+                .declareVar(EventBean.class, "bean", arrayAtIndex(ref(REF_EPS), constant(identEvaluator.getStreamNum())))
+                .ifRefNullReturnNull("bean")
+                .declareVar(Object.class, "value", getter.codegenEventBeanGet(ref("bean"), codegenContext));
+        String method = block.methodReturn(valueType == Object.class ? ref("value") : cast(valueType, ref("value")));
+        return localMethod(method, ref(REF_EPS), ref(REF_ISNEWDATA), ref(REF_CTX));
+    }
+
+    private static boolean isCompilableMath(ExprMathNode node) {
+        Class resultType = node.getType();
+        if (resultType != Integer.class && resultType != Long.class && resultType != Double.class && resultType != Float.class) {
+            return false;
+        }
+        if (node.getMathArithTypeEnum() == MathArithTypeEnum.DIVIDE && resultType != Double.class) {
+            return false;
+        }
+        return isAllChildTypesNumeric(node);
+    }
+
+    private static String codegenMath(ExprMathNode node, CodegenBlock block, CodegenContext codegenContext) {
+        Class resultType = node.getType();
+        String primitive = JavaClassHelper.getPrimitiveType(resultType).getName();
+        codegenOperands(node, block, codegenContext);
+        CodegenExpression left = exprDotMethod(ref("l"), primitive + "Value");
+        CodegenExpression right = exprDotMethod(ref("r"), primitive + "Value");
+        if (node.getMathArithTypeEnum() == MathArithTypeEnum.DIVIDE) {
+            block.declareVar(double.class, "divisor", right);
+            if (node.isDivisionByZeroReturnsNull()) {
+                block.ifConditionReturnConst(op(ref("divisor"), "==", constant(0)), null);
+            }
+            right = ref("divisor");
+        }
+        return block.methodReturn(staticMethod(resultType, "valueOf", op(left, node.getMathArithTypeEnum().getExpressionText(), right)));
+    }
+
+    private static boolean isCompilableRelational(ExprRelationalOpNodeImpl node) {
+        Class typeOne = getValueType(node.getChildNodes()[0]);
+        Class typeTwo = getValueType(node.getChildNodes()[1]);
+        if (typeOne == String.class && typeTwo == String.class) {
+            return true;
+        }
+        if (!NUMERIC_TYPES.contains(typeOne) || !NUMERIC_TYPES.contains(typeTwo)) {
+            return false;
+        }
+        try {
+            return NUMERIC_TYPES.contains(JavaClassHelper.getCompareToCoercionType(typeOne, typeTwo));
+        } catch (CoercionException ex) {
+            return false;
+        }
+    }
+
+    private static String codegenRelational(ExprRelationalOpNodeImpl node, CodegenBlock block, CodegenContext codegenContext) {
+        codegenOperands(node, block, codegenContext);
+        String relational = node.getRelationalOpEnum().getExpressionText();
+        CodegenExpression result;
+        if (getValueType(node.getChildNodes()[0]) == String.class) {
+            result = op(exprDotMethod(ref("l"), "compareTo", ref("r")), relational, constant(0));
+        } else {
+            Class compareType = JavaClassHelper.getCompareToCoercionType(getValueType(node.getChildNodes()[0]), getValueType(node.getChildNodes()[1]));
+            String method = compareType == Double.class || compareType == Float.class ? "doubleValue" : "longValue";
+            result = op(exprDotMethod(ref("l"), method), relational, exprDotMethod(ref("r"), method));
+        }
+        return block.methodReturn(staticMethod(Boolean.class, "valueOf", result));
+    }
+
+    /**
+     * Returns the coercion type for equals: Object when comparing using equals, a numeric type when comparing
+     * numeric values, or null when the node is not generated as code.
+     */
+    private static Class getEqualsCoercionType(ExprEqualsNodeImpl node) {
+        Class typeOne = JavaClassHelper.getBoxedType(node.getChildNodes()[0].getExprEvaluator().getType());
+        Class typeTwo = JavaClassHelper.getBoxedType(node.getChildNodes()[1].getExprEvaluator().getType());
+        if (typeOne == null || typeTwo == null) {
+            return null;
+        }
+        if (typeOne.equals(typeTwo) || typeOne.isAssignableFrom(typeTwo)) {
+            return Object.class;
+        }
+        if (node.isIs() || !NUMERIC_TYPES.contains(getValueType(node.getChildNodes()[0])) || !NUMERIC_TYPES.contains(getValueType(node.getChildNodes()[1]))) {
+            return null;
+        }
+        try {
+            Class coercionType = JavaClassHelper.getCompareToCoercionType(typeOne, typeTwo);
+            return NUMERIC_TYPES.contains(coercionType) ? coercionType : null;
+        } catch (CoercionException ex) {
+            return null;
+        }
+    }
+
+    private static String codegenEquals(ExprEqualsNodeImpl node, CodegenBlock block, CodegenContext codegenContext) {
+        Class coercionType = getEqualsCoercionType(node);
+        block.declareVar(getValueType(node.getChildNodes()[0]), "l", codegen(node.getChildNodes()[0], codegenContext))
+                .declareVar(getValueType(node.getChildNodes()[1]), "r", codegen(node.getChildNodes()[1], codegenContext));
+
+        CodegenExpression equals;
+        if (coercionType == Object.class) {
+            equals = exprDotMethod(ref("l"), "equals", ref("r"));
+        } else if (coercionType == Double.class) {
+            equals = op(staticMethod(Double.class, "compare", exprDotMethod(ref("l"), "doubleValue"), exprDotMethod(ref("r"), "doubleValue")), "==", constant(0));
+        } else if (coercionType == Float.class) {
+            equals = op(staticMethod(Float.class, "compare", exprDotMethod(ref("l"), "floatValue"), exprDotMethod(ref("r"), "floatValue")), "==", constant(0));
+        } else if (coercionType == Long.class) {
+            equals = op(exprDotMethod(ref("l"), "longValue"), "==", exprDotMethod(ref("r"), "longValue"));
+        } else {
+            equals = op(exprDotMethod(ref("l"), "intValue"), "==", exprDotMethod(ref("r"), "intValue"));
+        }
+        CodegenExpression result = node.isNotEquals() ? not(equals) : equals;
+
+        if (!node.isIs()) {
+            block.ifRefNullReturnNull("l")
+                    .ifRefNullReturnNull("r");
+            return block.methodReturn(staticMethod(Boolean.class, "valueOf", result));
+        }
+
+        CodegenExpression rightIsNull = equalsNull(ref("r"));
+        block.ifCondition(equalsNull(ref("l")))
+                .blockReturn(staticMethod(Boolean.class, "valueOf", node.isNotEquals() ? not(rightIsNull) : rightIsNull))
+                .ifCondition(rightIsNull)
+                .blockReturn(staticMethod(Boolean.class, "valueOf", constant(node.isNotEquals())));
+        return block.methodReturn(staticMethod(Boolean.class, "valueOf", result));
+    }
+
+    private static String codegenAndOr(ExprNode node, boolean isAnd, CodegenBlock block, CodegenContext codegenContext) {
+        block.declareVar(Boolean.class, "result", staticMethod(Boolean.class, "valueOf", constant(isAnd)));
+        for (int i = 0; i < node.getChildNodes().length; i++) {
+            String child = "c" + i;
+            CodegenExpression decisive = exprDotMethod(ref(child), "booleanValue");
+            block.declareVar(Boolean.class, child, codegen(node.getChildNodes()[i], codegenContext))
+                    .ifCondition(equalsNull(ref(child)))
+                    .assignRef("result", constantNull())
+                    .blockElseIf(isAnd ? not(decisive) : decisive)
+                    .blockReturn(staticMethod(Boolean.class, "valueOf", constant(!isAnd)));
+        }
+        return block.methodReturn(ref("result"));
+    }
+
+    private static String codegenNot(ExprNotNode node, CodegenBlock block, CodegenContext codegenContext) {
+        return block.declareVar(Boolean.class, "value", codegen(node.getChildNodes()[0], codegenContext))
+                .ifRefNullReturnNull("value")
+                .methodReturn(staticMethod(Boolean.class, "valueOf", not(exprDotMethod(ref("value"), "booleanValue"))));
+    }
+
+    private static boolean isCompilableCast(ExprCastNode node) {
+        if (node.isConstantResult()) {
+            return false;
+        }
+        Class targetType = JavaClassHelper.getBoxedType(node.getTargetType());
+        return NUMERIC_TYPES.contains(targetType) && node.getChildNodes().length == 1 && isAllChildTypesNumeric(node);
+    }
+
+    private static String codegenCast(ExprCastNode node, CodegenBlock block, CodegenContext codegenContext) {
+        Class targetType = JavaClassHelper.getBoxedType(node.getTargetType());
+        String primitive = JavaClassHelper.getPrimitiveType(targetType).getName();
+        return block.declareVar(getValueType(node.getChildNodes()[0]), "value", codegen(node.getChildNodes()[0], codegenContext))
+                .ifRefNullReturnNull("value")
+                .methodReturn(staticMethod(targetType, "valueOf", exprDotMethod(ref("value"), primitive + "Value")));
+    }
+
+    private static void codegenOperands(ExprNode node, CodegenBlock block, CodegenContext codegenContext) {
+        block.declareVar(getValueType(node.getChildNodes()[0]), "l", codegen(node.getChildNodes()[0], codegenContext))
+                .ifRefNullReturnNull("l")
+                .declareVar(getValueType(node.getChildNodes()[1]), "r", codegen(node.getChildNodes()[1], codegenContext))
+                .ifRefNullReturnNull("r");
+    }
+
+    private static boolean isAllChildTypesNumeric(ExprNode node) {
+        for (ExprNode child : node.getChildNodes()) {
+            if (!NUMERIC_TYPES.contains(getValueType(child))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAllChildTypes(ExprNode node, Class type) {
+        for (ExprNode child : node.getChildNodes()) {
+            if (getValueType(child) != type) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
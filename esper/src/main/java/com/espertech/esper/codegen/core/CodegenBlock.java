@@ -68,6 +68,15 @@ public class CodegenBlock {
         return block;
     };
 
+    public CodegenBlock ifCondition(CodegenExpression condition) {
+        checkClosed();
+        CodegenStatementIf ifStmt = new CodegenStatementIf(this);
+        CodegenBlock block = new CodegenBlock(ifStmt);
+        ifStmt.add(condition, block);
+        statements.add(ifStmt);
+        return block;
+    }
+
     public CodegenBlock forLoopInt(String name, CodegenExpression upperLimit) {
         checkClosed();
         CodegenStatementForInt forStmt = new CodegenStatementForInt(this, name, upperLimit);
@@ -56,6 +56,13 @@ public class CodegenContext {
         return method.statements();
     }
 
+    public CodegenBlock addMethod(Class returnType, List<CodegenNamedParam> params, Class generator) {
+        String methodName = CodeGenerationIDGenerator.generateMethod();
+        CodegenMethod method = new CodegenMethod(returnType, methodName, params, getGeneratorDetail(generator));
+        methods.add(method);
+        return method.statements();
+    }
+
     public CodegenBlock addMethod(Class returnType, Class generator) {
         String methodName = CodeGenerationIDGenerator.generateMethod();
         CodegenMethod method = new CodegenMethod(returnType, methodName, Collections.<CodegenNamedParam>emptyList(), getGeneratorDetail(generator));
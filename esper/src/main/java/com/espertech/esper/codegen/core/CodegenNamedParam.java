@@ -37,6 +37,14 @@ public class CodegenNamedParam {
         return result;
     }
 
+    public static List<CodegenNamedParam> from(Class typeOne, String nameOne, Class typeTwo, String nameTwo, Class typeThree, String nameThree) {
+        List<CodegenNamedParam> result = new ArrayList<>(3);
+        result.add(new CodegenNamedParam(typeOne, nameOne));
+        result.add(new CodegenNamedParam(typeTwo, nameTwo));
+        result.add(new CodegenNamedParam(typeThree, nameThree));
+        return result;
+    }
+
     public static List<CodegenNamedParam> from(Class typeOne, String nameOne) {
         return Collections.singletonList(new CodegenNamedParam(typeOne, nameOne));
     }
@@ -42,8 +42,8 @@ public class CodegenExpressionBuilder {
         return new CodegenExpressionBeanUndCastArrayAtIndex(clazz, beanExpression, index);
     }
 
-    public static CodegenExpression localMethod(String methodName, CodegenExpression expression) {
-        return new CodegenExpressionLocalMethod(methodName, expression);
+    public static CodegenExpression localMethod(String methodName, CodegenExpression... expressions) {
+        return new CodegenExpressionLocalMethod(methodName, expressions);
     }
 
     public static CodegenExpression constantTrue() {
@@ -126,6 +126,10 @@ public class CodegenExpressionBuilder {
         return new CodegenExpressionRelational(lhs, op, rhs);
     }
 
+    public static CodegenExpression op(CodegenExpression lhs, String op, CodegenExpression rhs) {
+        return new CodegenExpressionOp(lhs, op, rhs);
+    }
+
     public static CodegenExpression newArray(Class component, CodegenExpression expression) {
         return new CodegenExpressionNewArray(component, expression);
     }
@@ -15,20 +15,20 @@ import java.util.Set;
 
 public class CodegenExpressionLocalMethod implements CodegenExpression {
     private final String method;
-    private final CodegenExpression expression;
+    private final CodegenExpression[] expressions;
 
-    public CodegenExpressionLocalMethod(String method, CodegenExpression expression) {
+    public CodegenExpressionLocalMethod(String method, CodegenExpression... expressions) {
         this.method = method;
-        this.expression = expression;
+        this.expressions = expressions;
     }
 
     public void render(StringBuilder builder, Map<Class, String> imports) {
         builder.append(method).append("(");
-        expression.render(builder, imports);
+        CodegenExpressionBuilder.renderExpressions(builder, expressions, imports);
         builder.append(")");
     }
 
     public void mergeClasses(Set<Class> classes) {
-        expression.mergeClasses(classes);
+        CodegenExpressionBuilder.mergeClassesExpressions(classes, expressions);
     }
 }
@@ -44,7 +44,7 @@ public class CodegenStatementIf extends CodegenStatementWBlockBase {
             builder.append(") {\n");
             pair.getBlock().render(builder, imports);
             builder.append("}");
-            delimiter = "\n";
+            delimiter = " else ";
         }
         if (optionalElse != null) {
             builder.append("else {\n");
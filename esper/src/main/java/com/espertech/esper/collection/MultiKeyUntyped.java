@@ -35,6 +35,18 @@ public final class MultiKeyUntyped implements MetaDefItem, Serializable {
             throw new IllegalArgumentException("The array of keys must not be null");
         }
 
+        this.hashCode = computeHashCode(keys);
+        this.keys = keys;
+    }
+
+    /**
+     * Computes the hash code that a multi-key for the given key objects would have,
+     * without allocating the multi-key.
+     *
+     * @param keys is an array of key objects
+     * @return hash code
+     */
+    public static int computeHashCode(Object[] keys) {
         int total = 0;
         for (int i = 0; i < keys.length; i++) {
             if (keys[i] != null) {
@@ -42,9 +54,7 @@ public final class MultiKeyUntyped implements MetaDefItem, Serializable {
                 total ^= keys[i].hashCode();
             }
         }
-
-        this.hashCode = total;
-        this.keys = keys;
+        return total;
     }
 
     /**
@@ -0,0 +1,88 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import java.util.Arrays;
+
+/**
+ * Hash map keyed by {@link MultiKeyUntyped} that uses open addressing with linear probing.
+ * <p>
+ * In addition to the regular map operations the map can be probed by an array of key values,
+ * so that callers that read the key values from an event into a reusable buffer only need to allocate
+ * a {@link MultiKeyUntyped} when a new entry is inserted.
+ * <p>
+ * Keys added through {@link #put(Object, Object)} must be {@link MultiKeyUntyped} instances.
+ * See {@link OpenAddressingHashMapBase} for the layout. The map is not synchronized.
+ */
+public final class MultiKeyUntypedHashMap<V> extends OpenAddressingHashMapBase<V> {
+
+    /**
+     * Ctor.
+     */
+    public MultiKeyUntypedHashMap() {
+    }
+
+    /**
+     * Returns the value for the key consisting of the key values provided, without allocating a key.
+     *
+     * @param keyValues key values
+     * @return value or null if not found
+     */
+    public V getByValues(Object[] keyValues) {
+        return getProbe(keyValues, MultiKeyUntyped.computeHashCode(keyValues));
+    }
+
+    /**
+     * Removes the entry for the key consisting of the key values provided, without allocating a key.
+     *
+     * @param keyValues key values
+     * @return removed value or null if not found
+     */
+    public V removeByValues(Object[] keyValues) {
+        return removeProbe(keyValues, MultiKeyUntyped.computeHashCode(keyValues));
+    }
+
+    public V get(Object key) {
+        if (!(key instanceof MultiKeyUntyped)) {
+            return null;
+        }
+        MultiKeyUntyped mk = (MultiKeyUntyped) key;
+        return getProbe(mk.getKeys(), mk.hashCode());
+    }
+
+    public boolean containsKey(Object key) {
+        if (!(key instanceof MultiKeyUntyped)) {
+            return false;
+        }
+        MultiKeyUntyped mk = (MultiKeyUntyped) key;
+        return containsProbe(mk.getKeys(), mk.hashCode());
+    }
+
+    public V put(Object key, V value) {
+        if (!(key instanceof MultiKeyUntyped)) {
+            throw new IllegalArgumentException("Expected a multi-key but received " + key);
+        }
+        MultiKeyUntyped mk = (MultiKeyUntyped) key;
+        return putProbe(mk, mk.getKeys(), mk.hashCode(), value);
+    }
+
+    public V remove(Object key) {
+        if (!(key instanceof MultiKeyUntyped)) {
+            return null;
+        }
+        MultiKeyUntyped mk = (MultiKeyUntyped) key;
+        return removeProbe(mk.getKeys(), mk.hashCode());
+    }
+
+    protected boolean keyEquals(Object storedKey, Object probe) {
+        return Arrays.equals(((MultiKeyUntyped) storedKey).getKeys(), (Object[]) probe);
+    }
+}
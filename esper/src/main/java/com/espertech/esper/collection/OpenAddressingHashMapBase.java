@@ -0,0 +1,316 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import java.util.*;
+
+/**
+ * Base class for hash maps that use open addressing with linear probing.
+ * <p>
+ * Entries are kept in insertion order in dense key, hash and value arrays, the probe table holds entry positions.
+ * Unlike {@link HashMap} an entry does not allocate a node object. Removed entries leave a hole that is compacted
+ * when the entry arrays fill up.
+ * <p>
+ * Subclasses translate the keys passed to the map operations into a stored key, a probe value and a hash code,
+ * and compare a stored key to a probe value through {@link #keyEquals(Object, Object)}. Iterators returned
+ * by the map views do not support removal. The map is not synchronized.
+ */
+public abstract class OpenAddressingHashMapBase<V> extends AbstractMap<Object, V> {
+    private static final int MIN_CAPACITY = 8;
+
+    // probe table of entry position plus one, zero for an empty slot; twice the entry capacity
+    private int[] table;
+    private int mask;
+
+    // entries in insertion order, null key for a removed entry
+    private Object[] keys;
+    private int[] hashes;
+    private Object[] values;
+    private int used;
+    private int size;
+
+    /**
+     * Ctor.
+     */
+    protected OpenAddressingHashMapBase() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Compare a stored key to a probe value.
+     *
+     * @param storedKey key as stored
+     * @param probe     probe value
+     * @return indicator whether the probe value matches the stored key
+     */
+    protected abstract boolean keyEquals(Object storedKey, Object probe);
+
+    /**
+     * Returns the key to present to users of the map for a stored key.
+     *
+     * @param storedKey key as stored
+     * @return key
+     */
+    protected Object toExternalKey(Object storedKey) {
+        return storedKey;
+    }
+
+    /**
+     * Returns the value for the probe value.
+     *
+     * @param probe probe value
+     * @param hash  hash code of the key
+     * @return value or null if not found
+     */
+    protected final V getProbe(Object probe, int hash) {
+        int slot = findSlot(probe, hash);
+        return slot == -1 ? null : (V) values[table[slot] - 1];
+    }
+
+    /**
+     * Returns indicator whether an entry exists for the probe value.
+     *
+     * @param probe probe value
+     * @param hash  hash code of the key
+     * @return indicator
+     */
+    protected final boolean containsProbe(Object probe, int hash) {
+        return findSlot(probe, hash) != -1;
+    }
+
+    /**
+     * Removes the entry for the probe value.
+     *
+     * @param probe probe value
+     * @param hash  hash code of the key
+     * @return removed value or null if not found
+     */
+    protected final V removeProbe(Object probe, int hash) {
+        int slot = findSlot(probe, hash);
+        return slot == -1 ? null : removeSlot(slot);
+    }
+
+    /**
+     * Associates the value with the key, replacing the value of an existing entry that matches the probe value.
+     *
+     * @param storedKey key to store for a new entry
+     * @param probe     probe value of the key
+     * @param hash      hash code of the key
+     * @param value     value
+     * @return previous value or null if none
+     */
+    protected final V putProbe(Object storedKey, Object probe, int hash, V value) {
+        int index = spread(hash) & mask;
+        while (true) {
+            int entry = table[index];
+            if (entry == 0) {
+                break;
+            }
+            if (hashes[entry - 1] == hash && keyEquals(keys[entry - 1], probe)) {
+                V old = (V) values[entry - 1];
+                values[entry - 1] = value;
+                return old;
+            }
+            index = (index + 1) & mask;
+        }
+
+        if (used == keys.length) {
+            // compact when at least half are holes, otherwise grow
+            rehash(size > (keys.length >> 1) ? keys.length << 1 : keys.length);
+            index = spread(hash) & mask;
+            while (table[index] != 0) {
+                index = (index + 1) & mask;
+            }
+        }
+        keys[used] = storedKey;
+        hashes[used] = hash;
+        values[used] = value;
+        used++;
+        table[index] = used;
+        size++;
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        if (keys.length > MIN_CAPACITY) {
+            allocate(MIN_CAPACITY);
+        } else {
+            Arrays.fill(table, 0);
+            Arrays.fill(keys, null);
+            Arrays.fill(values, null);
+        }
+        used = 0;
+        size = 0;
+    }
+
+    public Set<Entry<Object, V>> entrySet() {
+        return new AbstractSet<Entry<Object, V>>() {
+            public Iterator<Entry<Object, V>> iterator() {
+                return new EntryIterator<Entry<Object, V>>() {
+                    protected Entry<Object, V> get(int entry) {
+                        return new AbstractMap.SimpleImmutableEntry<Object, V>(toExternalKey(keys[entry]), (V) values[entry]);
+                    }
+                };
+            }
+
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public Set<Object> keySet() {
+        return new AbstractSet<Object>() {
+            public Iterator<Object> iterator() {
+                return new EntryIterator<Object>() {
+                    protected Object get(int entry) {
+                        return toExternalKey(keys[entry]);
+                    }
+                };
+            }
+
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            public Iterator<V> iterator() {
+                return new EntryIterator<V>() {
+                    protected V get(int entry) {
+                        return (V) values[entry];
+                    }
+                };
+            }
+
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int findSlot(Object probe, int hash) {
+        int index = spread(hash) & mask;
+        while (true) {
+            int entry = table[index];
+            if (entry == 0) {
+                return -1;
+            }
+            if (hashes[entry - 1] == hash && keyEquals(keys[entry - 1], probe)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private V removeSlot(int slot) {
+        int entry = table[slot] - 1;
+        V value = (V) values[entry];
+        keys[entry] = null;
+        values[entry] = null;
+        size--;
+
+        // backward-shift deletion keeps probe sequences intact without tombstones
+        int hole = slot;
+        int index = (slot + 1) & mask;
+        while (table[index] != 0) {
+            int home = spread(hashes[table[index] - 1]) & mask;
+            if (((index - home) & mask) >= ((index - hole) & mask)) {
+                table[hole] = table[index];
+                hole = index;
+            }
+            index = (index + 1) & mask;
+        }
+        table[hole] = 0;
+        return value;
+    }
+
+    private void rehash(int capacity) {
+        Object[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        Object[] oldValues = values;
+        int oldUsed = used;
+        allocate(capacity);
+        used = 0;
+        for (int i = 0; i < oldUsed; i++) {
+            if (oldKeys[i] == null) {
+                continue;
+            }
+            int index = spread(oldHashes[i]) & mask;
+            while (table[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            keys[used] = oldKeys[i];
+            hashes[used] = oldHashes[i];
+            values[used] = oldValues[i];
+            used++;
+            table[index] = used;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        hashes = new int[capacity];
+        values = new Object[capacity];
+        table = new int[capacity << 1];
+        mask = table.length - 1;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private abstract class EntryIterator<T> implements Iterator<T> {
+        private int next = advance(0);
+
+        protected abstract T get(int entry);
+
+        public boolean hasNext() {
+            return next < used;
+        }
+
+        public T next() {
+            if (next >= used) {
+                throw new NoSuchElementException();
+            }
+            T result = get(next);
+            next = advance(next + 1);
+            return result;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private int advance(int from) {
+            int index = from;
+            while (index < used && keys[index] == null) {
+                index++;
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+/**
+ * Hash map keyed by single values that uses open addressing with linear probing, for use when the number of keys
+ * is large and each key is a single value such as a partition or group property value.
+ * <p>
+ * Null keys are allowed. See {@link OpenAddressingHashMapBase} for the layout. The map is not synchronized.
+ */
+public final class SingleKeyHashMap<V> extends OpenAddressingHashMapBase<V> {
+    private static final Object NULL_KEY = new Object();
+
+    /**
+     * Ctor.
+     */
+    public SingleKeyHashMap() {
+    }
+
+    public V get(Object key) {
+        Object k = maskNull(key);
+        return getProbe(k, k.hashCode());
+    }
+
+    public boolean containsKey(Object key) {
+        Object k = maskNull(key);
+        return containsProbe(k, k.hashCode());
+    }
+
+    public V put(Object key, V value) {
+        Object k = maskNull(key);
+        return putProbe(k, k, k.hashCode(), value);
+    }
+
+    public V remove(Object key) {
+        Object k = maskNull(key);
+        return removeProbe(k, k.hashCode());
+    }
+
+    protected boolean keyEquals(Object storedKey, Object probe) {
+        return probe.equals(storedKey);
+    }
+
+    protected Object toExternalKey(Object storedKey) {
+        return storedKey == NULL_KEY ? null : storedKey;
+    }
+
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+}
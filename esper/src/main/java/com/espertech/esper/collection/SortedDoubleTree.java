@@ -0,0 +1,230 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, reference-counting collection of double values based on an order-statistic tree, for
+ * logarithmic-time add, remove and access by rank.
+ * <p>
+ * The tree is a treap that keeps its nodes in primitive arrays: each node holds a distinct value,
+ * the number of times the value was added and the total count of its subtree, so that the value at a given
+ * index in sort order is found by descending from the root.
+ */
+public class SortedDoubleTree {
+    private final static int NIL = 0;
+
+    private double[] values;
+    private int[] left;
+    private int[] right;
+    private int[] counts;
+    private int[] sizes;
+    private int[] priorities;
+    private int root = NIL;
+    private int nextNode = 1;
+    private int freeList = NIL;
+    private int random = 0x2545f491;
+
+    /**
+     * Constructor.
+     */
+    public SortedDoubleTree() {
+        allocate(16);
+    }
+
+    /**
+     * Clear out the collection.
+     */
+    public void clear() {
+        root = NIL;
+        nextNode = 1;
+        freeList = NIL;
+    }
+
+    /**
+     * Returns the number of items in the collection.
+     *
+     * @return size
+     */
+    public int size() {
+        return sizes[root];
+    }
+
+    /**
+     * Returns the value at a given index.
+     *
+     * @param index for which to return value for
+     * @return value at index
+     * @throws IndexOutOfBoundsException if the index is not within the collection
+     */
+    public double getValue(int index) {
+        if (index < 0 || index >= sizes[root]) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + sizes[root]);
+        }
+        int node = root;
+        while (true) {
+            int sizeLeft = sizes[left[node]];
+            if (index < sizeLeft) {
+                node = left[node];
+            } else if (index < sizeLeft + counts[node]) {
+                return values[node];
+            } else {
+                index -= sizeLeft + counts[node];
+                node = right[node];
+            }
+        }
+    }
+
+    /**
+     * Add a value to the collection.
+     *
+     * @param value is the double-type value to add
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        root = insert(root, value);
+    }
+
+    /**
+     * Remove a value from the collection.
+     *
+     * @param value to remove
+     * @throws IllegalStateException if the value has not been added
+     */
+    public void remove(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        root = delete(root, value);
+    }
+
+    private int insert(int node, double value) {
+        if (node == NIL) {
+            return newNode(value);
+        }
+        int compared = Double.compare(value, values[node]);
+        if (compared == 0) {
+            counts[node]++;
+        } else if (compared < 0) {
+            // the arrays may be reallocated when inserting, assign after the insert returns
+            int child = insert(left[node], value);
+            left[node] = child;
+            if (priorities[left[node]] > priorities[node]) {
+                node = rotateRight(node);
+            }
+        } else {
+            int child = insert(right[node], value);
+            right[node] = child;
+            if (priorities[right[node]] > priorities[node]) {
+                node = rotateLeft(node);
+            }
+        }
+        sizes[node] = sizes[left[node]] + sizes[right[node]] + counts[node];
+        return node;
+    }
+
+    private int delete(int node, double value) {
+        if (node == NIL) {
+            throw new IllegalStateException("Value not found in collection");
+        }
+        int compared = Double.compare(value, values[node]);
+        if (compared < 0) {
+            left[node] = delete(left[node], value);
+        } else if (compared > 0) {
+            right[node] = delete(right[node], value);
+        } else if (counts[node] > 1) {
+            counts[node]--;
+        } else if (left[node] == NIL || right[node] == NIL) {
+            int child = left[node] == NIL ? right[node] : left[node];
+            freeNode(node);
+            return child;
+        } else {
+            // rotate the node down towards a leaf, keeping the heap order of priorities
+            if (priorities[left[node]] > priorities[right[node]]) {
+                node = rotateRight(node);
+                right[node] = delete(right[node], value);
+            } else {
+                node = rotateLeft(node);
+                left[node] = delete(left[node], value);
+            }
+        }
+        sizes[node] = sizes[left[node]] + sizes[right[node]] + counts[node];
+        return node;
+    }
+
+    private int rotateRight(int node) {
+        int pivot = left[node];
+        left[node] = right[pivot];
+        right[pivot] = node;
+        sizes[node] = sizes[left[node]] + sizes[right[node]] + counts[node];
+        sizes[pivot] = sizes[left[pivot]] + sizes[right[pivot]] + counts[pivot];
+        return pivot;
+    }
+
+    private int rotateLeft(int node) {
+        int pivot = right[node];
+        right[node] = left[pivot];
+        left[pivot] = node;
+        sizes[node] = sizes[left[node]] + sizes[right[node]] + counts[node];
+        sizes[pivot] = sizes[left[pivot]] + sizes[right[pivot]] + counts[pivot];
+        return pivot;
+    }
+
+    private int newNode(double value) {
+        int node;
+        if (freeList != NIL) {
+            node = freeList;
+            freeList = left[node];
+        } else {
+            if (nextNode == values.length) {
+                allocate(values.length * 2);
+            }
+            node = nextNode++;
+        }
+        values[node] = value;
+        left[node] = NIL;
+        right[node] = NIL;
+        counts[node] = 1;
+        sizes[node] = 1;
+        random ^= random << 13;
+        random ^= random >>> 17;
+        random ^= random << 5;
+        priorities[node] = random;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        left[node] = freeList;
+        freeList = node;
+    }
+
+    private void allocate(int capacity) {
+        if (values == null) {
+            values = new double[capacity];
+            left = new int[capacity];
+            right = new int[capacity];
+            counts = new int[capacity];
+            sizes = new int[capacity];
+            priorities = new int[capacity];
+            priorities[NIL] = Integer.MIN_VALUE;
+            return;
+        }
+        values = Arrays.copyOf(values, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+    }
+}
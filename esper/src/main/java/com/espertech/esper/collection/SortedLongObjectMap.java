@@ -0,0 +1,353 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Sorted map of primitive long keys to values, without boxing the keys.
+ * <p>
+ * The map is a B-tree of height two: keys and values are held in sorted leaf blocks of bounded size and
+ * an index of the first key of each leaf locates the leaf of a key by binary search.
+ * A full leaf is split in two and a leaf that becomes sparse is merged with its neighbour.
+ * <p>
+ * The map holds at most one value for the null key, which sorts before or after all other keys.
+ */
+public class SortedLongObjectMap {
+    private final static int LEAF_CAPACITY = 64;
+
+    private final boolean nullsFirst;
+    private Leaf[] leaves = new Leaf[4];
+    private long[] firstKeys = new long[4];
+    private int numLeaves;
+    private int size;
+    private boolean hasNullKey;
+    private Object nullKeyValue;
+
+    /**
+     * Ctor.
+     *
+     * @param nullsFirst true to sort the null key before all other keys, false to sort it after
+     */
+    public SortedLongObjectMap(boolean nullsFirst) {
+        this.nullsFirst = nullsFirst;
+    }
+
+    /**
+     * Returns the number of keys including any null key.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(leaves, 0, numLeaves, null);
+        numLeaves = 0;
+        size = 0;
+        hasNullKey = false;
+        nullKeyValue = null;
+    }
+
+    /**
+     * Returns the value for the key.
+     *
+     * @param key key
+     * @return value or null if the key is not in the map
+     */
+    public Object get(long key) {
+        if (numLeaves == 0) {
+            return null;
+        }
+        Leaf leaf = leaves[findLeaf(key)];
+        int pos = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+        return pos < 0 ? null : leaf.values[pos];
+    }
+
+    /**
+     * Associate the value with the key.
+     *
+     * @param key   key
+     * @param value value
+     * @return previous value or null if the key was not in the map
+     */
+    public Object put(long key, Object value) {
+        if (numLeaves == 0) {
+            insertLeaf(0, new Leaf());
+        }
+        int index = findLeaf(key);
+        Leaf leaf = leaves[index];
+        int pos = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+        if (pos >= 0) {
+            Object previous = leaf.values[pos];
+            leaf.values[pos] = value;
+            return previous;
+        }
+        pos = -(pos + 1);
+
+        if (leaf.size == LEAF_CAPACITY) {
+            Leaf upper = new Leaf();
+            int half = LEAF_CAPACITY >> 1;
+            System.arraycopy(leaf.keys, half, upper.keys, 0, LEAF_CAPACITY - half);
+            System.arraycopy(leaf.values, half, upper.values, 0, LEAF_CAPACITY - half);
+            Arrays.fill(leaf.values, half, LEAF_CAPACITY, null);
+            upper.size = LEAF_CAPACITY - half;
+            leaf.size = half;
+            insertLeaf(index + 1, upper);
+            if (pos > half) {
+                leaf = upper;
+                pos -= half;
+                index++;
+            }
+        }
+
+        System.arraycopy(leaf.keys, pos, leaf.keys, pos + 1, leaf.size - pos);
+        System.arraycopy(leaf.values, pos, leaf.values, pos + 1, leaf.size - pos);
+        leaf.keys[pos] = key;
+        leaf.values[pos] = value;
+        leaf.size++;
+        if (pos == 0) {
+            firstKeys[index] = key;
+        }
+        size++;
+        return null;
+    }
+
+    /**
+     * Remove the key.
+     *
+     * @param key key
+     * @return removed value or null if the key was not in the map
+     */
+    public Object remove(long key) {
+        if (numLeaves == 0) {
+            return null;
+        }
+        int index = findLeaf(key);
+        Leaf leaf = leaves[index];
+        int pos = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+        if (pos < 0) {
+            return null;
+        }
+        Object removed = leaf.values[pos];
+        System.arraycopy(leaf.keys, pos + 1, leaf.keys, pos, leaf.size - pos - 1);
+        System.arraycopy(leaf.values, pos + 1, leaf.values, pos, leaf.size - pos - 1);
+        leaf.size--;
+        leaf.values[leaf.size] = null;
+        size--;
+
+        if (leaf.size == 0) {
+            removeLeaf(index);
+            return removed;
+        }
+        if (pos == 0) {
+            firstKeys[index] = leaf.keys[0];
+        }
+        if (index + 1 < numLeaves && leaf.size + leaves[index + 1].size <= LEAF_CAPACITY >> 1) {
+            mergeLeaves(index);
+        } else if (index > 0 && leaf.size + leaves[index - 1].size <= LEAF_CAPACITY >> 1) {
+            mergeLeaves(index - 1);
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the value for the null key.
+     *
+     * @return value or null if the null key is not in the map
+     */
+    public Object getNullKey() {
+        return nullKeyValue;
+    }
+
+    /**
+     * Associate the value with the null key.
+     *
+     * @param value value
+     * @return previous value or null if the null key was not in the map
+     */
+    public Object putNullKey(Object value) {
+        Object previous = nullKeyValue;
+        if (!hasNullKey) {
+            hasNullKey = true;
+            size++;
+        }
+        nullKeyValue = value;
+        return previous;
+    }
+
+    /**
+     * Remove the null key.
+     *
+     * @return removed value or null if the null key was not in the map
+     */
+    public Object removeNullKey() {
+        Object removed = nullKeyValue;
+        if (hasNullKey) {
+            hasNullKey = false;
+            nullKeyValue = null;
+            size--;
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the value of the first key in sort order.
+     *
+     * @return value or null if empty
+     */
+    public Object firstValue() {
+        if (hasNullKey && (nullsFirst || numLeaves == 0)) {
+            return nullKeyValue;
+        }
+        return numLeaves == 0 ? null : leaves[0].values[0];
+    }
+
+    /**
+     * Returns the value of the last key in sort order.
+     *
+     * @return value or null if empty
+     */
+    public Object lastValue() {
+        if (hasNullKey && (!nullsFirst || numLeaves == 0)) {
+            return nullKeyValue;
+        }
+        if (numLeaves == 0) {
+            return null;
+        }
+        Leaf last = leaves[numLeaves - 1];
+        return last.values[last.size - 1];
+    }
+
+    /**
+     * Returns an iterator over the values in key sort order. The map must not be modified while iterating.
+     *
+     * @param reverse true for descending key order
+     * @return values
+     */
+    public Iterator<Object> valueIterator(boolean reverse) {
+        return new ValueIterator(reverse);
+    }
+
+    private int findLeaf(long key) {
+        // the last leaf whose first key is not greater than the key, or the first leaf
+        int low = 1;
+        int high = numLeaves - 1;
+        int found = 0;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (firstKeys[middle] <= key) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+
+    private void insertLeaf(int index, Leaf leaf) {
+        if (numLeaves == leaves.length) {
+            leaves = Arrays.copyOf(leaves, numLeaves * 2);
+            firstKeys = Arrays.copyOf(firstKeys, numLeaves * 2);
+        }
+        System.arraycopy(leaves, index, leaves, index + 1, numLeaves - index);
+        System.arraycopy(firstKeys, index, firstKeys, index + 1, numLeaves - index);
+        leaves[index] = leaf;
+        firstKeys[index] = leaf.keys[0];
+        numLeaves++;
+    }
+
+    private void removeLeaf(int index) {
+        System.arraycopy(leaves, index + 1, leaves, index, numLeaves - index - 1);
+        System.arraycopy(firstKeys, index + 1, firstKeys, index, numLeaves - index - 1);
+        numLeaves--;
+        leaves[numLeaves] = null;
+    }
+
+    private void mergeLeaves(int index) {
+        Leaf into = leaves[index];
+        Leaf from = leaves[index + 1];
+        System.arraycopy(from.keys, 0, into.keys, into.size, from.size);
+        System.arraycopy(from.values, 0, into.values, into.size, from.size);
+        into.size += from.size;
+        removeLeaf(index + 1);
+    }
+
+    private static class Leaf {
+        private final long[] keys = new long[LEAF_CAPACITY];
+        private final Object[] values = new Object[LEAF_CAPACITY];
+        private int size;
+    }
+
+    private class ValueIterator implements Iterator<Object> {
+        private final boolean reverse;
+        private boolean nullBefore;
+        private boolean nullAfter;
+        private int leafIndex;
+        private int pos;
+
+        private ValueIterator(boolean reverse) {
+            this.reverse = reverse;
+            nullBefore = hasNullKey && nullsFirst != reverse;
+            nullAfter = hasNullKey && !nullBefore;
+            if (reverse) {
+                leafIndex = numLeaves - 1;
+                pos = leafIndex < 0 ? -1 : leaves[leafIndex].size - 1;
+            }
+        }
+
+        public boolean hasNext() {
+            return nullBefore || (leafIndex >= 0 && leafIndex < numLeaves) || nullAfter;
+        }
+
+        public Object next() {
+            if (nullBefore) {
+                nullBefore = false;
+                return nullKeyValue;
+            }
+            if (leafIndex >= 0 && leafIndex < numLeaves) {
+                Leaf leaf = leaves[leafIndex];
+                Object value = leaf.values[pos];
+                if (reverse) {
+                    pos--;
+                    if (pos < 0) {
+                        leafIndex--;
+                        pos = leafIndex < 0 ? -1 : leaves[leafIndex].size - 1;
+                    }
+                } else {
+                    pos++;
+                    if (pos == leaf.size) {
+                        leafIndex++;
+                        pos = 0;
+                    }
+                }
+                return value;
+            }
+            if (nullAfter) {
+                nullAfter = false;
+                return nullKeyValue;
+            }
+            throw new NoSuchElementException();
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -24,11 +24,19 @@ import java.util.*;
  * The window allows iteration through its contents.
  * <p>
  * It is assumed that the timestamp passed to the add method is ascending. The window is backed by a
- * collection reflecting the timestamp order rather then any sorted map or linked hash map for performance reasons.
+ * linked list of chunks that each hold parallel timestamp and event arrays, in timestamp order.
+ * Chunks grow in capacity up to a maximum and an emptied chunk is kept for reuse, so that
+ * adding and expiring events does not allocate per event.
+ * Removal of an event, if supported, clears its slot.
  */
 public final class TimeWindow implements Iterable {
-    private ArrayDeque<TimeWindowPair> window;
-    private Map<EventBean, TimeWindowPair> reverseIndex;
+    private static final int CHUNK_CAPACITY_INITIAL = 8;
+    private static final int CHUNK_CAPACITY_MAX = 256;
+
+    private TimeWindowChunk first;
+    private TimeWindowChunk last;
+    private TimeWindowChunk spare;
+    private Map<EventBean, TimeWindowChunk> reverseIndex;
     private int size;
 
     /**
@@ -38,10 +46,8 @@ public final class TimeWindow implements Iterable {
      *                              in the window based on the remove stream events received, or false to not accomodate removal at all
      */
     public TimeWindow(boolean isSupportRemoveStream) {
-        this.window = new ArrayDeque<TimeWindowPair>();
-
         if (isSupportRemoveStream) {
-            reverseIndex = new HashMap<EventBean, TimeWindowPair>();
+            reverseIndex = new HashMap<EventBean, TimeWindowChunk>();
         }
     }
 
@@ -51,8 +57,10 @@ public final class TimeWindow implements Iterable {
      * @param delta delta to adjust for
      */
     public void adjust(long delta) {
-        for (TimeWindowPair data : window) {
-            data.setTimestamp(data.getTimestamp() + delta);
+        for (TimeWindowChunk chunk = first; chunk != null; chunk = chunk.next) {
+            for (int i = chunk.head; i < chunk.tail; i++) {
+                chunk.timestamps[i] += delta;
+            }
         }
     }
 
@@ -63,47 +71,22 @@ public final class TimeWindow implements Iterable {
      * @param bean      - event to add
      */
     public final void add(long timestamp, EventBean bean) {
-        // Empty window
-        if (window.isEmpty()) {
-            TimeWindowPair pair = new TimeWindowPair(timestamp, bean);
-            window.add(pair);
-
-            if (reverseIndex != null) {
-                reverseIndex.put(bean, pair);
-            }
-            size = 1;
-            return;
+        if (last == null) {
+            first = allocate(CHUNK_CAPACITY_INITIAL);
+            last = first;
+        } else if (last.tail == last.events.length) {
+            TimeWindowChunk chunk = allocate(Math.min(last.events.length * 2, CHUNK_CAPACITY_MAX));
+            last.next = chunk;
+            last = chunk;
         }
 
-        TimeWindowPair lastPair = window.getLast();
-
-        // Windows last timestamp matches the one supplied
-        if (lastPair.getTimestamp() == timestamp) {
-            if (lastPair.getEventHolder() instanceof List) {
-                List<EventBean> list = (List<EventBean>) lastPair.getEventHolder();
-                list.add(bean);
-            } else if (lastPair.getEventHolder() == null) {
-                lastPair.setEventHolder(bean);
-            } else {
-                EventBean existing = (EventBean) lastPair.getEventHolder();
-                List<EventBean> list = new ArrayList<EventBean>(4);
-                list.add(existing);
-                list.add(bean);
-                lastPair.setEventHolder(list);
-            }
-            if (reverseIndex != null) {
-                reverseIndex.put(bean, lastPair);
-            }
-            size++;
-            return;
-        }
+        last.timestamps[last.tail] = timestamp;
+        last.events[last.tail] = bean;
+        last.tail++;
 
-        // Append to window
-        TimeWindowPair pair = new TimeWindowPair(timestamp, bean);
         if (reverseIndex != null) {
-            reverseIndex.put(bean, pair);
+            reverseIndex.put(bean, last);
         }
-        window.add(pair);
         size++;
     }
 
@@ -116,71 +99,72 @@ public final class TimeWindow implements Iterable {
         if (reverseIndex == null) {
             throw new UnsupportedOperationException("Time window does not accept event removal");
         }
-        TimeWindowPair pair = reverseIndex.get(theEvent);
-        if (pair != null) {
-            if (pair.getEventHolder() != null && pair.getEventHolder().equals(theEvent)) {
-                pair.setEventHolder(null);
+        TimeWindowChunk chunk = reverseIndex.remove(theEvent);
+        if (chunk == null) {
+            return;
+        }
+        for (int i = chunk.head; i < chunk.tail; i++) {
+            if (theEvent.equals(chunk.events[i])) {
+                chunk.events[i] = null;
                 size--;
-            } else if (pair.getEventHolder() != null) {
-                List<EventBean> list = (List<EventBean>) pair.getEventHolder();
-                boolean removed = list.remove(theEvent);
-                if (removed) {
-                    size--;
-                }
+                break;
             }
-            reverseIndex.remove(theEvent);
         }
+        trimHead();
     }
 
     /**
      * Return and remove events in time-slots earlier (less) then the timestamp passed in,
-     * returning the list of events expired.
+     * returning the events expired.
      *
      * @param expireBefore is the timestamp from which on to keep events in the window
-     * @return a list of events expired and removed from the window, or null if none expired
+     * @return events expired and removed from the window, or null if none expired
      */
-    public final ArrayDeque<EventBean> expireEvents(long expireBefore) {
-        if (window.isEmpty()) {
+    public final EventBean[] expireEvents(long expireBefore) {
+        if (size == 0 || first.timestamps[first.head] >= expireBefore) {
             return null;
         }
 
-        TimeWindowPair pair = window.getFirst();
-
-        // If the first entry's timestamp is after the expiry date, nothing to expire
-        if (pair.getTimestamp() >= expireBefore) {
-            return null;
-        }
-
-        ArrayDeque<EventBean> resultBeans = new ArrayDeque<EventBean>();
-
-        // Repeat until the window is empty or the timestamp is above the expiry time
-        do {
-            if (pair.getEventHolder() != null) {
-                if (pair.getEventHolder() instanceof EventBean) {
-                    resultBeans.add((EventBean) pair.getEventHolder());
-                } else {
-                    resultBeans.addAll((List<EventBean>) pair.getEventHolder());
+        // count first so that the result array is the only allocation
+        int count = 0;
+        for (TimeWindowChunk chunk = first; chunk != null; chunk = chunk.next) {
+            int i = chunk.head;
+            for (; i < chunk.tail && chunk.timestamps[i] < expireBefore; i++) {
+                if (chunk.events[i] != null) {
+                    count++;
                 }
             }
-
-            window.removeFirst();
-
-            if (window.isEmpty()) {
+            if (i < chunk.tail) {
                 break;
             }
-
-            pair = window.getFirst();
         }
-        while (pair.getTimestamp() < expireBefore);
 
-        if (reverseIndex != null) {
-            for (EventBean expired : resultBeans) {
-                reverseIndex.remove(expired);
+        EventBean[] result = new EventBean[count];
+        int position = 0;
+        while (first != null) {
+            TimeWindowChunk chunk = first;
+            while (chunk.head < chunk.tail && chunk.timestamps[chunk.head] < expireBefore) {
+                EventBean theEvent = chunk.events[chunk.head];
+                if (theEvent != null) {
+                    result[position++] = theEvent;
+                    chunk.events[chunk.head] = null;
+                    if (reverseIndex != null) {
+                        reverseIndex.remove(theEvent);
+                    }
+                }
+                chunk.head++;
+            }
+            if (chunk.head < chunk.tail) {
+                break;
+            }
+            if (!releaseFirst()) {
+                break;
             }
         }
 
-        size -= resultBeans.size();
-        return resultBeans;
+        size -= count;
+        trimHead();
+        return result;
     }
 
     /**
@@ -189,7 +173,7 @@ public final class TimeWindow implements Iterable {
      * @return iterator over events currently in window
      */
     public final Iterator<EventBean> iterator() {
-        return new TimeWindowIterator(window);
+        return new ChunkIterator(first);
     }
 
     /**
@@ -199,18 +183,10 @@ public final class TimeWindow implements Iterable {
      * @return null if empty, oldest timestamp if not empty
      */
     public final Long getOldestTimestamp() {
-        if (window.isEmpty()) {
+        if (size == 0) {
             return null;
         }
-        if (window.getFirst().getEventHolder() != null) {
-            return window.getFirst().getTimestamp();
-        }
-        for (TimeWindowPair pair : window) {
-            if (pair.getEventHolder() != null) {
-                return pair.getTimestamp();
-            }
-        }
-        return null;
+        return first.timestamps[first.head];
     }
 
     /**
@@ -219,7 +195,16 @@ public final class TimeWindow implements Iterable {
      * @return true if empty, false if not
      */
     public final boolean isEmpty() {
-        return getOldestTimestamp() == null;
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of events in the window.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
     }
 
     /**
@@ -227,24 +212,98 @@ public final class TimeWindow implements Iterable {
      *
      * @return reverse index
      */
-    public Map<EventBean, TimeWindowPair> getReverseIndex() {
+    public Map<EventBean, TimeWindowChunk> getReverseIndex() {
         return reverseIndex;
     }
 
-    public ArrayDeque<TimeWindowPair> getWindow() {
-        return window;
+    public void visitView(ViewDataVisitor viewDataVisitor, DataWindowViewFactory viewFactory) {
+        List<TimeWindowChunk> chunks = new ArrayList<TimeWindowChunk>();
+        for (TimeWindowChunk chunk = first; chunk != null; chunk = chunk.next) {
+            chunks.add(chunk);
+        }
+        viewDataVisitor.visitPrimary(chunks, false, viewFactory.getViewName(), size);
+    }
+
+    // Advance past removed events at the front so that the oldest slot always holds an event, unless empty
+    private void trimHead() {
+        while (first != null) {
+            TimeWindowChunk chunk = first;
+            while (chunk.head < chunk.tail && chunk.events[chunk.head] == null) {
+                chunk.head++;
+            }
+            if (chunk.head < chunk.tail || !releaseFirst()) {
+                return;
+            }
+        }
     }
 
-    public void setWindow(ArrayDeque<TimeWindowPair> window, int size) {
-        this.window = window;
-        this.size = size;
+    // Releases the exhausted first chunk, returning false if it is the only chunk and has been reset instead
+    private boolean releaseFirst() {
+        TimeWindowChunk chunk = first;
+        if (chunk == last) {
+            chunk.head = 0;
+            chunk.tail = 0;
+            return false;
+        }
+        first = chunk.next;
+        chunk.head = 0;
+        chunk.tail = 0;
+        chunk.next = null;
+        spare = chunk;
+        return true;
     }
 
-    public void setReverseIndex(Map<EventBean, TimeWindowPair> reverseIndex) {
-        this.reverseIndex = reverseIndex;
+    private TimeWindowChunk allocate(int capacity) {
+        if (spare != null && spare.events.length >= capacity) {
+            TimeWindowChunk chunk = spare;
+            spare = null;
+            return chunk;
+        }
+        return new TimeWindowChunk(capacity);
     }
 
-    public void visitView(ViewDataVisitor viewDataVisitor, DataWindowViewFactory viewFactory) {
-        viewDataVisitor.visitPrimary(window, false, viewFactory.getViewName(), size);
+    private static class ChunkIterator implements Iterator<EventBean> {
+        private TimeWindowChunk chunk;
+        private int index;
+
+        ChunkIterator(TimeWindowChunk chunk) {
+            this.chunk = chunk;
+            if (chunk != null) {
+                this.index = chunk.head;
+                advance();
+            }
+        }
+
+        public boolean hasNext() {
+            return chunk != null;
+        }
+
+        public EventBean next() {
+            if (chunk == null) {
+                throw new NoSuchElementException();
+            }
+            EventBean theEvent = chunk.events[index++];
+            advance();
+            return theEvent;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void advance() {
+            while (chunk != null) {
+                while (index < chunk.tail && chunk.events[index] == null) {
+                    index++;
+                }
+                if (index < chunk.tail) {
+                    return;
+                }
+                chunk = chunk.next;
+                if (chunk != null) {
+                    index = chunk.head;
+                }
+            }
+        }
     }
 }
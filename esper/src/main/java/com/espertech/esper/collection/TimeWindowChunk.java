@@ -0,0 +1,46 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import com.espertech.esper.client.EventBean;
+
+/**
+ * Segment of a {@link TimeWindow} holding timestamps and events in parallel arrays.
+ * <p>
+ * Slots between head (inclusive) and tail (exclusive) are in use; a null event in a used slot
+ * marks an event that was removed from the window before expiry.
+ */
+public final class TimeWindowChunk {
+    final long[] timestamps;
+    final EventBean[] events;
+    int head;
+    int tail;
+    TimeWindowChunk next;
+
+    /**
+     * Ctor.
+     *
+     * @param capacity number of slots
+     */
+    public TimeWindowChunk(int capacity) {
+        this.timestamps = new long[capacity];
+        this.events = new EventBean[capacity];
+    }
+
+    /**
+     * Returns the number of slots.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return events.length;
+    }
+}
@@ -15,6 +15,10 @@ import com.espertech.esper.client.EventType;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.pattern.*;
+import com.espertech.esper.pattern.share.PatternPrefixShareDesc;
+import com.espertech.esper.pattern.share.PatternPrefixShareNode;
+import com.espertech.esper.pattern.share.PatternPrefixShareService;
+import com.espertech.esper.pattern.share.PatternPrefixShareUtil;
 import com.espertech.esper.view.EventStream;
 import com.espertech.esper.view.ZeroDepthStreamIterable;
 import com.espertech.esper.view.ZeroDepthStreamNoIterate;
@@ -30,6 +34,7 @@ public class ViewableActivatorPattern implements ViewableActivator {
     private final boolean suppressSameEventMatches;
     private final boolean discardPartialsOnMatch;
     private final boolean isCanIterate;
+    private final PatternPrefixShareDesc prefixShareDesc;
 
     protected ViewableActivatorPattern(PatternContext patternContext, EvalRootFactoryNode rootFactoryNode, EventType eventType, boolean hasConsumingFilter, boolean suppressSameEventMatches, boolean discardPartialsOnMatch, boolean isCanIterate) {
         this.patternContext = patternContext;
@@ -39,11 +44,18 @@ public class ViewableActivatorPattern implements ViewableActivator {
         this.suppressSameEventMatches = suppressSameEventMatches;
         this.discardPartialsOnMatch = discardPartialsOnMatch;
         this.isCanIterate = isCanIterate;
+        this.prefixShareDesc = analyzePrefixSharing(patternContext.getStatementContext(), rootFactoryNode, hasConsumingFilter, suppressSameEventMatches, discardPartialsOnMatch);
     }
 
     public ViewableActivationResult activate(AgentInstanceContext agentInstanceContext, boolean isSubselect, boolean isRecoveringResilient) {
         PatternAgentInstanceContext patternAgentInstanceContext = agentInstanceContext.getStatementContext().getPatternContextFactory().createPatternAgentContext(patternContext, agentInstanceContext, hasConsumingFilter);
-        EvalRootNode rootNode = EvalNodeUtil.makeRootNodeFromFactory(rootFactoryNode, patternAgentInstanceContext);
+        EvalRootNode rootNode;
+        if (prefixShareDesc != null && agentInstanceContext.getAgentInstanceFilterProxy() == null) {
+            PatternPrefixShareNode shareNode = new PatternPrefixShareNode(patternAgentInstanceContext, prefixShareDesc, agentInstanceContext.getStatementContext().getPatternPrefixShareSvc());
+            rootNode = new EvalRootNode(patternAgentInstanceContext, rootFactoryNode, shareNode);
+        } else {
+            rootNode = EvalNodeUtil.makeRootNodeFromFactory(rootFactoryNode, patternAgentInstanceContext);
+        }
 
         final EventStream sourceEventStream = isCanIterate ? new ZeroDepthStreamIterable(eventType) : new ZeroDepthStreamNoIterate(eventType);
         final StatementContext statementContext = patternContext.getStatementContext();
@@ -58,6 +70,10 @@ public class ViewableActivatorPattern implements ViewableActivator {
         return new ViewableActivationResult(sourceEventStream, rootState, null, rootState, rootState, suppressSameEventMatches, discardPartialsOnMatch, null);
     }
 
+    public PatternPrefixShareDesc getPrefixShareDesc() {
+        return prefixShareDesc;
+    }
+
     public EvalRootFactoryNode getRootFactoryNode() {
         return rootFactoryNode;
     }
@@ -85,4 +101,15 @@ public class ViewableActivatorPattern implements ViewableActivator {
     public boolean isCanIterate() {
         return isCanIterate;
     }
+
+    private static PatternPrefixShareDesc analyzePrefixSharing(StatementContext statementContext, EvalRootFactoryNode rootFactoryNode, boolean hasConsumingFilter, boolean suppressSameEventMatches, boolean discardPartialsOnMatch) {
+        PatternPrefixShareService shareService = statementContext.getPatternPrefixShareSvc();
+        if (shareService == null || hasConsumingFilter || suppressSameEventMatches || discardPartialsOnMatch) {
+            return null;
+        }
+        if (statementContext.getContextName() != null || statementContext.getPatternSubexpressionPoolSvc() != null || statementContext.getConfigSnapshot().getEngineDefaults().getExecution().isAllowIsolatedService()) {
+            return null;
+        }
+        return PatternPrefixShareUtil.analyze(rootFactoryNode);
+    }
 }
@@ -29,6 +29,7 @@ public class ContextControllerHash implements ContextController, ContextControll
 
     protected ContextInternalFilterAddendum activationFilterAddendum;
     protected int currentSubpathId;
+    protected boolean filtersRemovedAllAllocated;
 
     public ContextControllerHash(int pathId, ContextControllerLifecycleCallback activationCallback, ContextControllerHashFactoryImpl factory) {
         this.pathId = pathId;
@@ -43,6 +44,12 @@ public class ContextControllerHash implements ContextController, ContextControll
     public void deletePath(ContextPartitionIdentifier identifier) {
         ContextPartitionIdentifierHash hash = (ContextPartitionIdentifierHash) identifier;
         partitionKeys.remove(hash.getHash());
+
+        // a partition may be allocated again, therefore the filters that allocate partitions are required again
+        if (filtersRemovedAllAllocated) {
+            filtersRemovedAllAllocated = false;
+            activateFilters(null);
+        }
     }
 
     public void visitSelectedPartitions(ContextPartitionSelector contextPartitionSelector, ContextPartitionVisitor visitor) {
@@ -139,12 +146,22 @@ public class ContextControllerHash implements ContextController, ContextControll
     }
 
     protected void activateFilters(EventBean optionalTriggeringEvent) {
+        if (isAllAllocated()) {
+            filtersRemovedAllAllocated = true;
+            return;
+        }
+
         ContextControllerFactoryContext factoryContext = factory.getFactoryContext();
+        ContextControllerHashedFilterCallback[] callbacks = new ContextControllerHashedFilterCallback[factory.getHashedSpec().getItems().size()];
+        int count = 0;
         for (ContextDetailHashItem item : factory.getHashedSpec().getItems()) {
             ContextControllerHashedFilterCallback callback = new ContextControllerHashedFilterCallback(factoryContext.getServicesContext(), factoryContext.getAgentInstanceContextCreate(), item, this, activationFilterAddendum);
             filterCallbacks.add(callback);
+            callbacks[count++] = callback;
+        }
 
-            if (optionalTriggeringEvent != null) {
+        if (optionalTriggeringEvent != null) {
+            for (ContextControllerHashedFilterCallback callback : callbacks) {
                 boolean match = StatementAgentInstanceUtil.evaluateFilterForStatement(factoryContext.getServicesContext(), optionalTriggeringEvent, factoryContext.getAgentInstanceContextCreate(), callback.getFilterHandle());
 
                 if (match) {
@@ -154,6 +171,39 @@ public class ContextControllerHash implements ContextController, ContextControll
         }
     }
 
+    /**
+     * Once each hash code of the granularity has its partition, events are routed only by the hash index
+     * of the partition filters and the filters that allocate partitions are no longer needed.
+     */
+    protected void removeFiltersIfAllAllocated() {
+        if (filterCallbacks.isEmpty() || !isAllAllocated()) {
+            return;
+        }
+        destroyFilters();
+        filtersRemovedAllAllocated = true;
+    }
+
+    private boolean isAllAllocated() {
+        int granularity = factory.getHashedSpec().getGranularity();
+        if (partitionKeys.size() < granularity) {
+            return false;
+        }
+        for (int i = 0; i < granularity; i++) {
+            if (!partitionKeys.containsKey(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void destroyFilters() {
+        ContextControllerFactoryContext factoryContext = factory.getFactoryContext();
+        for (ContextControllerHashedFilterCallback callback : filterCallbacks) {
+            callback.destroy(factoryContext.getServicesContext().getFilterService());
+        }
+        filterCallbacks.clear();
+    }
+
     public synchronized void create(int id, EventBean theEvent) {
         ContextControllerFactoryContext factoryContext = factory.getFactoryContext();
         if (partitionKeys.containsKey(id)) {
@@ -178,6 +228,8 @@ public class ContextControllerHash implements ContextController, ContextControll
         // update the filter version for this handle
         long filterVersion = factoryContext.getServicesContext().getFilterService().getFiltersVersion();
         factory.getFactoryContext().getAgentInstanceContextCreate().getEpStatementAgentInstanceHandle().getStatementFilterVersion().setStmtFilterVersion(filterVersion);
+
+        removeFiltersIfAllAllocated();
     }
 
     public ContextControllerFactory getFactory() {
@@ -190,11 +242,9 @@ public class ContextControllerHash implements ContextController, ContextControll
 
     public void deactivate() {
         ContextControllerFactoryContext factoryContext = factory.getFactoryContext();
-        for (ContextControllerHashedFilterCallback callback : filterCallbacks) {
-            callback.destroy(factoryContext.getServicesContext().getFilterService());
-        }
+        destroyFilters();
+        filtersRemovedAllAllocated = false;
         partitionKeys.clear();
-        filterCallbacks.clear();
         factory.getFactoryContext().getStateCache().removeContextParentPath(factoryContext.getOutermostContextName(), factoryContext.getNestingLevel(), pathId);
     }
 
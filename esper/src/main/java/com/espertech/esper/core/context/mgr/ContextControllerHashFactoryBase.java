@@ -195,7 +195,7 @@ public abstract class ContextControllerHashFactoryBase extends ContextController
 
             // create and register expression
             String expression = item.getFunction().getName() + "(" + ExprNodeUtility.toExpressionStringMinPrecedenceSafe(paramExpr) + ")";
-            FilterSpecLookupable lookupable = new FilterSpecLookupable(expression, getter, Integer.class, true);
+            FilterSpecLookupable lookupable = new FilterSpecLookupable(expression, new ContextControllerHashedGetterLastEvent(getter), Integer.class, true);
             item.setLookupable(lookupable);
             factoryContext.getServicesContext().getFilterNonPropertyRegisteryService().registerNonPropertyExpression(factoryContext.getAgentInstanceContextCreate().getStatementName(), item.getFilterSpecCompiled().getFilterForEventType(), lookupable);
             nonPropertyExpressions.put(item.getFilterSpecCompiled().getFilterForEventType(), lookupable);
@@ -15,6 +15,7 @@ import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.client.PropertyAccessException;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.util.JavaClassHelper;
 import com.espertech.esper.util.Serializer;
 import com.espertech.esper.util.SerializerFactory;
 import org.slf4j.Logger;
@@ -31,6 +32,7 @@ public class ContextControllerHashedGetterCRC32Serialized implements EventProper
     private final ExprEvaluator[] evaluators;
     private final Serializer[] serializers;
     private final int granularity;
+    private final boolean directEncoding;
 
     public ContextControllerHashedGetterCRC32Serialized(String statementName, List<ExprNode> nodes, int granularity) {
         this.statementName = statementName;
@@ -42,6 +44,7 @@ public class ContextControllerHashedGetterCRC32Serialized implements EventProper
         }
         serializers = SerializerFactory.getSerializers(returnTypes);
         this.granularity = granularity;
+        this.directEncoding = isDirectEncoding(returnTypes);
     }
 
     public Object get(EventBean eventBean) throws PropertyAccessException {
@@ -52,16 +55,18 @@ public class ContextControllerHashedGetterCRC32Serialized implements EventProper
             parameters[i] = evaluators[i].evaluate(events, true, null);
         }
 
-        byte[] bytes;
-        try {
-            bytes = SerializerFactory.serialize(serializers, parameters);
-        } catch (IOException e) {
-            log.error("Exception serializing parameters for computing consistent hash for statement '" + statementName + "': " + e.getMessage(), e);
-            bytes = new byte[0];
-        }
-
         CRC32 crc = new CRC32();
-        crc.update(bytes);
+        if (!directEncoding || !updateDirect(crc, parameters)) {
+            byte[] bytes;
+            try {
+                bytes = SerializerFactory.serialize(serializers, parameters);
+            } catch (IOException e) {
+                log.error("Exception serializing parameters for computing consistent hash for statement '" + statementName + "': " + e.getMessage(), e);
+                bytes = new byte[0];
+            }
+            crc.reset();
+            crc.update(bytes);
+        }
         long value = crc.getValue() % granularity;
 
         int result = (int) value;
@@ -71,6 +76,116 @@ public class ContextControllerHashedGetterCRC32Serialized implements EventProper
         return -result;
     }
 
+    /**
+     * Feeds the checksum the same bytes that the serializers would write, without allocating streams per event.
+     * @param crc checksum
+     * @param parameters values
+     * @return false if a value cannot be encoded directly, in which case the caller must serialize
+     */
+    private static boolean updateDirect(CRC32 crc, Object[] parameters) {
+        byte[] buf = new byte[8];
+        for (Object parameter : parameters) {
+            if (parameter == null) {
+                continue;
+            }
+            if (parameter instanceof String) {
+                byte[] utf = encodeUTF((String) parameter);
+                if (utf == null) {
+                    return false;
+                }
+                crc.update(utf);
+            } else if (parameter instanceof Integer) {
+                crc.update(buf, 0, writeInt((Integer) parameter, buf));
+            } else if (parameter instanceof Long) {
+                crc.update(buf, 0, writeLong((Long) parameter, buf));
+            } else if (parameter instanceof Double) {
+                crc.update(buf, 0, writeLong(Double.doubleToLongBits((Double) parameter), buf));
+            } else if (parameter instanceof Float) {
+                crc.update(buf, 0, writeInt(Float.floatToIntBits((Float) parameter), buf));
+            } else if (parameter instanceof Short) {
+                short value = (Short) parameter;
+                crc.update((value >>> 8) & 0xFF);
+                crc.update(value & 0xFF);
+            } else if (parameter instanceof Byte) {
+                crc.update((Byte) parameter);
+            } else if (parameter instanceof Boolean) {
+                crc.update((Boolean) parameter ? 1 : 0);
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDirectEncoding(Class[] returnTypes) {
+        for (Class returnType : returnTypes) {
+            if (returnType == null) {
+                continue;
+            }
+            Class boxed = JavaClassHelper.getBoxedType(returnType);
+            if (boxed != String.class && boxed != Integer.class && boxed != Long.class && boxed != Double.class &&
+                    boxed != Float.class && boxed != Short.class && boxed != Byte.class && boxed != Boolean.class) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int writeInt(int value, byte[] buf) {
+        buf[0] = (byte) (value >>> 24);
+        buf[1] = (byte) (value >>> 16);
+        buf[2] = (byte) (value >>> 8);
+        buf[3] = (byte) value;
+        return 4;
+    }
+
+    private static int writeLong(long value, byte[] buf) {
+        writeInt((int) (value >>> 32), buf);
+        buf[4] = (byte) (value >>> 24);
+        buf[5] = (byte) (value >>> 16);
+        buf[6] = (byte) (value >>> 8);
+        buf[7] = (byte) value;
+        return 8;
+    }
+
+    // modified UTF-8 with a two-byte length prefix, as written by DataOutputStream.writeUTF
+    private static byte[] encodeUTF(String str) {
+        int strlen = str.length();
+        int utflen = 0;
+        for (int i = 0; i < strlen; i++) {
+            char c = str.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                utflen++;
+            } else if (c > 0x07FF) {
+                utflen += 3;
+            } else {
+                utflen += 2;
+            }
+        }
+        if (utflen > 65535) {
+            return null;
+        }
+
+        byte[] bytes = new byte[utflen + 2];
+        bytes[0] = (byte) (utflen >>> 8);
+        bytes[1] = (byte) utflen;
+        int count = 2;
+        for (int i = 0; i < strlen; i++) {
+            char c = str.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                bytes[count++] = (byte) c;
+            } else if (c > 0x07FF) {
+                bytes[count++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
+                bytes[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[count++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                bytes[count++] = (byte) (0xC0 | ((c >> 6) & 0x1F));
+                bytes[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return bytes;
+    }
+
     public boolean isExistsProperty(EventBean eventBean) {
         return false;
     }
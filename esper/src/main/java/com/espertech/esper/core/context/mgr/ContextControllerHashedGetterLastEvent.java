@@ -0,0 +1,57 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.context.mgr;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.PropertyAccessException;
+
+/**
+ * Remembers the hash code computed for the last event so that the context controller filter
+ * and the filter indexes of all context partition statements compute the hash only once per event.
+ */
+public class ContextControllerHashedGetterLastEvent implements EventPropertyGetter {
+
+    private final EventPropertyGetter getter;
+    private volatile LastEvent last;
+
+    public ContextControllerHashedGetterLastEvent(EventPropertyGetter getter) {
+        this.getter = getter;
+    }
+
+    public Object get(EventBean eventBean) throws PropertyAccessException {
+        LastEvent current = last;
+        if (current != null && current.event == eventBean) {
+            return current.hashCode;
+        }
+        Object hashCode = getter.get(eventBean);
+        last = new LastEvent(eventBean, hashCode);
+        return hashCode;
+    }
+
+    public boolean isExistsProperty(EventBean eventBean) {
+        return false;
+    }
+
+    public Object getFragment(EventBean eventBean) throws PropertyAccessException {
+        return null;
+    }
+
+    private static class LastEvent {
+        private final EventBean event;
+        private final Object hashCode;
+
+        private LastEvent(EventBean event, Object hashCode) {
+            this.event = event;
+            this.hashCode = hashCode;
+        }
+    }
+}
@@ -29,6 +29,10 @@ public class ContextControllerPartitioned implements ContextController, ContextC
     protected final List<ContextControllerPartitionedFilterCallback> filterCallbacks = new ArrayList<ContextControllerPartitionedFilterCallback>();
     protected final HashMap<Object, ContextControllerInstanceHandle> partitionKeys = new HashMap<Object, ContextControllerInstanceHandle>();
 
+    // for reclaiming partitions, keys in the order of last event arrival (least recent first) and the time of last event arrival
+    protected final LinkedHashMap<Object, Long> partitionLastAccess;
+    private long nextSweepTime;
+
     private ContextInternalFilterAddendum activationFilterAddendum;
     protected int currentSubpathId;
 
@@ -36,6 +40,7 @@ public class ContextControllerPartitioned implements ContextController, ContextC
         this.pathId = pathId;
         this.activationCallback = activationCallback;
         this.factory = factory;
+        this.partitionLastAccess = factory.isReclaim() ? new LinkedHashMap<Object, Long>(16, 0.75f, true) : null;
     }
 
     public void importContextPartitions(ContextControllerState state, int pathIdToUse, ContextInternalFilterAddendum filterAddendum, AgentInstanceSelector agentInstanceSelector) {
@@ -44,7 +49,11 @@ public class ContextControllerPartitioned implements ContextController, ContextC
 
     public void deletePath(ContextPartitionIdentifier identifier) {
         ContextPartitionIdentifierPartitioned partitioned = (ContextPartitionIdentifierPartitioned) identifier;
-        partitionKeys.remove(getKeyObjectForLookup(partitioned.getKeys()));
+        Object key = getKeyObjectForLookup(partitioned.getKeys());
+        partitionKeys.remove(key);
+        if (partitionLastAccess != null) {
+            partitionLastAccess.remove(key);
+        }
     }
 
     public void visitSelectedPartitions(ContextPartitionSelector contextPartitionSelector, ContextPartitionVisitor visitor) {
@@ -136,12 +145,22 @@ public class ContextControllerPartitioned implements ContextController, ContextC
             callback.destroy(factoryContext.getServicesContext().getFilterService());
         }
         partitionKeys.clear();
+        if (partitionLastAccess != null) {
+            partitionLastAccess.clear();
+        }
         filterCallbacks.clear();
         factory.getFactoryContext().getStateCache().removeContextParentPath(factoryContext.getOutermostContextName(), factoryContext.getNestingLevel(), pathId);
     }
 
     public synchronized void create(Object key, EventBean theEvent) {
         boolean exists = partitionKeys.containsKey(key);
+        if (partitionLastAccess != null) {
+            long currentTime = factory.getFactoryContext().getServicesContext().getSchedulingService().getTime();
+            if (exists) {
+                partitionLastAccess.put(key, currentTime);
+            }
+            reclaimAged(currentTime);
+        }
         if (exists) {
             return;
         }
@@ -169,6 +188,54 @@ public class ContextControllerPartitioned implements ContextController, ContextC
 
         Object[] keyObjectSaved = getKeyObjectsAccountForMultikey(key);
         factory.getFactoryContext().getStateCache().addContextPath(factoryContext.getOutermostContextName(), factoryContext.getNestingLevel(), pathId, currentSubpathId, handle.getContextPartitionOrPathId(), keyObjectSaved, factory.getBinding());
+
+        if (partitionLastAccess != null) {
+            partitionLastAccess.put(key, factoryContext.getServicesContext().getSchedulingService().getTime());
+            reclaimOverMax();
+        }
+    }
+
+    private void reclaimAged(long currentTime) {
+        long maxAge = factory.getReclaimMaxAge();
+        if (maxAge == -1 || currentTime < nextSweepTime) {
+            return;
+        }
+        nextSweepTime = currentTime + factory.getReclaimFrequency();
+
+        // keys are ordered by last event arrival therefore the sweep stops at the first key that is not aged
+        Iterator<Map.Entry<Object, Long>> it = partitionLastAccess.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Object, Long> entry = it.next();
+            if (currentTime - entry.getValue() <= maxAge) {
+                break;
+            }
+            it.remove();
+            reclaim(entry.getKey());
+        }
+    }
+
+    private void reclaimOverMax() {
+        int maxPartitions = factory.getReclaimMaxPartitions();
+        if (maxPartitions == -1) {
+            return;
+        }
+        Iterator<Object> it = partitionLastAccess.keySet().iterator();
+        while (partitionLastAccess.size() > maxPartitions && it.hasNext()) {
+            Object key = it.next();
+            it.remove();
+            reclaim(key);
+        }
+    }
+
+    private void reclaim(Object key) {
+        ContextControllerInstanceHandle handle = partitionKeys.remove(key);
+        if (handle == null) {
+            return;
+        }
+        ContextControllerFactoryContext factoryContext = factory.getFactoryContext();
+        activationCallback.contextPartitionTerminate(handle, Collections.<String, Object>emptyMap(), false, null);
+        factoryContext.getStateCache().removeContextPath(factoryContext.getOutermostContextName(), factoryContext.getNestingLevel(), pathId, handle.getSubPathId());
+        factory.partitionReclaimed();
     }
 
     private Object[] getKeyObjectsAccountForMultikey(Object key) {
@@ -228,6 +295,9 @@ public class ContextControllerPartitioned implements ContextController, ContextC
             int assignedSubpathId = !controllerState.isImported() ? entry.getKey().getSubPath() : ++currentSubpathId;
             ContextControllerInstanceHandle handle = activationCallback.contextPartitionInstantiate(entry.getValue().getOptionalContextPartitionId(), assignedSubpathId, entry.getKey().getSubPath(), this, optionalTriggeringEvent, optionalTriggeringPattern, mapKey, props, controllerState, myFilterAddendum, loadingExistingState || factoryContext.isRecoveringResilient(), entry.getValue().getState());
             partitionKeys.put(mapKey, handle);
+            if (partitionLastAccess != null) {
+                partitionLastAccess.put(mapKey, factoryContext.getServicesContext().getSchedulingService().getTime());
+            }
 
             if (entry.getKey().getSubPath() > maxSubpathId) {
                 maxSubpathId = assignedSubpathId;
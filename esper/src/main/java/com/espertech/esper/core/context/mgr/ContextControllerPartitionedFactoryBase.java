@@ -11,6 +11,8 @@
 package com.espertech.esper.core.context.mgr;
 
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.annotation.Hint;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.client.context.ContextPartitionIdentifier;
 import com.espertech.esper.client.context.ContextPartitionIdentifierPartitioned;
 import com.espertech.esper.collection.MultiKeyUntyped;
@@ -27,8 +29,11 @@ import com.espertech.esper.epl.spec.util.StatementSpecCompiledAnalyzerResult;
 import com.espertech.esper.filter.FilterSpecCompiled;
 import com.espertech.esper.filter.FilterSpecLookupable;
 import com.espertech.esper.filter.FilterValueSetParam;
+import com.espertech.esper.type.DoubleValue;
 
+import java.lang.annotation.Annotation;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class ContextControllerPartitionedFactoryBase extends ContextControllerFactoryBase implements ContextControllerFactory {
 
@@ -36,6 +41,10 @@ public abstract class ContextControllerPartitionedFactoryBase extends ContextCon
     private final List<FilterSpecCompiled> filtersSpecsNestedContexts;
 
     private Map<String, Object> contextBuiltinProps;
+    private long reclaimMaxAge = -1;
+    private long reclaimFrequency = -1;
+    private int reclaimMaxPartitions = -1;
+    private final AtomicLong numPartitionsReclaimed = new AtomicLong();
 
     public ContextControllerPartitionedFactoryBase(ContextControllerFactoryContext factoryContext, ContextDetailPartitioned segmentedSpec, List<FilterSpecCompiled> filtersSpecsNestedContexts) {
         super(factoryContext);
@@ -50,6 +59,7 @@ public abstract class ContextControllerPartitionedFactoryBase extends ContextCon
     public void validateFactory() throws ExprValidationException {
         Class[] propertyTypes = ContextControllerPartitionedUtil.validateContextDesc(factoryContext.getContextName(), segmentedSpec);
         contextBuiltinProps = ContextPropertyEventType.getPartitionType(segmentedSpec, propertyTypes);
+        validateReclaimHints();
     }
 
     public ContextControllerStatementCtxCache validateStatement(ContextControllerStatementBase statement) throws ExprValidationException {
@@ -112,6 +122,72 @@ public abstract class ContextControllerPartitionedFactoryBase extends ContextCon
         return new ContextPartitionIdentifierPartitioned(new Object[]{payload});
     }
 
+    public long getReclaimMaxAge() {
+        return reclaimMaxAge;
+    }
+
+    public long getReclaimFrequency() {
+        return reclaimFrequency;
+    }
+
+    public int getReclaimMaxPartitions() {
+        return reclaimMaxPartitions;
+    }
+
+    public boolean isReclaim() {
+        return reclaimMaxAge != -1 || reclaimMaxPartitions != -1;
+    }
+
+    public void partitionReclaimed() {
+        numPartitionsReclaimed.incrementAndGet();
+    }
+
+    public long getNumPartitionsReclaimed() {
+        return numPartitionsReclaimed.get();
+    }
+
+    private void validateReclaimHints() throws ExprValidationException {
+        Annotation[] annotations = factoryContext.getAgentInstanceContextCreate().getStatementContext().getAnnotations();
+
+        Hint hintMaxAge = HintEnum.RECLAIM_PARTITION_AGED.getHint(annotations);
+        if (hintMaxAge != null) {
+            double maxAgeSeconds = getReclaimHintSeconds(HintEnum.RECLAIM_PARTITION_AGED.getHintAssignedValue(hintMaxAge));
+            reclaimMaxAge = factoryContext.getAgentInstanceContextCreate().getStatementContext().getTimeAbacus().deltaForSecondsDouble(maxAgeSeconds);
+            reclaimFrequency = reclaimMaxAge;
+            Hint hintFrequency = HintEnum.RECLAIM_PARTITION_FREQ.getHint(annotations);
+            if (hintFrequency != null) {
+                double frequencySeconds = getReclaimHintSeconds(HintEnum.RECLAIM_PARTITION_FREQ.getHintAssignedValue(hintFrequency));
+                reclaimFrequency = factoryContext.getAgentInstanceContextCreate().getStatementContext().getTimeAbacus().deltaForSecondsDouble(frequencySeconds);
+            }
+        }
+
+        Hint hintMax = HintEnum.RECLAIM_PARTITION_MAX.getHint(annotations);
+        if (hintMax != null) {
+            String hintValue = HintEnum.RECLAIM_PARTITION_MAX.getHintAssignedValue(hintMax);
+            try {
+                reclaimMaxPartitions = Integer.parseInt(hintValue.trim());
+            } catch (RuntimeException ex) {
+                throw new ExprValidationException("Failed to parse hint parameter value '" + hintValue + "' as an integer-typed maximum number of context partitions");
+            }
+            if (reclaimMaxPartitions <= 0) {
+                throw new ExprValidationException("Hint parameter value '" + hintValue + "' is an invalid value, expecting a positive integer-typed maximum number of context partitions");
+            }
+        }
+    }
+
+    private static double getReclaimHintSeconds(String hintValue) throws ExprValidationException {
+        final Double valueDouble;
+        try {
+            valueDouble = DoubleValue.parseString(hintValue);
+        } catch (RuntimeException ex) {
+            throw new ExprValidationException("Failed to parse hint parameter value '" + hintValue + "' as a double-typed seconds value");
+        }
+        if (valueDouble <= 0) {
+            throw new ExprValidationException("Hint parameter value '" + hintValue + "' is an invalid value, expecting a double-typed seconds value");
+        }
+        return valueDouble;
+    }
+
     private Collection<EventType> getItemEventTypes(ContextDetailPartitioned segmentedSpec) {
         List<EventType> itemEventTypes = new ArrayList<EventType>();
         for (ContextDetailPartitionItem item : segmentedSpec.getItems()) {
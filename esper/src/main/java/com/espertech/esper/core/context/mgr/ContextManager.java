@@ -51,4 +51,6 @@ public interface ContextManager extends FilterFaultHandler {
     public Collection<Integer> getAgentInstanceIds(ContextPartitionSelector contextPartitionSelector);
 
     public Map<Integer, ContextControllerStatementDesc> getStatements();
+
+    public long getNumPartitionsReclaimed();
 }
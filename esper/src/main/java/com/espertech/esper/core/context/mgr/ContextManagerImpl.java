@@ -65,6 +65,13 @@ public class ContextManagerImpl implements ContextManager, ContextControllerLife
         return 1;
     }
 
+    public long getNumPartitionsReclaimed() {
+        if (rootContext.getFactory() instanceof ContextControllerPartitionedFactoryBase) {
+            return ((ContextControllerPartitionedFactoryBase) rootContext.getFactory()).getNumPartitionsReclaimed();
+        }
+        return 0;
+    }
+
     public Map<Integer, ContextControllerStatementDesc> getStatements() {
         return statements;
     }
@@ -96,6 +96,16 @@ public class ContextManagerNested implements ContextManager, ContextControllerLi
         return nestedContextFactories.length;
     }
 
+    public long getNumPartitionsReclaimed() {
+        long count = 0;
+        for (ContextControllerFactory factory : nestedContextFactories) {
+            if (factory instanceof ContextControllerPartitionedFactoryBase) {
+                count += ((ContextControllerPartitionedFactoryBase) factory).getNumPartitionsReclaimed();
+            }
+        }
+        return count;
+    }
+
     public synchronized Iterator<EventBean> iterator(int statementId, ContextPartitionSelector selector) {
         AgentInstance[] instances = getAgentInstancesForStmt(statementId, selector);
         return new AgentInstanceArrayIterator(instances);
@@ -474,7 +484,7 @@ public class ContextManagerNested implements ContextManager, ContextControllerLi
             ContextController leaf = leafHandle.getController();
             ContextControllerTreeEntry leafEntry = subcontexts.get(leaf);
             if (leafEntry != null) { // could be terminated earlier
-                ContextControllerTreeAgentInstanceList ailist = leafEntry.getAgentInstances().get(leafHandle.getContextPartitionOrPathId());
+                ContextControllerTreeAgentInstanceList ailist = leafEntry.getAgentInstances().remove(leafHandle.getContextPartitionOrPathId());
                 if (ailist != null) {
                     StatementAgentInstanceUtil.stopAgentInstances(ailist.getAgentInstances(), null, servicesContext, false, false);
                     contextPartitionIdManager.removeId(leafHandle.getContextPartitionOrPathId());
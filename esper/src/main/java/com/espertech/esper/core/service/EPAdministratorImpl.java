@@ -11,6 +11,7 @@
 package com.espertech.esper.core.service;
 
 import com.espertech.esper.client.ConfigurationOperations;
+import com.espertech.esper.client.EPSnapshotAdmin;
 import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EPPreparedStatement;
 import com.espertech.esper.client.EPStatement;
@@ -31,6 +32,7 @@ public class EPAdministratorImpl implements EPAdministratorSPI {
     private final static String SUBS_PARAM_INVALID_USE = "Invalid use of substitution parameters marked by '?' in statement, use the prepare method to prepare statements with substitution parameters";
 
     private EPServicesContext services;
+    private EPRuntimeSPI runtimeSPI;
     private ConfigurationOperations configurationOperations;
     private SelectClauseStreamSelectorEnum defaultStreamSelector;
     private EPDeploymentAdmin deploymentAdminService;
@@ -42,6 +44,7 @@ public class EPAdministratorImpl implements EPAdministratorSPI {
      */
     public EPAdministratorImpl(EPAdministratorContext adminContext) {
         this.services = adminContext.getServices();
+        this.runtimeSPI = adminContext.getRuntimeSPI();
         this.configurationOperations = adminContext.getConfigurationOperations();
         this.defaultStreamSelector = adminContext.getDefaultStreamSelector();
 
@@ -291,5 +294,9 @@ public class EPAdministratorImpl implements EPAdministratorSPI {
         return new EPContextPartitionAdminImpl(services);
     }
 
+    public EPSnapshotAdmin getSnapshotAdmin() {
+        return new EPSnapshotAdminImpl(services, runtimeSPI);
+    }
+
     private static Logger log = LoggerFactory.getLogger(EPAdministratorImpl.class);
 }
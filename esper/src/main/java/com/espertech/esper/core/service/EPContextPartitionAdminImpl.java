@@ -46,6 +46,11 @@ public class EPContextPartitionAdminImpl implements EPContextPartitionAdminSPI {
         return contextManager.getNumNestingLevels();
     }
 
+    public long getContextPartitionsReclaimed(String contextName) {
+        ContextManager contextManager = checkedGetContextManager(contextName);
+        return contextManager.getNumPartitionsReclaimed();
+    }
+
     public ContextPartitionCollection destroyContextPartitions(String contextName, ContextPartitionSelector selector) {
         ContextManager contextManager = checkedGetContextManager(contextName);
         ContextStatePathDescriptor descriptor = contextManager.extractDestroyPaths(selector);
@@ -23,6 +23,13 @@ public interface EPRuntimeEventSender {
      */
     public void processWrappedEvent(EventBean eventBean);
 
+    /**
+     * Equivalent to the sendEvents method of EPRuntime, for use to process a batch of known events.
+     *
+     * @param eventBeans are the event objects wrapped by event beans providing the event metadata
+     */
+    public void processWrappedEvents(EventBean[] eventBeans);
+
     /**
      * For processing a routed event.
      *
@@ -58,6 +58,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Node;
 
+import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.net.URI;
 import java.util.*;
@@ -86,6 +87,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     protected ThreadLocal<ArrayBackedCollection<ScheduleHandle>> scheduleArrayThreadLocal;
     protected ThreadLocal<Map<EPStatementAgentInstanceHandle, Object>> matchesPerStmtThreadLocal;
     protected ThreadLocal<Map<EPStatementAgentInstanceHandle, Object>> schedulePerStmtThreadLocal;
+    protected EPRuntimeWriteAheadLog writeAheadLog;
 
     /**
      * Constructor.
@@ -154,6 +156,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
 
         initThreadLocals();
 
+        ConfigurationEngineDefaults.WriteAheadLog writeAheadLogConfig = services.getEngineSettingsService().getEngineSettings().getWriteAheadLog();
+        if (writeAheadLogConfig.getDirectory() != null) {
+            writeAheadLog = new EPRuntimeWriteAheadLog(services.getEngineURI(), writeAheadLogConfig, services.getEventAdapterService());
+        }
+
         services.getThreadingService().initThreading(services, this);
     }
 
@@ -225,6 +232,38 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
     }
 
+    public void sendEvents(Object[] events) throws EPException {
+        if (events == null) {
+            log.error(".sendEvents Null array supplied");
+            return;
+        }
+
+        // With inbound threading each event is a unit of work for the inbound pool
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading())) {
+            for (Object theEvent : events) {
+                sendEvent(theEvent);
+            }
+            return;
+        }
+
+        EventBean[] eventBeans = new EventBean[events.length];
+        int count = 0;
+        for (Object theEvent : events) {
+            if (theEvent == null) {
+                log.error(".sendEvents Null object supplied");
+                continue;
+            }
+            if (theEvent instanceof TimerEvent) {
+                processWrappedEvents(eventBeans, count);
+                count = 0;
+                processTimeEvent((TimerEvent) theEvent);
+                continue;
+            }
+            eventBeans[count++] = theEvent instanceof EventBean ? (EventBean) theEvent : wrapEvent(theEvent);
+        }
+        processWrappedEvents(eventBeans, count);
+    }
+
     public void sendEvent(org.w3c.dom.Node document) throws EPException {
         if (document == null) {
             log.error(".sendEvent Null object supplied");
@@ -466,6 +505,9 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
         services.getEventProcessingRWLock().acquireReadLock();
         try {
+            if (writeAheadLog != null) {
+                writeAheadLog.appendEvent(eventBean);
+            }
             processMatches(eventBean);
         } catch (RuntimeException ex) {
             matchesArrayThreadLocal.get().clear();
@@ -489,7 +531,127 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
     }
 
+    public void processWrappedEvents(EventBean[] eventBeans) {
+        processWrappedEvents(eventBeans, eventBeans.length);
+    }
+
+    private void processWrappedEvents(EventBean[] eventBeans, int count) {
+        if (InstrumentationHelper.ENABLED) {
+            // instrumentation reports each event of the batch as its own stimulant
+            for (int i = 0; i < count; i++) {
+                processWrappedEvent(eventBeans[i]);
+            }
+            return;
+        }
+
+        int next = 0;
+        while (next < count) {
+            next = processWrappedEventsUnderLock(eventBeans, next, count);
+
+            // Dispatch results to listeners
+            // Done outside of the read-lock to prevent lockups when listeners create statements
+            dispatch();
+
+            // Work off the event queue if any events accumulated in there via a route() or insert-into,
+            // and dispatch to named window consumers
+            processThreadWorkQueue();
+        }
+    }
+
+    private int processWrappedEventsUnderLock(EventBean[] eventBeans, int start, int count) {
+        DualWorkQueue queues = threadWorkQueue.getThreadQueue();
+        boolean isGroupMatches = !isPrioritized && !MetricReportingPath.isMetricsEnabled && !(ThreadingOption.isThreadingEnabled && services.getThreadingService().isRouteThreading());
+        EPStatementAgentInstanceHandle lockedHandle = null;
+        services.getEventProcessingRWLock().acquireReadLock();
+        try {
+            for (int i = start; i < count; i++) {
+                EventBean eventBean = eventBeans[i];
+                if (internalEventRouter.isHasPreprocessing()) {
+                    eventBean = internalEventRouter.preprocess(eventBean, engineFilterAndDispatchTimeContext);
+                    if (eventBean == null) {
+                        continue;
+                    }
+                }
+
+                if (writeAheadLog != null) {
+                    writeAheadLog.appendEvent(eventBean);
+                }
+                if (isGroupMatches) {
+                    // the held statement lock is released by the call should it fail
+                    EPStatementAgentInstanceHandle heldHandle = lockedHandle;
+                    lockedHandle = null;
+                    lockedHandle = processMatchesGrouped(eventBean, heldHandle);
+                } else {
+                    processMatches(eventBean);
+                }
+
+                // Routed or inserted-into events, and named window consumers, are processed outside of the
+                // read-lock before the next event of the batch
+                if (!queues.getFrontQueue().isEmpty() || !queues.getBackQueue().isEmpty() || services.getNamedWindowDispatchService().isDispatchWaiting()) {
+                    return i + 1;
+                }
+            }
+            return count;
+        } catch (RuntimeException ex) {
+            matchesArrayThreadLocal.get().clear();
+            throw new EPException(ex);
+        } finally {
+            if (lockedHandle != null) {
+                lockedHandle.getStatementAgentInstanceLock().releaseWriteLock();
+            }
+            services.getEventProcessingRWLock().releaseReadLock();
+        }
+    }
+
+    /**
+     * Process an event or time advance replayed from the write-ahead log, without preprocessing as the log holds preprocessed events.
+     *
+     * @param theEvent event bean or timer event
+     */
+    protected void processReplayedEvent(Object theEvent) {
+        if (theEvent instanceof TimerEvent) {
+            processTimeEvent((TimerEvent) theEvent);
+            return;
+        }
+
+        services.getEventProcessingRWLock().acquireReadLock();
+        try {
+            processMatches((EventBean) theEvent);
+        } catch (RuntimeException ex) {
+            matchesArrayThreadLocal.get().clear();
+            throw new EPException(ex);
+        } finally {
+            services.getEventProcessingRWLock().releaseReadLock();
+        }
+
+        dispatch();
+        processThreadWorkQueue();
+    }
+
+    public EPRuntimeWriteAheadLog getWriteAheadLog() {
+        return writeAheadLog;
+    }
+
+    public void replayWriteAheadLog(long fromSegment) throws IOException {
+        if (writeAheadLog != null) {
+            writeAheadLog.replay(fromSegment, this);
+        }
+    }
+
+    private void appendTimeWriteAheadLog(TimerEvent theEvent) {
+        // append under the event processing lock so that a snapshot holding the write lock sees all or nothing of the time advance
+        services.getEventProcessingRWLock().acquireReadLock();
+        try {
+            writeAheadLog.appendTime(theEvent);
+        } finally {
+            services.getEventProcessingRWLock().releaseReadLock();
+        }
+    }
+
     private void processTimeEvent(TimerEvent theEvent) {
+        if (writeAheadLog != null && isUsingExternalClocking && !(theEvent instanceof TimerControlEvent)) {
+            appendTimeWriteAheadLog(theEvent);
+        }
         if (theEvent instanceof TimerControlEvent) {
             TimerControlEvent timerControlEvent = (TimerControlEvent) theEvent;
             if (timerControlEvent.getClockType() == TimerControlEvent.ClockType.CLOCK_INTERNAL) {
@@ -667,7 +829,9 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
                 long deltaWall = wallTimeAfter - wallTimeBefore;
                 services.getMetricsReportingService().accountTime(handle.getAgentInstanceHandle().getStatementHandle().getMetricsHandle(), deltaCPU, deltaWall, 1);
             } else {
-                if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isTimerThreading())) {
+                if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isRouteThreadingSharded())) {
+                    services.getThreadingService().submitRoute(handle.getAgentInstanceHandle(), new TimerUnitSingle(services, this, handle));
+                } else if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isTimerThreading())) {
                     services.getThreadingService().submitTimerWork(new TimerUnitSingle(services, this, handle));
                 } else {
                     processStatementScheduleSingle(handle, services);
@@ -730,7 +894,9 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
                 int numInput = (callbackObject instanceof Collection) ? ((Collection) callbackObject).size() : 1;
                 services.getMetricsReportingService().accountTime(handle.getStatementHandle().getMetricsHandle(), deltaCPU, deltaWall, numInput);
             } else {
-                if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isTimerThreading())) {
+                if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isRouteThreadingSharded())) {
+                    services.getThreadingService().submitRoute(handle, new TimerUnitMultiple(services, this, handle, callbackObject));
+                } else if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isTimerThreading())) {
                     services.getThreadingService().submitTimerWork(new TimerUnitMultiple(services, this, handle, callbackObject));
                 } else {
                     processStatementScheduleMultiple(handle, callbackObject, services);
@@ -888,15 +1054,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
 
         if (matches.size() == 0) {
             if (unmatchedListener != null) {
-                services.getEventProcessingRWLock().releaseReadLock();  // Allow listener to create new statements
-                try {
-                    unmatchedListener.update(theEvent);
-                } catch (Throwable t) {
-                    log.error("Exception thrown by unmatched listener: " + t.getMessage(), t);
-                } finally {
-                    // acquire read lock for release by caller
-                    services.getEventProcessingRWLock().acquireReadLock();
-                }
+                processUnmatched(theEvent);
             }
             return;
         }
@@ -940,7 +1098,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
                 services.getMetricsReportingService().accountTime(handle.getStatementHandle().getMetricsHandle(), deltaCPU, deltaWall, 1);
             } else {
                 if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isRouteThreading())) {
-                    services.getThreadingService().submitRoute(new RouteUnitSingle(this, handleCallback, theEvent, version));
+                    services.getThreadingService().submitRoute(handle, new RouteUnitSingle(this, handleCallback, theEvent, version));
                 } else {
                     processStatementFilterSingle(handle, handleCallback, theEvent, version);
                 }
@@ -972,7 +1130,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
                 services.getMetricsReportingService().accountTime(handle.getStatementHandle().getMetricsHandle(), deltaCPU, deltaWall, size);
             } else {
                 if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isRouteThreading())) {
-                    services.getThreadingService().submitRoute(new RouteUnitMultiple(this, callbackList, theEvent, handle, version));
+                    services.getThreadingService().submitRoute(handle, new RouteUnitMultiple(this, callbackList, theEvent, handle, version));
                 } else {
                     processStatementFilterMultiple(handle, callbackList, theEvent, version);
                 }
@@ -985,6 +1143,100 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         stmtCallbacks.clear();
     }
 
+    /**
+     * Process the matches of an event of a batch, for use when neither prioritized execution, metrics reporting nor
+     * route threading is enabled.
+     * <p>
+     * The statement lock of the last statement matched remains held on return. Consecutive matches of the same
+     * statement, such as for a batch of events that feeds a single statement, therefore take the statement lock once.
+     * Statements are processed in the same order as by {@link #processMatches(EventBean)}.
+     *
+     * @param theEvent     event
+     * @param lockedHandle statement whose lock is held, or null if none
+     * @return statement whose lock is held, or null if none
+     */
+    private EPStatementAgentInstanceHandle processMatchesGrouped(EventBean theEvent, EPStatementAgentInstanceHandle lockedHandle) {
+        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
+        long version = services.getFilterService().evaluate(theEvent, matches);
+
+        if (matches.size() == 0) {
+            if (unmatchedListener != null) {
+                lockedHandle = releaseStatementLock(lockedHandle);
+                processUnmatched(theEvent);
+            }
+            return lockedHandle;
+        }
+
+        boolean completed = false;
+        try {
+            Map<EPStatementAgentInstanceHandle, Object> stmtCallbacks = matchesPerStmtThreadLocal.get();
+            Object[] matchArray = matches.getArray();
+            int entryCount = matches.size();
+
+            for (int i = 0; i < entryCount; i++) {
+                EPStatementHandleCallback handleCallback = (EPStatementHandleCallback) matchArray[i];
+                EPStatementAgentInstanceHandle handle = handleCallback.getAgentInstanceHandle();
+
+                // Self-joins require that the internal dispatch happens after all streams are evaluated.
+                if (handle.isCanSelfJoin()) {
+                    Object callbacks = stmtCallbacks.get(handle);
+                    if (callbacks == null) {
+                        stmtCallbacks.put(handle, handleCallback.getFilterCallback());
+                    } else if (callbacks instanceof ArrayDeque) {
+                        ArrayDeque<FilterHandleCallback> q = (ArrayDeque<FilterHandleCallback>) callbacks;
+                        q.add(handleCallback.getFilterCallback());
+                    } else {
+                        ArrayDeque<FilterHandleCallback> q = new ArrayDeque<FilterHandleCallback>(4);
+                        q.add((FilterHandleCallback) callbacks);
+                        q.add(handleCallback.getFilterCallback());
+                        stmtCallbacks.put(handle, q);
+                    }
+                    continue;
+                }
+
+                if (handle != lockedHandle) {
+                    lockedHandle = releaseStatementLock(lockedHandle);
+                    handle.getStatementAgentInstanceLock().acquireWriteLock();
+                    lockedHandle = handle;
+                }
+                processStatementFilterSingleLocked(handle, handleCallback, theEvent, version);
+            }
+            matches.clear();
+            if (!stmtCallbacks.isEmpty()) {
+                lockedHandle = releaseStatementLock(lockedHandle);
+                for (Map.Entry<EPStatementAgentInstanceHandle, Object> entry : stmtCallbacks.entrySet()) {
+                    processStatementFilterMultiple(entry.getKey(), entry.getValue(), theEvent, version);
+                }
+                stmtCallbacks.clear();
+            }
+            completed = true;
+            return lockedHandle;
+        } finally {
+            if (!completed) {
+                releaseStatementLock(lockedHandle);
+            }
+        }
+    }
+
+    private static EPStatementAgentInstanceHandle releaseStatementLock(EPStatementAgentInstanceHandle lockedHandle) {
+        if (lockedHandle != null) {
+            lockedHandle.getStatementAgentInstanceLock().releaseWriteLock();
+        }
+        return null;
+    }
+
+    private void processUnmatched(EventBean theEvent) {
+        services.getEventProcessingRWLock().releaseReadLock();  // Allow listener to create new statements
+        try {
+            unmatchedListener.update(theEvent);
+        } catch (Throwable t) {
+            log.error("Exception thrown by unmatched listener: " + t.getMessage(), t);
+        } finally {
+            // acquire read lock for release by caller
+            services.getEventProcessingRWLock().acquireReadLock();
+        }
+    }
+
     /**
      * Processing multiple schedule matches for a statement.
      *
@@ -1126,6 +1378,17 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             InstrumentationHelper.get().qEventCP(theEvent, handle, services.getSchedulingService().getTime());
         }
         handle.getStatementAgentInstanceLock().acquireWriteLock();
+        try {
+            processStatementFilterSingleLocked(handle, handleCallback, theEvent, version);
+        } finally {
+            handleCallback.getAgentInstanceHandle().getStatementAgentInstanceLock().releaseWriteLock();
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aEventCP();
+            }
+        }
+    }
+
+    private void processStatementFilterSingleLocked(EPStatementAgentInstanceHandle handle, EPStatementHandleCallback handleCallback, EventBean theEvent, long version) {
         try {
             if (handle.isHasVariables()) {
                 services.getVariableService().setLocalVersion();
@@ -1150,10 +1413,6 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             if (handle.isHasTableAccess()) {
                 services.getTableService().getTableExprEvaluatorContext().releaseAcquiredLocks();
             }
-            handleCallback.getAgentInstanceHandle().getStatementAgentInstanceLock().releaseWriteLock();
-            if (InstrumentationHelper.ENABLED) {
-                InstrumentationHelper.get().aEventCP();
-            }
         }
     }
 
@@ -1235,6 +1494,10 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
      * Destroy for destroying an engine instance: sets references to null and clears thread-locals
      */
     public void destroy() {
+        if (writeAheadLog != null) {
+            writeAheadLog.close();
+            writeAheadLog = null;
+        }
         services = null;
 
         removeFromThreadLocals();
@@ -1245,6 +1508,10 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     }
 
     public void initialize() {
+        if (writeAheadLog != null) {
+            writeAheadLog.close();
+            writeAheadLog = null;
+        }
         initThreadLocals();
         threadWorkQueue = new ThreadWorkQueue();
     }
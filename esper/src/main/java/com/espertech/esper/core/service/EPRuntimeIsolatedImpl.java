@@ -196,6 +196,54 @@ public class EPRuntimeIsolatedImpl implements EPRuntimeIsolatedSPI, InternalEven
         processThreadWorkQueue();
     }
 
+    public void processWrappedEvents(EventBean[] eventBeans) {
+        int next = 0;
+        while (next < eventBeans.length) {
+            next = processWrappedEventsUnderLock(eventBeans, next);
+
+            // Dispatch results to listeners
+            // Done outside of the read-lock to prevent lockups when listeners create statements
+            dispatch();
+
+            // Work off the event queue if any events accumulated in there via a route() or insert-into,
+            // and dispatch to named window consumers
+            processThreadWorkQueue();
+        }
+    }
+
+    private int processWrappedEventsUnderLock(EventBean[] eventBeans, int start) {
+        DualWorkQueue queues = threadWorkQueue.getThreadQueue();
+        EPStatementAgentInstanceHandle lockedHandle = null;
+        unisolatedServices.getEventProcessingRWLock().acquireReadLock();
+        try {
+            for (int i = start; i < eventBeans.length; i++) {
+                if (isPrioritized) {
+                    processMatches(eventBeans[i]);
+                } else {
+                    // the held statement lock is released by the call should it fail
+                    EPStatementAgentInstanceHandle heldHandle = lockedHandle;
+                    lockedHandle = null;
+                    lockedHandle = processMatchesGrouped(eventBeans[i], heldHandle);
+                }
+
+                // Routed or inserted-into events, and named window consumers, are processed outside of the
+                // read-lock before the next event of the batch
+                if (!queues.getFrontQueue().isEmpty() || !queues.getBackQueue().isEmpty() || unisolatedServices.getNamedWindowDispatchService().isDispatchWaiting()) {
+                    return i + 1;
+                }
+            }
+            return eventBeans.length;
+        } catch (RuntimeException ex) {
+            matchesArrayThreadLocal.get().clear();
+            throw new EPException(ex);
+        } finally {
+            if (lockedHandle != null) {
+                lockedHandle.getStatementAgentInstanceLock().releaseWriteLock();
+            }
+            unisolatedServices.getEventProcessingRWLock().releaseReadLock();
+        }
+    }
+
     private void processTimeEvent(TimerEvent theEvent) {
         if (theEvent instanceof TimerControlEvent) {
             TimerControlEvent tce = (TimerControlEvent) theEvent;
@@ -543,6 +591,75 @@ public class EPRuntimeIsolatedImpl implements EPRuntimeIsolatedSPI, InternalEven
         stmtCallbacks.clear();
     }
 
+    /**
+     * Process the matches of an event of a batch, for use when prioritized execution is not enabled.
+     * <p>
+     * The statement lock of the last statement matched remains held on return. Consecutive matches of the same
+     * statement, such as for a batch of events that feeds a single statement, therefore take the statement lock once.
+     * Statements are processed in the same order as by {@link #processMatches(EventBean)}.
+     *
+     * @param theEvent     event
+     * @param lockedHandle statement whose lock is held, or null if none
+     * @return statement whose lock is held, or null if none
+     */
+    private EPStatementAgentInstanceHandle processMatchesGrouped(EventBean theEvent, EPStatementAgentInstanceHandle lockedHandle) {
+        ArrayBackedCollection<FilterHandle> matches = matchesArrayThreadLocal.get();
+        services.getFilterService().evaluate(theEvent, matches);
+        if (matches.size() == 0) {
+            return lockedHandle;
+        }
+
+        boolean completed = false;
+        try {
+            Map<EPStatementAgentInstanceHandle, ArrayDeque<FilterHandleCallback>> stmtCallbacks = matchesPerStmtThreadLocal.get();
+            Object[] matchArray = matches.getArray();
+            int entryCount = matches.size();
+
+            for (int i = 0; i < entryCount; i++) {
+                EPStatementHandleCallback handleCallback = (EPStatementHandleCallback) matchArray[i];
+                EPStatementAgentInstanceHandle handle = handleCallback.getAgentInstanceHandle();
+
+                // Self-joins require that the internal dispatch happens after all streams are evaluated.
+                if (handle.isCanSelfJoin()) {
+                    ArrayDeque<FilterHandleCallback> callbacks = stmtCallbacks.get(handle);
+                    if (callbacks == null) {
+                        callbacks = new ArrayDeque<FilterHandleCallback>();
+                        stmtCallbacks.put(handle, callbacks);
+                    }
+                    callbacks.add(handleCallback.getFilterCallback());
+                    continue;
+                }
+
+                if (handle != lockedHandle) {
+                    if (lockedHandle != null) {
+                        lockedHandle.getStatementAgentInstanceLock().releaseWriteLock();
+                        lockedHandle = null;
+                    }
+                    handle.getStatementAgentInstanceLock().acquireWriteLock();
+                    lockedHandle = handle;
+                }
+                processStatementFilterSingleLocked(handle, handleCallback, theEvent);
+            }
+            matches.clear();
+            if (!stmtCallbacks.isEmpty()) {
+                if (lockedHandle != null) {
+                    lockedHandle.getStatementAgentInstanceLock().releaseWriteLock();
+                    lockedHandle = null;
+                }
+                for (Map.Entry<EPStatementAgentInstanceHandle, ArrayDeque<FilterHandleCallback>> entry : stmtCallbacks.entrySet()) {
+                    processStatementFilterMultiple(entry.getKey(), entry.getValue(), theEvent);
+                }
+                stmtCallbacks.clear();
+            }
+            completed = true;
+            return lockedHandle;
+        } finally {
+            if (!completed && lockedHandle != null) {
+                lockedHandle.getStatementAgentInstanceLock().releaseWriteLock();
+            }
+        }
+    }
+
     /**
      * Processing multiple filter matches for a statement.
      *
@@ -580,6 +697,14 @@ public class EPRuntimeIsolatedImpl implements EPRuntimeIsolatedSPI, InternalEven
      */
     public void processStatementFilterSingle(EPStatementAgentInstanceHandle handle, EPStatementHandleCallback handleCallback, EventBean theEvent) {
         handle.getStatementAgentInstanceLock().acquireWriteLock();
+        try {
+            processStatementFilterSingleLocked(handle, handleCallback, theEvent);
+        } finally {
+            handleCallback.getAgentInstanceHandle().getStatementAgentInstanceLock().releaseWriteLock();
+        }
+    }
+
+    private void processStatementFilterSingleLocked(EPStatementAgentInstanceHandle handle, EPStatementHandleCallback handleCallback, EventBean theEvent) {
         try {
             if (handle.isHasVariables()) {
                 unisolatedServices.getVariableService().setLocalVersion();
@@ -595,7 +720,6 @@ public class EPRuntimeIsolatedImpl implements EPRuntimeIsolatedSPI, InternalEven
             if (handle.isHasTableAccess()) {
                 unisolatedServices.getTableService().getTableExprEvaluatorContext().releaseAcquiredLocks();
             }
-            handleCallback.getAgentInstanceHandle().getStatementAgentInstanceLock().releaseWriteLock();
         }
     }
 
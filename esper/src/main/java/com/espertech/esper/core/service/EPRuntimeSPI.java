@@ -14,6 +14,7 @@ import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EPRuntime;
 import com.espertech.esper.client.EventBean;
 
+import java.io.IOException;
 import java.util.Map;
 
 /**
@@ -51,6 +52,21 @@ public interface EPRuntimeSPI extends EPRuntime {
 
     public void destroy();
 
+    /**
+     * Returns the write-ahead log, or null when no write-ahead log is configured.
+     *
+     * @return write-ahead log
+     */
+    public EPRuntimeWriteAheadLog getWriteAheadLog();
+
+    /**
+     * Replay the write-ahead log segments from the segment number up to the current segment.
+     *
+     * @param fromSegment first segment to replay
+     * @throws IOException when the log could not be read
+     */
+    public void replayWriteAheadLog(long fromSegment) throws IOException;
+
     public Map<String, Long> getStatementNearestSchedules();
 
     /**
@@ -0,0 +1,524 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.service;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.client.time.CurrentTimeSpanEvent;
+import com.espertech.esper.core.thread.EngineThreadFactory;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.map.MapEventType;
+import com.espertech.esper.util.SnapshotValueSerde;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead log of the events and external time advances received by the runtime, for replay after a restart.
+ * <p>
+ * The log consists of numbered segment files of a fixed size that are mapped into memory. Each record is written
+ * as its payload and its CRC32 followed by its length in front of them, so a record that was not completely written reads
+ * as the end of the segment. Replay stops at the first record that has an invalid length or checksum, as the
+ * records after it cannot be applied without it. The log is forced to storage after a number of records or an elapsed time,
+ * whichever comes first, so that the cost of forcing is shared by the records of a group. A timer thread
+ * forces records that remain unforced for the elapsed time when no further record arrives.
+ * <p>
+ * Threads append without locking: each thread encodes its record into a thread-local buffer and reserves
+ * the range of the record in the current segment by atomically advancing the segment's write position.
+ * Only the thread whose reservation does not fit rolls to a new segment. Records are therefore logged in
+ * the order of reservation, and a record that is reserved but not yet written when the engine stops ends
+ * the segment for replay.
+ * <p>
+ * Events cannot be sent by other threads while the log is being replayed.
+ * <p>
+ * Object-array and map events are logged as their event type name and property values, in the format of
+ * {@link SnapshotValueSerde}. Events of other representations cannot be logged.
+ */
+public class EPRuntimeWriteAheadLog {
+    private final static Logger log = LoggerFactory.getLogger(EPRuntimeWriteAheadLog.class);
+
+    private final static int SEGMENT_MAGIC = 0x4553574c;
+    private final static String SEGMENT_PREFIX = "wal-";
+    private final static String SEGMENT_SUFFIX = ".log";
+    private final static int RECORD_HEADER_SIZE = 8;
+    private final static byte RECORD_OBJECTARRAY = 1;
+    private final static byte RECORD_MAP = 2;
+    private final static byte RECORD_TIME = 3;
+    private final static byte RECORD_TIMESPAN = 4;
+
+    private final File directory;
+    private final int segmentSize;
+    private final int groupCommitEvents;
+    private final long groupCommitMsec;
+    private final EventAdapterService eventAdapterService;
+
+    private final ThreadLocal<RecordBytes> recordBytesThreadLocal = new ThreadLocal<RecordBytes>() {
+        protected synchronized RecordBytes initialValue() {
+            return new RecordBytes();
+        }
+    };
+    private final AtomicInteger numUnforced = new AtomicInteger();
+
+    private volatile Segment segment;
+    private volatile long lastForceTime;
+    private volatile Thread replayThread;
+    private ScheduledExecutorService forceExecutor;
+
+    public EPRuntimeWriteAheadLog(String engineURI, ConfigurationEngineDefaults.WriteAheadLog config, EventAdapterService eventAdapterService) {
+        this.directory = new File(config.getDirectory());
+        this.segmentSize = config.getSegmentSize();
+        this.groupCommitEvents = config.getGroupCommitEvents();
+        this.groupCommitMsec = config.getGroupCommitMsec();
+        this.eventAdapterService = eventAdapterService;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new EPException("Failed to create write-ahead log directory '" + directory + "'");
+        }
+
+        // never append to segments of a previous run, these remain for replay
+        long last = 0;
+        for (long number : getSegmentNumbers()) {
+            last = Math.max(last, number);
+        }
+        try {
+            segment = openSegment(last + 1, segmentSize);
+        } catch (IOException ex) {
+            throw new EPException("Failed to open write-ahead log segment: " + ex.getMessage(), ex);
+        }
+        lastForceTime = System.currentTimeMillis();
+
+        if (groupCommitEvents > 1 && groupCommitMsec > 0) {
+            String uri = engineURI == null ? "default" : engineURI;
+            ThreadGroup threadGroup = new ThreadGroup("com.espertech.esper." + uri + "-wal");
+            forceExecutor = new ScheduledThreadPoolExecutor(1, new EngineThreadFactory(uri, "wal", threadGroup, Thread.NORM_PRIORITY));
+            forceExecutor.scheduleWithFixedDelay(new Runnable() {
+                public void run() {
+                    forceElapsed();
+                }
+            }, groupCommitMsec, groupCommitMsec, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Append an event.
+     *
+     * @param theEvent to append
+     * @throws EPException when the event is not of object-array or map representation or cannot be written,
+     *                      or when another thread replays the log
+     */
+    public void appendEvent(EventBean theEvent) throws EPException {
+        if (isReplaying()) {
+            return;
+        }
+        EventType type = theEvent.getEventType();
+        RecordBytes record = recordBytesThreadLocal.get();
+        DataOutputStream recordOutput = record.getOutput();
+        try {
+            record.reset();
+            if (type instanceof ObjectArrayEventType) {
+                Object[] values = (Object[]) theEvent.getUnderlying();
+                recordOutput.writeByte(RECORD_OBJECTARRAY);
+                SnapshotValueSerde.writeString(type.getName(), recordOutput);
+                recordOutput.writeInt(values.length);
+                for (Object value : values) {
+                    writeValue(type, value, recordOutput);
+                }
+            } else if (type instanceof MapEventType) {
+                Map<String, Object> values = (Map<String, Object>) theEvent.getUnderlying();
+                recordOutput.writeByte(RECORD_MAP);
+                SnapshotValueSerde.writeString(type.getName(), recordOutput);
+                recordOutput.writeInt(values.size());
+                for (Map.Entry<String, Object> entry : values.entrySet()) {
+                    SnapshotValueSerde.writeString(entry.getKey(), recordOutput);
+                    writeValue(type, entry.getValue(), recordOutput);
+                }
+            } else {
+                throw new EPException("Write-ahead log supports object-array and map events only, received an event of type '" + type.getName() + "'");
+            }
+            appendRecord(record);
+        } catch (IOException ex) {
+            throw new EPException("Failed to append to write-ahead log: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Append an external time advance.
+     *
+     * @param timeEvent current time or time span event
+     * @throws EPException when the time cannot be written or when another thread replays the log
+     */
+    public void appendTime(Object timeEvent) throws EPException {
+        if (isReplaying()) {
+            return;
+        }
+        RecordBytes record = recordBytesThreadLocal.get();
+        DataOutputStream recordOutput = record.getOutput();
+        try {
+            record.reset();
+            if (timeEvent instanceof CurrentTimeSpanEvent) {
+                CurrentTimeSpanEvent span = (CurrentTimeSpanEvent) timeEvent;
+                recordOutput.writeByte(RECORD_TIMESPAN);
+                recordOutput.writeLong(span.getTargetTime());
+                SnapshotValueSerde.write(span.getOptionalResolution(), recordOutput);
+            } else {
+                recordOutput.writeByte(RECORD_TIME);
+                recordOutput.writeLong(((CurrentTimeEvent) timeEvent).getTime());
+            }
+            appendRecord(record);
+        } catch (IOException ex) {
+            throw new EPException("Failed to append to write-ahead log: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Force the current segment and continue in a new segment.
+     *
+     * @return number of the new segment
+     */
+    public synchronized long roll() {
+        try {
+            replaceSegment(segmentSize);
+        } catch (IOException ex) {
+            throw new EPException("Failed to roll write-ahead log segment: " + ex.getMessage(), ex);
+        }
+        return segment.number;
+    }
+
+    /**
+     * Delete the segments before the segment number.
+     *
+     * @param number segment number
+     */
+    public synchronized void deleteSegmentsBefore(long number) {
+        for (long existing : getSegmentNumbers()) {
+            if (existing < number && !getSegmentFile(existing).delete()) {
+                log.warn("Failed to delete write-ahead log segment '" + getSegmentFile(existing) + "'");
+            }
+        }
+    }
+
+    /**
+     * Returns the number of the segment that is currently appended to.
+     *
+     * @return segment number
+     */
+    public long getSegmentNumber() {
+        return segment.number;
+    }
+
+    /**
+     * Returns the number of records appended and not yet forced to storage.
+     *
+     * @return number of unforced records
+     */
+    public int getNumUnforced() {
+        return numUnforced.get();
+    }
+
+    /**
+     * Replay the records of segments from the segment number up to the current segment, stopping at the first record
+     * that has an invalid length or checksum. Records are not appended to the log while replaying and events sent by
+     * other threads are rejected.
+     *
+     * @param fromNumber first segment to replay
+     * @param runtime    runtime to process the replayed events
+     * @throws IOException when a segment could not be read
+     */
+    public void replay(long fromNumber, EPRuntimeImpl runtime) throws IOException {
+        long current;
+        synchronized (this) {
+            if (replayThread != null) {
+                throw new EPException("Write-ahead log is already being replayed");
+            }
+            replayThread = Thread.currentThread();
+            current = segment.number;
+        }
+        try {
+            for (long number : getSegmentNumbers()) {
+                if (number >= fromNumber && number < current) {
+                    if (!replaySegment(getSegmentFile(number), runtime)) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            replayThread = null;
+        }
+    }
+
+    /**
+     * Force and close the log.
+     */
+    public synchronized void close() {
+        if (forceExecutor != null) {
+            forceExecutor.shutdownNow();
+            forceExecutor = null;
+        }
+        try {
+            segment.close();
+        } catch (IOException ex) {
+            log.warn("Failed to close write-ahead log segment: " + ex.getMessage(), ex);
+        }
+    }
+
+    private boolean isReplaying() {
+        Thread thread = replayThread;
+        if (thread == null) {
+            return false;
+        }
+        if (thread != Thread.currentThread()) {
+            throw new EPException("Events cannot be sent while the write-ahead log is being replayed");
+        }
+        return true;
+    }
+
+    private void forceElapsed() {
+        // runs every group commit interval, so unforced records are no older than the interval
+        if (numUnforced.get() > 0) {
+            force(segment, System.currentTimeMillis());
+        }
+    }
+
+    private void writeValue(EventType type, Object value, DataOutputStream recordOutput) throws IOException {
+        if (!SnapshotValueSerde.isSupported(value)) {
+            throw new EPException("Write-ahead log does not support values of type '" + value.getClass().getName() + "' of event type '" + type.getName() + "'");
+        }
+        SnapshotValueSerde.write(value, recordOutput);
+    }
+
+    private void appendRecord(RecordBytes record) throws IOException {
+        int recordSize = record.size() + RECORD_HEADER_SIZE;
+        int checksum = record.getChecksum();
+        Segment current = segment;
+        while (!current.write(record, checksum, recordSize)) {
+            rollFull(current, recordSize);
+            current = segment;
+        }
+
+        long now = System.currentTimeMillis();
+        if (numUnforced.incrementAndGet() >= groupCommitEvents || now - lastForceTime >= groupCommitMsec) {
+            force(current, now);
+        }
+    }
+
+    private synchronized void rollFull(Segment full, int recordSize) throws IOException {
+        // only the first thread to find the segment full rolls, the others retry in the new segment
+        if (segment == full) {
+            replaceSegment(Math.max(segmentSize, recordSize + 4));
+        }
+    }
+
+    private void replaceSegment(int size) throws IOException {
+        Segment previous = segment;
+        segment = openSegment(previous.number + 1, size);
+        previous.close();
+    }
+
+    private void force(Segment current, long now) {
+        // records counted as unforced are completely written, forcing after the reset covers them
+        numUnforced.set(0);
+        lastForceTime = now;
+        current.force();
+    }
+
+    private Segment openSegment(long number, int size) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(getSegmentFile(number), "rw");
+        MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.putInt(0, SEGMENT_MAGIC);
+        buffer.force();
+        return new Segment(number, file, buffer);
+    }
+
+    private boolean replaySegment(File file, EPRuntimeImpl runtime) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            if (buffer.remaining() < 4 || buffer.getInt() != SEGMENT_MAGIC) {
+                throw new IOException("File '" + file + "' is not a write-ahead log segment");
+            }
+            byte[] bytes = new byte[256];
+            while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+                int position = buffer.position();
+                int length = buffer.getInt();
+                if (length == 0) {
+                    return true;
+                }
+                int checksum = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    log.warn("Write-ahead log segment '" + file + "' has a record of invalid length at position " + position + ", stopping replay");
+                    return false;
+                }
+                if (bytes.length < length) {
+                    bytes = new byte[length];
+                }
+                buffer.get(bytes, 0, length);
+                if (getChecksum(bytes, length) != checksum) {
+                    log.warn("Write-ahead log segment '" + file + "' has a record with an invalid checksum at position " + position + ", stopping replay");
+                    return false;
+                }
+                replayRecord(new DataInputStream(new ByteArrayInputStream(bytes, 0, length)), runtime);
+            }
+            return true;
+        } finally {
+            raf.close();
+        }
+    }
+
+    private void replayRecord(DataInputStream input, EPRuntimeImpl runtime) throws IOException {
+        byte kind = input.readByte();
+        if (kind == RECORD_OBJECTARRAY) {
+            String typeName = SnapshotValueSerde.readString(input);
+            Object[] values = new Object[input.readInt()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = SnapshotValueSerde.read(input);
+            }
+            runtime.processReplayedEvent(eventAdapterService.adapterForObjectArray(values, typeName));
+        } else if (kind == RECORD_MAP) {
+            String typeName = SnapshotValueSerde.readString(input);
+            int size = input.readInt();
+            Map<String, Object> values = new HashMap<String, Object>();
+            for (int i = 0; i < size; i++) {
+                String key = SnapshotValueSerde.readString(input);
+                values.put(key, SnapshotValueSerde.read(input));
+            }
+            runtime.processReplayedEvent(eventAdapterService.adapterForMap(values, typeName));
+        } else if (kind == RECORD_TIME) {
+            runtime.processReplayedEvent(new CurrentTimeEvent(input.readLong()));
+        } else if (kind == RECORD_TIMESPAN) {
+            long targetTime = input.readLong();
+            Long resolution = (Long) SnapshotValueSerde.read(input);
+            runtime.processReplayedEvent(resolution == null ? new CurrentTimeSpanEvent(targetTime) : new CurrentTimeSpanEvent(targetTime, resolution));
+        } else {
+            throw new IOException("Unrecognized write-ahead log record kind " + kind);
+        }
+    }
+
+    private List<Long> getSegmentNumbers() {
+        List<Long> numbers = new ArrayList<Long>();
+        String[] names = directory.list();
+        if (names != null) {
+            for (String name : names) {
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        numbers.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                    } catch (NumberFormatException ex) {
+                        // not a segment
+                    }
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+
+    private File getSegmentFile(long number) {
+        return new File(directory, SEGMENT_PREFIX + String.format("%020d", number) + SEGMENT_SUFFIX);
+    }
+
+    private static int getChecksum(byte[] bytes, int length) {
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes, 0, length);
+        return (int) checksum.getValue();
+    }
+
+    private static class RecordBytes extends ByteArrayOutputStream {
+        private final DataOutputStream output = new DataOutputStream(this);
+
+        private RecordBytes() {
+            super(256);
+        }
+
+        private DataOutputStream getOutput() {
+            return output;
+        }
+
+        private void writeTo(ByteBuffer buffer) {
+            buffer.put(buf, 0, count);
+        }
+
+        private int getChecksum() {
+            return EPRuntimeWriteAheadLog.getChecksum(buf, count);
+        }
+    }
+
+    /**
+     * Segment file that threads append to concurrently, each thread reserving the range of its record
+     * by advancing the write position atomically and then writing the record into the reserved range.
+     */
+    private static class Segment {
+        private final long number;
+        private final RandomAccessFile file;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private final AtomicInteger position = new AtomicInteger(4);
+        private final AtomicInteger numWriters = new AtomicInteger();
+        private boolean closed;
+
+        private Segment(long number, RandomAccessFile file, MappedByteBuffer buffer) {
+            this.number = number;
+            this.file = file;
+            this.buffer = buffer;
+            this.capacity = buffer.capacity();
+        }
+
+        private boolean write(RecordBytes record, int checksum, int recordSize) {
+            numWriters.incrementAndGet();
+            try {
+                int start = position.getAndAdd(recordSize);
+                if (start < 0 || start > capacity - recordSize) {
+                    return false;
+                }
+
+                // write the payload and checksum before the length so that an incomplete record is never read
+                ByteBuffer target = buffer.duplicate();
+                target.position(start + RECORD_HEADER_SIZE);
+                record.writeTo(target);
+                buffer.putInt(start + 4, checksum);
+                buffer.putInt(start, record.size());
+                return true;
+            } finally {
+                numWriters.decrementAndGet();
+            }
+        }
+
+        private synchronized void force() {
+            if (!closed) {
+                buffer.force();
+            }
+        }
+
+        private synchronized void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            // the segment is no longer current, wait for the writers of records reserved before
+            while (numWriters.get() > 0) {
+                Thread.yield();
+            }
+            buffer.force();
+            file.close();
+            closed = true;
+        }
+    }
+}
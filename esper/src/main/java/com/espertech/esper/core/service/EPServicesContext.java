@@ -44,6 +44,7 @@ import com.espertech.esper.filter.FilterNonPropertyRegisteryService;
 import com.espertech.esper.filter.FilterServiceSPI;
 import com.espertech.esper.pattern.PatternNodeFactory;
 import com.espertech.esper.pattern.pool.PatternSubexpressionPoolEngineSvc;
+import com.espertech.esper.pattern.share.PatternPrefixShareService;
 import com.espertech.esper.rowregex.MatchRecognizeStatePoolEngineSvc;
 import com.espertech.esper.rowregex.RegexHandlerFactory;
 import com.espertech.esper.schedule.SchedulingMgmtService;
@@ -97,6 +98,7 @@ public final class EPServicesContext {
     private StatementMetadataFactory statementMetadataFactory;
     private ContextManagementService contextManagementService;
     private PatternSubexpressionPoolEngineSvc patternSubexpressionPoolSvc;
+    private PatternPrefixShareService patternPrefixShareSvc;
     private MatchRecognizeStatePoolEngineSvc matchRecognizeStatePoolEngineSvc;
     private TableService tableService;
     private ContextControllerFactoryFactorySvc contextControllerFactoryFactorySvc;
@@ -161,6 +163,7 @@ public final class EPServicesContext {
                              StatementMetadataFactory statementMetadataFactory,
                              ContextManagementService contextManagementService,
                              PatternSubexpressionPoolEngineSvc patternSubexpressionPoolSvc,
+                             PatternPrefixShareService patternPrefixShareSvc,
                              MatchRecognizeStatePoolEngineSvc matchRecognizeStatePoolEngineSvc,
                              DataFlowService dataFlowService,
                              ExprDeclaredService exprDeclaredService,
@@ -218,6 +221,7 @@ public final class EPServicesContext {
         this.statementMetadataFactory = statementMetadataFactory;
         this.contextManagementService = contextManagementService;
         this.patternSubexpressionPoolSvc = patternSubexpressionPoolSvc;
+        this.patternPrefixShareSvc = patternPrefixShareSvc;
         this.matchRecognizeStatePoolEngineSvc = matchRecognizeStatePoolEngineSvc;
         this.dataFlowService = dataFlowService;
         this.exprDeclaredService = exprDeclaredService;
@@ -667,6 +671,10 @@ public final class EPServicesContext {
         return patternSubexpressionPoolSvc;
     }
 
+    public PatternPrefixShareService getPatternPrefixShareSvc() {
+        return patternPrefixShareSvc;
+    }
+
     public MatchRecognizeStatePoolEngineSvc getMatchRecognizeStatePoolEngineSvc() {
         return matchRecognizeStatePoolEngineSvc;
     }
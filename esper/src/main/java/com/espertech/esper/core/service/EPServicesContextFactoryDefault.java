@@ -59,6 +59,7 @@ import com.espertech.esper.filter.FilterServiceProvider;
 import com.espertech.esper.filter.FilterServiceSPI;
 import com.espertech.esper.pattern.PatternNodeFactoryImpl;
 import com.espertech.esper.pattern.pool.PatternSubexpressionPoolEngineSvc;
+import com.espertech.esper.pattern.share.PatternPrefixShareService;
 import com.espertech.esper.plugin.PlugInEventRepresentation;
 import com.espertech.esper.plugin.PlugInEventRepresentationContext;
 import com.espertech.esper.rowregex.MatchRecognizeStatePoolEngineSvc;
@@ -127,7 +128,7 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
         ManagedReadWriteLock eventProcessingRWLock = new ManagedReadWriteLock("EventProcLock", false);
 
         TimeSourceService timeSourceService = makeTimeSource(configSnapshot);
-        SchedulingServiceSPI schedulingService = SchedulingServiceProvider.newService(timeSourceService);
+        SchedulingServiceSPI schedulingService = SchedulingServiceProvider.newService(configSnapshot.getEngineDefaults().getExecution().getSchedulingServiceProfile(), timeSourceService);
         SchedulingMgmtService schedulingMgmtService = new SchedulingMgmtServiceImpl();
         EngineSettingsService engineSettingsService = new EngineSettingsService(configSnapshot.getEngineDefaults(), configSnapshot.getPlugInEventTypeResolutionURIs());
         DatabaseConfigService databaseConfigService = makeDatabaseRefService(configSnapshot, schedulingService, schedulingMgmtService, engineImportService);
@@ -167,7 +168,7 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
 
         StatementLockFactory statementLockFactory = new StatementLockFactoryImpl(configSnapshot.getEngineDefaults().getExecution().isFairlock(), configSnapshot.getEngineDefaults().getExecution().isDisableLocking());
         StreamFactoryService streamFactoryService = StreamFactoryServiceProvider.newService(epServiceProvider.getURI(), configSnapshot.getEngineDefaults().getViewResources().isShareViews());
-        FilterServiceSPI filterService = FilterServiceProvider.newService(configSnapshot.getEngineDefaults().getExecution().getFilterServiceProfile(), configSnapshot.getEngineDefaults().getExecution().isAllowIsolatedService());
+        FilterServiceSPI filterService = FilterServiceProvider.newService(configSnapshot.getEngineDefaults().getExecution().getFilterServiceProfile(), configSnapshot.getEngineDefaults().getExecution().isAllowIsolatedService(), configSnapshot.getEngineDefaults().getThreading().isThreadPoolInbound());
         MetricReportingServiceImpl metricsReporting = new MetricReportingServiceImpl(configSnapshot.getEngineDefaults().getMetricsReporting(), epServiceProvider.getURI());
         NamedWindowMgmtService namedWindowMgmtService = new NamedWindowMgmtServiceImpl(configSnapshot.getEngineDefaults().getLogging().isEnableQueryPlan(), metricsReporting);
         NamedWindowDispatchService namedWindowDispatchService = new NamedWindowDispatchServiceImpl(schedulingService, variableService, tableService, engineSettingsService.getEngineSettings().getExecution().isPrioritized(), eventProcessingRWLock, exceptionHandlingService, metricsReporting);
@@ -201,6 +202,11 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
                     configSnapshot.getEngineDefaults().getPatterns().isMaxSubexpressionPreventStart());
         }
 
+        PatternPrefixShareService patternPrefixShareSvc = null;
+        if (configSnapshot.getEngineDefaults().getPatterns().isPrefixSharing()) {
+            patternPrefixShareSvc = new PatternPrefixShareService(filterService, configSnapshot.getEngineDefaults().getExecution().getFilterServiceProfile());
+        }
+
         MatchRecognizeStatePoolEngineSvc matchRecognizeStatePoolEngineSvc = null;
         if (configSnapshot.getEngineDefaults().getMatchRecognize().getMaxStates() != null) {
             matchRecognizeStatePoolEngineSvc = new MatchRecognizeStatePoolEngineSvc(configSnapshot.getEngineDefaults().getMatchRecognize().getMaxStates(),
@@ -215,7 +221,7 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
                 namedWindowMgmtService, namedWindowDispatchService, variableService, tableService, timeSourceService, valueAddEventService, metricsReporting, statementEventTypeRef,
                 statementVariableRef, configSnapshot, threadingService, internalEventRouterImpl, statementIsolationService, schedulingMgmtService,
                 deploymentStateService, exceptionHandlingService, new PatternNodeFactoryImpl(), eventTypeIdGenerator, stmtMetadataFactory,
-                contextManagementService, patternSubexpressionPoolSvc, matchRecognizeStatePoolEngineSvc,
+                contextManagementService, patternSubexpressionPoolSvc, patternPrefixShareSvc, matchRecognizeStatePoolEngineSvc,
                 new DataFlowServiceImpl(epServiceProvider, new DataFlowConfigurationStateServiceImpl()),
                 new ExprDeclaredServiceImpl(),
                 new ContextControllerFactoryFactorySvcImpl(), new ContextManagerFactoryServiceImpl(),
@@ -526,7 +532,8 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
         }
 
         boolean codegenGetters = configSnapshot.getEngineDefaults().getExecution().getCodeGeneration().isEnablePropertyGetter();
-        if (codegenGetters) {
+        boolean codegenExpressions = configSnapshot.getEngineDefaults().getExecution().getCodeGeneration().isEnableExpression();
+        if (codegenGetters || codegenExpressions) {
             if (PackageName.check("uri_" + engineURI) == PackageName.INVALID) {
                 throw new ConfigurationException("Invalid engine URI '" + engineURI + "', code generation requires an engine URI that is a valid Java-language identifier and may not contain Java language keywords");
             }
@@ -540,7 +547,7 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
                 configSnapshot.getEngineDefaults().getExpression().getTimeZone(), timeAbacus,
                 configSnapshot.getEngineDefaults().getExecution().getThreadingProfile(),
                 configSnapshot.getTransientConfiguration(),
-                aggregationFactoryFactory, codegenGetters, engineURI);
+                aggregationFactoryFactory, codegenGetters, codegenExpressions, engineURI);
         engineImportService.addMethodRefs(configSnapshot.getMethodInvocationReferences());
 
         // Add auto-imports
@@ -0,0 +1,381 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.service;
+
+import com.espertech.esper.client.EPSnapshotAdmin;
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.core.start.EPStatementStartMethod;
+import com.espertech.esper.epl.named.NamedWindowProcessor;
+import com.espertech.esper.epl.named.NamedWindowProcessorInstance;
+import com.espertech.esper.epl.table.mgmt.TableMetadata;
+import com.espertech.esper.epl.table.mgmt.TableMetadataColumn;
+import com.espertech.esper.epl.table.mgmt.TableMetadataColumnPlain;
+import com.espertech.esper.epl.table.mgmt.TableStateInstance;
+import com.espertech.esper.epl.variable.VariableMetaData;
+import com.espertech.esper.epl.variable.VariableReader;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.map.MapEventType;
+import com.espertech.esper.util.SnapshotValueSerde;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Snapshot and restore of variable values and named window and table rows, for variables, named windows and tables
+ * that are not associated to a context.
+ * <p>
+ * The file starts with a magic number, the format version and the write-ahead log segment followed by one section per variable, named window and table,
+ * each holding the name, the property names for named windows and tables and the values in {@link SnapshotValueSerde} format.
+ * Sections are written one at a time to a temporary file that replaces the snapshot file when complete.
+ * <p>
+ * The snapshot is written under the event processing write lock so that all sections reflect the same events.
+ * With a write-ahead log the snapshot records the log segment that continues after it, so that restore replays
+ * exactly the events not reflected in the snapshot.
+ */
+public class EPSnapshotAdminImpl implements EPSnapshotAdmin {
+    private final static int MAGIC = 0x45535043;
+    private final static int FORMAT_VERSION = 2;
+    private final static int FORMAT_VERSION_NO_LOG_SEGMENT = 1;
+    private final static byte SECTION_END = 0;
+    private final static byte SECTION_VARIABLE = 1;
+    private final static byte SECTION_NAMED_WINDOW = 2;
+    private final static byte SECTION_TABLE = 3;
+
+    private final EPServicesContext services;
+    private final EPRuntimeSPI runtime;
+
+    public EPSnapshotAdminImpl(EPServicesContext services, EPRuntimeSPI runtime) {
+        this.services = services;
+        this.runtime = runtime;
+    }
+
+    public void writeSnapshot(File file) throws IOException, EPException {
+        File temp = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+        EPRuntimeWriteAheadLog writeAheadLog = runtime.getWriteAheadLog();
+        long logSegment = -1;
+        services.getEventProcessingRWLock().acquireWriteLock();
+        try {
+            if (writeAheadLog != null) {
+                logSegment = writeAheadLog.roll();
+            }
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            boolean success = false;
+            try {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                output.writeLong(logSegment);
+                writeVariables(output);
+                writeNamedWindows(output);
+                writeTables(output);
+                output.writeByte(SECTION_END);
+                output.close();
+                success = true;
+            } finally {
+                if (!success) {
+                    output.close();
+                    temp.delete();
+                }
+            }
+        } finally {
+            services.getEventProcessingRWLock().releaseWriteLock();
+        }
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Failed to replace snapshot file '" + file + "'");
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Failed to rename snapshot file '" + temp + "' to '" + file + "'");
+        }
+        if (writeAheadLog != null) {
+            writeAheadLog.deleteSegmentsBefore(logSegment);
+        }
+    }
+
+    public void restoreSnapshot(File file) throws IOException, EPException {
+        long logSegment;
+        DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("File '" + file + "' is not a snapshot");
+            }
+            int version = input.readInt();
+            if (version == FORMAT_VERSION) {
+                logSegment = input.readLong();
+            } else if (version == FORMAT_VERSION_NO_LOG_SEGMENT) {
+                // written before the write-ahead log segment was recorded, nothing to replay
+                logSegment = -1;
+            } else {
+                throw new IOException("Unsupported snapshot format version " + version + ", expecting version " + FORMAT_VERSION_NO_LOG_SEGMENT + " or " + FORMAT_VERSION);
+            }
+
+            Map<String, Object> variableValues = new LinkedHashMap<String, Object>();
+            while (true) {
+                byte section = input.readByte();
+                if (section == SECTION_END) {
+                    break;
+                }
+                String name = SnapshotValueSerde.readString(input);
+                if (section == SECTION_VARIABLE) {
+                    variableValues.put(name, SnapshotValueSerde.read(input));
+                } else if (section == SECTION_NAMED_WINDOW) {
+                    restoreNamedWindow(name, input);
+                } else if (section == SECTION_TABLE) {
+                    restoreTable(name, input);
+                } else {
+                    throw new IOException("Unrecognized section " + section + " in snapshot");
+                }
+            }
+            restoreVariables(variableValues);
+        } finally {
+            input.close();
+        }
+        services.getInternalEventEngineRouteDest().processThreadWorkQueue();
+
+        if (logSegment >= 0) {
+            runtime.replayWriteAheadLog(logSegment);
+        }
+    }
+
+    public void replayWriteAheadLog() throws IOException, EPException {
+        runtime.replayWriteAheadLog(0);
+    }
+
+    private void writeVariables(DataOutputStream output) throws IOException {
+        services.getVariableService().setLocalVersion();
+        for (Map.Entry<String, VariableReader> entry : services.getVariableService().getVariableReadersNonCP().entrySet()) {
+            VariableMetaData metaData = entry.getValue().getVariableMetaData();
+            if (metaData.isConstant()) {
+                continue;
+            }
+            Object value = entry.getValue().getValue();
+            if (!SnapshotValueSerde.isSupported(value)) {
+                throw new EPException("Snapshot of variable '" + entry.getKey() + "' is not supported for values of type '" + value.getClass().getName() + "'");
+            }
+            output.writeByte(SECTION_VARIABLE);
+            SnapshotValueSerde.writeString(entry.getKey(), output);
+            SnapshotValueSerde.write(value, output);
+        }
+    }
+
+    private void writeNamedWindows(DataOutputStream output) throws IOException {
+        String[] windowNames = services.getNamedWindowMgmtService().getNamedWindows();
+        Arrays.sort(windowNames);
+        for (String windowName : windowNames) {
+            NamedWindowProcessor processor = services.getNamedWindowMgmtService().getProcessor(windowName);
+            if (processor == null || processor.getContextName() != null) {
+                continue;
+            }
+            NamedWindowProcessorInstance instance = processor.getProcessorInstanceNoContext();
+            if (instance == null) {
+                continue;
+            }
+            EventType eventType = processor.getNamedWindowType();
+            if (!(eventType instanceof ObjectArrayEventType) && !(eventType instanceof MapEventType)) {
+                throw new EPException("Snapshot of named window '" + windowName + "' is only supported for map and object-array event types");
+            }
+            String[] propertyNames = eventType.getPropertyNames();
+            Collection<EventBean> events = instance.getTailViewInstance().snapshot(null, processor.getStatementContextCreateWindow().getAnnotations());
+
+            EventPropertyGetter[] getters = new EventPropertyGetter[propertyNames.length];
+            for (int i = 0; i < propertyNames.length; i++) {
+                getters[i] = eventType.getGetter(propertyNames[i]);
+            }
+
+            output.writeByte(SECTION_NAMED_WINDOW);
+            SnapshotValueSerde.writeString(windowName, output);
+            writePropertyNames(propertyNames, output);
+            output.writeInt(events.size());
+            for (EventBean theEvent : events) {
+                for (int i = 0; i < getters.length; i++) {
+                    writeValue(windowName, propertyNames[i], getters[i].get(theEvent), output);
+                }
+            }
+        }
+    }
+
+    private void writeTables(DataOutputStream output) throws IOException {
+        String[] tableNames = services.getTableService().getTables();
+        Arrays.sort(tableNames);
+        for (String tableName : tableNames) {
+            TableMetadata metadata = services.getTableService().getTableMetadata(tableName);
+            if (metadata == null || metadata.getContextName() != null) {
+                continue;
+            }
+            TableStateInstance instance = services.getTableService().getState(tableName, EPStatementStartMethod.DEFAULT_AGENT_INSTANCE_ID);
+            if (instance == null) {
+                continue;
+            }
+            String[] columnNames = getPlainColumnNames(metadata);
+            int[] indexes = getPlainColumnIndexes(metadata, columnNames);
+
+            List<EventBean> rows;
+            instance.getTableLevelRWLock().readLock().lock();
+            try {
+                rows = new ArrayList<EventBean>(instance.getEventCollection());
+            } finally {
+                instance.getTableLevelRWLock().readLock().unlock();
+            }
+
+            output.writeByte(SECTION_TABLE);
+            SnapshotValueSerde.writeString(tableName, output);
+            writePropertyNames(columnNames, output);
+            output.writeInt(rows.size());
+            for (EventBean row : rows) {
+                Object[] properties = ((ObjectArrayBackedEventBean) row).getProperties();
+                for (int i = 0; i < indexes.length; i++) {
+                    writeValue(tableName, columnNames[i], properties[indexes[i]], output);
+                }
+            }
+        }
+    }
+
+    private static void writePropertyNames(String[] propertyNames, DataOutputStream output) throws IOException {
+        output.writeInt(propertyNames.length);
+        for (String propertyName : propertyNames) {
+            SnapshotValueSerde.writeString(propertyName, output);
+        }
+    }
+
+    private static void writeValue(String name, String propertyName, Object value, DataOutputStream output) throws IOException {
+        if (!SnapshotValueSerde.isSupported(value)) {
+            throw new EPException("Snapshot of '" + name + "' is not supported for values of type '" + value.getClass().getName() + "' of property '" + propertyName + "'");
+        }
+        SnapshotValueSerde.write(value, output);
+    }
+
+    private void restoreVariables(Map<String, Object> variableValues) {
+        for (String variableName : variableValues.keySet()) {
+            VariableMetaData metaData = services.getVariableService().getVariableMetaData(variableName);
+            if (metaData == null || metaData.getContextPartitionName() != null || metaData.isConstant()) {
+                throw new EPException("Snapshot variable '" + variableName + "' is not a declared non-constant variable");
+            }
+        }
+
+        services.getVariableService().getReadWriteLock().writeLock().lock();
+        try {
+            for (Map.Entry<String, Object> entry : variableValues.entrySet()) {
+                try {
+                    services.getVariableService().checkAndWrite(entry.getKey(), EPStatementStartMethod.DEFAULT_AGENT_INSTANCE_ID, entry.getValue());
+                } catch (RuntimeException ex) {
+                    services.getVariableService().rollback();
+                    throw ex;
+                }
+            }
+            services.getVariableService().commit();
+        } finally {
+            services.getVariableService().getReadWriteLock().writeLock().unlock();
+        }
+    }
+
+    private void restoreNamedWindow(String windowName, DataInputStream input) throws IOException {
+        NamedWindowProcessor processor = services.getNamedWindowMgmtService().getProcessor(windowName);
+        if (processor == null || processor.getContextName() != null || processor.getProcessorInstanceNoContext() == null) {
+            throw new EPException("Snapshot named window '" + windowName + "' is not a declared named window without context");
+        }
+        EventType eventType = processor.getNamedWindowType();
+        String[] propertyNames = eventType.getPropertyNames();
+        checkPropertyNames(windowName, propertyNames, input);
+
+        int numEvents = input.readInt();
+        EventBean[] events = new EventBean[numEvents];
+        for (int i = 0; i < numEvents; i++) {
+            if (eventType instanceof ObjectArrayEventType) {
+                Object[] values = new Object[propertyNames.length];
+                for (int j = 0; j < values.length; j++) {
+                    values[j] = SnapshotValueSerde.read(input);
+                }
+                events[i] = services.getEventAdapterService().adapterForTypedObjectArray(values, eventType);
+            } else {
+                Map<String, Object> values = new HashMap<String, Object>();
+                for (String propertyName : propertyNames) {
+                    values.put(propertyName, SnapshotValueSerde.read(input));
+                }
+                events[i] = services.getEventAdapterService().adapterForTypedMap(values, eventType);
+            }
+        }
+        if (numEvents == 0) {
+            return;
+        }
+
+        NamedWindowProcessorInstance instance = processor.getProcessorInstanceNoContext();
+        AgentInstanceContext agentInstanceContext = instance.getTailViewInstance().getAgentInstanceContext();
+        agentInstanceContext.getAgentInstanceLock().acquireWriteLock();
+        try {
+            instance.getRootViewInstance().update(events, null);
+        } finally {
+            agentInstanceContext.getAgentInstanceLock().releaseWriteLock();
+        }
+    }
+
+    private void restoreTable(String tableName, DataInputStream input) throws IOException {
+        TableMetadata metadata = services.getTableService().getTableMetadata(tableName);
+        TableStateInstance instance = metadata == null || metadata.getContextName() != null ? null : services.getTableService().getState(tableName, EPStatementStartMethod.DEFAULT_AGENT_INSTANCE_ID);
+        if (instance == null) {
+            throw new EPException("Snapshot table '" + tableName + "' is not a declared table without context");
+        }
+        String[] columnNames = getPlainColumnNames(metadata);
+        checkPropertyNames(tableName, columnNames, input);
+        int[] indexes = getPlainColumnIndexes(metadata, columnNames);
+
+        int numRows = input.readInt();
+        List<ObjectArrayBackedEventBean> rows = new ArrayList<ObjectArrayBackedEventBean>(numRows);
+        for (int i = 0; i < numRows; i++) {
+            ObjectArrayBackedEventBean row = metadata.getRowFactory().makeOA(EPStatementStartMethod.DEFAULT_AGENT_INSTANCE_ID, null, null, instance.getAggregationServicePassThru());
+            for (int index : indexes) {
+                row.getProperties()[index] = SnapshotValueSerde.read(input);
+            }
+            rows.add(row);
+        }
+
+        instance.getTableLevelRWLock().writeLock().lock();
+        try {
+            for (ObjectArrayBackedEventBean row : rows) {
+                instance.addEvent(row);
+            }
+        } finally {
+            instance.getTableLevelRWLock().writeLock().unlock();
+        }
+    }
+
+    private static void checkPropertyNames(String name, String[] expected, DataInputStream input) throws IOException {
+        int numProperties = input.readInt();
+        String[] propertyNames = new String[numProperties];
+        for (int i = 0; i < numProperties; i++) {
+            propertyNames[i] = SnapshotValueSerde.readString(input);
+        }
+        if (!Arrays.equals(expected, propertyNames)) {
+            throw new EPException("Snapshot of '" + name + "' has properties " + Arrays.toString(propertyNames) + " that differ from the declared properties " + Arrays.toString(expected));
+        }
+    }
+
+    private static String[] getPlainColumnNames(TableMetadata metadata) {
+        List<String> names = new ArrayList<String>();
+        for (Map.Entry<String, TableMetadataColumn> entry : metadata.getTableColumns().entrySet()) {
+            if (!(entry.getValue() instanceof TableMetadataColumnPlain)) {
+                throw new EPException("Snapshot of table '" + metadata.getTableName() + "' is not supported as column '" + entry.getKey() + "' is an aggregation");
+            }
+            names.add(entry.getKey());
+        }
+        return names.toArray(new String[names.size()]);
+    }
+
+    private static int[] getPlainColumnIndexes(TableMetadata metadata, String[] columnNames) {
+        int[] indexes = new int[columnNames.length];
+        for (int i = 0; i < columnNames.length; i++) {
+            indexes[i] = ((TableMetadataColumnPlain) metadata.getTableColumns().get(columnNames[i])).getIndexPlain();
+        }
+        return indexes;
+    }
+}
@@ -38,6 +38,7 @@ import com.espertech.esper.pattern.PatternContextFactory;
 import com.espertech.esper.pattern.PatternNodeFactory;
 import com.espertech.esper.pattern.PatternObjectResolutionService;
 import com.espertech.esper.pattern.pool.PatternSubexpressionPoolStmtSvc;
+import com.espertech.esper.pattern.share.PatternPrefixShareService;
 import com.espertech.esper.rowregex.MatchRecognizeStatePoolStmtSvc;
 import com.espertech.esper.rowregex.RegexHandlerFactory;
 import com.espertech.esper.schedule.ScheduleAdjustmentService;
@@ -462,6 +463,10 @@ public final class StatementContext {
         return patternSubexpressionPoolSvc;
     }
 
+    public PatternPrefixShareService getPatternPrefixShareSvc() {
+        return stmtEngineServices.getPatternPrefixShareSvc();
+    }
+
     public MatchRecognizeStatePoolStmtSvc getMatchRecognizeStatePoolStmtSvc() {
         return matchRecognizeStatePoolStmtSvc;
     }
@@ -26,6 +26,7 @@ import com.espertech.esper.event.EventAdapterService;
 import com.espertech.esper.event.vaevent.ValueAddEventService;
 import com.espertech.esper.filter.FilterBooleanExpressionFactory;
 import com.espertech.esper.pattern.PatternNodeFactory;
+import com.espertech.esper.pattern.share.PatternPrefixShareService;
 import com.espertech.esper.rowregex.RegexHandlerFactory;
 import com.espertech.esper.schedule.SchedulingService;
 import com.espertech.esper.timer.TimeSourceService;
@@ -62,8 +63,9 @@ public final class StatementContextEngineServices {
     private final AggregationFactoryFactory aggregationFactoryFactory;
     private final SchedulingService schedulingService;
     private final ExprDeclaredService exprDeclaredService;
+    private final PatternPrefixShareService patternPrefixShareSvc;
 
-    public StatementContextEngineServices(String engineURI, EventAdapterService eventAdapterService, NamedWindowMgmtService namedWindowMgmtService, VariableService variableService, TableService tableService, EngineSettingsService engineSettingsService, ValueAddEventService valueAddEventService, ConfigurationInformation configSnapshot, MetricReportingServiceSPI metricReportingService, ViewService viewService, ExceptionHandlingService exceptionHandlingService, ExpressionResultCacheService expressionResultCacheService, StatementEventTypeRef statementEventTypeRef, TableExprEvaluatorContext tableExprEvaluatorContext, EngineLevelExtensionServicesContext engineLevelExtensionServicesContext, RegexHandlerFactory regexHandlerFactory, StatementLockFactory statementLockFactory, ContextManagementService contextManagementService, ViewServicePreviousFactory viewServicePreviousFactory, EventTableIndexService eventTableIndexService, PatternNodeFactory patternNodeFactory, FilterBooleanExpressionFactory filterBooleanExpressionFactory, TimeSourceService timeSourceService, EngineImportService engineImportService, AggregationFactoryFactory aggregationFactoryFactory, SchedulingService schedulingService, ExprDeclaredService exprDeclaredService) {
+    public StatementContextEngineServices(String engineURI, EventAdapterService eventAdapterService, NamedWindowMgmtService namedWindowMgmtService, VariableService variableService, TableService tableService, EngineSettingsService engineSettingsService, ValueAddEventService valueAddEventService, ConfigurationInformation configSnapshot, MetricReportingServiceSPI metricReportingService, ViewService viewService, ExceptionHandlingService exceptionHandlingService, ExpressionResultCacheService expressionResultCacheService, StatementEventTypeRef statementEventTypeRef, TableExprEvaluatorContext tableExprEvaluatorContext, EngineLevelExtensionServicesContext engineLevelExtensionServicesContext, RegexHandlerFactory regexHandlerFactory, StatementLockFactory statementLockFactory, ContextManagementService contextManagementService, ViewServicePreviousFactory viewServicePreviousFactory, EventTableIndexService eventTableIndexService, PatternNodeFactory patternNodeFactory, FilterBooleanExpressionFactory filterBooleanExpressionFactory, TimeSourceService timeSourceService, EngineImportService engineImportService, AggregationFactoryFactory aggregationFactoryFactory, SchedulingService schedulingService, ExprDeclaredService exprDeclaredService, PatternPrefixShareService patternPrefixShareSvc) {
         this.engineURI = engineURI;
         this.eventAdapterService = eventAdapterService;
         this.namedWindowMgmtService = namedWindowMgmtService;
@@ -91,6 +93,7 @@ public final class StatementContextEngineServices {
         this.aggregationFactoryFactory = aggregationFactoryFactory;
         this.schedulingService = schedulingService;
         this.exprDeclaredService = exprDeclaredService;
+        this.patternPrefixShareSvc = patternPrefixShareSvc;
     }
 
     public String getEngineURI() {
@@ -204,4 +207,8 @@ public final class StatementContextEngineServices {
     public ExprDeclaredService getExprDeclaredService() {
         return exprDeclaredService;
     }
+
+    public PatternPrefixShareService getPatternPrefixShareSvc() {
+        return patternPrefixShareSvc;
+    }
 }
@@ -108,7 +108,8 @@ public class StatementContextFactoryDefault implements StatementContextFactory {
                 services.getEngineImportService(),
                 services.getAggregationFactoryFactory(),
                 services.getSchedulingService(),
-                services.getExprDeclaredService()
+                services.getExprDeclaredService(),
+                services.getPatternPrefixShareSvc()
         );
     }
 
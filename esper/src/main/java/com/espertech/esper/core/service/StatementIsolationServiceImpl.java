@@ -14,7 +14,7 @@ import com.espertech.esper.client.EPServiceProviderIsolated;
 import com.espertech.esper.client.EPStatement;
 import com.espertech.esper.filter.FilterServiceProvider;
 import com.espertech.esper.filter.FilterServiceSPI;
-import com.espertech.esper.schedule.SchedulingServiceImpl;
+import com.espertech.esper.schedule.SchedulingServiceProvider;
 import com.espertech.esper.schedule.SchedulingServiceSPI;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,8 +55,8 @@ public class StatementIsolationServiceImpl implements StatementIsolationService
             return serviceProviderIsolated;
         }
 
-        FilterServiceSPI filterService = FilterServiceProvider.newService(epServicesContext.getConfigSnapshot().getEngineDefaults().getExecution().getFilterServiceProfile(), true);
-        SchedulingServiceSPI scheduleService = new SchedulingServiceImpl(epServicesContext.getTimeSource());
+        FilterServiceSPI filterService = FilterServiceProvider.newService(epServicesContext.getConfigSnapshot().getEngineDefaults().getExecution().getFilterServiceProfile(), true, epServicesContext.getConfigSnapshot().getEngineDefaults().getThreading().isThreadPoolInbound());
+        SchedulingServiceSPI scheduleService = SchedulingServiceProvider.newService(epServicesContext.getConfigSnapshot().getEngineDefaults().getExecution().getSchedulingServiceProfile(), epServicesContext.getTimeSource());
         EPIsolationUnitServices services = new EPIsolationUnitServices(name, currentUnitId, filterService, scheduleService);
         serviceProviderIsolated = new EPServiceProviderIsolatedImpl(name, services, epServicesContext, isolatedProviders);
         isolatedProviders.put(name, serviceProviderIsolated);
@@ -12,6 +12,7 @@ package com.espertech.esper.core.start;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.client.context.ContextPartitionSelector;
 import com.espertech.esper.collection.MultiKey;
 import com.espertech.esper.collection.UniformPair;
@@ -58,6 +59,7 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
     private JoinSetComposerPrototype joinSetComposerPrototype;
     private final QueryGraph queryGraph;
     private boolean hasTableAccess;
+    private final boolean isParallel;
 
     /**
      * Ctor.
@@ -129,7 +131,29 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
         StreamTypeService typeService = new StreamTypeServiceImpl(typesPerStream, namesPerStream, isIStreamOnly, services.getEngineURI(), true);
         EPStatementStartMethodHelperValidate.validateNodes(statementSpec, statementContext, typeService, null);
 
+        // determine parallel filtering
+        if (HintEnum.ENABLE_FAF_PARALLEL.getHint(statementSpec.getAnnotations()) != null) {
+            List<ExprNode> filters = new ArrayList<ExprNode>();
+            if (statementSpec.getFilterRootNode() != null) {
+                filters.add(statementSpec.getFilterRootNode());
+            }
+            for (StreamSpecCompiled streamSpec : statementSpec.getStreamSpecs()) {
+                filters.addAll(getStreamFilterExpressions(streamSpec));
+            }
+            isParallel = EPPreparedExecuteParallelHelper.isParallelFilterable(filters);
+        } else {
+            isParallel = false;
+        }
+
         ResultSetProcessorFactoryDesc resultSetProcessorPrototype = ResultSetProcessorFactoryFactory.getProcessorPrototype(statementSpec, statementContext, typeService, null, new boolean[0], true, ContextPropertyRegistryImpl.EMPTY_REGISTRY, null, services.getConfigSnapshot(), services.getResultSetProcessorHelperFactory(), true, false);
+
+        // aggregation is not evaluated in parallel, reject rather than silently aggregate sequentially
+        if (HintEnum.ENABLE_FAF_PARALLEL.getHint(statementSpec.getAnnotations()) != null) {
+            boolean hasGroupBy = statementSpec.getGroupByExpressions() != null && statementSpec.getGroupByExpressions().getGroupByNodes().length > 0;
+            if (!resultSetProcessorPrototype.getAggregationServiceFactoryDesc().getExpressions().isEmpty() || hasGroupBy) {
+                throw new ExprValidationException("The " + HintEnum.ENABLE_FAF_PARALLEL.getValue() + " hint is not supported for queries with aggregation functions or group-by as aggregation is not parallelized");
+            }
+        }
         resultSetProcessor = EPStatementStartMethodHelperAssignExpr.getAssignResultSetProcessor(agentInstanceContext, resultSetProcessorPrototype, false, null, true);
 
         if (statementSpec.getSelectClauseSpec().isDistinct()) {
@@ -215,13 +239,10 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
             Collection<Integer> agentInstanceIds = EPPreparedExecuteMethodHelper.getAgentInstanceIds(processors[0], singleSelector, services.getContextManagementService(), statementSpec.getOptionalContextName());
 
             // collect events and agent instances
-            for (int agentInstanceId : agentInstanceIds) {
-                FireAndForgetInstance processorInstance = processors[0].getProcessorInstanceContextById(agentInstanceId);
-                if (processorInstance != null) {
-                    EPPreparedExecuteTableHelper.assignTableAccessStrategies(services, statementSpec.getTableNodes(), processorInstance.getAgentInstanceContext());
-                    Collection<EventBean> coll = processorInstance.snapshotBestEffort(this, queryGraph, statementSpec.getAnnotations());
-                    contextPartitionResults.add(new ContextPartitionResult(coll, processorInstance.getAgentInstanceContext()));
-                }
+            List<FireAndForgetInstance> processorInstances = getProcessorInstances(processors[0], agentInstanceIds);
+            List<Collection<EventBean>> snapshots = snapshotInstances(processors[0], processorInstances, true);
+            for (int i = 0; i < processorInstances.size(); i++) {
+                contextPartitionResults.add(new ContextPartitionResult(snapshots.get(i), processorInstances.get(i).getAgentInstanceContext()));
             }
 
             // process context partitions
@@ -247,15 +268,7 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
     }
 
     private Collection<EventBean> getStreamFilterSnapshot(int streamNum, ContextPartitionSelector contextPartitionSelector) {
-        final StreamSpecCompiled streamSpec = statementSpec.getStreamSpecs()[streamNum];
-        List<ExprNode> filterExpressions = Collections.emptyList();
-        if (streamSpec instanceof NamedWindowConsumerStreamSpec) {
-            NamedWindowConsumerStreamSpec namedSpec = (NamedWindowConsumerStreamSpec) streamSpec;
-            filterExpressions = namedSpec.getFilterExpressions();
-        } else {
-            TableQueryStreamSpec tableSpec = (TableQueryStreamSpec) streamSpec;
-            filterExpressions = tableSpec.getFilterExpressions();
-        }
+        List<ExprNode> filterExpressions = getStreamFilterExpressions(statementSpec.getStreamSpecs()[streamNum]);
 
         FireAndForgetProcessor fireAndForgetProcessor = processors[streamNum];
 
@@ -270,15 +283,45 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
         Collection<Integer> contextPartitions = EPPreparedExecuteMethodHelper.getAgentInstanceIds(fireAndForgetProcessor, contextPartitionSelector, services.getContextManagementService(), fireAndForgetProcessor.getContextName());
 
         // collect events
+        List<FireAndForgetInstance> processorInstances = getProcessorInstances(fireAndForgetProcessor, contextPartitions);
         ArrayDeque<EventBean> events = new ArrayDeque<EventBean>();
-        for (int agentInstanceId : contextPartitions) {
-            processorInstance = fireAndForgetProcessor.getProcessorInstanceContextById(agentInstanceId);
+        for (Collection<EventBean> coll : snapshotInstances(fireAndForgetProcessor, processorInstances, false)) {
+            events.addAll(coll);
+        }
+        return events;
+    }
+
+    private List<FireAndForgetInstance> getProcessorInstances(FireAndForgetProcessor processor, Collection<Integer> agentInstanceIds) {
+        List<FireAndForgetInstance> processorInstances = new ArrayList<FireAndForgetInstance>(agentInstanceIds.size());
+        for (int agentInstanceId : agentInstanceIds) {
+            FireAndForgetInstance processorInstance = processor.getProcessorInstanceContextById(agentInstanceId);
             if (processorInstance != null) {
-                Collection<EventBean> coll = processorInstance.snapshotBestEffort(this, queryGraph, statementSpec.getAnnotations());
-                events.addAll(coll);
+                processorInstances.add(processorInstance);
             }
         }
-        return events;
+        return processorInstances;
+    }
+
+    private List<Collection<EventBean>> snapshotInstances(FireAndForgetProcessor processor, List<FireAndForgetInstance> processorInstances, boolean assignTableAccess) {
+        // named window partitions each snapshot under their own lock, table locks are held by the querying thread
+        if (isParallel && processor instanceof FireAndForgetProcessorNamedWindow && !hasTableAccess) {
+            return EPPreparedExecuteParallelHelper.snapshotInstances(processorInstances, this, queryGraph, statementSpec.getAnnotations());
+        }
+        List<Collection<EventBean>> snapshots = new ArrayList<Collection<EventBean>>(processorInstances.size());
+        for (FireAndForgetInstance processorInstance : processorInstances) {
+            if (assignTableAccess) {
+                EPPreparedExecuteTableHelper.assignTableAccessStrategies(services, statementSpec.getTableNodes(), processorInstance.getAgentInstanceContext());
+            }
+            snapshots.add(processorInstance.snapshotBestEffort(this, queryGraph, statementSpec.getAnnotations()));
+        }
+        return snapshots;
+    }
+
+    private static List<ExprNode> getStreamFilterExpressions(StreamSpecCompiled streamSpec) {
+        if (streamSpec instanceof NamedWindowConsumerStreamSpec) {
+            return ((NamedWindowConsumerStreamSpec) streamSpec).getFilterExpressions();
+        }
+        return ((TableQueryStreamSpec) streamSpec).getFilterExpressions();
     }
 
     private Collection<EventBean> getStreamSnapshotInstance(int streamNum, List<ExprNode> filterExpressions, FireAndForgetInstance processorInstance) {
@@ -339,6 +382,9 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod {
     }
 
     private Collection<EventBean> getFiltered(Collection<EventBean> snapshot, List<ExprNode> filterExpressions) {
+        if (isParallel) {
+            return EPPreparedExecuteParallelHelper.filter(snapshot, filterExpressions, agentInstanceContext);
+        }
         ArrayDeque<EventBean> deque = new ArrayDeque<EventBean>(Math.min(snapshot.size(), 16));
         ExprNodeUtility.applyFilterExpressionsIterable(snapshot, filterExpressions, agentInstanceContext, deque);
         return deque;
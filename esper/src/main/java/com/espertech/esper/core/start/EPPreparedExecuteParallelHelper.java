@@ -0,0 +1,197 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.start;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.*;
+import com.espertech.esper.epl.expression.funcs.*;
+import com.espertech.esper.epl.expression.ops.*;
+import com.espertech.esper.epl.expression.visitor.ExprNodeVisitor;
+import com.espertech.esper.epl.join.plan.QueryGraph;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork-join execution of fire-and-forget queries that specify the {@link com.espertech.esper.client.annotation.HintEnum#ENABLE_FAF_PARALLEL} hint.
+ * <p>
+ * Snapshots are taken under the same locks as for sequential execution. Filtering then proceeds on the
+ * snapshot only, split into ranges that are evaluated by the common fork-join pool. Filtered results retain snapshot order.
+ * Aggregation is not parallelized and queries with aggregation functions or group-by reject the hint.
+ */
+public class EPPreparedExecuteParallelHelper {
+    /**
+     * Number of rows below which a range is filtered by the current task without further splitting.
+     */
+    protected static final int MIN_ROWS_PER_TASK = 4096;
+
+    /**
+     * Determine whether the filter expressions can be evaluated concurrently: only expressions that consist entirely
+     * of node types whose evaluators keep no state after validation are evaluated in parallel. Any other node,
+     * for example like and regexp which compile non-constant patterns per row, plug-in single-row functions,
+     * static method calls, variables, tables or subqueries, causes sequential evaluation.
+     *
+     * @param filterExpressions filters
+     * @return indicator
+     */
+    protected static boolean isParallelFilterable(Collection<ExprNode> filterExpressions) {
+        StatelessVisitor visitor = new StatelessVisitor();
+        for (ExprNode filter : filterExpressions) {
+            filter.accept(visitor);
+            if (!visitor.stateless) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Filter a snapshot, splitting the snapshot into ranges evaluated in parallel when it is large enough.
+     *
+     * @param snapshot          events
+     * @param filterExpressions filters
+     * @param context           evaluation context
+     * @return filtered events in snapshot order
+     */
+    protected static Collection<EventBean> filter(Collection<EventBean> snapshot, List<ExprNode> filterExpressions, ExprEvaluatorContext context) {
+        EventBean[] events = snapshot.toArray(new EventBean[snapshot.size()]);
+        ExprEvaluator[] evaluators = ExprNodeUtility.getEvaluators(filterExpressions);
+        FilterTask task = new FilterTask(events, 0, events.length, evaluators, context);
+        EventBean[] result = events.length < MIN_ROWS_PER_TASK * 2 ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Snapshot each of the named window context partition instances in parallel, each task obtaining the
+     * partition's own lock.
+     *
+     * @param instances   context partition instances
+     * @param query       query
+     * @param queryGraph  query graph
+     * @param annotations annotations
+     * @return snapshot per instance in the order of instances
+     */
+    protected static List<Collection<EventBean>> snapshotInstances(List<FireAndForgetInstance> instances, final EPPreparedExecuteMethodQuery query, final QueryGraph queryGraph, final Annotation[] annotations) {
+        if (instances.size() < 2) {
+            List<Collection<EventBean>> snapshots = new ArrayList<Collection<EventBean>>(instances.size());
+            for (FireAndForgetInstance instance : instances) {
+                snapshots.add(instance.snapshotBestEffort(query, queryGraph, annotations));
+            }
+            return snapshots;
+        }
+
+        List<ForkJoinTask<Collection<EventBean>>> tasks = new ArrayList<ForkJoinTask<Collection<EventBean>>>(instances.size());
+        for (final FireAndForgetInstance instance : instances) {
+            tasks.add(ForkJoinPool.commonPool().submit(new RecursiveTask<Collection<EventBean>>() {
+                protected Collection<EventBean> compute() {
+                    return instance.snapshotBestEffort(query, queryGraph, annotations);
+                }
+            }));
+        }
+        List<Collection<EventBean>> snapshots = new ArrayList<Collection<EventBean>>(instances.size());
+        for (ForkJoinTask<Collection<EventBean>> task : tasks) {
+            snapshots.add(task.join());
+        }
+        return snapshots;
+    }
+
+    private static class StatelessVisitor implements ExprNodeVisitor {
+        private boolean stateless = true;
+
+        public boolean isVisit(ExprNode exprNode) {
+            return stateless;
+        }
+
+        public void visit(ExprNode exprNode) {
+            if (!isStateless(exprNode)) {
+                stateless = false;
+            }
+        }
+
+        private static boolean isStateless(ExprNode node) {
+            return node instanceof ExprIdentNode ||
+                    node instanceof ExprConstantNode ||
+                    node instanceof ExprStreamUnderlyingNode ||
+                    node instanceof ExprAndNode ||
+                    node instanceof ExprOrNode ||
+                    node instanceof ExprNotNode ||
+                    node instanceof ExprEqualsNode ||
+                    node instanceof ExprRelationalOpNode ||
+                    node instanceof ExprBetweenNode ||
+                    node instanceof ExprInNode ||
+                    node instanceof ExprMathNode ||
+                    node instanceof ExprBitWiseNode ||
+                    node instanceof ExprConcatNode ||
+                    node instanceof ExprCaseNode ||
+                    node instanceof ExprCastNode ||
+                    node instanceof ExprCoalesceNode ||
+                    node instanceof ExprMinMaxRowNode ||
+                    node instanceof ExprPropertyExistsNode ||
+                    node instanceof ExprTypeofNode;
+        }
+    }
+
+    private static class FilterTask extends RecursiveTask<EventBean[]> {
+        private final EventBean[] events;
+        private final int start;
+        private final int end;
+        private final ExprEvaluator[] evaluators;
+        private final ExprEvaluatorContext context;
+
+        private FilterTask(EventBean[] events, int start, int end, ExprEvaluator[] evaluators, ExprEvaluatorContext context) {
+            this.events = events;
+            this.start = start;
+            this.end = end;
+            this.evaluators = evaluators;
+            this.context = context;
+        }
+
+        protected EventBean[] compute() {
+            if (end - start <= MIN_ROWS_PER_TASK) {
+                return filterRange();
+            }
+            int middle = (start + end) >>> 1;
+            FilterTask left = new FilterTask(events, start, middle, evaluators, context);
+            FilterTask right = new FilterTask(events, middle, end, evaluators, context);
+            left.fork();
+            EventBean[] rightResult = right.compute();
+            EventBean[] leftResult = left.join();
+            EventBean[] result = new EventBean[leftResult.length + rightResult.length];
+            System.arraycopy(leftResult, 0, result, 0, leftResult.length);
+            System.arraycopy(rightResult, 0, result, leftResult.length, rightResult.length);
+            return result;
+        }
+
+        private EventBean[] filterRange() {
+            EventBean[] eventsPerStream = new EventBean[1];
+            EventBean[] passed = new EventBean[end - start];
+            int count = 0;
+            for (int i = start; i < end; i++) {
+                eventsPerStream[0] = events[i];
+                boolean pass = true;
+                for (ExprEvaluator filter : evaluators) {
+                    Object result = filter.evaluate(eventsPerStream, true, context);
+                    if ((result == null) || (!((Boolean) result))) {
+                        pass = false;
+                        break;
+                    }
+                }
+                if (pass) {
+                    passed[count++] = events[i];
+                }
+            }
+            return count == passed.length ? passed : Arrays.copyOf(passed, count);
+        }
+    }
+}
@@ -55,6 +55,11 @@ public abstract class EPStatementStartMethodBase implements EPStatementStartMeth
             throw new ExprValidationException("Context by name '" + statementSpec.getOptionalContextName() + "' has not been declared");
         }
 
+        // validate that write-ahead log recovery can restore the statement
+        if (services.getEngineSettingsService().getEngineSettings().getWriteAheadLog().getDirectory() != null) {
+            EPStatementStartMethodHelperWriteAheadLog.validate(statementSpec);
+        }
+
         return startInternal(services, statementContext, isNewStatement, isRecoveringStatement, isRecoveringResilient);
     }
 
@@ -35,13 +35,20 @@ import com.espertech.esper.epl.spec.StatementSpecCompiled;
 import com.espertech.esper.epl.view.OutputProcessViewFactory;
 import com.espertech.esper.epl.view.OutputProcessViewFactoryFactory;
 import com.espertech.esper.epl.virtualdw.VirtualDWViewFactory;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.arr.ObjectArrayOffHeapCodec;
 import com.espertech.esper.event.vaevent.ValueAddEventProcessor;
 import com.espertech.esper.metrics.instrumentation.InstrumentationAgent;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.util.StopCallback;
 import com.espertech.esper.view.*;
+import com.espertech.esper.view.internal.IntersectViewFactory;
+import com.espertech.esper.view.std.FirstElementViewFactory;
+import com.espertech.esper.view.std.LastElementViewFactory;
+import com.espertech.esper.view.window.*;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -98,7 +105,23 @@ public class EPStatementStartMethodCreateWindow extends EPStatementStartMethodBa
         boolean isBatchingDataWindow = determineBatchingDataWindow(unmaterializedViewChain.getViewFactoryChain());
         final VirtualDWViewFactory virtualDataWindowFactory = determineVirtualDataWindow(unmaterializedViewChain.getViewFactoryChain());
         Set<String> optionalUniqueKeyProps = ViewServiceHelper.getUniqueCandidateProperties(unmaterializedViewChain.getViewFactoryChain(), statementSpec.getAnnotations());
-        NamedWindowProcessor processor = services.getNamedWindowMgmtService().addProcessor(windowName, contextName, filterStreamSpec.getFilterSpec().getResultEventType(), statementContext.getStatementResultService(), optionalRevisionProcessor, statementContext.getExpression(), statementContext.getStatementName(), isPrioritized, isEnableSubqueryIndexShare, isBatchingDataWindow, virtualDataWindowFactory != null, optionalUniqueKeyProps,
+        boolean isOffHeapStorage = HintEnum.ENABLE_WINDOW_OFFHEAP_STORAGE.getHint(statementSpec.getAnnotations()) != null;
+        if (isOffHeapStorage && (!(filterStreamSpec.getFilterSpec().getResultEventType() instanceof ObjectArrayEventType) || optionalRevisionProcessor != null || virtualDataWindowFactory != null)) {
+            throw new ExprValidationException("Off-heap storage requires a named window of an object-array event type and is not supported for revision event types or virtual data windows");
+        }
+        if (isOffHeapStorage) {
+            String unsupportedProperty = ObjectArrayOffHeapCodec.getUnsupportedProperty((ObjectArrayEventType) filterStreamSpec.getFilterSpec().getResultEventType());
+            if (unsupportedProperty != null) {
+                throw new ExprValidationException("Off-heap storage requires that all properties of the named window event type are primitives or strings, property '" + unsupportedProperty + "' is not supported");
+            }
+        }
+        if (HintEnum.ENABLE_WINDOW_SNAPSHOT_ISOLATION.getHint(statementSpec.getAnnotations()) != null && (isBatchingDataWindow || optionalRevisionProcessor != null || virtualDataWindowFactory != null)) {
+            throw new ExprValidationException("Snapshot isolation is not supported for named windows with batch data windows, revision event types or virtual data windows");
+        }
+        if (HintEnum.ENABLE_WINDOW_SNAPSHOT_ISOLATION.getHint(statementSpec.getAnnotations()) != null && !determineArrivalOrderDataWindow(unmaterializedViewChain.getViewFactoryChain())) {
+            throw new ExprValidationException("Snapshot isolation requires data windows that iterate in arrival order and is not supported for sorted, ranked, time-ordered, unique or grouped data windows");
+        }
+        NamedWindowProcessor processor = services.getNamedWindowMgmtService().addProcessor(windowName, contextName, filterStreamSpec.getFilterSpec().getResultEventType(), statementContext.getStatementResultService(), optionalRevisionProcessor, statementContext.getExpression(), statementContext.getStatementName(), isPrioritized, isEnableSubqueryIndexShare, isBatchingDataWindow, virtualDataWindowFactory != null, isOffHeapStorage, optionalUniqueKeyProps,
                 statementSpec.getCreateWindowDesc().getAsEventTypeName(),
                 statementContext, services.getNamedWindowDispatchService());
 
@@ -212,6 +235,29 @@ public class EPStatementStartMethodCreateWindow extends EPStatementStartMethodBa
         return false;
     }
 
+    private static boolean determineArrivalOrderDataWindow(Collection<ViewFactory> viewFactoryChain) {
+        // the snapshot of a named window is kept in arrival order and must iterate the same as the data window
+        for (ViewFactory viewFactory : viewFactoryChain) {
+            if (viewFactory instanceof IntersectViewFactory) {
+                if (!determineArrivalOrderDataWindow(((IntersectViewFactory) viewFactory).getViewFactoriesContained())) {
+                    return false;
+                }
+            } else if (!(viewFactory instanceof KeepAllViewFactory ||
+                    viewFactory instanceof LengthWindowViewFactory ||
+                    viewFactory instanceof TimeWindowViewFactory ||
+                    viewFactory instanceof ExternallyTimedWindowViewFactory ||
+                    viewFactory instanceof TimeAccumViewFactory ||
+                    viewFactory instanceof ExpressionWindowViewFactory ||
+                    viewFactory instanceof FirstLengthWindowViewFactory ||
+                    viewFactory instanceof FirstTimeViewFactory ||
+                    viewFactory instanceof FirstElementViewFactory ||
+                    viewFactory instanceof LastElementViewFactory)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private void verifyDataWindowViewFactoryChain(List<ViewFactory> viewFactories) throws ExprValidationException {
 
         for (ViewFactory viewFactory : viewFactories) {
@@ -0,0 +1,121 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.core.start;
+
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.epl.expression.subquery.ExprSubselectNode;
+import com.espertech.esper.epl.expression.visitor.ExprNodeSummaryVisitor;
+import com.espertech.esper.epl.spec.*;
+import com.espertech.esper.view.ViewEnum;
+
+/**
+ * Validates that a statement holds no state that write-ahead log recovery cannot restore.
+ * <p>
+ * Recovery restores a snapshot of variable values and named window and table rows and replays the events
+ * logged after it. Aggregation values, data windows of streams, pattern and match-recognize state, previous
+ * and prior events, output rate limiting and context partitions are not part of a snapshot. Named windows
+ * are restored by inserting their rows in order, which reproduces keep-all, length, unique and last-event
+ * data windows only.
+ */
+public class EPStatementStartMethodHelperWriteAheadLog {
+    private final static String[] CREATE_WINDOW_VIEWS = new String[]{
+        ViewEnum.KEEPALL_WINDOW.getName(),
+        ViewEnum.LENGTH_WINDOW.getName(),
+        ViewEnum.UNIQUE_BY_PROPERTY.getName(),
+        ViewEnum.LAST_EVENT.getName()
+    };
+
+    public static void validate(StatementSpecCompiled spec) throws ExprValidationException {
+        if (spec.getOptionalContextName() != null || spec.getContextDesc() != null) {
+            throw makeException("contexts");
+        }
+        if (spec.getCreateGraphDesc() != null) {
+            throw makeException("data flows");
+        }
+        if (spec.getCreateTableDesc() != null) {
+            for (CreateTableColumn column : spec.getCreateTableDesc().getColumns()) {
+                if (column.getOptExpression() != null) {
+                    throw makeException("tables with aggregation columns");
+                }
+            }
+        }
+        if (spec.getMatchRecognizeSpec() != null) {
+            throw makeException("match-recognize");
+        }
+        if (spec.getOutputLimitSpec() != null) {
+            throw makeException("output rate limiting");
+        }
+
+        for (StreamSpecCompiled stream : spec.getStreamSpecs()) {
+            if (stream instanceof PatternStreamSpecCompiled) {
+                throw makeException("patterns");
+            }
+            validateViews(stream.getViewSpecs(), spec.getCreateWindowDesc() != null);
+        }
+
+        // an on-trigger statement aggregates per triggering event and keeps no aggregation state
+        ExprNodeSummaryVisitor summary = new ExprNodeSummaryVisitor();
+        for (SelectClauseElementCompiled element : spec.getSelectClauseSpec().getSelectExprList()) {
+            if (element instanceof SelectClauseExprCompiledSpec) {
+                ((SelectClauseExprCompiledSpec) element).getSelectExpression().accept(summary);
+            }
+        }
+        if (spec.getHavingExprRootNode() != null) {
+            spec.getHavingExprRootNode().accept(summary);
+        }
+        for (OrderByItem item : spec.getOrderByList()) {
+            item.getExprNode().accept(summary);
+        }
+        if (spec.getFilterRootNode() != null) {
+            spec.getFilterRootNode().accept(summary);
+        }
+        if (summary.isHasAggregation() && spec.getOnTriggerDesc() == null) {
+            throw makeException("aggregation functions");
+        }
+        if (summary.isHasPreviousPrior()) {
+            throw makeException("previous and prior functions");
+        }
+
+        for (ExprSubselectNode subselect : spec.getSubSelectExpressions()) {
+            StatementSpecCompiled subselectSpec = subselect.getStatementSpecCompiled();
+            StreamSpecCompiled stream = subselectSpec.getStreamSpecs()[0];
+            if (!(stream instanceof NamedWindowConsumerStreamSpec) && !(stream instanceof TableQueryStreamSpec)) {
+                throw makeException("subqueries against streams other than named windows and tables");
+            }
+            validate(subselectSpec);
+        }
+    }
+
+    private static void validateViews(ViewSpec[] viewSpecs, boolean isCreateWindow) throws ExprValidationException {
+        if (viewSpecs.length == 0) {
+            return;
+        }
+        if (!isCreateWindow) {
+            throw makeException("data windows other than those of named windows");
+        }
+        for (ViewSpec viewSpec : viewSpecs) {
+            boolean found = false;
+            for (String name : CREATE_WINDOW_VIEWS) {
+                if (name.equals(viewSpec.getObjectName())) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                throw makeException("named windows with data windows other than keep-all, length, unique and last-event");
+            }
+        }
+    }
+
+    private static ExprValidationException makeException(String unsupported) {
+        return new ExprValidationException("Write-ahead log recovery restores variables and named window and table rows only and does not support " + unsupported);
+    }
+}
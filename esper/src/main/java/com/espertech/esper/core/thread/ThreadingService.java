@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.core.thread;
 
+import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
 import com.espertech.esper.core.service.EPRuntimeImpl;
 import com.espertech.esper.core.service.EPServicesContext;
 
@@ -75,6 +76,25 @@ public interface ThreadingService {
      */
     public void submitRoute(RouteUnitRunnable unit);
 
+    /**
+     * Returns true for sharded route execution, wherein each statement agent instance executes on a single thread.
+     *
+     * @return indicator
+     */
+    public boolean isRouteThreadingSharded();
+
+    /**
+     * Submit a route or timer work unit for a statement agent instance.
+     * <p>
+     * For sharded route execution the unit executes on the thread that owns the statement agent instance,
+     * in the order submitted.
+     * </p>
+     *
+     * @param handle statement agent instance that the unit of work is for
+     * @param unit   unit of work
+     */
+    public void submitRoute(EPStatementAgentInstanceHandle handle, Runnable unit);
+
     /**
      * Returns true for outbound threading enabled.
      *
@@ -11,6 +11,7 @@
 package com.espertech.esper.core.thread;
 
 import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
 import com.espertech.esper.core.service.EPRuntimeImpl;
 import com.espertech.esper.core.service.EPServicesContext;
 import org.slf4j.Logger;
@@ -28,6 +29,7 @@ public class ThreadingServiceImpl implements ThreadingService {
     private final boolean isTimerThreading;
     private final boolean isInboundThreading;
     private final boolean isRouteThreading;
+    private final boolean isRouteThreadingSharded;
     private final boolean isOutboundThreading;
 
     private BlockingQueue<Runnable> timerQueue;
@@ -40,6 +42,9 @@ public class ThreadingServiceImpl implements ThreadingService {
     private ThreadPoolExecutor routeThreadPool;
     private ThreadPoolExecutor outboundThreadPool;
 
+    private BlockingQueue<Runnable>[] routeShardQueues;
+    private ThreadPoolExecutor[] routeShardThreadPools;
+
     /**
      * Ctor.
      *
@@ -51,11 +56,13 @@ public class ThreadingServiceImpl implements ThreadingService {
             isTimerThreading = threadingConfig.isThreadPoolTimerExec();
             isInboundThreading = threadingConfig.isThreadPoolInbound();
             isRouteThreading = threadingConfig.isThreadPoolRouteExec();
+            isRouteThreadingSharded = isRouteThreading && threadingConfig.isThreadPoolRouteExecSharded();
             isOutboundThreading = threadingConfig.isThreadPoolOutbound();
         } else {
             isTimerThreading = false;
             isInboundThreading = false;
             isRouteThreading = false;
+            isRouteThreadingSharded = false;
             isOutboundThreading = false;
         }
     }
@@ -64,6 +71,10 @@ public class ThreadingServiceImpl implements ThreadingService {
         return isRouteThreading;
     }
 
+    public boolean isRouteThreadingSharded() {
+        return isRouteThreadingSharded;
+    }
+
     public boolean isInboundThreading() {
         return isInboundThreading;
     }
@@ -87,7 +98,18 @@ public class ThreadingServiceImpl implements ThreadingService {
             timerThreadPool = getThreadPool(services.getEngineURI(), "TimerExec", timerQueue, config.getThreadPoolTimerExecNumThreads());
         }
 
-        if (isRouteThreading) {
+        if (isRouteThreadingSharded) {
+            int numShards = Math.max(1, config.getThreadPoolRouteExecNumThreads());
+            routeShardQueues = new BlockingQueue[numShards];
+            routeShardThreadPools = new ThreadPoolExecutor[numShards];
+            for (int i = 0; i < numShards; i++) {
+                routeShardQueues[i] = makeQueue(config.getThreadPoolRouteExecCapacity());
+                routeShardThreadPools[i] = getThreadPool(services.getEngineURI(), "RouteExecShard-" + i, routeShardQueues[i], 1);
+            }
+            // the first shard doubles as the route queue for units that are not associated to a statement
+            routeQueue = routeShardQueues[0];
+            routeThreadPool = routeShardThreadPools[0];
+        } else if (isRouteThreading) {
             routeQueue = makeQueue(config.getThreadPoolRouteExecCapacity());
             routeThreadPool = getThreadPool(services.getEngineURI(), "RouteExec", routeQueue, config.getThreadPoolRouteExecNumThreads());
         }
@@ -116,6 +138,18 @@ public class ThreadingServiceImpl implements ThreadingService {
         }
     }
 
+    public void submitRoute(EPStatementAgentInstanceHandle handle, Runnable unit) {
+        BlockingQueue<Runnable> queue = routeQueue;
+        if (routeShardQueues != null) {
+            queue = routeShardQueues[getShard(handle, routeShardQueues.length)];
+        }
+        try {
+            queue.put(unit);
+        } catch (InterruptedException e) {
+            log.info("Submit interrupted:" + e);
+        }
+    }
+
     public void submitInbound(InboundUnitRunnable unit) {
         try {
             inboundQueue.put(unit);
@@ -176,7 +210,11 @@ public class ThreadingServiceImpl implements ThreadingService {
         if (timerThreadPool != null) {
             stopPool(timerThreadPool, timerQueue, "TimerExec");
         }
-        if (routeThreadPool != null) {
+        if (routeShardThreadPools != null) {
+            for (int i = 0; i < routeShardThreadPools.length; i++) {
+                stopPool(routeShardThreadPools[i], routeShardQueues[i], "RouteExecShard-" + i);
+            }
+        } else if (routeThreadPool != null) {
             stopPool(routeThreadPool, routeQueue, "RouteExec");
         }
         if (outboundThreadPool != null) {
@@ -188,10 +226,26 @@ public class ThreadingServiceImpl implements ThreadingService {
 
         timerThreadPool = null;
         routeThreadPool = null;
+        routeShardThreadPools = null;
+        routeShardQueues = null;
         outboundThreadPool = null;
         inboundThreadPool = null;
     }
 
+    /**
+     * Returns the shard for a statement agent instance. Context partitions of the same statement
+     * have different agent instance ids and are therefore spread across shards.
+     *
+     * @param handle    statement agent instance
+     * @param numShards number of shards
+     * @return shard index
+     */
+    protected static int getShard(EPStatementAgentInstanceHandle handle, int numShards) {
+        int hash = handle.getStatementId() * 31 + handle.getAgentInstanceId();
+        hash ^= hash >>> 16;
+        return (hash & 0x7fffffff) % numShards;
+    }
+
     private ThreadPoolExecutor getThreadPool(String engineURI, String name, BlockingQueue<Runnable> queue, int numThreads) {
         if (log.isInfoEnabled()) {
             log.info("Starting pool " + name + " with " + numThreads + " threads");
@@ -12,6 +12,7 @@ package com.espertech.esper.epl.agg.access;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.SortedLongObjectMap;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 
@@ -19,10 +20,14 @@ import java.util.*;
 
 /**
  * Implementation of access function for single-stream (not joins).
+ * <p>
+ * Sorted by a single integral or floating-point criteria expression, events are kept in a map of primitive keys
+ * instead of a tree map of boxed keys.
  */
 public class AggregationStateSortedImpl implements AggregationStateWithSize, AggregationStateSorted {
     protected final AggregationStateSortedSpec spec;
     protected final TreeMap<Object, Object> sorted;
+    protected final SortedLongObjectMap sortedPrimitive;
     protected int size;
 
     /**
@@ -32,11 +37,21 @@ public class AggregationStateSortedImpl implements AggregationStateWithSize, Agg
      */
     public AggregationStateSortedImpl(AggregationStateSortedSpec spec) {
         this.spec = spec;
-        sorted = new TreeMap<Object, Object>(spec.getComparator());
+        if (spec.getOptionalPrimitiveKey() != null) {
+            sorted = null;
+            sortedPrimitive = new SortedLongObjectMap(spec.getOptionalPrimitiveKey().isNullsFirst());
+        } else {
+            sorted = new TreeMap<Object, Object>(spec.getComparator());
+            sortedPrimitive = null;
+        }
     }
 
     public void clear() {
-        sorted.clear();
+        if (sortedPrimitive != null) {
+            sortedPrimitive.clear();
+        } else {
+            sorted.clear();
+        }
         size = 0;
     }
 
@@ -67,6 +82,9 @@ public class AggregationStateSortedImpl implements AggregationStateWithSize, Agg
     }
 
     public EventBean getFirstValue() {
+        if (sortedPrimitive != null) {
+            return sortedPrimitive.isEmpty() ? null : checkedPayload(sortedPrimitive.firstValue());
+        }
         if (sorted.isEmpty()) {
             return null;
         }
@@ -75,6 +93,9 @@ public class AggregationStateSortedImpl implements AggregationStateWithSize, Agg
     }
 
     public EventBean getLastValue() {
+        if (sortedPrimitive != null) {
+            return sortedPrimitive.isEmpty() ? null : checkedPayload(sortedPrimitive.lastValue());
+        }
         if (sorted.isEmpty()) {
             return null;
         }
@@ -83,14 +104,23 @@ public class AggregationStateSortedImpl implements AggregationStateWithSize, Agg
     }
 
     public Iterator<EventBean> iterator() {
+        if (sortedPrimitive != null) {
+            return new AggregationStateSortedIterator(sortedPrimitive, false);
+        }
         return new AggregationStateSortedIterator(sorted, false);
     }
 
     public Iterator<EventBean> getReverseIterator() {
+        if (sortedPrimitive != null) {
+            return new AggregationStateSortedIterator(sortedPrimitive, true);
+        }
         return new AggregationStateSortedIterator(sorted, true);
     }
 
     public Collection<EventBean> collectionReadOnly() {
+        if (sortedPrimitive != null) {
+            return new AggregationStateSortedWrappingCollection(sortedPrimitive, size);
+        }
         return new AggregationStateSortedWrappingCollection(sorted, size);
     }
 
@@ -114,14 +144,14 @@ public class AggregationStateSortedImpl implements AggregationStateWithSize, Agg
     protected void referenceAdd(EventBean theEvent, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext) {
         if (referenceEvent(theEvent)) {
             Object comparable = getComparable(spec.getCriteria(), eventsPerStream, true, exprEvaluatorContext);
-            Object existing = sorted.get(comparable);
+            Object existing = get(comparable);
             if (existing == null) {
-                sorted.put(comparable, theEvent);
+                put(comparable, theEvent);
             } else if (existing instanceof EventBean) {
                 ArrayDeque coll = new ArrayDeque(2);
                 coll.add(existing);
                 coll.add(theEvent);
-                sorted.put(comparable, coll);
+                put(comparable, coll);
             } else {
                 ArrayDeque q = (ArrayDeque) existing;
                 q.add(theEvent);
@@ -133,16 +163,16 @@ public class AggregationStateSortedImpl implements AggregationStateWithSize, Agg
     protected void dereferenceRemove(EventBean theEvent, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext) {
         if (dereferenceEvent(theEvent)) {
             Object comparable = getComparable(spec.getCriteria(), eventsPerStream, false, exprEvaluatorContext);
-            Object existing = sorted.get(comparable);
+            Object existing = get(comparable);
             if (existing != null) {
                 if (existing.equals(theEvent)) {
-                    sorted.remove(comparable);
+                    remove(comparable);
                     size--;
                 } else if (existing instanceof ArrayDeque) {
                     ArrayDeque q = (ArrayDeque) existing;
                     q.remove(theEvent);
                     if (q.isEmpty()) {
-                        sorted.remove(comparable);
+                        remove(comparable);
                     }
                     size--;
                 }
@@ -150,6 +180,36 @@ public class AggregationStateSortedImpl implements AggregationStateWithSize, Agg
         }
     }
 
+    private Object get(Object comparable) {
+        if (sortedPrimitive == null) {
+            return sorted.get(comparable);
+        }
+        if (comparable == null) {
+            return sortedPrimitive.getNullKey();
+        }
+        return sortedPrimitive.get(spec.getOptionalPrimitiveKey().toKey(comparable));
+    }
+
+    private void put(Object comparable, Object value) {
+        if (sortedPrimitive == null) {
+            sorted.put(comparable, value);
+        } else if (comparable == null) {
+            sortedPrimitive.putNullKey(value);
+        } else {
+            sortedPrimitive.put(spec.getOptionalPrimitiveKey().toKey(comparable), value);
+        }
+    }
+
+    private void remove(Object comparable) {
+        if (sortedPrimitive == null) {
+            sorted.remove(comparable);
+        } else if (comparable == null) {
+            sortedPrimitive.removeNullKey();
+        } else {
+            sortedPrimitive.remove(spec.getOptionalPrimitiveKey().toKey(comparable));
+        }
+    }
+
     private EventBean checkedPayload(Object value) {
         if (value instanceof EventBean) {
             return (EventBean) value;
@@ -11,6 +11,7 @@
 package com.espertech.esper.epl.agg.access;
 
 import com.espertech.esper.collection.MixedEventBeanAndCollectionIteratorBase;
+import com.espertech.esper.collection.SortedLongObjectMap;
 
 import java.util.SortedMap;
 import java.util.TreeMap;
@@ -30,7 +31,20 @@ public class AggregationStateSortedIterator extends MixedEventBeanAndCollectionI
         init();
     }
 
+    /**
+     * Ctor.
+     *
+     * @param window  - sorted map of primitive keys with events
+     * @param reverse for reverse iterator
+     */
+    public AggregationStateSortedIterator(SortedLongObjectMap window, boolean reverse) {
+        super(window.valueIterator(reverse));
+        this.window = null;
+        init();
+    }
+
     protected Object getValue(Object iteratorKeyValue) {
-        return window.get(iteratorKeyValue);
+        // iterating the values of a map of primitive keys returns the value itself
+        return window == null ? iteratorKeyValue : window.get(iteratorKeyValue);
     }
 }
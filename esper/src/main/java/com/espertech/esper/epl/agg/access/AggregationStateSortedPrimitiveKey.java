@@ -0,0 +1,78 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.access;
+
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Maps the sort criteria value of a single integral or floating-point criteria expression to a primitive long
+ * key whose signed order is the sort order, so that sorted aggregation state can be kept without boxing keys.
+ * <p>
+ * Floating-point values are mapped from their bit representation, which orders them the same way as
+ * {@link Double#compareTo(Double)}. Descending sort order inverts the bits of the key.
+ */
+public class AggregationStateSortedPrimitiveKey {
+    private final boolean floatingPoint;
+    private final boolean descending;
+
+    private AggregationStateSortedPrimitiveKey(boolean floatingPoint, boolean descending) {
+        this.floatingPoint = floatingPoint;
+        this.descending = descending;
+    }
+
+    /**
+     * Returns the key mapping for the criteria, or null if the criteria do not allow primitive keys.
+     *
+     * @param criteria       criteria expressions
+     * @param sortDescending descending flag per criteria expression
+     * @return key mapping or null
+     */
+    public static AggregationStateSortedPrimitiveKey make(ExprEvaluator[] criteria, boolean[] sortDescending) {
+        if (criteria.length != 1) {
+            return null;
+        }
+        Class type = JavaClassHelper.getBoxedType(criteria[0].getType());
+        if (type == Long.class || type == Integer.class || type == Short.class || type == Byte.class) {
+            return new AggregationStateSortedPrimitiveKey(false, sortDescending[0]);
+        }
+        if (type == Double.class || type == Float.class) {
+            return new AggregationStateSortedPrimitiveKey(true, sortDescending[0]);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the key for a non-null criteria value.
+     *
+     * @param value criteria value
+     * @return key
+     */
+    public long toKey(Object value) {
+        long key;
+        if (floatingPoint) {
+            long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+            key = bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        } else {
+            key = ((Number) value).longValue();
+        }
+        return descending ? ~key : key;
+    }
+
+    /**
+     * Returns indicator whether the null value sorts first, as it is smaller than any non-null value.
+     *
+     * @return nulls-first indicator
+     */
+    public boolean isNullsFirst() {
+        return !descending;
+    }
+}
@@ -20,13 +20,15 @@ public class AggregationStateSortedSpec {
     private final Comparator<Object> comparator;
     private Object criteriaKeyBinding;
     private final ExprEvaluator optionalFilter;
+    private final AggregationStateSortedPrimitiveKey optionalPrimitiveKey;
 
-    public AggregationStateSortedSpec(int streamId, ExprEvaluator[] criteria, Comparator<Object> comparator, Object criteriaKeyBinding, ExprEvaluator optionalFilter) {
+    public AggregationStateSortedSpec(int streamId, ExprEvaluator[] criteria, Comparator<Object> comparator, Object criteriaKeyBinding, ExprEvaluator optionalFilter, AggregationStateSortedPrimitiveKey optionalPrimitiveKey) {
         this.streamId = streamId;
         this.criteria = criteria;
         this.comparator = comparator;
         this.criteriaKeyBinding = criteriaKeyBinding;
         this.optionalFilter = optionalFilter;
+        this.optionalPrimitiveKey = optionalPrimitiveKey;
     }
 
     public int getStreamId() {
@@ -52,4 +54,8 @@ public class AggregationStateSortedSpec {
     public ExprEvaluator getOptionalFilter() {
         return optionalFilter;
     }
+
+    public AggregationStateSortedPrimitiveKey getOptionalPrimitiveKey() {
+        return optionalPrimitiveKey;
+    }
 }
@@ -10,6 +10,8 @@
  */
 package com.espertech.esper.epl.agg.access;
 
+import com.espertech.esper.collection.SortedLongObjectMap;
+
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.TreeMap;
@@ -17,10 +19,18 @@ import java.util.TreeMap;
 public class AggregationStateSortedWrappingCollection implements Collection {
 
     private final TreeMap<Object, Object> sorted;
+    private final SortedLongObjectMap sortedPrimitive;
     private final int size;
 
     public AggregationStateSortedWrappingCollection(TreeMap<Object, Object> sorted, int size) {
         this.sorted = sorted;
+        this.sortedPrimitive = null;
+        this.size = size;
+    }
+
+    public AggregationStateSortedWrappingCollection(SortedLongObjectMap sortedPrimitive, int size) {
+        this.sorted = null;
+        this.sortedPrimitive = sortedPrimitive;
         this.size = size;
     }
 
@@ -33,6 +43,9 @@ public class AggregationStateSortedWrappingCollection implements Collection {
     }
 
     public Iterator iterator() {
+        if (sortedPrimitive != null) {
+            return new AggregationStateSortedIterator(sortedPrimitive, false);
+        }
         return new AggregationStateSortedIterator(sorted, false);
     }
 
@@ -0,0 +1,31 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.aggregator;
+
+/**
+ * Optional interface for aggregation methods that accept double-typed values without boxing.
+ * Null values are not passed to these methods.
+ */
+public interface AggregationMethodDouble extends AggregationMethod {
+    /**
+     * Apply the value as entering aggregation (entering window).
+     *
+     * @param value to add to aggregate
+     */
+    public void enterDouble(double value);
+
+    /**
+     * Apply the value as leaving aggregation (leaving window).
+     *
+     * @param value to remove from aggregate
+     */
+    public void leaveDouble(double value);
+}
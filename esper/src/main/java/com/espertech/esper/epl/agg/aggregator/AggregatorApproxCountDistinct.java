@@ -0,0 +1,36 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.epl.approx.HyperLogLogState;
+
+/**
+ * Aggregator for the approximate count of distinct values ever, based on a HyperLogLog sketch.
+ * Values leaving are not removed from the sketch.
+ */
+public class AggregatorApproxCountDistinct implements AggregationMethod {
+    protected final HyperLogLogState state = new HyperLogLogState();
+
+    public void clear() {
+        state.clear();
+    }
+
+    public void enter(Object value) {
+        state.add(value);
+    }
+
+    public void leave(Object value) {
+    }
+
+    public Object getValue() {
+        return state.estimate();
+    }
+}
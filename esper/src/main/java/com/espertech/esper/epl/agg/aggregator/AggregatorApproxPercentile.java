@@ -0,0 +1,49 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.epl.approx.TDigestState;
+
+/**
+ * Aggregator for the approximate percentile of values ever, based on a t-digest.
+ * Values leaving are not removed from the digest.
+ */
+public class AggregatorApproxPercentile implements AggregationMethod {
+    protected final double percentile;
+    protected final TDigestState state = new TDigestState();
+
+    /**
+     * Ctor.
+     *
+     * @param percentile between zero and one
+     */
+    public AggregatorApproxPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+
+    public void clear() {
+        state.clear();
+    }
+
+    public void enter(Object value) {
+        if (value == null) {
+            return;
+        }
+        state.add(((Number) value).doubleValue());
+    }
+
+    public void leave(Object value) {
+    }
+
+    public Object getValue() {
+        return state.quantile(percentile);
+    }
+}
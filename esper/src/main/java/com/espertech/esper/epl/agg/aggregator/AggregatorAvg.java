@@ -13,7 +13,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Average that generates double-typed numbers.
  */
-public class AggregatorAvg implements AggregationMethod {
+public class AggregatorAvg implements AggregationMethodDouble {
     protected double sum;
     protected long numDataPoints;
 
@@ -26,19 +26,27 @@ public class AggregatorAvg implements AggregationMethod {
         if (object == null) {
             return;
         }
+        enterDouble(((Number) object).doubleValue());
+    }
+
+    public void enterDouble(double value) {
         numDataPoints++;
-        sum += ((Number) object).doubleValue();
+        sum += value;
     }
 
     public void leave(Object object) {
         if (object == null) {
             return;
         }
+        leaveDouble(((Number) object).doubleValue());
+    }
+
+    public void leaveDouble(double value) {
         if (numDataPoints <= 1) {
             clear();
         } else {
             numDataPoints--;
-            sum -= ((Number) object).doubleValue();
+            sum -= value;
         }
     }
 
@@ -10,23 +10,25 @@
  */
 package com.espertech.esper.epl.agg.aggregator;
 
-import com.espertech.esper.collection.SortedDoubleVector;
+import com.espertech.esper.collection.SortedDoubleTree;
 
 /**
  * Median aggregation.
+ * <p>
+ * Values are kept in an order-statistic tree so that entering, leaving and finding the middle value take logarithmic time.
  */
 public class AggregatorMedian implements AggregationMethod {
-    protected SortedDoubleVector vector;
+    protected SortedDoubleTree tree;
 
     public void clear() {
-        vector.clear();
+        tree.clear();
     }
 
     /**
      * Ctor.
      */
     public AggregatorMedian() {
-        this.vector = new SortedDoubleVector();
+        this.tree = new SortedDoubleTree();
     }
 
     public void enter(Object object) {
@@ -34,7 +36,7 @@ public class AggregatorMedian implements AggregationMethod {
             return;
         }
         double value = ((Number) object).doubleValue();
-        vector.add(value);
+        tree.add(value);
     }
 
     public void leave(Object object) {
@@ -42,22 +44,22 @@ public class AggregatorMedian implements AggregationMethod {
             return;
         }
         double value = ((Number) object).doubleValue();
-        vector.remove(value);
+        tree.remove(value);
     }
 
     public Object getValue() {
-        if (vector.size() == 0) {
+        if (tree.size() == 0) {
             return null;
         }
-        if (vector.size() == 1) {
-            return vector.getValue(0);
+        if (tree.size() == 1) {
+            return tree.getValue(0);
         }
 
-        int middle = vector.size() >> 1;
-        if (vector.size() % 2 == 0) {
-            return (vector.getValue(middle - 1) + vector.getValue(middle)) / 2;
+        int middle = tree.size() >> 1;
+        if (tree.size() % 2 == 0) {
+            return (tree.getValue(middle - 1) + tree.getValue(middle)) / 2;
         } else {
-            return vector.getValue(middle);
+            return tree.getValue(middle);
         }
     }
 
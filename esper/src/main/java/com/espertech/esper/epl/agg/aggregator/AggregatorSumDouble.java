@@ -13,7 +13,7 @@ package com.espertech.esper.epl.agg.aggregator;
 /**
  * Sum for double values.
  */
-public class AggregatorSumDouble implements AggregationMethod {
+public class AggregatorSumDouble implements AggregationMethodDouble {
     protected double sum;
     protected long numDataPoints;
 
@@ -26,19 +26,27 @@ public class AggregatorSumDouble implements AggregationMethod {
         if (object == null) {
             return;
         }
+        enterDouble((Double) object);
+    }
+
+    public void enterDouble(double value) {
         numDataPoints++;
-        sum += (Double) object;
+        sum += value;
     }
 
     public void leave(Object object) {
         if (object == null) {
             return;
         }
+        leaveDouble((Double) object);
+    }
+
+    public void leaveDouble(double value) {
         if (numDataPoints <= 1) {
             clear();
         } else {
             numDataPoints--;
-            sum -= (Double) object;
+            sum -= value;
         }
     }
 
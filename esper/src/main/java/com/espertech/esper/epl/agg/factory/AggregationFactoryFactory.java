@@ -31,6 +31,10 @@ import com.espertech.esper.schedule.TimeProvider;
 import java.math.MathContext;
 
 public interface AggregationFactoryFactory {
+    AggregationMethodFactory makeApproxCountDistinct(StatementExtensionSvcContext statementExtensionSvcContext, ExprApproxCountDistinctNode exprApproxCountDistinctNode, Class childType);
+
+    AggregationMethodFactory makeApproxPercentile(StatementExtensionSvcContext statementExtensionSvcContext, ExprApproxPercentileNode exprApproxPercentileNode, Class childType, double percentile);
+
     AggregationMethodFactory makeCount(StatementExtensionSvcContext statementExtensionSvcContext, ExprCountNode exprCountNode, boolean ignoreNulls, Class countedValueType);
 
     AggregationMethodFactory makeSum(StatementExtensionSvcContext statementExtensionSvcContext, ExprSumNode exprSumNode, Class childType);
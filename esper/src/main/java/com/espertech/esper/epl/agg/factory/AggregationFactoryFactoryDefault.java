@@ -34,6 +34,14 @@ public class AggregationFactoryFactoryDefault implements AggregationFactoryFacto
     private AggregationFactoryFactoryDefault() {
     }
 
+    public AggregationMethodFactory makeApproxCountDistinct(StatementExtensionSvcContext statementExtensionSvcContext, ExprApproxCountDistinctNode exprApproxCountDistinctNode, Class childType) {
+        return new AggregationMethodFactoryApproxCountDistinct(exprApproxCountDistinctNode, childType);
+    }
+
+    public AggregationMethodFactory makeApproxPercentile(StatementExtensionSvcContext statementExtensionSvcContext, ExprApproxPercentileNode exprApproxPercentileNode, Class childType, double percentile) {
+        return new AggregationMethodFactoryApproxPercentile(exprApproxPercentileNode, childType, percentile);
+    }
+
     public AggregationMethodFactory makeCount(StatementExtensionSvcContext statementExtensionSvcContext, ExprCountNode exprCountNode, boolean ignoreNulls, Class countedValueType) {
         return new AggregationMethodFactoryCount(exprCountNode, ignoreNulls, countedValueType);
     }
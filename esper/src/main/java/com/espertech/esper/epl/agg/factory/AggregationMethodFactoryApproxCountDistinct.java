@@ -0,0 +1,83 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.factory;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.agg.access.AggregationAccessor;
+import com.espertech.esper.epl.agg.access.AggregationAgent;
+import com.espertech.esper.epl.agg.access.AggregationStateKey;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregatorApproxCountDistinct;
+import com.espertech.esper.epl.agg.aggregator.AggregatorApproxCountDistinctFilter;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.agg.service.AggregationStateFactory;
+import com.espertech.esper.epl.agg.service.AggregationValidationUtil;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.epl.expression.methodagg.ExprApproxCountDistinctNode;
+import com.espertech.esper.epl.expression.methodagg.ExprMethodAggUtil;
+
+public class AggregationMethodFactoryApproxCountDistinct implements AggregationMethodFactory {
+    protected final ExprApproxCountDistinctNode parent;
+    protected final Class aggregatedValueType;
+
+    public AggregationMethodFactoryApproxCountDistinct(ExprApproxCountDistinctNode parent, Class aggregatedValueType) {
+        this.parent = parent;
+        this.aggregatedValueType = aggregatedValueType;
+    }
+
+    public boolean isAccessAggregation() {
+        return false;
+    }
+
+    public Class getResultType() {
+        return long.class;
+    }
+
+    public AggregationStateKey getAggregationStateKey(boolean isMatchRecognize) {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationStateFactory getAggregationStateFactory(boolean isMatchRecognize) {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationAccessor getAccessor() {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationMethod make() {
+        if (parent.hasFilter()) {
+            return new AggregatorApproxCountDistinctFilter();
+        }
+        return new AggregatorApproxCountDistinct();
+    }
+
+    public ExprAggregateNodeBase getAggregationExpression() {
+        return parent;
+    }
+
+    public void validateIntoTableCompatible(AggregationMethodFactory intoTableAgg) throws ExprValidationException {
+        AggregationValidationUtil.validateAggregationType(this, intoTableAgg);
+        AggregationMethodFactoryApproxCountDistinct that = (AggregationMethodFactoryApproxCountDistinct) intoTableAgg;
+        AggregationValidationUtil.validateAggregationInputType(aggregatedValueType, that.aggregatedValueType);
+        AggregationValidationUtil.validateAggregationFilter(parent.hasFilter(), that.parent.hasFilter());
+    }
+
+    public AggregationAgent getAggregationStateAgent() {
+        return null;
+    }
+
+    public ExprEvaluator getMethodAggregationEvaluator(boolean join, EventType[] typesPerStream) throws ExprValidationException {
+        return ExprMethodAggUtil.getDefaultEvaluator(parent.getPositionalParams(), join, typesPerStream);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.factory;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.agg.access.AggregationAccessor;
+import com.espertech.esper.epl.agg.access.AggregationAgent;
+import com.espertech.esper.epl.agg.access.AggregationStateKey;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregatorApproxPercentile;
+import com.espertech.esper.epl.agg.aggregator.AggregatorApproxPercentileFilter;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.agg.service.AggregationStateFactory;
+import com.espertech.esper.epl.agg.service.AggregationValidationUtil;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.epl.expression.methodagg.ExprApproxPercentileNode;
+import com.espertech.esper.epl.expression.methodagg.ExprMethodAggUtil;
+
+public class AggregationMethodFactoryApproxPercentile implements AggregationMethodFactory {
+    protected final ExprApproxPercentileNode parent;
+    protected final Class aggregatedValueType;
+    protected final double percentile;
+
+    public AggregationMethodFactoryApproxPercentile(ExprApproxPercentileNode parent, Class aggregatedValueType, double percentile) {
+        this.parent = parent;
+        this.aggregatedValueType = aggregatedValueType;
+        this.percentile = percentile;
+    }
+
+    public boolean isAccessAggregation() {
+        return false;
+    }
+
+    public Class getResultType() {
+        return Double.class;
+    }
+
+    public AggregationStateKey getAggregationStateKey(boolean isMatchRecognize) {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationStateFactory getAggregationStateFactory(boolean isMatchRecognize) {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationAccessor getAccessor() {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationMethod make() {
+        if (parent.hasFilter()) {
+            return new AggregatorApproxPercentileFilter(percentile);
+        }
+        return new AggregatorApproxPercentile(percentile);
+    }
+
+    public ExprAggregateNodeBase getAggregationExpression() {
+        return parent;
+    }
+
+    public void validateIntoTableCompatible(AggregationMethodFactory intoTableAgg) throws ExprValidationException {
+        AggregationValidationUtil.validateAggregationType(this, intoTableAgg);
+        AggregationMethodFactoryApproxPercentile that = (AggregationMethodFactoryApproxPercentile) intoTableAgg;
+        AggregationValidationUtil.validateAggregationInputType(aggregatedValueType, that.aggregatedValueType);
+        AggregationValidationUtil.validateAggregationFilter(parent.hasFilter(), that.parent.hasFilter());
+        if (percentile != that.percentile) {
+            throw new ExprValidationException("The percentile is " + percentile + " and provided is " + that.percentile);
+        }
+    }
+
+    public AggregationAgent getAggregationStateAgent() {
+        return null;
+    }
+
+    public ExprEvaluator getMethodAggregationEvaluator(boolean join, EventType[] typesPerStream) throws ExprValidationException {
+        // the percentile is a constant and not evaluated per event
+        ExprNode[] params = parent.getPositionalParams();
+        if (parent.hasFilter()) {
+            return ExprMethodAggUtil.getMultiNodeEvaluator(new ExprNode[]{params[0], params[2]}, join, typesPerStream);
+        }
+        return ExprMethodAggUtil.getDefaultEvaluator(new ExprNode[]{params[0]}, join, typesPerStream);
+    }
+}
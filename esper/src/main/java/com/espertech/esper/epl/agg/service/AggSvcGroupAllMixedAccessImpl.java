@@ -16,6 +16,7 @@ import com.espertech.esper.epl.agg.access.AggregationState;
 import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorNullFlag;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.Collection;
@@ -24,6 +25,7 @@ import java.util.Collection;
  * Implementation for handling aggregation without any grouping (no group-by).
  */
 public class AggSvcGroupAllMixedAccessImpl extends AggregationServiceBaseUngrouped {
+    private final ExprEvaluatorNullFlag nullFlag = new ExprEvaluatorNullFlag();
     private final AggregationAccessorSlotPair[] accessors;
     protected AggregationState[] states;
 
@@ -41,8 +43,7 @@ public class AggSvcGroupAllMixedAccessImpl extends AggregationServiceBaseUngroup
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(true, i, aggregators[i], aggregatorFactories[i].getAggregationExpression());
             }
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            aggregators[i].enter(columnResult);
+            AggregatorUtil.enter(evaluators[i], aggregators[i], eventsPerStream, exprEvaluatorContext, nullFlag);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(true, i, aggregators[i]);
             }
@@ -72,8 +73,7 @@ public class AggSvcGroupAllMixedAccessImpl extends AggregationServiceBaseUngroup
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(false, i, aggregators[i], aggregatorFactories[i].getAggregationExpression());
             }
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            aggregators[i].leave(columnResult);
+            AggregatorUtil.leave(evaluators[i], aggregators[i], eventsPerStream, exprEvaluatorContext, nullFlag);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(false, i, aggregators[i]);
             }
@@ -14,6 +14,7 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorNullFlag;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.Collection;
@@ -22,6 +23,7 @@ import java.util.Collection;
  * Implementation for handling aggregation without any grouping (no group-by).
  */
 public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped {
+    private final ExprEvaluatorNullFlag nullFlag = new ExprEvaluatorNullFlag();
     /**
      * Ctor.
      *
@@ -41,8 +43,7 @@ public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(true, j, aggregators[j], aggregatorFactories[j].getAggregationExpression());
             }
-            Object columnResult = evaluators[j].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            aggregators[j].enter(columnResult);
+            AggregatorUtil.enter(evaluators[j], aggregators[j], eventsPerStream, exprEvaluatorContext, nullFlag);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(true, j, aggregators[j]);
             }
@@ -60,8 +61,7 @@ public class AggSvcGroupAllNoAccessImpl extends AggregationServiceBaseUngrouped
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(false, j, aggregators[j], aggregatorFactories[j].getAggregationExpression());
             }
-            Object columnResult = evaluators[j].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            aggregators[j].leave(columnResult);
+            AggregatorUtil.leave(evaluators[j], aggregators[j], eventsPerStream, exprEvaluatorContext, nullFlag);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(false, j, aggregators[j]);
             }
@@ -0,0 +1,76 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.epl.agg.aggregator.*;
+import com.espertech.esper.epl.core.EngineImportService;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+
+/**
+ * Factory for the columnar implementation of aggregation with grouping by group-keys, applicable when all
+ * aggregation functions are non-distinct and unfiltered count, sum (int, long, double) or average.
+ */
+public class AggSvcGroupByColumnarFactory extends AggregationServiceFactoryBase {
+    private final int[] kinds;
+    private final boolean refcounted;
+
+    /**
+     * Ctor.
+     *
+     * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
+     * @param prototypes - collect the aggregation state that evaluators evaluate to
+     * @param kinds      - column kinds as returned by {@link #getColumnKinds(AggregationMethodFactory[])}
+     * @param refcounted - true to remove groups that have no more events, false to retain groups
+     */
+    public AggSvcGroupByColumnarFactory(ExprEvaluator[] evaluators, AggregationMethodFactory[] prototypes, int[] kinds, boolean refcounted) {
+        super(evaluators, prototypes);
+        this.kinds = kinds;
+        this.refcounted = refcounted;
+    }
+
+    public AggregationService makeService(AgentInstanceContext agentInstanceContext, EngineImportService engineImportService, boolean isSubquery, Integer subqueryNumber) {
+        return new AggSvcGroupByColumnarImpl(evaluators, aggregators, kinds, refcounted);
+    }
+
+    /**
+     * Returns the column kind for each aggregation function, or null if any of the aggregation functions
+     * cannot be represented in columnar form.
+     *
+     * @param prototypes aggregation function factories
+     * @return kinds or null
+     */
+    public static int[] getColumnKinds(AggregationMethodFactory[] prototypes) {
+        if (prototypes.length == 0) {
+            return null;
+        }
+        int[] kinds = new int[prototypes.length];
+        for (int i = 0; i < prototypes.length; i++) {
+            Class methodClass = prototypes[i].make().getClass();
+            if (methodClass == AggregatorCount.class) {
+                kinds[i] = AggSvcGroupByColumnarImpl.KIND_COUNT;
+            } else if (methodClass == AggregatorCountNonNull.class) {
+                kinds[i] = AggSvcGroupByColumnarImpl.KIND_COUNT_NONNULL;
+            } else if (methodClass == AggregatorSumInteger.class) {
+                kinds[i] = AggSvcGroupByColumnarImpl.KIND_SUM_INT;
+            } else if (methodClass == AggregatorSumLong.class) {
+                kinds[i] = AggSvcGroupByColumnarImpl.KIND_SUM_LONG;
+            } else if (methodClass == AggregatorSumDouble.class) {
+                kinds[i] = AggSvcGroupByColumnarImpl.KIND_SUM_DOUBLE;
+            } else if (methodClass == AggregatorAvg.class) {
+                kinds[i] = AggSvcGroupByColumnarImpl.KIND_AVG;
+            } else {
+                return null;
+            }
+        }
+        return kinds;
+    }
+}
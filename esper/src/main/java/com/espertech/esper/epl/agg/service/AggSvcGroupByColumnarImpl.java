@@ -0,0 +1,445 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorNullFlag;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorPrimitiveUtil;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementation for handling aggregation with grouping by group-keys that keeps aggregation state in columns.
+ * <p>
+ * Each group is assigned a dense slot number and the count and sum of each aggregation function are kept in
+ * primitive arrays indexed by slot, instead of an aggregator object per group and aggregation function.
+ * Group keys are located through an open-addressing table of slot numbers.
+ * When reference-counted, groups that have no more events are removed and their slots are reused.
+ */
+public class AggSvcGroupByColumnarImpl extends AggregationServiceBaseGrouped {
+    static final int KIND_COUNT = 0;
+    static final int KIND_COUNT_NONNULL = 1;
+    static final int KIND_SUM_INT = 2;
+    static final int KIND_SUM_LONG = 3;
+    static final int KIND_SUM_DOUBLE = 4;
+    static final int KIND_AVG = 5;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final Object NULL_KEY = new Object();
+
+    private final int[] kinds;
+    private final boolean refcounted;
+    private final ExprEvaluatorNullFlag nullFlag = new ExprEvaluatorNullFlag();
+
+    // per column and slot: number of data points, and sum where applicable
+    private long[][] counts;
+    private long[][] longSums;
+    private double[][] doubleSums;
+    private int[] refcounts;
+
+    // slot to group key, null for an unused slot, and hash table of slot+1 with zero for empty
+    private Object[] groupKeys;
+    private int[] table;
+    private int numGroups;
+    private int highWater;
+    private int[] freeSlots;
+    private int numFreeSlots;
+    private int[] removedSlots;
+    private int numRemovedSlots;
+
+    private int currentSlot = -1;
+    private Object currentGroupKey;
+
+    /**
+     * Ctor.
+     *
+     * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
+     * @param prototypes - collect the aggregation state that evaluators evaluate to
+     * @param kinds      - column kind per aggregation function
+     * @param refcounted - true to remove groups that have no more events, false to retain groups
+     */
+    public AggSvcGroupByColumnarImpl(ExprEvaluator[] evaluators, AggregationMethodFactory[] prototypes, int[] kinds, boolean refcounted) {
+        super(evaluators, prototypes);
+        this.kinds = kinds;
+        this.refcounted = refcounted;
+        init(INITIAL_CAPACITY);
+    }
+
+    public void clearResults(ExprEvaluatorContext exprEvaluatorContext) {
+        init(INITIAL_CAPACITY);
+    }
+
+    public void applyEnter(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qAggregationGroupedApplyEnterLeave(true, aggregators.length, 0, groupByKey);
+        }
+        handleRemovedSlots();
+
+        Object key = groupByKey == null ? NULL_KEY : groupByKey;
+        int slot = findSlot(key);
+        if (slot == -1) {
+            slot = addSlot(key);
+        } else if (refcounted) {
+            refcounts[slot]++;
+        }
+
+        currentSlot = slot;
+        for (int i = 0; i < evaluators.length; i++) {
+            enter(i, slot, eventsPerStream, exprEvaluatorContext);
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(true);
+        }
+    }
+
+    public void applyLeave(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qAggregationGroupedApplyEnterLeave(false, aggregators.length, 0, groupByKey);
+        }
+        Object key = groupByKey == null ? NULL_KEY : groupByKey;
+        int slot = findSlot(key);
+        if (slot == -1) {
+            slot = addSlot(key);
+        }
+
+        currentSlot = slot;
+        for (int i = 0; i < evaluators.length; i++) {
+            leave(i, slot, eventsPerStream, exprEvaluatorContext);
+        }
+
+        if (refcounted) {
+            refcounts[slot]--;
+            if (refcounts[slot] <= 0) {
+                if (numRemovedSlots == removedSlots.length) {
+                    removedSlots = Arrays.copyOf(removedSlots, removedSlots.length * 2);
+                }
+                removedSlots[numRemovedSlots++] = slot;
+            }
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(false);
+        }
+    }
+
+    public void setCurrentAccess(Object groupByKey, int agentInstanceId, AggregationGroupByRollupLevel rollupLevel) {
+        Object key = groupByKey == null ? NULL_KEY : groupByKey;
+        currentSlot = findSlot(key);
+        if (currentSlot == -1 && !refcounted) {
+            currentSlot = addSlot(key);
+        }
+        currentGroupKey = groupByKey;
+    }
+
+    public Object getValue(int column, int agentInstanceId, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext) {
+        return getValue(column, currentSlot);
+    }
+
+    public Collection<EventBean> getCollectionOfEvents(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public Collection<Object> getCollectionScalar(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public EventBean getEventBean(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public void setRemovedCallback(AggregationRowRemovedCallback callback) {
+        // not applicable
+    }
+
+    public void accept(AggregationServiceVisitor visitor) {
+        visitor.visitAggregations(numGroups, counts, longSums, doubleSums);
+    }
+
+    public void acceptGroupDetail(AggregationServiceVisitorWGroupDetail visitor) {
+        visitor.visitGrouped(numGroups);
+        for (int slot = 0; slot < highWater; slot++) {
+            if (groupKeys[slot] == null) {
+                continue;
+            }
+            Object[] values = new Object[kinds.length];
+            for (int i = 0; i < kinds.length; i++) {
+                values[i] = getValue(i, slot);
+            }
+            visitor.visitGroup(groupKeys[slot] == NULL_KEY ? null : groupKeys[slot], values);
+        }
+    }
+
+    public boolean isGrouped() {
+        return true;
+    }
+
+    public Object getGroupKey(int agentInstanceId) {
+        return currentGroupKey;
+    }
+
+    public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
+        handleRemovedSlots();
+        List<Object> keys = new ArrayList<Object>(numGroups);
+        for (int slot = 0; slot < highWater; slot++) {
+            Object key = groupKeys[slot];
+            if (key != null) {
+                keys.add(key == NULL_KEY ? null : key);
+            }
+        }
+        return keys;
+    }
+
+    private void enter(int column, int slot, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext) {
+        switch (kinds[column]) {
+            case KIND_COUNT:
+                counts[column][slot]++;
+                break;
+            case KIND_COUNT_NONNULL:
+                if (evaluators[column].evaluate(eventsPerStream, true, exprEvaluatorContext) != null) {
+                    counts[column][slot]++;
+                }
+                break;
+            case KIND_SUM_INT:
+            case KIND_SUM_LONG:
+                Object value = evaluators[column].evaluate(eventsPerStream, true, exprEvaluatorContext);
+                if (value != null) {
+                    counts[column][slot]++;
+                    longSums[column][slot] += ((Number) value).longValue();
+                }
+                break;
+            default:
+                double doubleValue = ExprEvaluatorPrimitiveUtil.evaluateDouble(evaluators[column], eventsPerStream, true, exprEvaluatorContext, nullFlag);
+                if (!nullFlag.isNull()) {
+                    counts[column][slot]++;
+                    doubleSums[column][slot] += doubleValue;
+                }
+        }
+    }
+
+    private void leave(int column, int slot, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext) {
+        long[] count = counts[column];
+        switch (kinds[column]) {
+            case KIND_COUNT:
+                if (count[slot] > 0) {
+                    count[slot]--;
+                }
+                break;
+            case KIND_COUNT_NONNULL:
+                if (evaluators[column].evaluate(eventsPerStream, false, exprEvaluatorContext) != null && count[slot] > 0) {
+                    count[slot]--;
+                }
+                break;
+            case KIND_SUM_INT:
+            case KIND_SUM_LONG:
+                Object value = evaluators[column].evaluate(eventsPerStream, false, exprEvaluatorContext);
+                if (value == null) {
+                    break;
+                }
+                if (count[slot] <= 1) {
+                    count[slot] = 0;
+                    longSums[column][slot] = 0;
+                } else {
+                    count[slot]--;
+                    longSums[column][slot] -= ((Number) value).longValue();
+                }
+                break;
+            default:
+                double doubleValue = ExprEvaluatorPrimitiveUtil.evaluateDouble(evaluators[column], eventsPerStream, false, exprEvaluatorContext, nullFlag);
+                if (nullFlag.isNull()) {
+                    break;
+                }
+                if (count[slot] <= 1) {
+                    count[slot] = 0;
+                    doubleSums[column][slot] = 0;
+                } else {
+                    count[slot]--;
+                    doubleSums[column][slot] -= doubleValue;
+                }
+        }
+    }
+
+    private Object getValue(int column, int slot) {
+        int kind = kinds[column];
+        if (slot == -1) {
+            return kind == KIND_COUNT || kind == KIND_COUNT_NONNULL ? (Object) 0L : null;
+        }
+        long count = counts[column][slot];
+        switch (kind) {
+            case KIND_COUNT:
+            case KIND_COUNT_NONNULL:
+                return count;
+            case KIND_SUM_INT:
+                return count == 0 ? null : (Object) (int) longSums[column][slot];
+            case KIND_SUM_LONG:
+                return count == 0 ? null : (Object) longSums[column][slot];
+            case KIND_SUM_DOUBLE:
+                return count == 0 ? null : (Object) doubleSums[column][slot];
+            default:
+                return count == 0 ? null : (Object) (doubleSums[column][slot] / count);
+        }
+    }
+
+    private void handleRemovedSlots() {
+        // as with the refcounted implementation, remove lazily to reduce the chance of re-creating a group that is queried
+        for (int i = 0; i < numRemovedSlots; i++) {
+            int slot = removedSlots[i];
+            if (groupKeys[slot] != null && refcounts[slot] <= 0) {
+                removeSlot(slot);
+            }
+        }
+        numRemovedSlots = 0;
+    }
+
+    private void init(int capacity) {
+        counts = new long[kinds.length][];
+        longSums = new long[kinds.length][];
+        doubleSums = new double[kinds.length][];
+        for (int i = 0; i < kinds.length; i++) {
+            counts[i] = new long[capacity];
+            if (kinds[i] == KIND_SUM_INT || kinds[i] == KIND_SUM_LONG) {
+                longSums[i] = new long[capacity];
+            } else if (kinds[i] == KIND_SUM_DOUBLE || kinds[i] == KIND_AVG) {
+                doubleSums[i] = new double[capacity];
+            }
+        }
+        refcounts = refcounted ? new int[capacity] : null;
+        groupKeys = new Object[capacity];
+        table = new int[capacity * 2];
+        freeSlots = new int[capacity];
+        removedSlots = new int[INITIAL_CAPACITY];
+        numGroups = 0;
+        highWater = 0;
+        numFreeSlots = 0;
+        numRemovedSlots = 0;
+        currentSlot = -1;
+    }
+
+    private void grow() {
+        int capacity = groupKeys.length * 2;
+        for (int i = 0; i < kinds.length; i++) {
+            counts[i] = Arrays.copyOf(counts[i], capacity);
+            if (longSums[i] != null) {
+                longSums[i] = Arrays.copyOf(longSums[i], capacity);
+            }
+            if (doubleSums[i] != null) {
+                doubleSums[i] = Arrays.copyOf(doubleSums[i], capacity);
+            }
+        }
+        if (refcounts != null) {
+            refcounts = Arrays.copyOf(refcounts, capacity);
+        }
+        groupKeys = Arrays.copyOf(groupKeys, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+
+        table = new int[capacity * 2];
+        for (int slot = 0; slot < highWater; slot++) {
+            if (groupKeys[slot] != null) {
+                int index = hash(groupKeys[slot]) & (table.length - 1);
+                while (table[index] != 0) {
+                    index = (index + 1) & (table.length - 1);
+                }
+                table[index] = slot + 1;
+            }
+        }
+    }
+
+    private int findSlot(Object key) {
+        int mask = table.length - 1;
+        int index = hash(key) & mask;
+        while (true) {
+            int entry = table[index];
+            if (entry == 0) {
+                return -1;
+            }
+            if (groupKeys[entry - 1].equals(key)) {
+                return entry - 1;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private int addSlot(Object key) {
+        int slot;
+        if (numFreeSlots > 0) {
+            slot = freeSlots[--numFreeSlots];
+        } else {
+            if (highWater == groupKeys.length) {
+                grow();
+            }
+            slot = highWater++;
+        }
+        groupKeys[slot] = key;
+        if (refcounts != null) {
+            refcounts[slot] = 1;
+        }
+
+        int mask = table.length - 1;
+        int index = hash(key) & mask;
+        while (table[index] != 0) {
+            index = (index + 1) & mask;
+        }
+        table[index] = slot + 1;
+        numGroups++;
+        return slot;
+    }
+
+    private void removeSlot(int slot) {
+        int mask = table.length - 1;
+        int index = hash(groupKeys[slot]) & mask;
+        while (table[index] != slot + 1) {
+            index = (index + 1) & mask;
+        }
+
+        // backward-shift deletion keeps probe sequences intact without tombstones
+        table[index] = 0;
+        int next = index;
+        while (true) {
+            next = (next + 1) & mask;
+            int entry = table[next];
+            if (entry == 0) {
+                break;
+            }
+            int home = hash(groupKeys[entry - 1]) & mask;
+            boolean movable = index <= next ? (home <= index || home > next) : (home <= index && home > next);
+            if (movable) {
+                table[index] = entry;
+                table[next] = 0;
+                index = next;
+            }
+        }
+
+        groupKeys[slot] = null;
+        for (int i = 0; i < kinds.length; i++) {
+            counts[i][slot] = 0;
+            if (longSums[i] != null) {
+                longSums[i][slot] = 0;
+            }
+            if (doubleSums[i] != null) {
+                doubleSums[i][slot] = 0;
+            }
+        }
+        freeSlots[numFreeSlots++] = slot;
+        numGroups--;
+        if (currentSlot == slot) {
+            currentSlot = -1;
+        }
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -14,6 +14,7 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorNullFlag;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.Collection;
@@ -31,6 +32,7 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped {
     // (row=groups, columns=expression nodes that have aggregation functions)
     private AggregationMethod[] currentAggregatorRow;
     private Object currentGroupKey;
+    private final ExprEvaluatorNullFlag nullFlag = new ExprEvaluatorNullFlag();
 
     /**
      * Ctor.
@@ -66,8 +68,7 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped {
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(true, i, groupAggregators[i], aggregators[i].getAggregationExpression());
             }
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            groupAggregators[i].enter(columnResult);
+            AggregatorUtil.enter(evaluators[i], groupAggregators[i], eventsPerStream, exprEvaluatorContext, nullFlag);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(true, i, groupAggregators[i]);
             }
@@ -95,8 +96,7 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped {
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(false, i, groupAggregators[i], aggregators[i].getAggregationExpression());
             }
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            groupAggregators[i].leave(columnResult);
+            AggregatorUtil.leave(evaluators[i], groupAggregators[i], eventsPerStream, exprEvaluatorContext, nullFlag);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(false, i, groupAggregators[i]);
             }
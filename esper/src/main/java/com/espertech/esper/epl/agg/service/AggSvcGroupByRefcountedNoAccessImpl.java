@@ -14,6 +14,7 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorNullFlag;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.*;
@@ -29,6 +30,7 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
     // (row=groups, columns=expression nodes that have aggregation functions)
     private AggregationMethod[] currentAggregatorRow;
     private Object currentGroupKey;
+    private final ExprEvaluatorNullFlag nullFlag = new ExprEvaluatorNullFlag();
 
     private List<Object> removedKeys;
 
@@ -75,8 +77,7 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(true, i, groupAggregators[i], aggregators[i].getAggregationExpression());
             }
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
-            groupAggregators[i].enter(columnResult);
+            AggregatorUtil.enter(evaluators[i], groupAggregators[i], eventsPerStream, exprEvaluatorContext, nullFlag);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(true, i, groupAggregators[i]);
             }
@@ -108,8 +109,7 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qAggNoAccessEnterLeave(false, i, groupAggregators[i], aggregators[i].getAggregationExpression());
             }
-            Object columnResult = evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext);
-            groupAggregators[i].leave(columnResult);
+            AggregatorUtil.leave(evaluators[i], groupAggregators[i], eventsPerStream, exprEvaluatorContext, nullFlag);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aAggNoAccessEnterLeave(false, i, groupAggregators[i]);
             }
@@ -189,11 +189,16 @@ public class AggregationServiceFactoryFactory {
 
         // Construct a list of evaluation node for the aggregation functions (regular agg).
         // For example "sum(2 * 3)" would make the sum an evaluation node.
+        // An aggregation that evaluates its single parameter expression uses the compiled expression when available.
         List<ExprEvaluator> methodAggEvaluatorsList = new ArrayList<ExprEvaluator>();
         for (AggregationServiceAggExpressionDesc aggregation : aggregations) {
             ExprAggregateNode aggregateNode = aggregation.getAggregationNode();
             if (!aggregateNode.getFactory().isAccessAggregation()) {
                 ExprEvaluator evaluator = aggregateNode.getFactory().getMethodAggregationEvaluator(typesPerStream.length > 1, typesPerStream);
+                ExprNode[] childNodes = aggregateNode.getChildNodes();
+                if (childNodes.length > 0 && evaluator == childNodes[0].getExprEvaluator()) {
+                    evaluator = engineImportService.codegenEvaluator(childNodes[0]);
+                }
                 methodAggEvaluatorsList.add(evaluator);
             }
         }
@@ -43,6 +43,10 @@ public class AggregationServiceFactoryServiceImpl implements AggregationServiceF
     }
 
     public AggregationServiceFactory getGroupedNoReclaimNoAccess(ExprNode[] groupByNodes, ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
+        int[] columnKinds = AggSvcGroupByColumnarFactory.getColumnKinds(aggregatorsArr);
+        if (columnKinds != null) {
+            return new AggSvcGroupByColumnarFactory(evaluatorsArr, aggregatorsArr, columnKinds, false);
+        }
         return new AggSvcGroupByNoAccessFactory(evaluatorsArr, aggregatorsArr);
     }
 
@@ -59,6 +63,10 @@ public class AggregationServiceFactoryServiceImpl implements AggregationServiceF
     }
 
     public AggregationServiceFactory getGroupReclaimNoAccess(ExprNode[] groupByNodes, ExprEvaluator[] evaluatorsArr, AggregationMethodFactory[] aggregatorsArr, AggregationAccessorSlotPair[] pairs, AggregationStateFactory[] accessAggregations, boolean join, boolean isUnidirectional, boolean isFireAndForget, boolean isOnSelect) {
+        int[] columnKinds = AggSvcGroupByColumnarFactory.getColumnKinds(aggregatorsArr);
+        if (columnKinds != null) {
+            return new AggSvcGroupByColumnarFactory(evaluatorsArr, aggregatorsArr, columnKinds, true);
+        }
         return new AggSvcGroupByRefcountedNoAccessFactory(evaluatorsArr, aggregatorsArr);
     }
 
@@ -10,9 +10,60 @@
  */
 package com.espertech.esper.epl.agg.service;
 
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethodDouble;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorNullFlag;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorPrimitive;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
 public class AggregatorUtil {
     public static boolean checkFilter(Object[] object) {
         Boolean pass = (Boolean) object[1];
         return pass != null && pass;
     }
+
+    /**
+     * Evaluates the value and applies it as entering the aggregation, without boxing the value when both
+     * the evaluator and the aggregation method are primitive-typed.
+     *
+     * @param evaluator            evaluator
+     * @param method               aggregation method
+     * @param eventsPerStream      events
+     * @param exprEvaluatorContext context
+     * @param nullFlag             null flag owned by the caller
+     */
+    public static void enter(ExprEvaluator evaluator, AggregationMethod method, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext, ExprEvaluatorNullFlag nullFlag) {
+        if (method instanceof AggregationMethodDouble && evaluator instanceof ExprEvaluatorPrimitive && !InstrumentationHelper.ENABLED) {
+            double value = ((ExprEvaluatorPrimitive) evaluator).evaluateDouble(eventsPerStream, true, exprEvaluatorContext, nullFlag);
+            if (!nullFlag.isNull()) {
+                ((AggregationMethodDouble) method).enterDouble(value);
+            }
+            return;
+        }
+        method.enter(evaluator.evaluate(eventsPerStream, true, exprEvaluatorContext));
+    }
+
+    /**
+     * Evaluates the value and applies it as leaving the aggregation, without boxing the value when both
+     * the evaluator and the aggregation method are primitive-typed.
+     *
+     * @param evaluator            evaluator
+     * @param method               aggregation method
+     * @param eventsPerStream      events
+     * @param exprEvaluatorContext context
+     * @param nullFlag             null flag owned by the caller
+     */
+    public static void leave(ExprEvaluator evaluator, AggregationMethod method, EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext, ExprEvaluatorNullFlag nullFlag) {
+        if (method instanceof AggregationMethodDouble && evaluator instanceof ExprEvaluatorPrimitive && !InstrumentationHelper.ENABLED) {
+            double value = ((ExprEvaluatorPrimitive) evaluator).evaluateDouble(eventsPerStream, false, exprEvaluatorContext, nullFlag);
+            if (!nullFlag.isNull()) {
+                ((AggregationMethodDouble) method).leaveDouble(value);
+            }
+            return;
+        }
+        method.leave(evaluator.evaluate(eventsPerStream, false, exprEvaluatorContext));
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.approx;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog sketch for estimating the number of distinct values using bounded memory.
+ * <p>
+ * Up to a small number of distinct values the sketch keeps the 64-bit hashes of the values and counts exactly.
+ * Thereafter it keeps 4096 registers of the maximum rank seen, for a standard error of about 1.6 percent,
+ * and applies linear counting for small estimates.
+ */
+public class HyperLogLogState {
+    private final static int PRECISION = 12;
+    private final static int NUM_REGISTERS = 1 << PRECISION;
+    private final static int SPARSE_MAX = 256;
+    private final static double ALPHA = 0.7213 / (1 + 1.079 / NUM_REGISTERS);
+
+    private long[] sparse = new long[8];
+    private int sparseCount;
+    private byte[] registers;
+
+    /**
+     * Add a value.
+     *
+     * @param value to add, ignored when null
+     */
+    public void add(Object value) {
+        if (value == null) {
+            return;
+        }
+        long hash = hash(value);
+        if (registers != null) {
+            addDense(hash);
+            return;
+        }
+        int pos = Arrays.binarySearch(sparse, 0, sparseCount, hash);
+        if (pos >= 0) {
+            return;
+        }
+        if (sparseCount == SPARSE_MAX) {
+            registers = new byte[NUM_REGISTERS];
+            for (int i = 0; i < sparseCount; i++) {
+                addDense(sparse[i]);
+            }
+            sparse = null;
+            sparseCount = 0;
+            addDense(hash);
+            return;
+        }
+        pos = -(pos + 1);
+        if (sparseCount == sparse.length) {
+            sparse = Arrays.copyOf(sparse, Math.min(sparse.length * 2, SPARSE_MAX));
+        }
+        System.arraycopy(sparse, pos, sparse, pos + 1, sparseCount - pos);
+        sparse[pos] = hash;
+        sparseCount++;
+    }
+
+    /**
+     * Returns the estimated number of distinct values.
+     *
+     * @return estimate
+     */
+    public long estimate() {
+        if (registers == null) {
+            return sparseCount;
+        }
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1d, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * NUM_REGISTERS * NUM_REGISTERS / sum;
+        if (estimate <= 2.5 * NUM_REGISTERS && zeros > 0) {
+            estimate = NUM_REGISTERS * Math.log((double) NUM_REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public void clear() {
+        sparse = new long[8];
+        sparseCount = 0;
+        registers = null;
+    }
+
+    /**
+     * Returns a 64-bit hash of a value that is the same for values that are equal, with numbers of the same
+     * integral or floating-point value hashing the same. Strings are hashed over all their characters so that
+     * their hashes do not collide as often as their 32-bit hash codes.
+     *
+     * @param value value
+     * @return hash
+     */
+    public static long hash(Object value) {
+        long bits;
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            bits = ((Number) value).longValue();
+        } else if (value instanceof Double || value instanceof Float) {
+            bits = Double.doubleToLongBits(((Number) value).doubleValue());
+        } else if (value instanceof String) {
+            bits = hashString((String) value);
+        } else {
+            bits = value.hashCode();
+        }
+        // finalizer of the SplitMix64 generator, spreads the bits of the input over the hash
+        long z = bits + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long hashString(String value) {
+        // 64-bit FNV-1a over the characters
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private void addDense(long hash) {
+        int index = (int) (hash >>> (64 - PRECISION));
+        // the marker bit bounds the rank when the remaining bits are all zero
+        long remaining = (hash << PRECISION) | (1L << (PRECISION - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+}
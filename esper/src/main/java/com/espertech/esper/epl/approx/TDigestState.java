@@ -0,0 +1,185 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.approx;
+
+import java.util.Arrays;
+
+/**
+ * Merging t-digest for estimating percentiles of double values using bounded memory.
+ * <p>
+ * Values are collected in a buffer. When the buffer is full it is sorted and merged with the existing centroids,
+ * each centroid being a mean and a weight. Neighbouring centroids are combined as long as their combined weight
+ * stays within a bound that is tight near the tails of the distribution and loose near the median,
+ * so that extreme percentiles are estimated more precisely. The number of centroids is bounded by the compression.
+ */
+public class TDigestState {
+    private final static double COMPRESSION = 100;
+    private final static int BUFFER_SIZE = 200;
+    private final static int MAX_CENTROIDS = (int) (2 * COMPRESSION) + 10;
+
+    private double[] means = new double[MAX_CENTROIDS];
+    private double[] weights = new double[MAX_CENTROIDS];
+    private double[] mergedMeans = new double[MAX_CENTROIDS];
+    private double[] mergedWeights = new double[MAX_CENTROIDS];
+    private int numCentroids;
+    private final double[] buffer = new double[BUFFER_SIZE];
+    private int bufferCount;
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Add a value.
+     *
+     * @param value to add, ignored when NaN
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (bufferCount == BUFFER_SIZE) {
+            merge();
+        }
+        buffer[bufferCount++] = value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Returns the estimated value at the percentile.
+     * <p>
+     * Does not change the digest, so that readers that do not exclude each other may call it concurrently.
+     *
+     * @param percentile between zero and one
+     * @return estimated value or null if no values were added
+     */
+    public Double quantile(double percentile) {
+        if (bufferCount == 0) {
+            return quantile(percentile, means, weights, numCentroids, totalWeight, min, max);
+        }
+
+        // buffered values are merged into a copy of the centroids
+        double[] sorted = Arrays.copyOf(buffer, bufferCount);
+        Arrays.sort(sorted);
+        double[] copyMeans = new double[MAX_CENTROIDS];
+        double[] copyWeights = new double[MAX_CENTROIDS];
+        double copyTotalWeight = totalWeight + bufferCount;
+        int copyNumCentroids = merge(means, weights, numCentroids, sorted, bufferCount, copyTotalWeight, copyMeans, copyWeights);
+        return quantile(percentile, copyMeans, copyWeights, copyNumCentroids, copyTotalWeight, min, max);
+    }
+
+    public void clear() {
+        numCentroids = 0;
+        bufferCount = 0;
+        totalWeight = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Returns the number of centroids after merging any buffered values, for testing.
+     *
+     * @return centroid count
+     */
+    protected int getNumCentroids() {
+        if (bufferCount > 0) {
+            merge();
+        }
+        return numCentroids;
+    }
+
+    private void merge() {
+        Arrays.sort(buffer, 0, bufferCount);
+        totalWeight += bufferCount;
+        int numMerged = merge(means, weights, numCentroids, buffer, bufferCount, totalWeight, mergedMeans, mergedWeights);
+
+        double[] swap = means;
+        means = mergedMeans;
+        mergedMeans = swap;
+        swap = weights;
+        weights = mergedWeights;
+        mergedWeights = swap;
+        numCentroids = numMerged;
+        bufferCount = 0;
+    }
+
+    private static int merge(double[] means, double[] weights, int numCentroids, double[] sorted, int sortedCount, double totalWeight, double[] mergedMeans, double[] mergedWeights) {
+        int numMerged = 0;
+        double weightSoFar = 0;
+        double limit = 0;
+        int centroid = 0;
+        int buffered = 0;
+        while (centroid < numCentroids || buffered < sortedCount) {
+            double mean;
+            double weight;
+            if (buffered == sortedCount || (centroid < numCentroids && means[centroid] <= sorted[buffered])) {
+                mean = means[centroid];
+                weight = weights[centroid];
+                centroid++;
+            } else {
+                mean = sorted[buffered];
+                weight = 1;
+                buffered++;
+            }
+
+            // the centroid bound is not expected to be reached, combine with the last centroid if it is
+            if (numMerged > 0 && (weightSoFar + weight <= limit || numMerged == MAX_CENTROIDS)) {
+                int last = numMerged - 1;
+                mergedWeights[last] += weight;
+                mergedMeans[last] += (mean - mergedMeans[last]) * weight / mergedWeights[last];
+            } else {
+                limit = weightSoFar + weightLimit(weightSoFar / totalWeight, totalWeight);
+                mergedMeans[numMerged] = mean;
+                mergedWeights[numMerged] = weight;
+                numMerged++;
+            }
+            weightSoFar += weight;
+        }
+        return numMerged;
+    }
+
+    private static Double quantile(double percentile, double[] means, double[] weights, int numCentroids, double totalWeight, double min, double max) {
+        if (numCentroids == 0) {
+            return null;
+        }
+        if (numCentroids == 1) {
+            return means[0];
+        }
+
+        // each centroid stands for the values around its center, interpolate between the centers
+        double index = percentile * totalWeight;
+        if (index < weights[0] / 2) {
+            return interpolate(min, means[0], index / (weights[0] / 2));
+        }
+        double weightSoFar = 0;
+        for (int i = 0; i < numCentroids - 1; i++) {
+            double center = weightSoFar + weights[i] / 2;
+            double nextCenter = weightSoFar + weights[i] + weights[i + 1] / 2;
+            if (index <= nextCenter) {
+                return interpolate(means[i], means[i + 1], (index - center) / (nextCenter - center));
+            }
+            weightSoFar += weights[i];
+        }
+        double lastCenter = totalWeight - weights[numCentroids - 1] / 2;
+        return interpolate(means[numCentroids - 1], max, (index - lastCenter) / (totalWeight - lastCenter));
+    }
+
+    private static double weightLimit(double quantile, double totalWeight) {
+        // the weight a centroid starting at the quantile may reach, for a unit step of the arcsine scale function
+        double scale = Math.asin(2 * Math.min(quantile, 1d) - 1) + 2 * Math.PI / COMPRESSION;
+        double upper = scale >= Math.PI / 2 ? 1d : (Math.sin(scale) + 1) / 2;
+        return Math.max(1d, (upper - quantile) * totalWeight);
+    }
+
+    private static double interpolate(double from, double to, double fraction) {
+        return from + (to - from) * Math.max(0d, Math.min(1d, fraction));
+    }
+}
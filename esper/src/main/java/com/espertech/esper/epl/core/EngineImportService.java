@@ -15,6 +15,7 @@ import com.espertech.esper.client.hook.AggregationFunctionFactory;
 import com.espertech.esper.client.util.ClassForNameProvider;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.epl.agg.factory.AggregationFactoryFactory;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.expression.time.TimeAbacus;
 import com.espertech.esper.epl.index.service.AdvancedIndexFactoryProvider;
@@ -229,4 +230,15 @@ public interface EngineImportService {
     public boolean isCodegenEventPropertyGetters();
 
     EventPropertyGetter codegenGetter(EventPropertyGetterSPI getterSPI, String propertyExpression);
+
+    public boolean isCodegenExprEvaluators();
+
+    /**
+     * Returns the evaluator for a validated expression, compiled into a class when code generation
+     * for expressions is enabled and the expression supports it, or the expression's own evaluator otherwise.
+     *
+     * @param node validated expression
+     * @return evaluator
+     */
+    ExprEvaluator codegenEvaluator(ExprNode node);
 }
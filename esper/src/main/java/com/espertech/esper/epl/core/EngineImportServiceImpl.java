@@ -16,6 +16,8 @@ import com.espertech.esper.client.hook.AggregationFunctionFactory;
 import com.espertech.esper.client.util.ClassForNameProvider;
 import com.espertech.esper.client.util.ClassLoaderProvider;
 import com.espertech.esper.codegen.compile.CodegenEventPropertyGetter;
+import com.espertech.esper.codegen.compile.CodegenExprEvaluator;
+import com.espertech.esper.codegen.compile.CodegenExprNode;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.epl.agg.access.AggregationStateType;
 import com.espertech.esper.epl.agg.factory.AggregationFactoryFactory;
@@ -24,7 +26,9 @@ import com.espertech.esper.epl.expression.accessagg.ExprAggCountMinSketchNode;
 import com.espertech.esper.epl.expression.accessagg.ExprAggMultiFunctionLinearAccessNode;
 import com.espertech.esper.epl.expression.accessagg.ExprAggMultiFunctionSortedMinMaxByNode;
 import com.espertech.esper.epl.expression.core.ExprCurrentEvaluationContextNode;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.epl.expression.methodagg.*;
 import com.espertech.esper.epl.expression.time.TimeAbacus;
 import com.espertech.esper.epl.index.quadtree.AdvancedIndexFactoryProviderMXCIFQuadTree;
@@ -32,6 +36,7 @@ import com.espertech.esper.epl.index.quadtree.AdvancedIndexFactoryProviderPointR
 import com.espertech.esper.epl.index.service.AdvancedIndexFactoryProvider;
 import com.espertech.esper.event.EventPropertyGetterSPI;
 import com.espertech.esper.type.MinMaxTypeEnum;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.util.JavaClassHelper;
 import com.espertech.esper.util.MethodResolver;
 import com.espertech.esper.util.TransientConfigurationResolver;
@@ -68,9 +73,10 @@ public class EngineImportServiceImpl implements EngineImportService, ClassLoader
     private final AggregationFactoryFactory aggregationFactoryFactory;
     private final LinkedHashMap<String, AdvancedIndexFactoryProvider> advancedIndexProviders = new LinkedHashMap<>(8);
     private final boolean isCodegenEventPropertyGetters;
+    private final boolean isCodegenExprEvaluators;
     private final String engineURI;
 
-    public EngineImportServiceImpl(boolean allowExtendedAggregationFunc, boolean isUdfCache, boolean isDuckType, boolean sortUsingCollator, MathContext optionalDefaultMathContext, TimeZone timeZone, TimeAbacus timeAbacus, ConfigurationEngineDefaults.ThreadingProfile threadingProfile, Map<String, Object> transientConfiguration, AggregationFactoryFactory aggregationFactoryFactory, boolean isCodegenEventPropertyGetters, String engineURI) {
+    public EngineImportServiceImpl(boolean allowExtendedAggregationFunc, boolean isUdfCache, boolean isDuckType, boolean sortUsingCollator, MathContext optionalDefaultMathContext, TimeZone timeZone, TimeAbacus timeAbacus, ConfigurationEngineDefaults.ThreadingProfile threadingProfile, Map<String, Object> transientConfiguration, AggregationFactoryFactory aggregationFactoryFactory, boolean isCodegenEventPropertyGetters, boolean isCodegenExprEvaluators, String engineURI) {
         imports = new ArrayList<String>();
         annotationImports = new ArrayList<String>(2);
         aggregationFunctions = new HashMap<String, ConfigurationPlugInAggregationFunction>();
@@ -90,6 +96,7 @@ public class EngineImportServiceImpl implements EngineImportService, ClassLoader
         this.advancedIndexProviders.put("pointregionquadtree", new AdvancedIndexFactoryProviderPointRegionQuadTree());
         this.advancedIndexProviders.put("mxcifquadtree", new AdvancedIndexFactoryProviderMXCIFQuadTree());
         this.isCodegenEventPropertyGetters = isCodegenEventPropertyGetters;
+        this.isCodegenExprEvaluators = isCodegenExprEvaluators;
         this.engineURI = engineURI;
     }
 
@@ -454,6 +461,12 @@ public class EngineImportServiceImpl implements EngineImportService, ClassLoader
         if (nameLowerCase.equals("leaving")) {
             return new ExprLeavingAggNode(isDistinct);
         }
+        if (nameLowerCase.equals("approxcountdistinct")) {
+            return new ExprApproxCountDistinctNode(isDistinct);
+        }
+        if (nameLowerCase.equals("approxpercentile")) {
+            return new ExprApproxPercentileNode(isDistinct);
+        }
         if (nameLowerCase.equals("maxby")) {
             return new ExprAggMultiFunctionSortedMinMaxByNode(true, false, false);
         }
@@ -516,6 +529,23 @@ public class EngineImportServiceImpl implements EngineImportService, ClassLoader
         return CodegenEventPropertyGetter.compile(engineURI, this, getterSPI, propertyExpression);
     }
 
+    public boolean isCodegenExprEvaluators() {
+        return isCodegenExprEvaluators;
+    }
+
+    public ExprEvaluator codegenEvaluator(ExprNode node) {
+        if (!isCodegenExprEvaluators || InstrumentationHelper.ENABLED || !CodegenExprNode.isCompilableRoot(node)) {
+            return node.getExprEvaluator();
+        }
+        String expressionText = ExprNodeUtility.toExpressionStringMinPrecedenceSafe(node);
+        try {
+            return CodegenExprEvaluator.compile(engineURI, this, node, expressionText);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to compile expression '" + expressionText + "', using interpreted evaluation: " + ex.getMessage(), ex);
+            return node.getExprEvaluator();
+        }
+    }
+
     /**
      * For testing, returns imports.
      *
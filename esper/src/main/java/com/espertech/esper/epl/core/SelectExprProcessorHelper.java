@@ -193,7 +193,7 @@ public class SelectExprProcessorHelper {
         for (int i = 0; i < selectionList.size(); i++) {
             SelectClauseExprCompiledSpec spec = selectionList.get(i);
             ExprNode expr = spec.getSelectExpression();
-            ExprEvaluator evaluator = expr.getExprEvaluator();
+            ExprEvaluator evaluator = engineImportService.codegenEvaluator(expr);
             exprNodes[i] = expr;
 
             // if there is insert-into specification, use that
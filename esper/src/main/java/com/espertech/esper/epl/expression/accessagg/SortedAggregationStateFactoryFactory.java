@@ -12,6 +12,7 @@ package com.espertech.esper.epl.expression.accessagg;
 
 import com.espertech.esper.core.service.StatementExtensionSvcContext;
 import com.espertech.esper.epl.agg.access.AggregationStateMinMaxByEverSpec;
+import com.espertech.esper.epl.agg.access.AggregationStateSortedPrimitiveKey;
 import com.espertech.esper.epl.agg.access.AggregationStateSortedSpec;
 import com.espertech.esper.epl.agg.service.AggregationStateFactory;
 import com.espertech.esper.epl.core.EngineImportService;
@@ -51,7 +52,8 @@ public class SortedAggregationStateFactoryFactory {
             return engineImportService.getAggregationFactoryFactory().makeMinMaxEver(statementExtensionSvcContext, parent, spec);
         }
 
-        AggregationStateSortedSpec spec = new AggregationStateSortedSpec(streamNum, evaluators, comparator, null, optionalFilter);
+        AggregationStateSortedPrimitiveKey primitiveKey = AggregationStateSortedPrimitiveKey.make(evaluators, sortDescending);
+        AggregationStateSortedSpec spec = new AggregationStateSortedSpec(streamNum, evaluators, comparator, null, optionalFilter, primitiveKey);
         return engineImportService.getAggregationFactoryFactory().makeSorted(statementExtensionSvcContext, parent, spec);
     }
 }
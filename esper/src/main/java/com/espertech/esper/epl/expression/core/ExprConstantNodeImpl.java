@@ -18,7 +18,7 @@ import java.io.StringWriter;
 /**
  * Represents a constant in an expressiun tree.
  */
-public class ExprConstantNodeImpl extends ExprNodeBase implements ExprConstantNode, ExprEvaluator {
+public class ExprConstantNodeImpl extends ExprNodeBase implements ExprConstantNode, ExprEvaluatorPrimitive {
     private Object value;
     private final Class clazz;
     private static final long serialVersionUID = 3154169410675962539L;
@@ -107,6 +107,18 @@ public class ExprConstantNodeImpl extends ExprNodeBase implements ExprConstantNo
         return value;
     }
 
+    public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag) {
+        return ExprEvaluatorPrimitiveUtil.unboxDouble(value, nullFlag);
+    }
+
+    public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag) {
+        return ExprEvaluatorPrimitiveUtil.unboxLong(value, nullFlag);
+    }
+
+    public boolean evaluateBoolean(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag) {
+        return ExprEvaluatorPrimitiveUtil.unboxBoolean(value, nullFlag);
+    }
+
     public ExprEvaluator getExprEvaluator() {
         return this;
     }
@@ -0,0 +1,29 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression.core;
+
+/**
+ * Holds the indicator whether the result of a primitive-typed evaluation is null.
+ * <p>
+ * The holder is owned by the caller and is not thread-safe.
+ * </p>
+ */
+public class ExprEvaluatorNullFlag {
+    private boolean isNull;
+
+    public boolean isNull() {
+        return isNull;
+    }
+
+    public void setNull(boolean isNull) {
+        this.isNull = isNull;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression.core;
+
+import com.espertech.esper.client.EventBean;
+
+/**
+ * Optional interface for evaluators that can return primitive-typed results without boxing.
+ * <p>
+ * Each method sets the null flag that is provided by the caller, indicating whether the result is null.
+ * The returned value is not meaningful when the result is null.
+ * The results are the same as unboxing the result of
+ * {@link ExprEvaluator#evaluate(com.espertech.esper.client.EventBean[], boolean, ExprEvaluatorContext)},
+ * therefore {@link #evaluateDouble} and {@link #evaluateLong} apply to numeric evaluators and
+ * {@link #evaluateBoolean} applies to boolean evaluators.
+ * </p>
+ * <p>
+ * Primitive-typed evaluation does not report instrumentation, callers use the object-returning evaluation when
+ * instrumentation is enabled.
+ * </p>
+ */
+public interface ExprEvaluatorPrimitive extends ExprEvaluator {
+    public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag);
+
+    public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag);
+
+    public boolean evaluateBoolean(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag);
+}
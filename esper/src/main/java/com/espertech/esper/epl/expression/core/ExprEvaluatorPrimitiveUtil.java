@@ -0,0 +1,67 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression.core;
+
+import com.espertech.esper.client.EventBean;
+
+/**
+ * Primitive-typed evaluation of any evaluator, using {@link ExprEvaluatorPrimitive} when the evaluator
+ * implements it and unboxing the result of the evaluator otherwise.
+ */
+public class ExprEvaluatorPrimitiveUtil {
+    public static double evaluateDouble(ExprEvaluator evaluator, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag) {
+        if (evaluator instanceof ExprEvaluatorPrimitive) {
+            return ((ExprEvaluatorPrimitive) evaluator).evaluateDouble(eventsPerStream, isNewData, context, nullFlag);
+        }
+        return unboxDouble(evaluator.evaluate(eventsPerStream, isNewData, context), nullFlag);
+    }
+
+    public static long evaluateLong(ExprEvaluator evaluator, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag) {
+        if (evaluator instanceof ExprEvaluatorPrimitive) {
+            return ((ExprEvaluatorPrimitive) evaluator).evaluateLong(eventsPerStream, isNewData, context, nullFlag);
+        }
+        return unboxLong(evaluator.evaluate(eventsPerStream, isNewData, context), nullFlag);
+    }
+
+    public static boolean evaluateBoolean(ExprEvaluator evaluator, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag) {
+        if (evaluator instanceof ExprEvaluatorPrimitive) {
+            return ((ExprEvaluatorPrimitive) evaluator).evaluateBoolean(eventsPerStream, isNewData, context, nullFlag);
+        }
+        return unboxBoolean(evaluator.evaluate(eventsPerStream, isNewData, context), nullFlag);
+    }
+
+    public static double unboxDouble(Object value, ExprEvaluatorNullFlag nullFlag) {
+        if (value == null) {
+            nullFlag.setNull(true);
+            return 0;
+        }
+        nullFlag.setNull(false);
+        return ((Number) value).doubleValue();
+    }
+
+    public static long unboxLong(Object value, ExprEvaluatorNullFlag nullFlag) {
+        if (value == null) {
+            nullFlag.setNull(true);
+            return 0;
+        }
+        nullFlag.setNull(false);
+        return ((Number) value).longValue();
+    }
+
+    public static boolean unboxBoolean(Object value, ExprEvaluatorNullFlag nullFlag) {
+        if (value == null) {
+            nullFlag.setNull(true);
+            return false;
+        }
+        nullFlag.setNull(false);
+        return (Boolean) value;
+    }
+}
@@ -14,7 +14,7 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
-public class ExprIdentNodeEvaluatorImpl implements ExprIdentNodeEvaluator {
+public class ExprIdentNodeEvaluatorImpl implements ExprIdentNodeEvaluator, ExprEvaluatorPrimitive {
     private final int streamNum;
     private final EventPropertyGetter propertyGetter;
     private final Class propertyType;
@@ -47,6 +47,18 @@ public class ExprIdentNodeEvaluatorImpl implements ExprIdentNodeEvaluator {
         return propertyGetter.get(theEvent);
     }
 
+    public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag) {
+        return ExprEvaluatorPrimitiveUtil.unboxDouble(evaluate(eventsPerStream, isNewData, context), nullFlag);
+    }
+
+    public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag) {
+        return ExprEvaluatorPrimitiveUtil.unboxLong(evaluate(eventsPerStream, isNewData, context), nullFlag);
+    }
+
+    public boolean evaluateBoolean(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag) {
+        return ExprEvaluatorPrimitiveUtil.unboxBoolean(evaluate(eventsPerStream, isNewData, context), nullFlag);
+    }
+
     public Class getType() {
         return propertyType;
     }
@@ -0,0 +1,62 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression.methodagg;
+
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.ExprValidationContext;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+
+/**
+ * Represents the approxCountDistinct(...) aggregate function is an expression tree.
+ */
+public class ExprApproxCountDistinctNode extends ExprAggregateNodeBase {
+    private static final long serialVersionUID = -2376539845032473211L;
+
+    /**
+     * Ctor.
+     *
+     * @param distinct - flag indicating unique or non-unique value aggregation
+     */
+    public ExprApproxCountDistinctNode(boolean distinct) {
+        super(distinct);
+    }
+
+    public AggregationMethodFactory validateAggregationChild(ExprValidationContext validationContext) throws ExprValidationException {
+        if (positionalParams.length == 0 || positionalParams.length > 2) {
+            throw makeExceptionExpectedParamNum(1, 2);
+        }
+        if (super.isDistinct) {
+            throw new ExprValidationException("Aggregation function '" + getAggregationFunctionName() + "' does now allow distinct");
+        }
+        if (positionalParams.length == 2) {
+            super.validateFilter(positionalParams[1].getExprEvaluator());
+        }
+        return validationContext.getEngineImportService().getAggregationFactoryFactory().makeApproxCountDistinct(validationContext.getStatementExtensionSvcContext(), this, positionalParams[0].getExprEvaluator().getType());
+    }
+
+    public boolean hasFilter() {
+        return positionalParams.length == 2;
+    }
+
+    public String getAggregationFunctionName() {
+        return "approxCountDistinct";
+    }
+
+    public final boolean equalsNodeAggregateMethodOnly(ExprAggregateNode node) {
+        return node instanceof ExprApproxCountDistinctNode;
+    }
+
+    protected boolean isFilterExpressionAsLastParameter() {
+        return true;
+    }
+}
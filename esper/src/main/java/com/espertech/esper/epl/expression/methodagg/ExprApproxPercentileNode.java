@@ -0,0 +1,82 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.expression.methodagg;
+
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprValidationContext;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Represents the approxPercentile(...) aggregate function is an expression tree.
+ */
+public class ExprApproxPercentileNode extends ExprAggregateNodeBase {
+    private static final long serialVersionUID = 4427093012647750146L;
+
+    /**
+     * Ctor.
+     *
+     * @param distinct - flag indicating unique or non-unique value aggregation
+     */
+    public ExprApproxPercentileNode(boolean distinct) {
+        super(distinct);
+    }
+
+    public AggregationMethodFactory validateAggregationChild(ExprValidationContext validationContext) throws ExprValidationException {
+        String message = "The approxPercentile aggregation function requires two parameters, an expression returning numeric values and a constant percentile between zero and one";
+        if (positionalParams.length < 2 || positionalParams.length > 3) {
+            throw new ExprValidationException(message);
+        }
+        if (super.isDistinct) {
+            throw new ExprValidationException("Aggregation function '" + getAggregationFunctionName() + "' does now allow distinct");
+        }
+
+        Class childType = positionalParams[0].getExprEvaluator().getType();
+        if (!JavaClassHelper.isNumeric(childType)) {
+            throw new ExprValidationException("Implicit conversion from datatype '" +
+                    (childType == null ? "null" : childType.getSimpleName()) +
+                    "' to numeric is not allowed for aggregation function '" + getAggregationFunctionName() + "'");
+        }
+
+        ExprNode percentileNode = positionalParams[1];
+        if (!percentileNode.isConstantResult() || !JavaClassHelper.isNumeric(percentileNode.getExprEvaluator().getType())) {
+            throw new ExprValidationException(message);
+        }
+        Number percentile = (Number) percentileNode.getExprEvaluator().evaluate(null, true, validationContext.getExprEvaluatorContext());
+        if (percentile == null || percentile.doubleValue() < 0 || percentile.doubleValue() > 1) {
+            throw new ExprValidationException(message);
+        }
+
+        if (positionalParams.length == 3) {
+            super.validateFilter(positionalParams[2].getExprEvaluator());
+        }
+        return validationContext.getEngineImportService().getAggregationFactoryFactory().makeApproxPercentile(validationContext.getStatementExtensionSvcContext(), this, childType, percentile.doubleValue());
+    }
+
+    public boolean hasFilter() {
+        return positionalParams.length == 3;
+    }
+
+    public String getAggregationFunctionName() {
+        return "approxPercentile";
+    }
+
+    public final boolean equalsNodeAggregateMethodOnly(ExprAggregateNode node) {
+        return node instanceof ExprApproxPercentileNode;
+    }
+
+    protected boolean isFilterExpressionAsLastParameter() {
+        return true;
+    }
+}
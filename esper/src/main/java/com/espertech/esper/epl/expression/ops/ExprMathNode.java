@@ -22,7 +22,7 @@ import java.math.BigDecimal;
 /**
  * Represents a simple Math (+/-/divide/*) in a filter expression tree.
  */
-public class ExprMathNode extends ExprNodeBase implements ExprEvaluator {
+public class ExprMathNode extends ExprNodeBase implements ExprEvaluatorPrimitive {
     private final MathArithTypeEnum mathArithTypeEnum;
     private final boolean isIntegerDivision;
     private final boolean isDivisionByZeroReturnsNull;
@@ -131,6 +131,119 @@ public class ExprMathNode extends ExprNodeBase implements ExprEvaluator {
         return arithTypeEnumComputer.compute((Number) valueChildOne, (Number) valueChildTwo);
     }
 
+    public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag) {
+        if (resultType == Double.class) {
+            return computeDouble(eventsPerStream, isNewData, context, nullFlag);
+        }
+        if (resultType == Long.class) {
+            return computeLong(eventsPerStream, isNewData, context, nullFlag);
+        }
+        if (resultType == Integer.class) {
+            return computeInt(eventsPerStream, isNewData, context, nullFlag);
+        }
+        return ExprEvaluatorPrimitiveUtil.unboxDouble(evaluate(eventsPerStream, isNewData, context), nullFlag);
+    }
+
+    public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag) {
+        if (resultType == Long.class) {
+            return computeLong(eventsPerStream, isNewData, context, nullFlag);
+        }
+        if (resultType == Integer.class) {
+            return computeInt(eventsPerStream, isNewData, context, nullFlag);
+        }
+        if (resultType == Double.class) {
+            return (long) computeDouble(eventsPerStream, isNewData, context, nullFlag);
+        }
+        return ExprEvaluatorPrimitiveUtil.unboxLong(evaluate(eventsPerStream, isNewData, context), nullFlag);
+    }
+
+    public boolean evaluateBoolean(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag) {
+        return ExprEvaluatorPrimitiveUtil.unboxBoolean(evaluate(eventsPerStream, isNewData, context), nullFlag);
+    }
+
+    private double computeDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag) {
+        double left = ExprEvaluatorPrimitiveUtil.evaluateDouble(evaluatorLeft, eventsPerStream, isNewData, context, nullFlag);
+        if (nullFlag.isNull()) {
+            return 0;
+        }
+        double right = ExprEvaluatorPrimitiveUtil.evaluateDouble(evaluatorRight, eventsPerStream, isNewData, context, nullFlag);
+        if (nullFlag.isNull()) {
+            return 0;
+        }
+        switch (mathArithTypeEnum) {
+            case ADD:
+                return left + right;
+            case SUBTRACT:
+                return left - right;
+            case MULTIPLY:
+                return left * right;
+            case DIVIDE:
+                if (isDivisionByZeroReturnsNull && right == 0) {
+                    nullFlag.setNull(true);
+                    return 0;
+                }
+                return left / right;
+            default:
+                return left % right;
+        }
+    }
+
+    private long computeLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag) {
+        long left = ExprEvaluatorPrimitiveUtil.evaluateLong(evaluatorLeft, eventsPerStream, isNewData, context, nullFlag);
+        if (nullFlag.isNull()) {
+            return 0;
+        }
+        long right = ExprEvaluatorPrimitiveUtil.evaluateLong(evaluatorRight, eventsPerStream, isNewData, context, nullFlag);
+        if (nullFlag.isNull()) {
+            return 0;
+        }
+        switch (mathArithTypeEnum) {
+            case ADD:
+                return left + right;
+            case SUBTRACT:
+                return left - right;
+            case MULTIPLY:
+                return left * right;
+            case DIVIDE:
+                // integer division, division by zero returns null
+                if (right == 0) {
+                    nullFlag.setNull(true);
+                    return 0;
+                }
+                return left / right;
+            default:
+                return left % right;
+        }
+    }
+
+    private int computeInt(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag) {
+        int left = (int) ExprEvaluatorPrimitiveUtil.evaluateLong(evaluatorLeft, eventsPerStream, isNewData, context, nullFlag);
+        if (nullFlag.isNull()) {
+            return 0;
+        }
+        int right = (int) ExprEvaluatorPrimitiveUtil.evaluateLong(evaluatorRight, eventsPerStream, isNewData, context, nullFlag);
+        if (nullFlag.isNull()) {
+            return 0;
+        }
+        switch (mathArithTypeEnum) {
+            case ADD:
+                return left + right;
+            case SUBTRACT:
+                return left - right;
+            case MULTIPLY:
+                return left * right;
+            case DIVIDE:
+                // integer division, division by zero returns null
+                if (right == 0) {
+                    nullFlag.setNull(true);
+                    return 0;
+                }
+                return left / right;
+            default:
+                return left % right;
+        }
+    }
+
     public void toPrecedenceFreeEPL(StringWriter writer) {
         this.getChildNodes()[0].toEPL(writer, getPrecedence());
         writer.append(mathArithTypeEnum.getExpressionText());
@@ -169,4 +282,13 @@ public class ExprMathNode extends ExprNodeBase implements ExprEvaluator {
     public MathArithTypeEnum getMathArithTypeEnum() {
         return mathArithTypeEnum;
     }
+
+    /**
+     * Returns indicator whether division-by-zero returns null.
+     *
+     * @return true for null, false for infinity
+     */
+    public boolean isDivisionByZeroReturnsNull() {
+        return isDivisionByZeroReturnsNull;
+    }
 }
@@ -21,10 +21,11 @@ import java.io.StringWriter;
 /**
  * Represents a lesser or greater then (&lt;/&lt;=/&gt;/&gt;=) expression in a filter expression tree.
  */
-public class ExprRelationalOpNodeImpl extends ExprNodeBase implements ExprEvaluator, ExprRelationalOpNode {
+public class ExprRelationalOpNodeImpl extends ExprNodeBase implements ExprEvaluatorPrimitive, ExprRelationalOpNode {
     private final RelationalOpEnum relationalOpEnum;
     private transient RelationalOpEnum.Computer computer;
     private transient ExprEvaluator[] evaluators;
+    private transient Class primitiveCompareType;
     private static final long serialVersionUID = -6170161542681634598L;
 
     /**
@@ -80,6 +81,13 @@ public class ExprRelationalOpNodeImpl extends ExprNodeBase implements ExprEvalua
         Class compareType = JavaClassHelper.getCompareToCoercionType(typeOne, typeTwo);
 
         computer = relationalOpEnum.getComputer(compareType, typeOne, typeTwo);
+        if (compareType == Double.class) {
+            primitiveCompareType = double.class;
+        } else if (compareType == Long.class || compareType == Integer.class || compareType == Short.class || compareType == Byte.class) {
+            primitiveCompareType = long.class;
+        } else {
+            primitiveCompareType = null;
+        }
         return null;
     }
 
@@ -115,6 +123,58 @@ public class ExprRelationalOpNodeImpl extends ExprNodeBase implements ExprEvalua
         return computer.compare(valueLeft, valueRight);
     }
 
+    public boolean evaluateBoolean(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag) {
+        if (primitiveCompareType == double.class) {
+            double left = ExprEvaluatorPrimitiveUtil.evaluateDouble(evaluators[0], eventsPerStream, isNewData, context, nullFlag);
+            if (nullFlag.isNull()) {
+                return false;
+            }
+            double right = ExprEvaluatorPrimitiveUtil.evaluateDouble(evaluators[1], eventsPerStream, isNewData, context, nullFlag);
+            if (nullFlag.isNull()) {
+                return false;
+            }
+            switch (relationalOpEnum) {
+                case GT:
+                    return left > right;
+                case GE:
+                    return left >= right;
+                case LT:
+                    return left < right;
+                default:
+                    return left <= right;
+            }
+        }
+        if (primitiveCompareType == long.class) {
+            long left = ExprEvaluatorPrimitiveUtil.evaluateLong(evaluators[0], eventsPerStream, isNewData, context, nullFlag);
+            if (nullFlag.isNull()) {
+                return false;
+            }
+            long right = ExprEvaluatorPrimitiveUtil.evaluateLong(evaluators[1], eventsPerStream, isNewData, context, nullFlag);
+            if (nullFlag.isNull()) {
+                return false;
+            }
+            switch (relationalOpEnum) {
+                case GT:
+                    return left > right;
+                case GE:
+                    return left >= right;
+                case LT:
+                    return left < right;
+                default:
+                    return left <= right;
+            }
+        }
+        return ExprEvaluatorPrimitiveUtil.unboxBoolean(evaluate(eventsPerStream, isNewData, context), nullFlag);
+    }
+
+    public double evaluateDouble(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag) {
+        return ExprEvaluatorPrimitiveUtil.unboxDouble(evaluate(eventsPerStream, isNewData, context), nullFlag);
+    }
+
+    public long evaluateLong(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context, ExprEvaluatorNullFlag nullFlag) {
+        return ExprEvaluatorPrimitiveUtil.unboxLong(evaluate(eventsPerStream, isNewData, context), nullFlag);
+    }
+
     public void toPrecedenceFreeEPL(StringWriter writer) {
         this.getChildNodes()[0].toEPL(writer, getPrecedence());
         writer.append(relationalOpEnum.getExpressionText());
@@ -45,6 +45,18 @@ import java.lang.annotation.Annotation;
 import java.util.*;
 
 public class FireAndForgetQueryExec {
+    /**
+     * Returns indicator whether the query graph provides any keys or ranges for use with an index lookup,
+     * when false the snapshot is a full scan.
+     *
+     * @param queryGraph query graph or null
+     * @return indicator
+     */
+    public static boolean isIndexLookupCandidate(QueryGraph queryGraph) {
+        QueryGraphValue queryGraphValue = queryGraph == null ? null : queryGraph.getGraphValue(QueryGraph.SELF_STREAM, 0);
+        return queryGraphValue != null && !queryGraphValue.getItems().isEmpty();
+    }
+
     public static Collection<EventBean> snapshot(QueryGraph queryGraph,
                                                  Annotation[] annotations,
                                                  VirtualDWView virtualDataWindow,
@@ -54,8 +66,7 @@ public class FireAndForgetQueryExec {
                                                  String objectName,
                                                  AgentInstanceContext agentInstanceContext) {
 
-        QueryGraphValue queryGraphValue = queryGraph == null ? null : queryGraph.getGraphValue(QueryGraph.SELF_STREAM, 0);
-        if (queryGraphValue == null || queryGraphValue.getItems().isEmpty()) {
+        if (!isIndexLookupCandidate(queryGraph)) {
             if (virtualDataWindow != null) {
                 Pair<IndexMultiKey, EventTable> pair = virtualDataWindow.getFireAndForgetDesc(Collections.<String>emptySet(), Collections.<String>emptySet());
                 return virtualDataWindow.getFireAndForgetData(pair.getSecond(), new Object[0], new RangeIndexLookupValue[0], annotations);
@@ -63,6 +74,8 @@ public class FireAndForgetQueryExec {
             return null;
         }
 
+        QueryGraphValue queryGraphValue = queryGraph.getGraphValue(QueryGraph.SELF_STREAM, 0);
+
         // determine custom index
         NullableObject<Collection<EventBean>> customResult = snapshotCustomIndex(queryGraphValue, indexRepository, annotations, agentInstanceContext, queryPlanLogging, queryPlanLogDestination, objectName);
         if (customResult != null) {
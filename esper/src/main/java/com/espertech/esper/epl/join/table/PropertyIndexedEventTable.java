@@ -12,17 +12,15 @@ package com.espertech.esper.epl.join.table;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
-import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
-import com.espertech.esper.event.EventBeanUtility;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.Arrays;
 import java.util.Set;
 
 /**
- * Index that organizes events by the event property values into hash buckets. Based on a HashMap
- * with {@link com.espertech.esper.collection.MultiKeyUntyped} keys that store the property values.
+ * Index that organizes events by the event property values into hash buckets. Based on a
+ * {@link com.espertech.esper.collection.MultiKeyUntypedHashMap} with keys that store the property values.
  * <p>
  * Takes a list of property names as parameter. Doesn't care which event type the events have as long as the properties
  * exist. If the same event is added twice, the class throws an exception on add.
@@ -39,13 +37,15 @@ public abstract class PropertyIndexedEventTable implements EventTable {
     }
 
     /**
-     * Determine multikey for index access.
+     * Read the key values of the event into the buffer provided, for probing the index without allocating a key.
      *
      * @param theEvent to get properties from for key
-     * @return multi key
+     * @param values buffer to populate
      */
-    protected MultiKeyUntyped getMultiKey(EventBean theEvent) {
-        return EventBeanUtility.getMultiKey(theEvent, propertyGetters);
+    protected void readKeyValues(EventBean theEvent, Object[] values) {
+        for (int i = 0; i < propertyGetters.length; i++) {
+            values[i] = propertyGetters[i].get(theEvent);
+        }
     }
 
     public void addRemove(EventBean[] newData, EventBean[] oldData, ExprEvaluatorContext exprEvaluatorContext) {
@@ -12,7 +12,6 @@ package com.espertech.esper.epl.join.table;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
-import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.util.SimpleNumberCoercer;
 
 /**
@@ -35,8 +34,7 @@ public class PropertyIndexedEventTableCoerceAdd extends PropertyIndexedEventTabl
     }
 
     @Override
-    protected MultiKeyUntyped getMultiKey(EventBean theEvent) {
-        Object[] keyValues = new Object[propertyGetters.length];
+    protected void readKeyValues(EventBean theEvent, Object[] values) {
         for (int i = 0; i < propertyGetters.length; i++) {
             Object value = propertyGetters[i].get(theEvent);
             if ((value != null) && (!value.getClass().equals(coercionTypes[i]))) {
@@ -44,8 +42,7 @@ public class PropertyIndexedEventTableCoerceAdd extends PropertyIndexedEventTabl
                     value = coercers[i].coerceBoxed((Number) value);
                 }
             }
-            keyValues[i] = value;
+            values[i] = value;
         }
-        return new MultiKeyUntyped(keyValues);
     }
 }
@@ -12,7 +12,6 @@ package com.espertech.esper.epl.join.table;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
-import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.util.JavaClassHelper;
 import com.espertech.esper.util.SimpleNumberCoercer;
 
@@ -49,8 +48,7 @@ public class PropertyIndexedEventTableCoerceAll extends PropertyIndexedEventTabl
                 }
             }
         }
-        MultiKeyUntyped key = new MultiKeyUntyped(keys);
-        return propertyIndex.get(key);
+        return propertyIndex.getByValues(keys);
     }
 
 }
@@ -13,16 +13,21 @@ package com.espertech.esper.epl.join.table;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.MultiKeyUntypedHashMap;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 
 import java.util.*;
 
 public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTable {
-    protected final Map<MultiKeyUntyped, Set<EventBean>> propertyIndex;
+    protected final MultiKeyUntypedHashMap<Set<EventBean>> propertyIndex;
+
+    // reused for reading key values on add and remove, which are called under the owner's write lock
+    private final Object[] keyValues;
 
     public PropertyIndexedEventTableUnadorned(EventPropertyGetter[] propertyGetters, EventTableOrganization organization) {
         super(propertyGetters, organization);
-        propertyIndex = new HashMap<MultiKeyUntyped, Set<EventBean>>();
+        propertyIndex = new MultiKeyUntypedHashMap<Set<EventBean>>();
+        keyValues = new Object[propertyGetters.length];
     }
 
     /**
@@ -32,26 +37,25 @@ public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTabl
      * @return set of events with property value, or null if none found (never returns zero-sized set)
      */
     public Set<EventBean> lookup(Object[] keys) {
-        MultiKeyUntyped key = new MultiKeyUntyped(keys);
-        return propertyIndex.get(key);
+        return propertyIndex.getByValues(keys);
     }
 
     public void add(EventBean theEvent, ExprEvaluatorContext exprEvaluatorContext) {
-        MultiKeyUntyped key = getMultiKey(theEvent);
+        readKeyValues(theEvent, keyValues);
 
-        Set<EventBean> events = propertyIndex.get(key);
+        Set<EventBean> events = propertyIndex.getByValues(keyValues);
         if (events == null) {
             events = new LinkedHashSet<EventBean>();
-            propertyIndex.put(key, events);
+            propertyIndex.put(new MultiKeyUntyped(keyValues.clone()), events);
         }
 
         events.add(theEvent);
     }
 
     public void remove(EventBean theEvent, ExprEvaluatorContext exprEvaluatorContext) {
-        MultiKeyUntyped key = getMultiKey(theEvent);
+        readKeyValues(theEvent, keyValues);
 
-        Set<EventBean> events = propertyIndex.get(key);
+        Set<EventBean> events = propertyIndex.getByValues(keyValues);
         if (events == null) {
             return;
         }
@@ -63,7 +67,7 @@ public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTabl
         }
 
         if (events.isEmpty()) {
-            propertyIndex.remove(key);
+            propertyIndex.removeByValues(keyValues);
         }
     }
 
@@ -72,7 +76,7 @@ public class PropertyIndexedEventTableUnadorned extends PropertyIndexedEventTabl
     }
 
     public Iterator<EventBean> iterator() {
-        return new PropertyIndexedEventTableIterator<MultiKeyUntyped>(propertyIndex);
+        return new PropertyIndexedEventTableIterator<Object>(propertyIndex);
     }
 
     public void clear() {
@@ -14,25 +14,31 @@ import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.MultiKeyUntypedHashMap;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.*;
 
 public class PropertyIndexedEventTableUnique extends PropertyIndexedEventTable implements EventTableAsSet {
-    protected final Map<MultiKeyUntyped, EventBean> propertyIndex;
+    protected final MultiKeyUntypedHashMap<EventBean> propertyIndex;
     private final boolean canClear;
 
+    // reused for reading key values on add and remove, which are called under the owner's write lock
+    private final Object[] keyValues;
+
     public PropertyIndexedEventTableUnique(EventPropertyGetter[] propertyGetters, EventTableOrganization organization) {
         super(propertyGetters, organization);
-        propertyIndex = new HashMap<MultiKeyUntyped, EventBean>();
+        propertyIndex = new MultiKeyUntypedHashMap<EventBean>();
         this.canClear = true;
+        this.keyValues = new Object[propertyGetters.length];
     }
 
-    public PropertyIndexedEventTableUnique(EventPropertyGetter[] propertyGetters, EventTableOrganization organization, Map<MultiKeyUntyped, EventBean> propertyIndex) {
+    public PropertyIndexedEventTableUnique(EventPropertyGetter[] propertyGetters, EventTableOrganization organization, MultiKeyUntypedHashMap<EventBean> propertyIndex) {
         super(propertyGetters, organization);
         this.propertyIndex = propertyIndex;
         this.canClear = false;
+        this.keyValues = new Object[propertyGetters.length];
     }
 
     /**
@@ -62,8 +68,7 @@ public class PropertyIndexedEventTableUnique extends PropertyIndexedEventTable i
     }
 
     public Set<EventBean> lookup(Object[] keys) {
-        MultiKeyUntyped key = new MultiKeyUntyped(keys);
-        EventBean event = propertyIndex.get(key);
+        EventBean event = propertyIndex.getByValues(keys);
         if (event != null) {
             return Collections.singleton(event);
         }
@@ -71,10 +76,16 @@ public class PropertyIndexedEventTableUnique extends PropertyIndexedEventTable i
     }
 
     public void add(EventBean theEvent, ExprEvaluatorContext exprEvaluatorContext) {
-        MultiKeyUntyped key = getMultiKey(theEvent);
+        readKeyValues(theEvent, keyValues);
 
-        EventBean existing = propertyIndex.put(key, theEvent);
-        if (existing != null && !existing.equals(theEvent)) {
+        EventBean existing = propertyIndex.getByValues(keyValues);
+        if (existing == null) {
+            propertyIndex.put(new MultiKeyUntyped(keyValues.clone()), theEvent);
+            return;
+        }
+        if (!existing.equals(theEvent)) {
+            MultiKeyUntyped key = new MultiKeyUntyped(keyValues.clone());
+            propertyIndex.put(key, theEvent);
             throw handleUniqueIndexViolation(organization.getIndexName(), key);
         }
     }
@@ -85,8 +96,8 @@ public class PropertyIndexedEventTableUnique extends PropertyIndexedEventTable i
     }
 
     public void remove(EventBean theEvent, ExprEvaluatorContext exprEvaluatorContext) {
-        MultiKeyUntyped key = getMultiKey(theEvent);
-        propertyIndex.remove(key);
+        readKeyValues(theEvent, keyValues);
+        propertyIndex.removeByValues(keyValues);
     }
 
     public boolean isEmpty() {
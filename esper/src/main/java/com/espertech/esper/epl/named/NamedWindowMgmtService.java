@@ -60,6 +60,7 @@ public interface NamedWindowMgmtService {
                                              boolean isEnableSubqueryIndexShare,
                                              boolean isBatchingDataWindow,
                                              boolean isVirtualDataWindow,
+                                             boolean isOffHeapStorage,
                                              Set<String> optionalUniqueKeyProps,
                                              String eventTypeAsName,
                                              StatementContext statementContextCreateWindow,
@@ -103,6 +103,7 @@ public class NamedWindowMgmtServiceImpl implements NamedWindowMgmtService {
                                              ValueAddEventProcessor revisionProcessor, String eplExpression, String statementName, boolean isPrioritized,
                                              boolean isEnableSubqueryIndexShare, boolean isBatchingDataWindow,
                                              boolean isVirtualDataWindow,
+                                             boolean isOffHeapStorage,
                                              Set<String> optionalUniqueKeyProps, String eventTypeAsName,
                                              StatementContext statementContextCreateWindow,
                                              NamedWindowDispatchService namedWindowDispatchService) throws ViewProcessingException {
@@ -110,7 +111,7 @@ public class NamedWindowMgmtServiceImpl implements NamedWindowMgmtService {
             throw new ViewProcessingException("A named window by name '" + name + "' has already been created");
         }
 
-        NamedWindowProcessor processor = namedWindowDispatchService.createProcessor(name, this, namedWindowDispatchService, contextName, eventType, statementResultService, revisionProcessor, eplExpression, statementName, isPrioritized, isEnableSubqueryIndexShare, enableQueryPlanLog, metricReportingService, isBatchingDataWindow, isVirtualDataWindow, optionalUniqueKeyProps, eventTypeAsName, statementContextCreateWindow);
+        NamedWindowProcessor processor = namedWindowDispatchService.createProcessor(name, this, namedWindowDispatchService, contextName, eventType, statementResultService, revisionProcessor, eplExpression, statementName, isPrioritized, isEnableSubqueryIndexShare, enableQueryPlanLog, metricReportingService, isBatchingDataWindow, isVirtualDataWindow, isOffHeapStorage, optionalUniqueKeyProps, eventTypeAsName, statementContextCreateWindow);
         processors.put(name, processor);
 
         if (!observers.isEmpty()) {
@@ -32,14 +32,16 @@ public class NamedWindowRootView {
     private final EventType eventType;
     private final boolean isChildBatching;
     private final boolean isEnableIndexShare;
+    private final boolean isOffHeapStorage;
     private final Set<String> optionalUniqueKeyProps;
 
-    public NamedWindowRootView(ValueAddEventProcessor revisionProcessor, boolean queryPlanLogging, MetricReportingService metricReportingService, EventType eventType, boolean childBatching, boolean isEnableIndexShare, Set<String> optionalUniqueKeyProps) {
+    public NamedWindowRootView(ValueAddEventProcessor revisionProcessor, boolean queryPlanLogging, MetricReportingService metricReportingService, EventType eventType, boolean childBatching, boolean isEnableIndexShare, boolean isOffHeapStorage, Set<String> optionalUniqueKeyProps) {
         this.revisionProcessor = revisionProcessor;
         this.queryPlanLogging = queryPlanLogging;
         this.eventType = eventType;
         this.isChildBatching = childBatching;
         this.isEnableIndexShare = isEnableIndexShare;
+        this.isOffHeapStorage = isOffHeapStorage;
         this.optionalUniqueKeyProps = optionalUniqueKeyProps;
     }
 
@@ -70,4 +72,8 @@ public class NamedWindowRootView {
     public boolean isEnableIndexShare() {
         return isEnableIndexShare;
     }
+
+    public boolean isOffHeapStorage() {
+        return isOffHeapStorage;
+    }
 }
@@ -22,6 +22,8 @@ import com.espertech.esper.epl.join.table.EventTable;
 import com.espertech.esper.epl.join.table.EventTableUtil;
 import com.espertech.esper.epl.lookup.*;
 import com.espertech.esper.epl.virtualdw.VirtualDWView;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.arr.ObjectArrayOffHeapStore;
 import com.espertech.esper.util.CollectionUtil;
 import com.espertech.esper.view.ViewSupport;
 import com.espertech.esper.view.Viewable;
@@ -44,6 +46,8 @@ public class NamedWindowRootViewInstance extends ViewSupport {
     private final EventTableIndexRepository indexRepository;
     private final Map<SubordWMatchExprLookupStrategy, EventTable[]> tablePerMultiLookup;
 
+    private final ObjectArrayOffHeapStore offHeapStore;
+
     private Iterable<EventBean> dataWindowContents;
 
     public NamedWindowRootViewInstance(NamedWindowRootView rootView, AgentInstanceContext agentInstanceContext, EventTableIndexMetadata eventTableIndexMetadata) {
@@ -59,6 +63,7 @@ public class NamedWindowRootViewInstance extends ViewSupport {
         }
 
         this.tablePerMultiLookup = new HashMap<SubordWMatchExprLookupStrategy, EventTable[]>();
+        this.offHeapStore = rootView.isOffHeapStorage() ? new ObjectArrayOffHeapStore((ObjectArrayEventType) rootView.getEventType()) : null;
     }
 
     public AgentInstanceContext getAgentInstanceContext() {
@@ -92,6 +97,9 @@ public class NamedWindowRootViewInstance extends ViewSupport {
      * @param oldData removed stream of the data window
      */
     public void removeOldData(EventBean[] oldData) {
+        if (offHeapStore != null) {
+            offHeapStore.release(oldData);
+        }
         if (rootView.getRevisionProcessor() != null) {
             rootView.getRevisionProcessor().removeOldData(oldData, indexRepository, agentInstanceContext);
         } else {
@@ -117,6 +125,9 @@ public class NamedWindowRootViewInstance extends ViewSupport {
 
     // Called by deletion strategy and also the insert-into for new events only
     public void update(EventBean[] newData, EventBean[] oldData) {
+        if (offHeapStore != null) {
+            newData = offHeapStore.store(newData);
+        }
         if (rootView.getRevisionProcessor() != null) {
             rootView.getRevisionProcessor().onUpdate(newData, oldData, this, indexRepository);
         } else {
@@ -150,6 +161,9 @@ public class NamedWindowRootViewInstance extends ViewSupport {
     public void destroy() {
         indexRepository.destroy();
         tablePerMultiLookup.clear();
+        if (offHeapStore != null) {
+            offHeapStore.destroy();
+        }
         if (isVirtualDataWindow()) {
             getVirtualDataWindow().handleStopWindow();
         }
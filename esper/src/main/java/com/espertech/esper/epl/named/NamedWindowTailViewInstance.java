@@ -13,6 +13,7 @@ package com.espertech.esper.epl.named;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.annotation.AuditEnum;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.client.hook.VirtualDataWindowEventConsumerAdd;
 import com.espertech.esper.client.hook.VirtualDataWindowEventConsumerRemove;
 import com.espertech.esper.collection.ArrayEventIterator;
@@ -21,6 +22,7 @@ import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.epl.fafquery.FireAndForgetQueryExec;
 import com.espertech.esper.epl.join.plan.QueryGraph;
 import com.espertech.esper.epl.updatehelper.EventBeanUpdateHelper;
 import com.espertech.esper.epl.virtualdw.VirtualDWView;
@@ -41,6 +43,7 @@ public class NamedWindowTailViewInstance extends ViewSupport implements Iterable
     private final NamedWindowProcessor namedWindowProcessor;
     private final AgentInstanceContext agentInstanceContext;
     private final NamedWindowConsumerLatchFactory latchFactory;
+    private final NamedWindowVersionedStore versionedStore;
 
     private volatile Map<EPStatementAgentInstanceHandle, List<NamedWindowConsumerView>> consumersInContext;  // handles as copy-on-write
     private volatile long numberOfEvents;
@@ -52,6 +55,7 @@ public class NamedWindowTailViewInstance extends ViewSupport implements Iterable
         this.agentInstanceContext = agentInstanceContext;
         this.consumersInContext = NamedWindowUtil.createConsumerMap(tailView.isPrioritized());
         this.latchFactory = tailView.makeLatchFactory();
+        this.versionedStore = HintEnum.ENABLE_WINDOW_SNAPSHOT_ISOLATION.getHint(agentInstanceContext.getStatementContext().getAnnotations()) != null ? new NamedWindowVersionedStore() : null;
     }
 
     public void update(EventBean[] newData, EventBean[] oldData) {
@@ -69,6 +73,10 @@ public class NamedWindowTailViewInstance extends ViewSupport implements Iterable
             numberOfEvents += newData.length;
         }
 
+        if (versionedStore != null) {
+            versionedStore.update(newData, oldData);
+        }
+
         // Post to child views, only if there are listeners or subscribers
         if (tailView.getStatementResultService().isMakeNatural() || tailView.getStatementResultService().isMakeSynthetic()) {
             updateChildren(newData, oldData);
@@ -167,6 +175,10 @@ public class NamedWindowTailViewInstance extends ViewSupport implements Iterable
             Collection<EventBean> coll = tailView.getRevisionProcessor().getSnapshot(agentInstanceContext.getEpStatementAgentInstanceHandle(), parent);
             return coll.iterator();
         }
+        if (versionedStore != null) {
+            Collection<EventBean> coll = versionedStore.snapshot();
+            return coll.isEmpty() ? CollectionUtil.NULL_EVENT_ITERATOR : coll.iterator();
+        }
 
         agentInstanceContext.getEpStatementAgentInstanceHandle().getStatementAgentInstanceLock().acquireReadLock();
         try {
@@ -196,6 +208,11 @@ public class NamedWindowTailViewInstance extends ViewSupport implements Iterable
             return tailView.getRevisionProcessor().getSnapshot(agentInstanceContext.getEpStatementAgentInstanceHandle(), parent);
         }
 
+        // full scans read the versioned contents without locking, index lookups require the lock
+        if (versionedStore != null && !FireAndForgetQueryExec.isIndexLookupCandidate(queryGraph)) {
+            return versionedStore.snapshot();
+        }
+
         agentInstanceContext.getEpStatementAgentInstanceHandle().getStatementAgentInstanceLock().acquireReadLock();
         try {
             return snapshotNoLock(queryGraph, annotations);
@@ -0,0 +1,181 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.named;
+
+import com.espertech.esper.client.EventBean;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Multi-version store of named window contents that allows readers to obtain a consistent point-in-time
+ * snapshot without taking the named window lock.
+ * <p>
+ * The store keeps events in arrival order in a linked list that readers traverse forward only. Each update
+ * by the single writer, which holds the named window lock, is assigned a new version: added events are appended
+ * with that version as their insert version and removed events are stamped with it as their delete version.
+ * A reader registers the version it reads at and sees the events inserted at or before and deleted after that version.
+ * Removed events are unlinked only once no registered reader can still see them.
+ * <p>
+ * Snapshots iterate in arrival order, therefore the store is only used for named windows whose data windows
+ * iterate in arrival order as well.
+ */
+public class NamedWindowVersionedStore {
+    private final Node head = new Node(null, 0);
+    private final Set<Reader> readers = Collections.newSetFromMap(new ConcurrentHashMap<Reader, Boolean>());
+
+    // writer state, guarded by the named window lock
+    private Node tail = head;
+    private long writeVersion;
+    private final Map<EventBean, Object> nodesPerEvent = new HashMap<EventBean, Object>();
+    private final ArrayDeque<Node> removedNodes = new ArrayDeque<Node>();
+
+    private volatile long publishedVersion;
+
+    /**
+     * Apply an update of the window contents, to be called by the writer under the named window lock.
+     *
+     * @param newData events entering the window, or null
+     * @param oldData events leaving the window, or null
+     */
+    public void update(EventBean[] newData, EventBean[] oldData) {
+        long version = writeVersion + 1;
+        if (newData != null) {
+            for (EventBean theEvent : newData) {
+                add(theEvent, version);
+            }
+        }
+        if (oldData != null) {
+            for (EventBean theEvent : oldData) {
+                remove(theEvent, version);
+            }
+        }
+        writeVersion = version;
+        publishedVersion = version;
+        reclaim();
+    }
+
+    /**
+     * Returns the window contents as of the most recent completed update, without blocking the writer.
+     *
+     * @return events in arrival order
+     */
+    public Collection<EventBean> snapshot() {
+        Reader reader = new Reader();
+        long version = publishedVersion;
+        reader.version = version;
+        readers.add(reader);
+        try {
+            // the writer may have reclaimed based on a registration it did not see yet, read again until stable
+            while (true) {
+                long current = publishedVersion;
+                if (current == version) {
+                    break;
+                }
+                version = current;
+                reader.version = version;
+            }
+
+            ArrayDeque<EventBean> events = new ArrayDeque<EventBean>();
+            for (Node node = head.next; node != null; node = node.next) {
+                if (node.insertVersion <= version && node.deleteVersion > version) {
+                    events.add(node.event);
+                }
+            }
+            return events;
+        } finally {
+            readers.remove(reader);
+        }
+    }
+
+    private void add(EventBean theEvent, long version) {
+        Node node = new Node(theEvent, version);
+        node.prev = tail;
+        tail.next = node;
+        tail = node;
+
+        Object existing = nodesPerEvent.get(theEvent);
+        if (existing == null) {
+            nodesPerEvent.put(theEvent, node);
+        } else if (existing instanceof Node) {
+            ArrayDeque<Node> nodes = new ArrayDeque<Node>(2);
+            nodes.add((Node) existing);
+            nodes.add(node);
+            nodesPerEvent.put(theEvent, nodes);
+        } else {
+            ((ArrayDeque<Node>) existing).add(node);
+        }
+    }
+
+    private void remove(EventBean theEvent, long version) {
+        Object existing = nodesPerEvent.get(theEvent);
+        if (existing == null) {
+            return;
+        }
+        Node node;
+        if (existing instanceof Node) {
+            node = (Node) existing;
+            nodesPerEvent.remove(theEvent);
+        } else {
+            ArrayDeque<Node> nodes = (ArrayDeque<Node>) existing;
+            node = nodes.removeFirst();
+            if (nodes.isEmpty()) {
+                nodesPerEvent.remove(theEvent);
+            }
+        }
+        node.deleteVersion = version;
+        removedNodes.add(node);
+    }
+
+    private void reclaim() {
+        if (removedNodes.isEmpty()) {
+            return;
+        }
+        long minVersion = publishedVersion;
+        for (Reader reader : readers) {
+            minVersion = Math.min(minVersion, reader.version);
+        }
+
+        // removed nodes are queued in delete version order
+        while (!removedNodes.isEmpty() && removedNodes.peekFirst().deleteVersion <= minVersion) {
+            unlink(removedNodes.removeFirst());
+        }
+    }
+
+    private void unlink(Node node) {
+        // the unlinked node keeps its forward pointer so that readers positioned on it continue to the live nodes
+        Node prev = node.prev;
+        Node next = node.next;
+        prev.next = next;
+        if (next != null) {
+            next.prev = prev;
+        } else {
+            tail = prev;
+        }
+    }
+
+    private static class Node {
+        private final EventBean event;
+        private final long insertVersion;
+        private volatile long deleteVersion = Long.MAX_VALUE;
+        private volatile Node next;
+        private Node prev;
+
+        private Node(EventBean event, long insertVersion) {
+            this.event = event;
+            this.insertVersion = insertVersion;
+        }
+    }
+
+    private static class Reader {
+        private volatile long version;
+    }
+}
@@ -2185,6 +2185,10 @@ public class StatementSpecMapper {
             return new PlugInProjectionExpression("nth", false);
         } else if (expr instanceof ExprLeavingAggNode) {
             return new PlugInProjectionExpression("leaving", false);
+        } else if (expr instanceof ExprApproxCountDistinctNode) {
+            return new PlugInProjectionExpression("approxCountDistinct", false);
+        } else if (expr instanceof ExprApproxPercentileNode) {
+            return new PlugInProjectionExpression("approxPercentile", false);
         } else if (expr instanceof ExprAggCountMinSketchNode) {
             ExprAggCountMinSketchNode cmsNode = (ExprAggCountMinSketchNode) expr;
             return new PlugInProjectionExpression(cmsNode.getAggregationFunctionName(), false);
@@ -13,7 +13,7 @@ package com.espertech.esper.epl.table.mgmt;
 import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventPropertyGetter;
-import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.MultiKeyUntypedHashMap;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.epl.agg.access.AggregationServicePassThru;
@@ -32,7 +32,7 @@ import java.util.*;
 
 public class TableStateInstanceGroupedImpl extends TableStateInstance implements TableStateInstanceGrouped {
 
-    private final Map<Object, ObjectArrayBackedEventBean> rows = new HashMap<Object, ObjectArrayBackedEventBean>();
+    private final Map<Object, ObjectArrayBackedEventBean> rows;
     private final IndexMultiKey primaryIndexKey;
 
     public TableStateInstanceGroupedImpl(TableMetadata tableMetadata, AgentInstanceContext agentInstanceContext) {
@@ -52,11 +52,14 @@ public class TableStateInstanceGroupedImpl extends TableStateInstance implements
 
         EventTable table;
         if (indexGetters.size() == 1) {
+            rows = new HashMap<Object, ObjectArrayBackedEventBean>();
             Map<Object, EventBean> tableMap = (Map<Object, EventBean>) (Map<Object, ?>) rows;
             table = new PropertyIndexedEventTableSingleUnique(indexGetters.get(0), organization, tableMap);
         } else {
+            // multi-column primary keys probe the rows by key values without allocating a multi-key
+            MultiKeyUntypedHashMap<EventBean> tableMap = new MultiKeyUntypedHashMap<EventBean>();
+            rows = (Map<Object, ObjectArrayBackedEventBean>) (Map<Object, ?>) tableMap;
             EventPropertyGetter[] getters = indexGetters.toArray(new EventPropertyGetter[indexGetters.size()]);
-            Map<MultiKeyUntyped, EventBean> tableMap = (Map<MultiKeyUntyped, EventBean>) (Map<?, ?>) rows;
             table = new PropertyIndexedEventTableUnique(getters, organization, tableMap);
         }
 
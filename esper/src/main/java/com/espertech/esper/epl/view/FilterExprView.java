@@ -14,6 +14,8 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorNullFlag;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorPrimitive;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.view.ViewSupport;
@@ -27,6 +29,8 @@ public class FilterExprView extends ViewSupport {
     private final ExprNode exprNode;
     private final ExprEvaluator exprEvaluator;
     private final ExprEvaluatorContext exprEvaluatorContext;
+    private final ExprEvaluatorPrimitive exprEvaluatorPrimitive;
+    private final ExprEvaluatorNullFlag nullFlag = new ExprEvaluatorNullFlag();
 
     /**
      * Ctor.
@@ -39,6 +43,7 @@ public class FilterExprView extends ViewSupport {
         this.exprNode = exprNode;
         this.exprEvaluator = exprEvaluator;
         this.exprEvaluatorContext = exprEvaluatorContext;
+        this.exprEvaluatorPrimitive = exprEvaluator instanceof ExprEvaluatorPrimitive ? (ExprEvaluatorPrimitive) exprEvaluator : null;
     }
 
     public EventType getEventType() {
@@ -90,6 +95,19 @@ public class FilterExprView extends ViewSupport {
         boolean[] passResult = new boolean[events.length];
         int passCount = 0;
 
+        // evaluate without boxing intermediate results, when supported
+        if (exprEvaluatorPrimitive != null && !InstrumentationHelper.ENABLED) {
+            for (int i = 0; i < events.length; i++) {
+                evalEventArr[0] = events[i];
+                boolean pass = exprEvaluatorPrimitive.evaluateBoolean(evalEventArr, isNewData, exprEvaluatorContext, nullFlag);
+                if (pass && !nullFlag.isNull()) {
+                    passResult[i] = true;
+                    passCount++;
+                }
+            }
+            return filterResult(events, passResult, passCount);
+        }
+
         for (int i = 0; i < events.length; i++) {
             evalEventArr[0] = events[i];
             if (InstrumentationHelper.ENABLED) {
@@ -104,7 +122,10 @@ public class FilterExprView extends ViewSupport {
                 passCount++;
             }
         }
+        return filterResult(events, passResult, passCount);
+    }
 
+    private static EventBean[] filterResult(EventBean[] events, boolean[] passResult, int passCount) {
         if (passCount == 0) {
             return null;
         }
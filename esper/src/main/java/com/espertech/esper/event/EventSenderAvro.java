@@ -55,6 +55,14 @@ public class EventSenderAvro implements EventSender {
         }
     }
 
+    public void sendEvents(Object[] events) {
+        EventBean[] eventBeans = new EventBean[events.length];
+        for (int i = 0; i < events.length; i++) {
+            eventBeans[i] = eventAdapterService.adapterForTypedAvro(events[i], eventType);
+        }
+        EventSenderUtil.sendWrappedEvents(eventBeans, runtimeEventSender, threadingService);
+    }
+
     public void route(Object theEvent) {
         if (!(theEvent.getClass().isArray())) {
             throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected Object[]");
@@ -78,6 +78,17 @@ public class EventSenderBean implements EventSender {
         }
     }
 
+    public void sendEvents(Object[] events) {
+        EventBean[] eventBeans = new EventBean[events.length];
+        for (int i = 0; i < events.length; i++) {
+            if (events[i] == null) {
+                throw new NullPointerException("No event object provided to sendEvents method");
+            }
+            eventBeans[i] = getEventBean(events[i]);
+        }
+        EventSenderUtil.sendWrappedEvents(eventBeans, runtime, threadingService);
+    }
+
     public void route(Object theEvent) throws EPException {
         EventBean eventBean = getEventBean(theEvent);
         runtime.routeEventBean(eventBean);
@@ -48,12 +48,7 @@ public class EventSenderMap implements EventSender {
     }
 
     public void sendEvent(Object theEvent) {
-        if (!(theEvent instanceof Map)) {
-            throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected " + Map.class.getName());
-        }
-
-        Map<String, Object> map = (Map<String, Object>) theEvent;
-        EventBean mapEvent = eventAdapterService.adapterForTypedMap(map, mapEventType);
+        EventBean mapEvent = getEventBean(theEvent);
 
         if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
             threadingService.submitInbound(new InboundUnitSendWrapped(mapEvent, runtimeEventSender));
@@ -62,6 +57,14 @@ public class EventSenderMap implements EventSender {
         }
     }
 
+    public void sendEvents(Object[] events) {
+        EventBean[] eventBeans = new EventBean[events.length];
+        for (int i = 0; i < events.length; i++) {
+            eventBeans[i] = getEventBean(events[i]);
+        }
+        EventSenderUtil.sendWrappedEvents(eventBeans, runtimeEventSender, threadingService);
+    }
+
     public void route(Object theEvent) {
         if (!(theEvent instanceof Map)) {
             throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected " + Map.class.getName());
@@ -70,4 +73,12 @@ public class EventSenderMap implements EventSender {
         EventBean mapEvent = eventAdapterService.adapterForTypedMap(map, mapEventType);
         runtimeEventSender.routeEventBean(mapEvent);
     }
+
+    private EventBean getEventBean(Object theEvent) {
+        if (!(theEvent instanceof Map)) {
+            throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected " + Map.class.getName());
+        }
+        Map<String, Object> map = (Map<String, Object>) theEvent;
+        return eventAdapterService.adapterForTypedMap(map, mapEventType);
+    }
 }
@@ -46,12 +46,7 @@ public class EventSenderObjectArray implements EventSender {
     }
 
     public void sendEvent(Object theEvent) {
-        if (!(theEvent.getClass().isArray())) {
-            throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected Object[]");
-        }
-
-        Object[] arr = (Object[]) theEvent;
-        EventBean objectArrayEvent = eventAdapterService.adapterForTypedObjectArray(arr, objectArrayEventType);
+        EventBean objectArrayEvent = getEventBean(theEvent);
 
         if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
             threadingService.submitInbound(new InboundUnitSendWrapped(objectArrayEvent, runtimeEventSender));
@@ -60,6 +55,14 @@ public class EventSenderObjectArray implements EventSender {
         }
     }
 
+    public void sendEvents(Object[] events) {
+        EventBean[] eventBeans = new EventBean[events.length];
+        for (int i = 0; i < events.length; i++) {
+            eventBeans[i] = getEventBean(events[i]);
+        }
+        EventSenderUtil.sendWrappedEvents(eventBeans, runtimeEventSender, threadingService);
+    }
+
     public void route(Object theEvent) {
         if (!(theEvent.getClass().isArray())) {
             throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected Object[]");
@@ -68,4 +71,12 @@ public class EventSenderObjectArray implements EventSender {
         EventBean objectArrayEvent = eventAdapterService.adapterForTypedObjectArray(arr, objectArrayEventType);
         runtimeEventSender.routeEventBean(objectArrayEvent);
     }
+
+    private EventBean getEventBean(Object theEvent) {
+        if (!(theEvent.getClass().isArray())) {
+            throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected Object[]");
+        }
+        Object[] arr = (Object[]) theEvent;
+        return eventAdapterService.adapterForTypedObjectArray(arr, objectArrayEventType);
+    }
 }
@@ -0,0 +1,39 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.service.EPRuntimeEventSender;
+import com.espertech.esper.core.thread.InboundUnitSendWrapped;
+import com.espertech.esper.core.thread.ThreadingOption;
+import com.espertech.esper.core.thread.ThreadingService;
+
+/**
+ * Helper for event senders.
+ */
+public class EventSenderUtil {
+    /**
+     * Processes a batch of wrapped events, submitting each event to the inbound pool when inbound threading is enabled.
+     *
+     * @param eventBeans         events to process
+     * @param runtimeEventSender runtime to process the events
+     * @param threadingService   for inbound threading
+     */
+    public static void sendWrappedEvents(EventBean[] eventBeans, EPRuntimeEventSender runtimeEventSender, ThreadingService threadingService) {
+        if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
+            for (EventBean eventBean : eventBeans) {
+                threadingService.submitInbound(new InboundUnitSendWrapped(eventBean, runtimeEventSender));
+            }
+        } else {
+            runtimeEventSender.processWrappedEvents(eventBeans);
+        }
+    }
+}
@@ -55,11 +55,32 @@ public class EventSenderXMLDOM implements EventSender {
         sendEvent(theEvent, false);
     }
 
+    public void sendEvents(Object[] events) throws EPException {
+        EventBean[] eventBeans = new EventBean[events.length];
+        for (int i = 0; i < events.length; i++) {
+            eventBeans[i] = getEventBean(events[i]);
+        }
+        EventSenderUtil.sendWrappedEvents(eventBeans, runtimeEventSender, threadingService);
+    }
+
     public void route(Object theEvent) throws EPException {
         sendEvent(theEvent, true);
     }
 
     private void sendEvent(Object node, boolean isRoute) throws EPException {
+        EventBean theEvent = getEventBean(node);
+        if (isRoute) {
+            runtimeEventSender.routeEventBean(theEvent);
+        } else {
+            if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
+                threadingService.submitInbound(new InboundUnitSendWrapped(theEvent, runtimeEventSender));
+            } else {
+                runtimeEventSender.processWrappedEvent(theEvent);
+            }
+        }
+    }
+
+    private EventBean getEventBean(Object node) throws EPException {
         Node namedNode;
         if (node instanceof Document) {
             namedNode = ((Document) node).getDocumentElement();
@@ -80,15 +101,6 @@ public class EventSenderXMLDOM implements EventSender {
             }
         }
 
-        EventBean theEvent = eventAdapterService.adapterForTypedDOM(namedNode, baseXMLEventType);
-        if (isRoute) {
-            runtimeEventSender.routeEventBean(theEvent);
-        } else {
-            if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading())) {
-                threadingService.submitInbound(new InboundUnitSendWrapped(theEvent, runtimeEventSender));
-            } else {
-                runtimeEventSender.processWrappedEvent(theEvent);
-            }
-        }
+        return eventAdapterService.adapterForTypedDOM(namedNode, baseXMLEventType);
     }
 }
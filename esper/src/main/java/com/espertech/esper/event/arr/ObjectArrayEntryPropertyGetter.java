@@ -51,8 +51,22 @@ public class ObjectArrayEntryPropertyGetter implements ObjectArrayEventPropertyG
     }
 
     public Object get(EventBean obj) {
+        return getAtIndex(obj, propertyIndex);
+    }
+
+    /**
+     * Returns the property value at the index, decoding only that property for events stored off-heap.
+     *
+     * @param obj   event
+     * @param index property index
+     * @return value
+     */
+    public static Object getAtIndex(EventBean obj, int index) {
+        if (obj instanceof ObjectArrayOffHeapEventBean) {
+            return ((ObjectArrayOffHeapEventBean) obj).getProperty(index);
+        }
         Object[] arr = BaseNestableEventUtil.checkedCastUnderlyingObjectArray(obj);
-        return getObjectArray(arr);
+        return arr[index];
     }
 
     public boolean isExistsProperty(EventBean eventBean) {
@@ -68,7 +82,7 @@ public class ObjectArrayEntryPropertyGetter implements ObjectArrayEventPropertyG
     }
 
     public CodegenExpression codegenEventBeanGet(CodegenExpression beanExpression, CodegenContext context) {
-        return beanUndCastArrayAtIndex(Object[].class, beanExpression, propertyIndex);
+        return staticMethodTakingExprAndConst(ObjectArrayEntryPropertyGetter.class, "getAtIndex", beanExpression, propertyIndex);
     }
 
     public CodegenExpression codegenEventBeanExists(CodegenExpression beanExpression, CodegenContext context) {
@@ -0,0 +1,255 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.arr;
+
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of the property values of an object-array event type, for use with off-heap storage.
+ * <p>
+ * A record starts with a bit set indicating null values, followed by a fixed-size slot for each property in
+ * property order, so that a single property can be decoded by its index. Boxed primitives are written into their slot.
+ * Strings are written after the slots, their slot holding the position relative to the record start and the length.
+ * Only event types whose properties are all primitives or strings can be encoded, see {@link #getUnsupportedProperty(ObjectArrayEventType)}.
+ */
+public class ObjectArrayOffHeapCodec {
+    private static final byte TYPE_UNSUPPORTED = 0;
+    private static final byte TYPE_INT = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_DOUBLE = 3;
+    private static final byte TYPE_FLOAT = 4;
+    private static final byte TYPE_SHORT = 5;
+    private static final byte TYPE_BYTE = 6;
+    private static final byte TYPE_BOOLEAN = 7;
+    private static final byte TYPE_CHAR = 8;
+    private static final byte TYPE_STRING = 9;
+
+    private final byte[] types;
+    private final int[] slots;
+    private final int fixedLength;
+
+    /**
+     * Ctor.
+     *
+     * @param eventType type to encode
+     * @throws IllegalArgumentException if the type has a property that is not a primitive or string
+     */
+    public ObjectArrayOffHeapCodec(ObjectArrayEventType eventType) {
+        Map<String, Integer> indexes = eventType.getPropertiesIndexes();
+        types = new byte[indexes.size()];
+        for (Map.Entry<String, Integer> entry : indexes.entrySet()) {
+            types[entry.getValue()] = getTypeCode(eventType.getPropertyType(entry.getKey()));
+            if (types[entry.getValue()] == TYPE_UNSUPPORTED) {
+                throw new IllegalArgumentException("Off-heap storage cannot encode property '" + entry.getKey() + "' of event type '" + eventType.getName() + "'");
+            }
+        }
+        slots = new int[types.length];
+        int pos = (types.length + 7) / 8;
+        for (int i = 0; i < types.length; i++) {
+            slots[i] = pos;
+            pos += getSlotSize(types[i]);
+        }
+        fixedLength = pos;
+    }
+
+    /**
+     * Returns the name of the first property of the event type that is not a primitive or string and
+     * therefore cannot be encoded, or null if all properties can be encoded.
+     *
+     * @param eventType type to check
+     * @return property name or null
+     */
+    public static String getUnsupportedProperty(ObjectArrayEventType eventType) {
+        for (String propertyName : eventType.getPropertyNames()) {
+            if (getTypeCode(eventType.getPropertyType(propertyName)) == TYPE_UNSUPPORTED) {
+                return propertyName;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Encode property values into the buffer at its current position, growing the buffer as required.
+     *
+     * @param values property values
+     * @param buffer heap buffer to write to
+     * @return buffer written to, which is a new buffer if the buffer passed in was too small
+     */
+    public ByteBuffer encode(Object[] values, ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer = ensure(buffer, fixedLength);
+        for (int i = 0; i < fixedLength; i++) {
+            buffer.put((byte) 0);
+        }
+
+        for (int i = 0; i < types.length; i++) {
+            Object value = values[i];
+            int slot = start + slots[i];
+            if (value == null) {
+                int pos = start + (i >>> 3);
+                buffer.put(pos, (byte) (buffer.get(pos) | (1 << (i & 7))));
+                continue;
+            }
+            switch (types[i]) {
+                case TYPE_INT:
+                    buffer.putInt(slot, ((Number) value).intValue());
+                    break;
+                case TYPE_LONG:
+                    buffer.putLong(slot, ((Number) value).longValue());
+                    break;
+                case TYPE_DOUBLE:
+                    buffer.putDouble(slot, ((Number) value).doubleValue());
+                    break;
+                case TYPE_FLOAT:
+                    buffer.putFloat(slot, ((Number) value).floatValue());
+                    break;
+                case TYPE_SHORT:
+                    buffer.putShort(slot, ((Number) value).shortValue());
+                    break;
+                case TYPE_BYTE:
+                    buffer.put(slot, ((Number) value).byteValue());
+                    break;
+                case TYPE_BOOLEAN:
+                    buffer.put(slot, (Boolean) value ? (byte) 1 : (byte) 0);
+                    break;
+                case TYPE_CHAR:
+                    buffer.putChar(slot, (Character) value);
+                    break;
+                default:
+                    String text = (String) value;
+                    buffer = ensure(buffer, 2 * text.length());
+                    buffer.putInt(slot, buffer.position() - start);
+                    buffer.putInt(slot + 4, text.length());
+                    for (int j = 0; j < text.length(); j++) {
+                        buffer.putChar(text.charAt(j));
+                    }
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Decode property values from the buffer starting at the offset, without changing the buffer position.
+     *
+     * @param buffer buffer to read from
+     * @param offset start of the record
+     * @return property values
+     */
+    public Object[] decode(ByteBuffer buffer, int offset) {
+        Object[] values = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            values[i] = decode(buffer, offset, i);
+        }
+        return values;
+    }
+
+    /**
+     * Decode a single property value from the buffer starting at the offset, without changing the buffer position.
+     * <p>
+     * Does not fail when the record was overwritten, in which case the value returned is meaningless.
+     *
+     * @param buffer buffer to read from
+     * @param offset start of the record
+     * @param index  property index
+     * @return property value
+     */
+    public Object decode(ByteBuffer buffer, int offset, int index) {
+        if ((buffer.get(offset + (index >>> 3)) & (1 << (index & 7))) != 0) {
+            return null;
+        }
+        int slot = offset + slots[index];
+        switch (types[index]) {
+            case TYPE_INT:
+                return buffer.getInt(slot);
+            case TYPE_LONG:
+                return buffer.getLong(slot);
+            case TYPE_DOUBLE:
+                return buffer.getDouble(slot);
+            case TYPE_FLOAT:
+                return buffer.getFloat(slot);
+            case TYPE_SHORT:
+                return buffer.getShort(slot);
+            case TYPE_BYTE:
+                return buffer.get(slot);
+            case TYPE_BOOLEAN:
+                return buffer.get(slot) != 0;
+            case TYPE_CHAR:
+                return buffer.getChar(slot);
+            default:
+                long pos = (long) offset + buffer.getInt(slot);
+                int length = buffer.getInt(slot + 4);
+                if (length < 0 || pos < 0 || pos + 2L * length > buffer.capacity()) {
+                    return null;
+                }
+                char[] chars = new char[length];
+                for (int j = 0; j < length; j++) {
+                    chars[j] = buffer.getChar((int) pos + 2 * j);
+                }
+                return new String(chars);
+        }
+    }
+
+    private static ByteBuffer ensure(ByteBuffer buffer, int required) {
+        if (buffer.remaining() >= required) {
+            return buffer;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + required));
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+
+    private static int getSlotSize(byte type) {
+        switch (type) {
+            case TYPE_BYTE:
+            case TYPE_BOOLEAN:
+                return 1;
+            case TYPE_SHORT:
+            case TYPE_CHAR:
+                return 2;
+            case TYPE_INT:
+            case TYPE_FLOAT:
+                return 4;
+            default:
+                return 8;
+        }
+    }
+
+    private static byte getTypeCode(Object propertyType) {
+        if (!(propertyType instanceof Class)) {
+            return TYPE_UNSUPPORTED;
+        }
+        Class boxed = JavaClassHelper.getBoxedType((Class) propertyType);
+        if (boxed == Integer.class) {
+            return TYPE_INT;
+        } else if (boxed == Long.class) {
+            return TYPE_LONG;
+        } else if (boxed == Double.class) {
+            return TYPE_DOUBLE;
+        } else if (boxed == Float.class) {
+            return TYPE_FLOAT;
+        } else if (boxed == Short.class) {
+            return TYPE_SHORT;
+        } else if (boxed == Byte.class) {
+            return TYPE_BYTE;
+        } else if (boxed == Boolean.class) {
+            return TYPE_BOOLEAN;
+        } else if (boxed == Character.class) {
+            return TYPE_CHAR;
+        } else if (boxed == String.class) {
+            return TYPE_STRING;
+        }
+        return TYPE_UNSUPPORTED;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.arr;
+
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.event.EventBeanSPI;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+
+/**
+ * Object-array event that has its property values stored off-heap by {@link ObjectArrayOffHeapStore},
+ * decoding the values each time they are requested.
+ * <p>
+ * Once released by the store, or when new property values are set, the event holds its values on the heap.
+ * The store publishes the heap values before it reuses the storage of a released event, and takes the write lock
+ * of the segment when reusing it. Readers decode under an optimistic read of the segment lock and
+ * use the heap values instead when the segment was reused while decoding.
+ */
+public class ObjectArrayOffHeapEventBean implements EventBeanSPI, ObjectArrayBackedEventBean {
+    private final EventType eventType;
+    private final ObjectArrayOffHeapCodec codec;
+    private final ObjectArrayOffHeapStore.Segment segment;
+    private final int offset;
+    private volatile Object[] heapValues;
+    private boolean released;
+
+    public ObjectArrayOffHeapEventBean(EventType eventType, ObjectArrayOffHeapCodec codec, ObjectArrayOffHeapStore.Segment segment, int offset) {
+        this.eventType = eventType;
+        this.codec = codec;
+        this.segment = segment;
+        this.offset = offset;
+    }
+
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    public Object[] getProperties() {
+        long stamp = segment.lock.tryOptimisticRead();
+        Object[] values = heapValues;
+        if (values != null) {
+            return values;
+        }
+        Object[] decoded = codec.decode(segment.buffer, offset);
+        if (segment.lock.validate(stamp)) {
+            return decoded;
+        }
+        return heapValues;
+    }
+
+    /**
+     * Returns a single property value, decoding only that property.
+     *
+     * @param index property index
+     * @return value
+     */
+    public Object getProperty(int index) {
+        long stamp = segment.lock.tryOptimisticRead();
+        Object[] values = heapValues;
+        if (values != null) {
+            return values[index];
+        }
+        Object decoded = codec.decode(segment.buffer, offset, index);
+        if (segment.lock.validate(stamp)) {
+            return decoded;
+        }
+        return heapValues[index];
+    }
+
+    public void setPropertyValues(Object[] propertyValues) {
+        this.heapValues = propertyValues;
+    }
+
+    public void setUnderlying(Object underlying) {
+        this.heapValues = (Object[]) underlying;
+    }
+
+    public Object get(String property) throws PropertyAccessException {
+        EventPropertyGetter getter = eventType.getGetter(property);
+        if (getter == null) {
+            throw new PropertyAccessException("Property named '" + property + "' is not a valid property name for this type");
+        }
+        return getter.get(this);
+    }
+
+    public Object getUnderlying() {
+        return getProperties();
+    }
+
+    public Object getFragment(String propertyExpression) throws PropertyAccessException {
+        EventPropertyGetter getter = eventType.getGetter(propertyExpression);
+        if (getter == null) {
+            throw PropertyAccessException.notAValidProperty(propertyExpression);
+        }
+        return getter.getFragment(this);
+    }
+
+    /**
+     * Move the property values to the heap, returning the segment to release or null if already released.
+     * The heap values are published before the caller may reuse the segment.
+     *
+     * @return segment holding the values
+     */
+    ObjectArrayOffHeapStore.Segment detach() {
+        if (released) {
+            return null;
+        }
+        released = true;
+        if (heapValues == null) {
+            heapValues = codec.decode(segment.buffer, offset);
+        }
+        return segment;
+    }
+}
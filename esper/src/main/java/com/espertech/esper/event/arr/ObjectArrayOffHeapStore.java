@@ -0,0 +1,150 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.arr;
+
+import com.espertech.esper.client.EventBean;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Stores object-array event property values in direct (off-heap) memory segments, handing out events that
+ * decode their property values on access.
+ * <p>
+ * Records are appended to the current segment. A segment is reused once all events stored in it
+ * have been released. Releasing an event first copies its values to the heap so that any remaining reference to the
+ * event stays valid, and reusing a segment takes its write lock so that concurrent readers detect the reuse.
+ * <p>
+ * Event types must only have properties that are primitives or strings,
+ * see {@link ObjectArrayOffHeapCodec#getUnsupportedProperty(ObjectArrayEventType)}. Not thread-safe for store and release, which are expected to be called under the owning statement's lock.
+ */
+public class ObjectArrayOffHeapStore {
+    private static final int SEGMENT_SIZE_INITIAL = 16 * 1024;
+    private static final int SEGMENT_SIZE_MAX = 4 * 1024 * 1024;
+
+    private final ObjectArrayEventType eventType;
+    private final ObjectArrayOffHeapCodec codec;
+    private ByteBuffer scratch = ByteBuffer.allocate(256);
+    private Segment current;
+    private Segment spare;
+
+    public ObjectArrayOffHeapStore(ObjectArrayEventType eventType) {
+        this.eventType = eventType;
+        this.codec = new ObjectArrayOffHeapCodec(eventType);
+    }
+
+    /**
+     * Encode and store the events, returning off-heap events in their place.
+     *
+     * @param events to store, may be null
+     * @return stored events
+     */
+    public EventBean[] store(EventBean[] events) {
+        if (events == null) {
+            return null;
+        }
+        EventBean[] stored = new EventBean[events.length];
+        for (int i = 0; i < events.length; i++) {
+            stored[i] = store(events[i]);
+        }
+        return stored;
+    }
+
+    /**
+     * Encode and store the event, returning an off-heap event in its place.
+     *
+     * @param event to store
+     * @return stored event, or the same event if already stored or not an object-array event
+     */
+    public EventBean store(EventBean event) {
+        if (event instanceof ObjectArrayOffHeapEventBean || !(event instanceof ObjectArrayEventBean) || event.getEventType() != eventType) {
+            return event;
+        }
+        scratch.clear();
+        scratch = codec.encode(((ObjectArrayEventBean) event).getProperties(), scratch);
+        int length = scratch.position();
+
+        if (current == null || current.buffer.remaining() < length) {
+            current = allocate(current == null ? SEGMENT_SIZE_INITIAL : Math.min(current.buffer.capacity() * 2, SEGMENT_SIZE_MAX), length);
+        }
+        int offset = current.buffer.position();
+        scratch.flip();
+        current.buffer.put(scratch);
+        current.live++;
+        return new ObjectArrayOffHeapEventBean(eventType, codec, current, offset);
+    }
+
+    /**
+     * Release the events that left the named window, moving their values to the heap and freeing their storage.
+     *
+     * @param events to release, may be null
+     */
+    public void release(EventBean[] events) {
+        if (events == null) {
+            return;
+        }
+        for (EventBean event : events) {
+            if (!(event instanceof ObjectArrayOffHeapEventBean)) {
+                continue;
+            }
+            Segment segment = ((ObjectArrayOffHeapEventBean) event).detach();
+            if (segment == null) {
+                continue;
+            }
+            segment.live--;
+            if (segment.live == 0) {
+                if (segment == current) {
+                    segment.recycle();
+                } else if (spare == null || spare.buffer.capacity() < segment.buffer.capacity()) {
+                    segment.recycle();
+                    spare = segment;
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop all segments.
+     */
+    public void destroy() {
+        current = null;
+        spare = null;
+    }
+
+    private Segment allocate(int size, int required) {
+        if (spare != null && spare.buffer.capacity() >= required) {
+            Segment segment = spare;
+            spare = null;
+            return segment;
+        }
+        return new Segment(ByteBuffer.allocateDirect(Math.max(size, required)));
+    }
+
+    static class Segment {
+        final ByteBuffer buffer;
+        final StampedLock lock = new StampedLock();
+        int live;
+
+        Segment(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Prepare the segment for reuse, invalidating optimistic reads that started before.
+         * All events stored in the segment have published their heap values.
+         */
+        void recycle() {
+            long stamp = lock.writeLock();
+            buffer.clear();
+            lock.unlockWrite(stamp);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+/**
+ * Immutable set of double ranges and their evaluators, kept as parallel arrays of primitive endpoints sorted
+ * ascending by minimum and then maximum (the same order as {@link DoubleRangeComparator}).
+ * <p>
+ * Changes return a new instance so that readers always work against a consistent snapshot.
+ */
+public final class DoubleRangeSortedArray {
+    /**
+     * Empty instance.
+     */
+    public static final DoubleRangeSortedArray EMPTY = new DoubleRangeSortedArray(new double[0], new double[0], new EventEvaluator[0]);
+
+    private final double[] mins;
+    private final double[] maxs;
+    private final EventEvaluator[] evaluators;
+
+    private DoubleRangeSortedArray(double[] mins, double[] maxs, EventEvaluator[] evaluators) {
+        this.mins = mins;
+        this.maxs = maxs;
+        this.evaluators = evaluators;
+    }
+
+    /**
+     * Returns the range minimums in ascending order.
+     *
+     * @return minimums, not to be modified
+     */
+    public double[] getMins() {
+        return mins;
+    }
+
+    /**
+     * Returns the range maximums in the order of the minimums.
+     *
+     * @return maximums, not to be modified
+     */
+    public double[] getMaxs() {
+        return maxs;
+    }
+
+    /**
+     * Returns the evaluators in the order of the minimums.
+     *
+     * @return evaluators, not to be modified
+     */
+    public EventEvaluator[] getEvaluators() {
+        return evaluators;
+    }
+
+    /**
+     * Returns the number of ranges.
+     *
+     * @return size
+     */
+    public int size() {
+        return mins.length;
+    }
+
+    /**
+     * Returns the evaluator for the range or null if the range is not found.
+     *
+     * @param range with non-null endpoints
+     * @return evaluator or null
+     */
+    public EventEvaluator get(DoubleRange range) {
+        int index = find(range.getMin(), range.getMax());
+        return index < 0 ? null : evaluators[index];
+    }
+
+    /**
+     * Returns a new instance that associates the range to the evaluator, replacing any existing evaluator for the range.
+     *
+     * @param range     with non-null endpoints
+     * @param evaluator to associate
+     * @return new instance
+     */
+    public DoubleRangeSortedArray put(DoubleRange range, EventEvaluator evaluator) {
+        double min = range.getMin();
+        double max = range.getMax();
+        int index = find(min, max);
+        if (index >= 0) {
+            EventEvaluator[] replaced = evaluators.clone();
+            replaced[index] = evaluator;
+            return new DoubleRangeSortedArray(mins, maxs, replaced);
+        }
+
+        int insert = -(index + 1);
+        int size = mins.length;
+        double[] newMins = new double[size + 1];
+        double[] newMaxs = new double[size + 1];
+        EventEvaluator[] newEvaluators = new EventEvaluator[size + 1];
+        System.arraycopy(mins, 0, newMins, 0, insert);
+        System.arraycopy(maxs, 0, newMaxs, 0, insert);
+        System.arraycopy(evaluators, 0, newEvaluators, 0, insert);
+        newMins[insert] = min;
+        newMaxs[insert] = max;
+        newEvaluators[insert] = evaluator;
+        System.arraycopy(mins, insert, newMins, insert + 1, size - insert);
+        System.arraycopy(maxs, insert, newMaxs, insert + 1, size - insert);
+        System.arraycopy(evaluators, insert, newEvaluators, insert + 1, size - insert);
+        return new DoubleRangeSortedArray(newMins, newMaxs, newEvaluators);
+    }
+
+    /**
+     * Returns a new instance without the range, or this instance if the range is not found.
+     *
+     * @param range with non-null endpoints
+     * @return instance without the range
+     */
+    public DoubleRangeSortedArray remove(DoubleRange range) {
+        int index = find(range.getMin(), range.getMax());
+        if (index < 0) {
+            return this;
+        }
+        int size = mins.length;
+        if (size == 1) {
+            return EMPTY;
+        }
+        double[] newMins = new double[size - 1];
+        double[] newMaxs = new double[size - 1];
+        EventEvaluator[] newEvaluators = new EventEvaluator[size - 1];
+        System.arraycopy(mins, 0, newMins, 0, index);
+        System.arraycopy(maxs, 0, newMaxs, 0, index);
+        System.arraycopy(evaluators, 0, newEvaluators, 0, index);
+        System.arraycopy(mins, index + 1, newMins, index, size - index - 1);
+        System.arraycopy(maxs, index + 1, newMaxs, index, size - index - 1);
+        System.arraycopy(evaluators, index + 1, newEvaluators, index, size - index - 1);
+        return new DoubleRangeSortedArray(newMins, newMaxs, newEvaluators);
+    }
+
+    /**
+     * Returns the index of the first range whose minimum is greater or equal to the value, or the size if none.
+     *
+     * @param value to compare
+     * @return index
+     */
+    public int firstMinAtLeast(double value) {
+        int low = 0;
+        int high = mins.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mins[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first range whose minimum is greater than the value, or the size if none.
+     *
+     * @param value to compare
+     * @return index
+     */
+    public int firstMinGreater(double value) {
+        int low = 0;
+        int high = mins.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mins[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int find(double min, double max) {
+        int low = 0;
+        int high = mins.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comp;
+            if (mins[mid] < min) {
+                comp = -1;
+            } else if (mins[mid] > min) {
+                comp = 1;
+            } else if (maxs[mid] < max) {
+                comp = -1;
+            } else if (maxs[mid] > max) {
+                comp = 1;
+            } else {
+                return mid;
+            }
+            if (comp < 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -27,6 +27,7 @@ public class EventTypeIndexBuilder {
     private final Map<FilterHandle, EventTypeIndexBuilderValueIndexesPair> isolatableCallbacks;
     private final Lock callbacksLock;
     private final EventTypeIndex eventTypeIndex;
+    private final boolean concurrentIndexes;
 
     /**
      * Constructor - takes the event type index to manipulate as its parameter.
@@ -35,7 +36,19 @@ public class EventTypeIndexBuilder {
      * @param allowIsolation - indicator whether isolated service provider is allowed for the engine
      */
     public EventTypeIndexBuilder(EventTypeIndex eventTypeIndex, boolean allowIsolation) {
+        this(eventTypeIndex, allowIsolation, false);
+    }
+
+    /**
+     * Constructor - takes the event type index to manipulate as its parameter.
+     *
+     * @param eventTypeIndex    - index to manipulate
+     * @param allowIsolation    - indicator whether isolated service provider is allowed for the engine
+     * @param concurrentIndexes - indicator whether to create indexes that match without a read lock where available
+     */
+    public EventTypeIndexBuilder(EventTypeIndex eventTypeIndex, boolean allowIsolation, boolean concurrentIndexes) {
         this.eventTypeIndex = eventTypeIndex;
+        this.concurrentIndexes = concurrentIndexes;
         this.callbacksLock = new ReentrantLock();
 
         if (allowIsolation) {
@@ -88,7 +101,7 @@ public class EventTypeIndexBuilder {
         }
 
         // Now add to tree
-        ArrayDeque<EventTypeIndexBuilderIndexLookupablePair>[] path = IndexTreeBuilder.add(filterValueSet, filterCallback, rootNode, lockFactory);
+        ArrayDeque<EventTypeIndexBuilderIndexLookupablePair>[] path = IndexTreeBuilder.add(filterValueSet, filterCallback, rootNode, lockFactory, concurrentIndexes);
         EventTypeIndexBuilderIndexLookupablePair[][] pathArray = new EventTypeIndexBuilderIndexLookupablePair[path.length][];
         for (int i = 0; i < path.length; i++) {
             pathArray[i] = path[i].toArray(new EventTypeIndexBuilderIndexLookupablePair[path[i].size()]);
@@ -13,8 +13,11 @@ package com.espertech.esper.filter;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorNullFlag;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorPrimitive;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,6 +29,8 @@ public class ExprNodeAdapterBase {
     protected final ExprNode exprNode;
     protected final ExprEvaluator exprNodeEval;
     protected final ExprEvaluatorContext evaluatorContext;
+    private final ExprEvaluatorPrimitive exprNodeEvalPrimitive;
+    private final ThreadLocal<ExprEvaluatorNullFlag> nullFlagPerThread;
 
     public ExprNodeAdapterBase(int filterSpecId, int filterSpecParamPathNum, ExprNode exprNode, ExprEvaluatorContext evaluatorContext) {
         this.filterSpecId = filterSpecId;
@@ -33,6 +38,18 @@ public class ExprNodeAdapterBase {
         this.exprNode = exprNode;
         this.exprNodeEval = exprNode.getExprEvaluator();
         this.evaluatorContext = evaluatorContext;
+        this.exprNodeEvalPrimitive = exprNodeEval instanceof ExprEvaluatorPrimitive ? (ExprEvaluatorPrimitive) exprNodeEval : null;
+
+        // adapters evaluate concurrently, each thread has its own null flag
+        if (exprNodeEvalPrimitive != null) {
+            nullFlagPerThread = new ThreadLocal<ExprEvaluatorNullFlag>() {
+                protected synchronized ExprEvaluatorNullFlag initialValue() {
+                    return new ExprEvaluatorNullFlag();
+                }
+            };
+        } else {
+            nullFlagPerThread = null;
+        }
     }
 
     /**
@@ -47,6 +64,11 @@ public class ExprNodeAdapterBase {
 
     protected boolean evaluatePerStream(EventBean[] eventsPerStream) {
         try {
+            if (exprNodeEvalPrimitive != null && !InstrumentationHelper.ENABLED) {
+                ExprEvaluatorNullFlag nullFlag = nullFlagPerThread.get();
+                boolean result = exprNodeEvalPrimitive.evaluateBoolean(eventsPerStream, true, this.evaluatorContext, nullFlag);
+                return result && !nullFlag.isNull();
+            }
             Boolean result = (Boolean) exprNodeEval.evaluate(eventsPerStream, true, this.evaluatorContext);
             if (result == null) {
                 return false;
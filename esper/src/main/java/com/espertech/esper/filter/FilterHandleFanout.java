@@ -0,0 +1,29 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+
+import java.util.Collection;
+
+/**
+ * A filter handle that stands for a number of other filter handles and that, when its filter matches an event,
+ * contributes those handles to the matches instead of itself.
+ */
+public interface FilterHandleFanout extends FilterHandle {
+    /**
+     * Add the filter handles that the event matches to the list of matches.
+     *
+     * @param theEvent event that matched the filter
+     * @param matches  list of matches to add to
+     */
+    public void addMatches(EventBean theEvent, Collection<FilterHandle> matches);
+}
@@ -111,7 +111,11 @@ public final class FilterHandleSetNode implements EventEvaluator {
 
             // Add each filter callback stored in this node to the matching list
             for (FilterHandle filterCallback : callbackSet) {
-                matches.add(filterCallback);
+                if (filterCallback instanceof FilterHandleFanout) {
+                    ((FilterHandleFanout) filterCallback).addMatches(theEvent, matches);
+                } else {
+                    matches.add(filterCallback);
+                }
             }
         } finally {
             nodeRWLock.readLock().unlock();
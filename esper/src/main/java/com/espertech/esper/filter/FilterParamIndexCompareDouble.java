@@ -0,0 +1,199 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants for the comparison operators (less, greater, etc) for numeric properties
+ * whose values convert to double without loss of precision, i.e. double, float, int, short and byte.
+ * <p>
+ * The implementation keeps the constants as a sorted array of primitive double values with a parallel array of
+ * evaluators and finds the matching constants by binary search. Changes replace both arrays so that matching
+ * does not allocate, does not acquire the read lock and sees a consistent snapshot.
+ * Constants are ordered as by {@link Double#compare(double, double)}, same as a sorted map of boxed values.
+ */
+public final class FilterParamIndexCompareDouble extends FilterParamIndexLookupableBase {
+    private final ReadWriteLock constantsRWLock;
+    private volatile Constants constants = Constants.EMPTY;
+
+    public FilterParamIndexCompareDouble(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
+        super(filterOperator, lookupable);
+        constantsRWLock = readWriteLock;
+
+        if ((filterOperator != FilterOperator.GREATER) &&
+                (filterOperator != FilterOperator.GREATER_OR_EQUAL) &&
+                (filterOperator != FilterOperator.LESS) &&
+                (filterOperator != FilterOperator.LESS_OR_EQUAL)) {
+            throw new IllegalArgumentException("Invalid filter operator for index of " + filterOperator);
+        }
+    }
+
+    public final EventEvaluator get(Object filterConstant) {
+        Constants current = constants;
+        int index = current.find(((Number) filterConstant).doubleValue());
+        return index < 0 ? null : current.evaluators[index];
+    }
+
+    public final void put(Object filterConstant, EventEvaluator matcher) {
+        constants = constants.put(((Number) filterConstant).doubleValue(), matcher);
+    }
+
+    public final void remove(Object filterConstant) {
+        constants = constants.remove(((Number) filterConstant).doubleValue());
+    }
+
+    public final int sizeExpensive() {
+        return constants.keys.length;
+    }
+
+    public boolean isEmpty() {
+        return constants.keys.length == 0;
+    }
+
+    public final ReadWriteLock getReadWriteLock() {
+        return constantsRWLock;
+    }
+
+    public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        Object propertyValue = lookupable.getGetter().get(theEvent);
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qFilterReverseIndex(this, propertyValue);
+        }
+
+        Constants current = constants;
+        if (propertyValue == null || current.keys.length == 0) {
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aFilterReverseIndex(false);
+            }
+            return;
+        }
+
+        double value = ((Number) propertyValue).doubleValue();
+        FilterOperator filterOperator = this.getFilterOperator();
+
+        // The head of the array holds the lower constants and the tail the higher constants
+        int start;
+        int end;
+        if (filterOperator == FilterOperator.GREATER) {
+            start = 0;
+            end = current.lowerBound(value);
+        } else if (filterOperator == FilterOperator.GREATER_OR_EQUAL) {
+            start = 0;
+            end = current.upperBound(value);
+        } else if (filterOperator == FilterOperator.LESS) {
+            start = current.upperBound(value);
+            end = current.keys.length;
+        } else {
+            start = current.lowerBound(value);
+            end = current.keys.length;
+        }
+
+        EventEvaluator[] evaluators = current.evaluators;
+        for (int i = start; i < end; i++) {
+            evaluators[i].matchEvent(theEvent, matches);
+        }
+
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aFilterReverseIndex(null);
+        }
+    }
+
+    private static final class Constants {
+        private static final Constants EMPTY = new Constants(new double[0], new EventEvaluator[0]);
+
+        private final double[] keys;
+        private final EventEvaluator[] evaluators;
+
+        private Constants(double[] keys, EventEvaluator[] evaluators) {
+            this.keys = keys;
+            this.evaluators = evaluators;
+        }
+
+        private Constants put(double key, EventEvaluator evaluator) {
+            int index = find(key);
+            if (index >= 0) {
+                EventEvaluator[] replaced = evaluators.clone();
+                replaced[index] = evaluator;
+                return new Constants(keys, replaced);
+            }
+            int insert = -(index + 1);
+            double[] newKeys = new double[keys.length + 1];
+            EventEvaluator[] newEvaluators = new EventEvaluator[keys.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insert);
+            System.arraycopy(evaluators, 0, newEvaluators, 0, insert);
+            newKeys[insert] = key;
+            newEvaluators[insert] = evaluator;
+            System.arraycopy(keys, insert, newKeys, insert + 1, keys.length - insert);
+            System.arraycopy(evaluators, insert, newEvaluators, insert + 1, keys.length - insert);
+            return new Constants(newKeys, newEvaluators);
+        }
+
+        private Constants remove(double key) {
+            int index = find(key);
+            if (index < 0) {
+                return this;
+            }
+            if (keys.length == 1) {
+                return EMPTY;
+            }
+            double[] newKeys = new double[keys.length - 1];
+            EventEvaluator[] newEvaluators = new EventEvaluator[keys.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(evaluators, 0, newEvaluators, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(evaluators, index + 1, newEvaluators, index, keys.length - index - 1);
+            return new Constants(newKeys, newEvaluators);
+        }
+
+        private int find(double key) {
+            int index = lowerBound(key);
+            if (index < keys.length && Double.compare(keys[index], key) == 0) {
+                return index;
+            }
+            return -(index + 1);
+        }
+
+        // index of the first key greater or equal to the value
+        private int lowerBound(double value) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (Double.compare(keys[mid], value) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // index of the first key greater than the value
+        private int upperBound(double value) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (Double.compare(keys[mid], value) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
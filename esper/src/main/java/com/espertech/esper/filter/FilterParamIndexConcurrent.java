@@ -0,0 +1,21 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+/**
+ * Marker interface for filter parameter indexes that allow event matching without acquiring the read lock.
+ * <p>
+ * Writers still use the lock supplied by {@link FilterParamIndexBase#getReadWriteLock()} to coordinate
+ * among each other. Since readers may observe the index at any time, such indexes replace an entry for a
+ * constant in a single put call and the index tree builder does not remove the entry first.
+ */
+public interface FilterParamIndexConcurrent {
+}
@@ -16,13 +16,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
-import java.util.Map;
-import java.util.SortedMap;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
  * Index for filter parameter constants for the range operators (range open/closed/half).
- * The implementation is based on the SortedMap implementation of TreeMap and stores only expression
+ * The implementation searches the sorted range endpoints by binary search and stores only expression
  * parameter values of type DoubleRange.
  */
 public final class FilterParamIndexDoubleRange extends FilterParamIndexDoubleRangeBase {
@@ -48,44 +46,47 @@ public final class FilterParamIndexDoubleRange extends FilterParamIndexDoubleRan
 
         double attributeValue = ((Number) objAttributeValue).doubleValue();
 
-        DoubleRange rangeStart = new DoubleRange(attributeValue - largestRangeValueDouble, attributeValue);
-        DoubleRange rangeEnd = new DoubleRange(attributeValue, Double.MAX_VALUE);
-
-        SortedMap<DoubleRange, EventEvaluator> subMap = ranges.subMap(rangeStart, rangeEnd);
+        // Candidates are the ranges with a minimum between the value less the largest range and the value
+        DoubleRangeSortedArray current = ranges;
+        double[] mins = current.getMins();
+        double[] maxs = current.getMaxs();
+        EventEvaluator[] evaluators = current.getEvaluators();
+        int start = current.firstMinAtLeast(attributeValue - largestRangeValueDouble);
+        int end = current.firstMinGreater(attributeValue);
 
         // For not including either endpoint
         // A bit awkward to duplicate the loop code, however better than checking the boolean many times over
         // This may be a bit of an early performance optimization - the optimizer after all may do this better
         if (this.getFilterOperator() == FilterOperator.RANGE_OPEN) {
             // include neither endpoint
-            for (Map.Entry<DoubleRange, EventEvaluator> entry : subMap.entrySet()) {
-                if ((attributeValue > entry.getKey().getMin()) &&
-                        (attributeValue < entry.getKey().getMax())) {
-                    entry.getValue().matchEvent(theEvent, matches);
+            for (int i = start; i < end; i++) {
+                if ((attributeValue > mins[i]) &&
+                        (attributeValue < maxs[i])) {
+                    evaluators[i].matchEvent(theEvent, matches);
                 }
             }
         } else if (this.getFilterOperator() == FilterOperator.RANGE_CLOSED) {
             // include all endpoints
-            for (Map.Entry<DoubleRange, EventEvaluator> entry : subMap.entrySet()) {
-                if ((attributeValue >= entry.getKey().getMin()) &&
-                        (attributeValue <= entry.getKey().getMax())) {
-                    entry.getValue().matchEvent(theEvent, matches);
+            for (int i = start; i < end; i++) {
+                if ((attributeValue >= mins[i]) &&
+                        (attributeValue <= maxs[i])) {
+                    evaluators[i].matchEvent(theEvent, matches);
                 }
             }
         } else if (this.getFilterOperator() == FilterOperator.RANGE_HALF_CLOSED) {
             // include high endpoint not low endpoint
-            for (Map.Entry<DoubleRange, EventEvaluator> entry : subMap.entrySet()) {
-                if ((attributeValue > entry.getKey().getMin()) &&
-                        (attributeValue <= entry.getKey().getMax())) {
-                    entry.getValue().matchEvent(theEvent, matches);
+            for (int i = start; i < end; i++) {
+                if ((attributeValue > mins[i]) &&
+                        (attributeValue <= maxs[i])) {
+                    evaluators[i].matchEvent(theEvent, matches);
                 }
             }
         } else if (this.getFilterOperator() == FilterOperator.RANGE_HALF_OPEN) {
             // include low endpoint not high endpoint
-            for (Map.Entry<DoubleRange, EventEvaluator> entry : subMap.entrySet()) {
-                if ((attributeValue >= entry.getKey().getMin()) &&
-                        (attributeValue < entry.getKey().getMax())) {
-                    entry.getValue().matchEvent(theEvent, matches);
+            for (int i = start; i < end; i++) {
+                if ((attributeValue >= mins[i]) &&
+                        (attributeValue < maxs[i])) {
+                    evaluators[i].matchEvent(theEvent, matches);
                 }
             }
         } else {
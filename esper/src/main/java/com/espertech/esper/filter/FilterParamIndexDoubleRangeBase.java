@@ -14,16 +14,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.IdentityHashMap;
-import java.util.TreeMap;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
  * Index for filter parameter constants for the range operators (range open/closed/half).
- * The implementation is based on the SortedMap implementation of TreeMap and stores only expression
- * parameter values of type DoubleRange.
+ * The implementation keeps the range endpoints as sorted primitive double arrays, see {@link DoubleRangeSortedArray},
+ * and stores only expression parameter values of type DoubleRange.
+ * Changes replace the arrays so that matching does not allocate and sees a consistent snapshot.
  */
 public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLookupableBase {
-    protected final TreeMap<DoubleRange, EventEvaluator> ranges;
+    protected volatile DoubleRangeSortedArray ranges = DoubleRangeSortedArray.EMPTY;
     private final IdentityHashMap<DoubleRange, EventEvaluator> rangesNullEndpoints;
     private final ReadWriteLock rangesRWLock;
 
@@ -32,7 +32,6 @@ public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLo
     protected FilterParamIndexDoubleRangeBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, FilterOperator filterOperator) {
         super(filterOperator, lookupable);
 
-        ranges = new TreeMap<DoubleRange, EventEvaluator>(new DoubleRangeComparator());
         rangesNullEndpoints = new IdentityHashMap<DoubleRange, EventEvaluator>();
         rangesRWLock = readWriteLock;
     }
@@ -65,7 +64,7 @@ public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLo
             largestRangeValueDouble = Math.abs(range.getMax() - range.getMin());
         }
 
-        ranges.put(range, matcher);
+        ranges = ranges.put(range, matcher);
     }
 
     public final void remove(Object filterConstant) {
@@ -75,7 +74,7 @@ public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLo
             rangesNullEndpoints.remove(range);
             return;
         }
-        ranges.remove(range);
+        ranges = ranges.remove(range);
     }
 
     public final int sizeExpensive() {
@@ -83,7 +82,7 @@ public abstract class FilterParamIndexDoubleRangeBase extends FilterParamIndexLo
     }
 
     public boolean isEmpty() {
-        return ranges.isEmpty();
+        return ranges.size() == 0;
     }
 
     public final ReadWriteLock getReadWriteLock() {
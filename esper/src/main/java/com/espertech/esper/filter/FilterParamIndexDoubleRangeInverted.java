@@ -14,12 +14,11 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
 import java.util.Collection;
-import java.util.Map;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
  * Index for filter parameter constants for the not range operators (range open/closed/half).
- * The implementation is based on the SortedMap implementation of TreeMap and stores only expression
+ * The implementation iterates the sorted range endpoints and stores only expression
  * parameter values of type DoubleRange.
  */
 public final class FilterParamIndexDoubleRangeInverted extends FilterParamIndexDoubleRangeBase {
@@ -44,38 +43,55 @@ public final class FilterParamIndexDoubleRangeInverted extends FilterParamIndexD
         }
 
         double attributeValue = ((Number) objAttributeValue).doubleValue();
+        if (Double.isNaN(attributeValue)) {   // NaN is not comparable and cannot be outside any range
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aFilterReverseIndex(false);
+            }
+            return;
+        }
+
+        // Ranges with a minimum greater than the value cannot contain the value and always match,
+        // ranges with a lower minimum are checked against the operator
+        DoubleRangeSortedArray current = ranges;
+        double[] mins = current.getMins();
+        double[] maxs = current.getMaxs();
+        EventEvaluator[] evaluators = current.getEvaluators();
+        int end = current.firstMinGreater(attributeValue);
 
         if (this.getFilterOperator() == FilterOperator.NOT_RANGE_CLOSED) {   // include all endpoints
-            for (Map.Entry<DoubleRange, EventEvaluator> entry : ranges.entrySet()) {
-                if ((attributeValue < entry.getKey().getMin()) ||
-                        (attributeValue > entry.getKey().getMax())) {
-                    entry.getValue().matchEvent(theEvent, matches);
+            for (int i = 0; i < end; i++) {
+                if ((attributeValue < mins[i]) ||
+                        (attributeValue > maxs[i])) {
+                    evaluators[i].matchEvent(theEvent, matches);
                 }
             }
         } else if (this.getFilterOperator() == FilterOperator.NOT_RANGE_OPEN) { // include neither endpoint
-            for (Map.Entry<DoubleRange, EventEvaluator> entry : ranges.entrySet()) {
-                if ((attributeValue <= entry.getKey().getMin()) ||
-                        (attributeValue >= entry.getKey().getMax())) {
-                    entry.getValue().matchEvent(theEvent, matches);
+            for (int i = 0; i < end; i++) {
+                if ((attributeValue <= mins[i]) ||
+                        (attributeValue >= maxs[i])) {
+                    evaluators[i].matchEvent(theEvent, matches);
                 }
             }
         } else if (this.getFilterOperator() == FilterOperator.NOT_RANGE_HALF_CLOSED) { // include high endpoint not low endpoint
-            for (Map.Entry<DoubleRange, EventEvaluator> entry : ranges.entrySet()) {
-                if ((attributeValue <= entry.getKey().getMin()) ||
-                        (attributeValue > entry.getKey().getMax())) {
-                    entry.getValue().matchEvent(theEvent, matches);
+            for (int i = 0; i < end; i++) {
+                if ((attributeValue <= mins[i]) ||
+                        (attributeValue > maxs[i])) {
+                    evaluators[i].matchEvent(theEvent, matches);
                 }
             }
         } else if (this.getFilterOperator() == FilterOperator.NOT_RANGE_HALF_OPEN) { // include low endpoint not high endpoint
-            for (Map.Entry<DoubleRange, EventEvaluator> entry : ranges.entrySet()) {
-                if ((attributeValue < entry.getKey().getMin()) ||
-                        (attributeValue >= entry.getKey().getMax())) {
-                    entry.getValue().matchEvent(theEvent, matches);
+            for (int i = 0; i < end; i++) {
+                if ((attributeValue < mins[i]) ||
+                        (attributeValue >= maxs[i])) {
+                    evaluators[i].matchEvent(theEvent, matches);
                 }
             }
         } else {
             throw new IllegalStateException("Invalid filter operator " + this.getFilterOperator());
         }
+        for (int i = end; i < evaluators.length; i++) {
+            evaluators[i].matchEvent(theEvent, matches);
+        }
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().aFilterReverseIndex(null);
         }
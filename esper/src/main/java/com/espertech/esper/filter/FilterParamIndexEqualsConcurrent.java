@@ -0,0 +1,91 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants to match using the equals (=) operator.
+ * The implementation is based on a ConcurrentHashMap and matching does not acquire the read lock,
+ * for use when events are processed by multiple threads.
+ */
+public final class FilterParamIndexEqualsConcurrent extends FilterParamIndexLookupableBase implements FilterParamIndexConcurrent {
+    private static final Object NULL_KEY = new Object();
+
+    private final ConcurrentHashMap<Object, EventEvaluator> constantsMap;
+    private final ReadWriteLock constantsMapRWLock;
+
+    public FilterParamIndexEqualsConcurrent(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
+        super(FilterOperator.EQUAL, lookupable);
+
+        constantsMap = new ConcurrentHashMap<Object, EventEvaluator>();
+        constantsMapRWLock = readWriteLock;
+    }
+
+    public final EventEvaluator get(Object filterConstant) {
+        return constantsMap.get(filterConstant == null ? NULL_KEY : filterConstant);
+    }
+
+    public final void put(Object filterConstant, EventEvaluator evaluator) {
+        constantsMap.put(filterConstant == null ? NULL_KEY : filterConstant, evaluator);
+    }
+
+    public final void remove(Object filterConstant) {
+        constantsMap.remove(filterConstant == null ? NULL_KEY : filterConstant);
+    }
+
+    public final int sizeExpensive() {
+        return constantsMap.size();
+    }
+
+    public boolean isEmpty() {
+        return constantsMap.isEmpty();
+    }
+
+    public final ReadWriteLock getReadWriteLock() {
+        return constantsMapRWLock;
+    }
+
+    public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        Object attributeValue = lookupable.getGetter().get(theEvent);
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qFilterReverseIndex(this, attributeValue);
+        }
+
+        if (attributeValue == null) {   //  null cannot match, not even null: requires use of "is"
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aFilterReverseIndex(false);
+            }
+            return;
+        }
+
+        // Look up in hashtable, no lock required
+        EventEvaluator evaluator = constantsMap.get(attributeValue);
+
+        // No listener found for the value, return
+        if (evaluator == null) {
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aFilterReverseIndex(false);
+            }
+            return;
+        }
+
+        evaluator.matchEvent(theEvent, matches);
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aFilterReverseIndex(true);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants to match using the 'in' operator to match against a supplied set of values
+ * (i.e. multiple possible exact matches).
+ * The implementation is based on a ConcurrentHashMap holding copy-on-write arrays of evaluators per value
+ * and matching does not acquire the read lock, for use when events are processed by multiple threads.
+ */
+public final class FilterParamIndexInConcurrent extends FilterParamIndexLookupableBase implements FilterParamIndexConcurrent {
+    private static final Object NULL_KEY = new Object();
+
+    private final ConcurrentHashMap<Object, EventEvaluator[]> constantsMap;
+    private final Map<MultiKeyUntyped, EventEvaluator> evaluatorsMap;
+    private final ReadWriteLock constantsMapRWLock;
+
+    public FilterParamIndexInConcurrent(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
+        super(FilterOperator.IN_LIST_OF_VALUES, lookupable);
+
+        constantsMap = new ConcurrentHashMap<Object, EventEvaluator[]>();
+        evaluatorsMap = new HashMap<MultiKeyUntyped, EventEvaluator>();
+        constantsMapRWLock = readWriteLock;
+    }
+
+    public final EventEvaluator get(Object filterConstant) {
+        MultiKeyUntyped keyValues = (MultiKeyUntyped) filterConstant;
+        return evaluatorsMap.get(keyValues);
+    }
+
+    public final void put(Object filterConstant, EventEvaluator evaluator) {
+        // Store evaluator keyed to set of values
+        MultiKeyUntyped keys = (MultiKeyUntyped) filterConstant;
+
+        // make sure to replace the old evaluator for this constant
+        EventEvaluator oldEvaluator = evaluatorsMap.put(keys, evaluator);
+
+        // Store each value to match against in Map with it's evaluator as an array, replacing the array on change
+        Object[] keyValues = keys.getKeys();
+        for (int i = 0; i < keyValues.length; i++) {
+            Object key = keyValues[i] == null ? NULL_KEY : keyValues[i];
+            EventEvaluator[] evaluators = constantsMap.get(key);
+            if (evaluators == null) {
+                constantsMap.put(key, new EventEvaluator[]{evaluator});
+                continue;
+            }
+            if (oldEvaluator != null) {
+                evaluators = removeFromArray(evaluators, oldEvaluator);
+            }
+            EventEvaluator[] added = new EventEvaluator[evaluators.length + 1];
+            System.arraycopy(evaluators, 0, added, 0, evaluators.length);
+            added[evaluators.length] = evaluator;
+            constantsMap.put(key, added);
+        }
+    }
+
+    public final void remove(Object filterConstant) {
+        MultiKeyUntyped keys = (MultiKeyUntyped) filterConstant;
+
+        // remove the mapping of value set to evaluator
+        EventEvaluator eval = evaluatorsMap.remove(keys);
+        if (eval == null) {
+            return;
+        }
+
+        Object[] keyValues = keys.getKeys();
+        for (int i = 0; i < keyValues.length; i++) {
+            Object key = keyValues[i] == null ? NULL_KEY : keyValues[i];
+            EventEvaluator[] evaluators = constantsMap.get(key);
+            if (evaluators == null) {
+                continue;   // could be removed already as same-value constants existed
+            }
+            EventEvaluator[] remaining = removeFromArray(evaluators, eval);
+            if (remaining.length == 0) {
+                constantsMap.remove(key);
+            } else if (remaining != evaluators) {
+                constantsMap.put(key, remaining);
+            }
+        }
+    }
+
+    public final int sizeExpensive() {
+        return constantsMap.size();
+    }
+
+    public boolean isEmpty() {
+        return constantsMap.isEmpty();
+    }
+
+    public final ReadWriteLock getReadWriteLock() {
+        return constantsMapRWLock;
+    }
+
+    public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        Object attributeValue = lookupable.getGetter().get(theEvent);
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qFilterReverseIndex(this, attributeValue);
+        }
+
+        if (attributeValue == null) {
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aFilterReverseIndex(false);
+            }
+            return;
+        }
+
+        // Look up in hashtable, the array is never modified once published and no lock is required
+        EventEvaluator[] evaluators = constantsMap.get(attributeValue);
+
+        // No listener found for the value, return
+        if (evaluators == null) {
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aFilterReverseIndex(false);
+            }
+            return;
+        }
+
+        for (EventEvaluator evaluator : evaluators) {
+            evaluator.matchEvent(theEvent, matches);
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aFilterReverseIndex(null);
+        }
+    }
+
+    private static EventEvaluator[] removeFromArray(EventEvaluator[] evaluators, EventEvaluator evaluator) {
+        for (int i = 0; i < evaluators.length; i++) {
+            if (evaluators[i] == evaluator) {
+                EventEvaluator[] removed = new EventEvaluator[evaluators.length - 1];
+                System.arraycopy(evaluators, 0, removed, 0, i);
+                System.arraycopy(evaluators, i + 1, removed, i, evaluators.length - i - 1);
+                return removed;
+            }
+        }
+        return evaluators;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants to match using the not-equals (!=) operator.
+ * The implementation is based on a ConcurrentHashMap and matching does not acquire the read lock,
+ * for use when events are processed by multiple threads.
+ */
+public final class FilterParamIndexNotEqualsConcurrent extends FilterParamIndexLookupableBase implements FilterParamIndexConcurrent {
+    private static final Object NULL_KEY = new Object();
+
+    private final ConcurrentHashMap<Object, EventEvaluator> constantsMap;
+    private final ReadWriteLock constantsMapRWLock;
+
+    public FilterParamIndexNotEqualsConcurrent(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
+        super(FilterOperator.NOT_EQUAL, lookupable);
+
+        constantsMap = new ConcurrentHashMap<Object, EventEvaluator>();
+        constantsMapRWLock = readWriteLock;
+    }
+
+    public final EventEvaluator get(Object filterConstant) {
+        return constantsMap.get(filterConstant == null ? NULL_KEY : filterConstant);
+    }
+
+    public final void put(Object filterConstant, EventEvaluator evaluator) {
+        constantsMap.put(filterConstant == null ? NULL_KEY : filterConstant, evaluator);
+    }
+
+    public final void remove(Object filterConstant) {
+        constantsMap.remove(filterConstant == null ? NULL_KEY : filterConstant);
+    }
+
+    public final int sizeExpensive() {
+        return constantsMap.size();
+    }
+
+    public boolean isEmpty() {
+        return constantsMap.isEmpty();
+    }
+
+    public final ReadWriteLock getReadWriteLock() {
+        return constantsMapRWLock;
+    }
+
+    public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches) {
+        Object attributeValue = lookupable.getGetter().get(theEvent);
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qFilterReverseIndex(this, attributeValue);
+        }
+
+        if (attributeValue == null) {   // null cannot match any other value, not even null (use "is" or "is not", i.e. null != null returns null)
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aFilterReverseIndex(false);
+            }
+            return;
+        }
+
+        // Iterate the hashtable, the iterator is weakly consistent and no lock is required
+        for (Map.Entry<Object, EventEvaluator> entry : constantsMap.entrySet()) {
+            if (entry.getKey() == NULL_KEY) {
+                continue;   // null-value cannot match, not even null (use "is" or "is not", i.e. null != null returns null)
+            }
+
+            if (!entry.getKey().equals(attributeValue)) {
+                entry.getValue().matchEvent(theEvent, matches);
+            }
+        }
+
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aFilterReverseIndex(null);
+        }
+    }
+}
@@ -39,10 +39,10 @@ public abstract class FilterServiceBase implements FilterServiceSPI {
     private volatile long filtersVersion = 1;
     private final CopyOnWriteArraySet<FilterServiceListener> filterServiceListeners;
 
-    protected FilterServiceBase(FilterServiceGranularLockFactory lockFactory, boolean allowIsolation) {
+    protected FilterServiceBase(FilterServiceGranularLockFactory lockFactory, boolean allowIsolation, boolean concurrentIndexes) {
         this.lockFactory = lockFactory;
         eventTypeIndex = new EventTypeIndex(lockFactory);
-        indexBuilder = new EventTypeIndexBuilder(eventTypeIndex, allowIsolation);
+        indexBuilder = new EventTypeIndexBuilder(eventTypeIndex, allowIsolation, concurrentIndexes);
         filterServiceListeners = new CopyOnWriteArraySet<FilterServiceListener>();
     }
 
@@ -21,7 +21,11 @@ public final class FilterServiceLockCoarse extends FilterServiceBase {
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 
     public FilterServiceLockCoarse(boolean allowIsolation) {
-        super(FilterServiceGranularLockFactoryNone.INSTANCE, allowIsolation);
+        this(allowIsolation, false);
+    }
+
+    public FilterServiceLockCoarse(boolean allowIsolation, boolean concurrentIndexes) {
+        super(FilterServiceGranularLockFactoryNone.INSTANCE, allowIsolation, concurrentIndexes);
     }
 
     public void acquireWriteLock() {
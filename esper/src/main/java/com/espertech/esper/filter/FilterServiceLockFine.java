@@ -21,7 +21,11 @@ public final class FilterServiceLockFine extends FilterServiceBase {
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 
     public FilterServiceLockFine(boolean allowIsolation) {
-        super(new FilterServiceGranularLockFactoryReentrant(), allowIsolation);
+        this(allowIsolation, false);
+    }
+
+    public FilterServiceLockFine(boolean allowIsolation, boolean concurrentIndexes) {
+        super(new FilterServiceGranularLockFactoryReentrant(), allowIsolation, concurrentIndexes);
     }
 
     public void acquireWriteLock() {
@@ -24,10 +24,23 @@ public final class FilterServiceProvider {
      * @return implementation
      */
     public static FilterServiceSPI newService(ConfigurationEngineDefaults.FilterServiceProfile filterServiceProfile, boolean allowIsolation) {
+        return newService(filterServiceProfile, allowIsolation, false);
+    }
+
+    /**
+     * Creates an implementation of the FilterEvaluationService interface.
+     *
+     * @param filterServiceProfile config
+     * @param allowIsolation       whether isolation is supported
+     * @param concurrentIndexes    whether to use equals, not-equals and in-list indexes that match without a read lock,
+     *                             for use with inbound threading
+     * @return implementation
+     */
+    public static FilterServiceSPI newService(ConfigurationEngineDefaults.FilterServiceProfile filterServiceProfile, boolean allowIsolation, boolean concurrentIndexes) {
         if (filterServiceProfile == ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY) {
-            return new FilterServiceLockCoarse(allowIsolation);
+            return new FilterServiceLockCoarse(allowIsolation, concurrentIndexes);
         } else {
-            return new FilterServiceLockFine(allowIsolation);
+            return new FilterServiceLockFine(allowIsolation, concurrentIndexes);
         }
     }
 }
@@ -12,6 +12,7 @@ package com.espertech.esper.filter;
 
 import com.espertech.esper.epl.index.quadtree.EngineImportApplicationDotMethodPointInsideRectange;
 import com.espertech.esper.epl.index.quadtree.EngineImportApplicationDotMethodRectangeIntersectsRectangle;
+import com.espertech.esper.util.JavaClassHelper;
 
 /**
  * Factory for {@link FilterParamIndexBase} instances based on event property name and filter operator type.
@@ -28,17 +29,38 @@ public class IndexFactory {
      * @return the proper index based on the filter operator type
      */
     public static FilterParamIndexBase createIndex(FilterSpecLookupable lookupable, FilterServiceGranularLockFactory lockFactory, FilterOperator filterOperator) {
+        return createIndex(lookupable, lockFactory, filterOperator, false);
+    }
+
+    /**
+     * Factory for indexes that store filter parameter constants for a given event property and filter
+     * operator.
+     * <p>Does not perform any check of validity of property name.
+     *
+     * @param filterOperator    is the type of index to use
+     * @param lockFactory       lock factory
+     * @param lookupable        the lookup item
+     * @param concurrentIndexes indicator whether to use the equals, not-equals and in-list indexes that match without a read lock
+     * @return the proper index based on the filter operator type
+     */
+    public static FilterParamIndexBase createIndex(FilterSpecLookupable lookupable, FilterServiceGranularLockFactory lockFactory, FilterOperator filterOperator, boolean concurrentIndexes) {
         FilterParamIndexBase index;
         Class returnValueType = lookupable.getReturnType();
 
         // Handle all EQUAL comparisons
         if (filterOperator == FilterOperator.EQUAL) {
+            if (concurrentIndexes) {
+                return new FilterParamIndexEqualsConcurrent(lookupable, lockFactory.obtainNew());
+            }
             index = new FilterParamIndexEquals(lookupable, lockFactory.obtainNew());
             return index;
         }
 
         // Handle all NOT-EQUAL comparisons
         if (filterOperator == FilterOperator.NOT_EQUAL) {
+            if (concurrentIndexes) {
+                return new FilterParamIndexNotEqualsConcurrent(lookupable, lockFactory.obtainNew());
+            }
             index = new FilterParamIndexNotEquals(lookupable, lockFactory.obtainNew());
             return index;
         }
@@ -58,7 +80,9 @@ public class IndexFactory {
                 (filterOperator == FilterOperator.GREATER_OR_EQUAL) ||
                 (filterOperator == FilterOperator.LESS) ||
                 (filterOperator == FilterOperator.LESS_OR_EQUAL)) {
-            if (returnValueType != String.class) {
+            if (isExactAsDouble(returnValueType)) {
+                index = new FilterParamIndexCompareDouble(lookupable, lockFactory.obtainNew(), filterOperator);
+            } else if (returnValueType != String.class) {
                 index = new FilterParamIndexCompare(lookupable, lockFactory.obtainNew(), filterOperator);
             } else {
                 index = new FilterParamIndexCompareString(lookupable, lockFactory.obtainNew(), filterOperator);
@@ -85,6 +109,9 @@ public class IndexFactory {
 
         // Handle all IN and NOT IN comparisons
         if (filterOperator == FilterOperator.IN_LIST_OF_VALUES) {
+            if (concurrentIndexes) {
+                return new FilterParamIndexInConcurrent(lookupable, lockFactory.obtainNew());
+            }
             return new FilterParamIndexIn(lookupable, lockFactory.obtainNew());
         }
         if (filterOperator == FilterOperator.NOT_IN_LIST_OF_VALUES) {
@@ -110,5 +137,10 @@ public class IndexFactory {
         }
         throw new IllegalArgumentException("Cannot create filter index instance for filter operator " + filterOperator);
     }
+
+    private static boolean isExactAsDouble(Class returnValueType) {
+        Class boxed = JavaClassHelper.getBoxedType(returnValueType);
+        return boxed == Double.class || boxed == Float.class || boxed == Integer.class || boxed == Short.class || boxed == Byte.class;
+    }
 }
 
@@ -44,6 +44,25 @@ public final class IndexTreeBuilder {
                                                                              FilterHandle filterCallback,
                                                                              FilterHandleSetNode topNode,
                                                                              FilterServiceGranularLockFactory lockFactory) {
+        return add(filterValueSet, filterCallback, topNode, lockFactory, false);
+    }
+
+    /**
+     * Add a filter callback according to the filter specification to the top node returning
+     * information to be used to remove the filter callback.
+     *
+     * @param filterValueSet    is the filter definition
+     * @param filterCallback    is the callback to be added
+     * @param topNode           node to be added to any subnode beneath it
+     * @param lockFactory       lock factory
+     * @param concurrentIndexes indicator whether new indexes should be created as concurrent indexes where available
+     * @return an encapsulation of information need to allow for safe removal of the filter tree.
+     */
+    public static ArrayDeque<EventTypeIndexBuilderIndexLookupablePair>[] add(FilterValueSet filterValueSet,
+                                                                             FilterHandle filterCallback,
+                                                                             FilterHandleSetNode topNode,
+                                                                             FilterServiceGranularLockFactory lockFactory,
+                                                                             boolean concurrentIndexes) {
         if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled())) {
             log.debug(".add (" + Thread.currentThread().getId() + ") Adding filter callback, " +
                     "  topNode=" + topNode +
@@ -54,7 +73,7 @@ public final class IndexTreeBuilder {
         if (filterValueSet.getParameters().length == 0) {
             treePathInfo = allocateTreePath(1);
             treePathInfo[0] = new ArrayDeque<EventTypeIndexBuilderIndexLookupablePair>(1);
-            addToNode(new ArrayDeque<FilterValueSetParam>(1), filterCallback, topNode, treePathInfo[0], lockFactory);
+            addToNode(new ArrayDeque<FilterValueSetParam>(1), filterCallback, topNode, treePathInfo[0], lockFactory, concurrentIndexes);
         } else {
             treePathInfo = allocateTreePath(filterValueSet.getParameters().length);
             ArrayDeque<FilterValueSetParam> remainingParameters = new ArrayDeque<FilterValueSetParam>(4);
@@ -62,7 +81,7 @@ public final class IndexTreeBuilder {
                 treePathInfo[i] = new ArrayDeque<EventTypeIndexBuilderIndexLookupablePair>(filterValueSet.getParameters()[i].length);
                 remainingParameters.clear();
                 Collections.addAll(remainingParameters, filterValueSet.getParameters()[i]);
-                addToNode(remainingParameters, filterCallback, topNode, treePathInfo[i], lockFactory);
+                addToNode(remainingParameters, filterCallback, topNode, treePathInfo[i], lockFactory, concurrentIndexes);
             }
         }
 
@@ -103,7 +122,8 @@ public final class IndexTreeBuilder {
                                   FilterHandle filterCallback,
                                   FilterHandleSetNode currentNode,
                                   ArrayDeque<EventTypeIndexBuilderIndexLookupablePair> treePathInfo,
-                                  FilterServiceGranularLockFactory lockFactory) {
+                                  FilterServiceGranularLockFactory lockFactory,
+                                  boolean concurrentIndexes) {
         if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled())) {
             log.debug(".addToNode (" + Thread.currentThread().getId() + ") Adding filterCallback, node=" + currentNode +
                     "  remainingParameters=" + printRemainingParameters(remainingParameters));
@@ -132,7 +152,7 @@ public final class IndexTreeBuilder {
                 Object filterForValue = pair.getFirst().getFilterForValue();
                 FilterParamIndexBase index = pair.getSecond();
                 treePathInfo.add(new EventTypeIndexBuilderIndexLookupablePair(index, filterForValue));
-                addToIndex(remainingParameters, filterCallback, index, filterForValue, treePathInfo, lockFactory);
+                addToIndex(remainingParameters, filterCallback, index, filterForValue, treePathInfo, lockFactory, concurrentIndexes);
                 return;
             }
         } finally {
@@ -150,7 +170,7 @@ public final class IndexTreeBuilder {
                 Object filterForValue = pair.getFirst().getFilterForValue();
                 FilterParamIndexBase index = pair.getSecond();
                 treePathInfo.add(new EventTypeIndexBuilderIndexLookupablePair(index, filterForValue));
-                addToIndex(remainingParameters, filterCallback, index, filterForValue, treePathInfo, lockFactory);
+                addToIndex(remainingParameters, filterCallback, index, filterForValue, treePathInfo, lockFactory, concurrentIndexes);
                 return;
             }
 
@@ -158,11 +178,11 @@ public final class IndexTreeBuilder {
             // Pick the next parameter for an index
             FilterValueSetParam parameterPickedForIndex = remainingParameters.removeFirst();
 
-            FilterParamIndexBase index = IndexFactory.createIndex(parameterPickedForIndex.getLookupable(), lockFactory, parameterPickedForIndex.getFilterOperator());
+            FilterParamIndexBase index = IndexFactory.createIndex(parameterPickedForIndex.getLookupable(), lockFactory, parameterPickedForIndex.getFilterOperator(), concurrentIndexes);
 
             currentNode.getIndizes().add(index);
             treePathInfo.add(new EventTypeIndexBuilderIndexLookupablePair(index, parameterPickedForIndex.getFilterForValue()));
-            addToIndex(remainingParameters, filterCallback, index, parameterPickedForIndex.getFilterForValue(), treePathInfo, lockFactory);
+            addToIndex(remainingParameters, filterCallback, index, parameterPickedForIndex.getFilterForValue(), treePathInfo, lockFactory, concurrentIndexes);
         } finally {
             currentNode.getNodeRWLock().writeLock().unlock();
         }
@@ -294,7 +314,8 @@ public final class IndexTreeBuilder {
                                    FilterParamIndexBase index,
                                    Object filterForValue,
                                    ArrayDeque<EventTypeIndexBuilderIndexLookupablePair> treePathInfo,
-                                   FilterServiceGranularLockFactory lockFactory) {
+                                   FilterServiceGranularLockFactory lockFactory,
+                                   boolean concurrentIndexes) {
         if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled())) {
             log.debug(".addToIndex (" + Thread.currentThread().getId() + ") Adding to index " +
                     index.toString() +
@@ -308,7 +329,7 @@ public final class IndexTreeBuilder {
 
             // The filter parameter value already existed in bean, add and release locks
             if (eventEvaluator != null) {
-                boolean added = addToEvaluator(remainingParameters, filterCallback, eventEvaluator, treePathInfo, lockFactory);
+                boolean added = addToEvaluator(remainingParameters, filterCallback, eventEvaluator, treePathInfo, lockFactory, concurrentIndexes);
                 if (added) {
                     return;
                 }
@@ -324,7 +345,7 @@ public final class IndexTreeBuilder {
 
             // It may exist now since another thread could have added the entry
             if (eventEvaluator != null) {
-                boolean added = addToEvaluator(remainingParameters, filterCallback, eventEvaluator, treePathInfo, lockFactory);
+                boolean added = addToEvaluator(remainingParameters, filterCallback, eventEvaluator, treePathInfo, lockFactory, concurrentIndexes);
                 if (added) {
                     return;
                 }
@@ -333,9 +354,11 @@ public final class IndexTreeBuilder {
                 FilterParamIndexBase nextIndex = (FilterParamIndexBase) eventEvaluator;
                 FilterHandleSetNode newNode = new FilterHandleSetNode(lockFactory.obtainNew());
                 newNode.add(nextIndex);
-                index.remove(filterForValue);
+                if (!(index instanceof FilterParamIndexConcurrent)) {
+                    index.remove(filterForValue);
+                }
                 index.put(filterForValue, newNode);
-                addToNode(remainingParameters, filterCallback, newNode, treePathInfo, lockFactory);
+                addToNode(remainingParameters, filterCallback, newNode, treePathInfo, lockFactory, concurrentIndexes);
 
                 return;
             }
@@ -344,7 +367,7 @@ public final class IndexTreeBuilder {
             // if there are no remaining parameters, create a node
             if (remainingParameters.isEmpty()) {
                 FilterHandleSetNode node = new FilterHandleSetNode(lockFactory.obtainNew());
-                addToNode(remainingParameters, filterCallback, node, treePathInfo, lockFactory);
+                addToNode(remainingParameters, filterCallback, node, treePathInfo, lockFactory, concurrentIndexes);
                 index.put(filterForValue, node);
                 return;
             }
@@ -352,11 +375,11 @@ public final class IndexTreeBuilder {
             // If there are remaining parameters, create a new index for the next parameter
             FilterValueSetParam parameterPickedForIndex = remainingParameters.removeFirst();
 
-            FilterParamIndexBase nextIndex = IndexFactory.createIndex(parameterPickedForIndex.getLookupable(), lockFactory, parameterPickedForIndex.getFilterOperator());
+            FilterParamIndexBase nextIndex = IndexFactory.createIndex(parameterPickedForIndex.getLookupable(), lockFactory, parameterPickedForIndex.getFilterOperator(), concurrentIndexes);
 
             index.put(filterForValue, nextIndex);
             treePathInfo.add(new EventTypeIndexBuilderIndexLookupablePair(nextIndex, parameterPickedForIndex.getFilterForValue()));
-            addToIndex(remainingParameters, filterCallback, nextIndex, parameterPickedForIndex.getFilterForValue(), treePathInfo, lockFactory);
+            addToIndex(remainingParameters, filterCallback, nextIndex, parameterPickedForIndex.getFilterForValue(), treePathInfo, lockFactory, concurrentIndexes);
         } finally {
             index.getReadWriteLock().writeLock().unlock();
         }
@@ -373,10 +396,11 @@ public final class IndexTreeBuilder {
                                           FilterHandle filterCallback,
                                           EventEvaluator eventEvaluator,
                                           ArrayDeque<EventTypeIndexBuilderIndexLookupablePair> treePathInfo,
-                                          FilterServiceGranularLockFactory lockFactory) {
+                                          FilterServiceGranularLockFactory lockFactory,
+                                          boolean concurrentIndexes) {
         if (eventEvaluator instanceof FilterHandleSetNode) {
             FilterHandleSetNode node = (FilterHandleSetNode) eventEvaluator;
-            addToNode(remainingParameters, filterCallback, node, treePathInfo, lockFactory);
+            addToNode(remainingParameters, filterCallback, node, treePathInfo, lockFactory, concurrentIndexes);
             return true;
         }
 
@@ -387,7 +411,7 @@ public final class IndexTreeBuilder {
         if (parameter != null) {
             remainingParameters.remove(parameter);
             treePathInfo.add(new EventTypeIndexBuilderIndexLookupablePair(nextIndex, parameter.getFilterForValue()));
-            addToIndex(remainingParameters, filterCallback, nextIndex, parameter.getFilterForValue(), treePathInfo, lockFactory);
+            addToIndex(remainingParameters, filterCallback, nextIndex, parameter.getFilterForValue(), treePathInfo, lockFactory, concurrentIndexes);
             return true;
         }
 
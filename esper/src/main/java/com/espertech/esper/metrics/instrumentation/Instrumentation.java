@@ -424,7 +424,7 @@ public interface Instrumentation {
 
     void qPatternEveryDistinctEvaluateTrue(EvalEveryDistinctNode everyDistinctNode, MatchedEventMap matchEvent);
 
-    void aPatternEveryDistinctEvaluateTrue(Set<Object> keysFromNodeNoExpire, LinkedHashMap<Object, Long> keysFromNodeExpire, Object matchEventKey, boolean haveSeenThis);
+    void aPatternEveryDistinctEvaluateTrue(Set<Object> keysFromNodeNoExpire, Map<Object, Long> keysFromNodeExpire, Object matchEventKey, boolean haveSeenThis);
 
     void qPatternEveryDistinctQuit(EvalEveryDistinctNode everyNode);
 
@@ -766,7 +766,7 @@ public class InstrumentationDefault implements Instrumentation {
 
     }
 
-    public void aPatternEveryDistinctEvaluateTrue(Set<Object> keysFromNodeNoExpire, LinkedHashMap<Object, Long> keysFromNodeExpire, Object matchEventKey, boolean haveSeenThis) {
+    public void aPatternEveryDistinctEvaluateTrue(Set<Object> keysFromNodeNoExpire, Map<Object, Long> keysFromNodeExpire, Object matchEventKey, boolean haveSeenThis) {
 
     }
 
@@ -15,6 +15,7 @@ import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -27,7 +28,7 @@ import java.util.Set;
  */
 public class EvalEveryDistinctStateExpireKeyNode extends EvalStateNode implements Evaluator {
     protected final EvalEveryDistinctNode everyNode;
-    protected final Map<EvalStateNode, LinkedHashMap<Object, Long>> spawnedNodes;
+    protected final Map<EvalStateNode, Map<Object, Long>> spawnedNodes;
     protected MatchedEventMap beginState;
 
     /**
@@ -41,7 +42,7 @@ public class EvalEveryDistinctStateExpireKeyNode extends EvalStateNode implement
         super(parentNode);
 
         this.everyNode = everyNode;
-        this.spawnedNodes = new LinkedHashMap<EvalStateNode, LinkedHashMap<Object, Long>>();
+        this.spawnedNodes = new LinkedHashMap<EvalStateNode, Map<Object, Long>>();
 
     }
 
@@ -65,7 +66,7 @@ public class EvalEveryDistinctStateExpireKeyNode extends EvalStateNode implement
         }
         this.beginState = beginState.shallowCopy();
         EvalStateNode childState = everyNode.getChildNode().newState(this, null, 0L);
-        spawnedNodes.put(childState, new LinkedHashMap<Object, Long>());
+        spawnedNodes.put(childState, Collections.<Object, Long>emptyMap());
 
         // During the start of the child we need to use the temporary evaluator to catch any event created during a start.
         // Events created during the start would likely come from the "not" operator.
@@ -103,7 +104,7 @@ public class EvalEveryDistinctStateExpireKeyNode extends EvalStateNode implement
         if (spawnEvaluator.isEvaluatedTrue()) {
             spawned.quit();
         } else {
-            spawnedNodes.put(spawned, new LinkedHashMap<Object, Long>());
+            spawnedNodes.put(spawned, Collections.<Object, Long>emptyMap());
             spawned.setParentEvaluator(this);
         }
         if (InstrumentationHelper.ENABLED) {
@@ -119,7 +120,7 @@ public class EvalEveryDistinctStateExpireKeyNode extends EvalStateNode implement
         // determine if this evaluation has been seen before from the same node
         Object matchEventKey = PatternExpressionUtil.getKeys(matchEvent, everyNode.getFactoryNode().getConvertor(), everyNode.getFactoryNode().getDistinctExpressionsArray(), everyNode.getContext().getAgentInstanceContext());
         boolean haveSeenThis = false;
-        LinkedHashMap<Object, Long> keysFromNode = spawnedNodes.get(fromNode);
+        Map<Object, Long> keysFromNode = spawnedNodes.get(fromNode);
         if (keysFromNode != null) {
             // Clean out old keys
             Iterator<Map.Entry<Object, Long>> it = keysFromNode.entrySet().iterator();
@@ -136,6 +137,11 @@ public class EvalEveryDistinctStateExpireKeyNode extends EvalStateNode implement
             if (keysFromNode.containsKey(matchEventKey)) {
                 haveSeenThis = true;
             } else {
+                // spawned nodes share the empty map until they see a first key
+                if (!(keysFromNode instanceof LinkedHashMap)) {
+                    keysFromNode = new LinkedHashMap<Object, Long>(4);
+                    spawnedNodes.put(fromNode, keysFromNode);
+                }
                 long expiryTime = everyNode.getFactoryNode().absExpiry(everyNode.getContext());
                 keysFromNode.put(matchEventKey, expiryTime);
             }
@@ -160,9 +166,9 @@ public class EvalEveryDistinctStateExpireKeyNode extends EvalStateNode implement
             if (spawnEvaluator.isEvaluatedTrue()) {
                 spawned.quit();
             } else {
-                LinkedHashMap<Object, Long> keyset = new LinkedHashMap<Object, Long>();
-                if (keysFromNode != null) {
-                    keyset.putAll(keysFromNode);
+                Map<Object, Long> keyset = Collections.emptyMap();
+                if (keysFromNode != null && !keysFromNode.isEmpty()) {
+                    keyset = new LinkedHashMap<Object, Long>(keysFromNode);
                 }
                 spawnedNodes.put(spawned, keyset);
                 spawned.setParentEvaluator(this);
@@ -15,6 +15,7 @@ import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -64,7 +65,7 @@ public class EvalEveryDistinctStateNode extends EvalStateNode implements Evaluat
         }
         this.beginState = beginState.shallowCopy();
         EvalStateNode childState = everyDistinctNode.getChildNode().newState(this, null, 0L);
-        spawnedNodes.put(childState, new HashSet<Object>());
+        spawnedNodes.put(childState, Collections.<Object>emptySet());
 
         if (spawnedNodes.size() != 1) {
             throw new IllegalStateException("EVERY state node is expected to have single child state node");
@@ -106,7 +107,7 @@ public class EvalEveryDistinctStateNode extends EvalStateNode implements Evaluat
         if (spawnEvaluator.isEvaluatedTrue()) {
             spawned.quit();
         } else {
-            spawnedNodes.put(spawned, new HashSet<Object>());
+            spawnedNodes.put(spawned, Collections.<Object>emptySet());
             spawned.setParentEvaluator(this);
         }
         if (InstrumentationHelper.ENABLED) {
@@ -127,6 +128,11 @@ public class EvalEveryDistinctStateNode extends EvalStateNode implements Evaluat
             if (keysFromNode.contains(matchEventKey)) {
                 haveSeenThis = true;
             } else {
+                // spawned nodes share the empty set until they see a first key
+                if (keysFromNode.isEmpty()) {
+                    keysFromNode = new HashSet<Object>(4);
+                    spawnedNodes.put(fromNode, keysFromNode);
+                }
                 keysFromNode.add(matchEventKey);
             }
         }
@@ -150,9 +156,9 @@ public class EvalEveryDistinctStateNode extends EvalStateNode implements Evaluat
             if (spawnEvaluator.isEvaluatedTrue()) {
                 spawned.quit();
             } else {
-                Set<Object> keyset = new HashSet<Object>();
-                if (keysFromNode != null) {
-                    keyset.addAll(keysFromNode);
+                Set<Object> keyset = Collections.emptySet();
+                if (keysFromNode != null && !keysFromNode.isEmpty()) {
+                    keyset = new HashSet<Object>(keysFromNode);
                 }
                 spawnedNodes.put(spawned, keyset);
                 spawned.setParentEvaluator(this);
@@ -0,0 +1,186 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.annotation.HintEnum;
+import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.core.service.EPStatementHandleCallback;
+import com.espertech.esper.filter.*;
+import com.espertech.esper.pattern.share.PatternPrefixShareUtil;
+
+import java.util.*;
+
+/**
+ * Index of the outstanding state nodes of a pattern filter that correlates to prior matching events by equals-criteria only,
+ * such as the filter for B in "every a=A -&gt; b=B(id=a.id)".
+ * <p>
+ * The index is registered with the filter service once, for the constant criteria of the filter only, and keeps
+ * the outstanding state nodes keyed by the correlated values. For an event matching the constant criteria
+ * the index contributes the callbacks of the state nodes registered under the event's values, using a single lookup.
+ * Since the callbacks are contributed when the filter service collects matches,
+ * state nodes started while an event is being processed do not receive that same event.
+ */
+public class EvalFilterCorrelationIndex implements FilterHandleFanout {
+    private final EvalFilterNode evalFilterNode;
+    private final FilterSpecParamEventProp[] correlated;
+    private final FilterSpecCompiled constantSpec;
+    private final Map<Object, Set<EPStatementHandleCallback>> nodesPerKey = new HashMap<Object, Set<EPStatementHandleCallback>>();
+    private int numNodes;
+    private FilterServiceEntry filterServiceEntry;
+
+    private EvalFilterCorrelationIndex(EvalFilterNode evalFilterNode, FilterSpecParamEventProp[] correlated, FilterSpecCompiled constantSpec) {
+        this.evalFilterNode = evalFilterNode;
+        this.correlated = correlated;
+        this.constantSpec = constantSpec;
+    }
+
+    /**
+     * Returns a correlation index for the filter if the statement enables the index by hint and the filter qualifies, or null if not.
+     *
+     * @param evalFilterNode filter node
+     * @return index or null
+     */
+    public static EvalFilterCorrelationIndex make(EvalFilterNode evalFilterNode) {
+        PatternAgentInstanceContext context = evalFilterNode.getContext();
+        if (context.getConsumptionHandler() != null ||
+            HintEnum.ENABLE_PATTERN_CORRELATION_INDEX.getHint(context.getStatementContext().getAnnotations()) == null) {
+            return null;
+        }
+        FilterSpecCompiled spec = evalFilterNode.getFactoryNode().getFilterSpec();
+        if (spec.getOptionalPropertyEvaluator() != null || spec.getParameters().length != 1) {
+            return null;
+        }
+
+        List<FilterSpecParamEventProp> correlated = new ArrayList<FilterSpecParamEventProp>();
+        List<FilterSpecParam> constant = new ArrayList<FilterSpecParam>();
+        for (FilterSpecParam param : spec.getParameters()[0]) {
+            if (PatternPrefixShareUtil.isConstant(param)) {
+                constant.add(param);
+            } else if (param instanceof FilterSpecParamEventProp && param.getFilterOperator() == FilterOperator.EQUAL) {
+                correlated.add((FilterSpecParamEventProp) param);
+            } else {
+                return null;
+            }
+        }
+        if (correlated.isEmpty()) {
+            return null;
+        }
+
+        List<FilterSpecParam>[] constantParams = (List<FilterSpecParam>[]) new List[constant.isEmpty() ? 0 : 1];
+        if (!constant.isEmpty()) {
+            constantParams[0] = constant;
+        }
+        FilterSpecCompiled constantSpec = new FilterSpecCompiled(spec.getFilterForEventType(), spec.getFilterForEventTypeName(), constantParams, null);
+        return new EvalFilterCorrelationIndex(evalFilterNode, correlated.toArray(new FilterSpecParamEventProp[correlated.size()]), constantSpec);
+    }
+
+    public int getStatementId() {
+        return evalFilterNode.getContext().getPatternContext().getStatementId();
+    }
+
+    /**
+     * Returns the key of a state node, or null if any correlated value is null as such a node cannot match.
+     *
+     * @param beginState prior matching events
+     * @return key
+     */
+    public Object getKey(MatchedEventMap beginState) {
+        AgentInstanceContext agentInstanceContext = evalFilterNode.getContext().getAgentInstanceContext();
+        if (correlated.length == 1) {
+            return correlated[0].getFilterValue(beginState, agentInstanceContext);
+        }
+        Object[] keys = new Object[correlated.length];
+        for (int i = 0; i < correlated.length; i++) {
+            keys[i] = correlated[i].getFilterValue(beginState, agentInstanceContext);
+            if (keys[i] == null) {
+                return null;
+            }
+        }
+        return new MultiKeyUntyped(keys);
+    }
+
+    /**
+     * Add a state node.
+     *
+     * @param key        key as returned by {@link #getKey(MatchedEventMap)}
+     * @param handle     state node handle
+     * @param beginState prior matching events
+     */
+    public synchronized void add(Object key, EPStatementHandleCallback handle, MatchedEventMap beginState) {
+        Set<EPStatementHandleCallback> nodes = nodesPerKey.get(key);
+        if (nodes == null) {
+            nodes = new LinkedHashSet<EPStatementHandleCallback>(4);
+            nodesPerKey.put(key, nodes);
+        }
+        nodes.add(handle);
+        numNodes++;
+        if (numNodes == 1) {
+            FilterValueSet filterValues = constantSpec.getValueSet(beginState, evalFilterNode.getContext().getAgentInstanceContext(), evalFilterNode.getAddendumFilters());
+            filterServiceEntry = evalFilterNode.getContext().getPatternContext().getFilterService().add(filterValues, this);
+        }
+    }
+
+    /**
+     * Remove a state node.
+     *
+     * @param key    key as returned by {@link #getKey(MatchedEventMap)}
+     * @param handle state node handle
+     */
+    public synchronized void remove(Object key, EPStatementHandleCallback handle) {
+        Set<EPStatementHandleCallback> nodes = nodesPerKey.get(key);
+        if (nodes == null || !nodes.remove(handle)) {
+            return;
+        }
+        if (nodes.isEmpty()) {
+            nodesPerKey.remove(key);
+        }
+        numNodes--;
+        if (numNodes == 0) {
+            evalFilterNode.getContext().getPatternContext().getFilterService().remove(this, filterServiceEntry);
+            filterServiceEntry = null;
+        }
+    }
+
+    public void addMatches(EventBean theEvent, Collection<FilterHandle> matches) {
+        Object key;
+        if (correlated.length == 1) {
+            key = correlated[0].getLookupable().getGetter().get(theEvent);
+        } else {
+            Object[] keys = new Object[correlated.length];
+            for (int i = 0; i < correlated.length; i++) {
+                keys[i] = correlated[i].getLookupable().getGetter().get(theEvent);
+            }
+            key = new MultiKeyUntyped(keys);
+        }
+        if (key == null) {
+            return;
+        }
+        synchronized (this) {
+            Set<EPStatementHandleCallback> nodes = nodesPerKey.get(key);
+            if (nodes != null) {
+                for (EPStatementHandleCallback node : nodes) {
+                    matches.add(node);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of outstanding state nodes.
+     *
+     * @return count
+     */
+    public synchronized int getNumNodes() {
+        return numNodes;
+    }
+}
@@ -20,6 +20,7 @@ import org.slf4j.LoggerFactory;
 public class EvalFilterNode extends EvalNodeBase {
     protected final EvalFilterFactoryNode factoryNode;
     private final FilterValueSetParam[][] addendumFilters;
+    private final EvalFilterCorrelationIndex correlationIndex;
 
     public EvalFilterNode(PatternAgentInstanceContext context, EvalFilterFactoryNode factoryNode) {
         super(context);
@@ -29,6 +30,7 @@ public class EvalFilterNode extends EvalNodeBase {
         } else {
             this.addendumFilters = null;
         }
+        this.correlationIndex = EvalFilterCorrelationIndex.make(this);
     }
 
     public EvalFilterFactoryNode getFactoryNode() {
@@ -39,11 +41,18 @@ public class EvalFilterNode extends EvalNodeBase {
         return addendumFilters;
     }
 
+    public EvalFilterCorrelationIndex getCorrelationIndex() {
+        return correlationIndex;
+    }
+
     public EvalStateNode newState(Evaluator parentNode,
                                   EvalStateNodeNumber stateNodeNumber, long stateNodeId) {
         if (getContext().getConsumptionHandler() != null) {
             return new EvalFilterStateNodeConsumeImpl(parentNode, this);
         }
+        if (correlationIndex != null) {
+            return new EvalFilterStateNodeIndexed(parentNode, this);
+        }
         return new EvalFilterStateNode(parentNode, this);
     }
 
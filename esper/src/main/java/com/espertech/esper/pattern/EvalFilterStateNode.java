@@ -189,7 +189,7 @@ public class EvalFilterStateNode extends EvalStateNode implements FilterHandleCa
         evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle().getStatementFilterVersion().setStmtFilterVersion(filtersVersion);
     }
 
-    private void stopFiltering() {
+    protected void stopFiltering() {
         PatternContext context = evalFilterNode.getContext().getPatternContext();
         if (handle != null) {
             context.getFilterService().remove(handle, filterServiceEntry);
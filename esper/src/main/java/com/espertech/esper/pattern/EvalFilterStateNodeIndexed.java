@@ -0,0 +1,48 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern;
+
+import com.espertech.esper.core.service.EPStatementHandleCallback;
+
+/**
+ * Filter state node that, in place of registering its own filter, adds itself to the correlation index of the filter node.
+ */
+public final class EvalFilterStateNodeIndexed extends EvalFilterStateNode {
+    private Object key;
+
+    public EvalFilterStateNodeIndexed(Evaluator parentNode, EvalFilterNode evalFilterNode) {
+        super(parentNode, evalFilterNode);
+    }
+
+    protected void startFiltering() {
+        handle = new EPStatementHandleCallback(evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle(), this);
+        key = evalFilterNode.getCorrelationIndex().getKey(beginState);
+        if (key != null) {
+            evalFilterNode.getCorrelationIndex().add(key, handle, beginState);
+        }
+        updateFilterVersion();
+    }
+
+    protected void stopFiltering() {
+        if (handle != null && key != null) {
+            evalFilterNode.getCorrelationIndex().remove(key, handle);
+        }
+        handle = null;
+        key = null;
+        isStarted = false;
+        updateFilterVersion();
+    }
+
+    private void updateFilterVersion() {
+        long filtersVersion = evalFilterNode.getContext().getPatternContext().getFilterService().getFiltersVersion();
+        evalFilterNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle().getStatementFilterVersion().setStmtFilterVersion(filtersVersion);
+    }
+}
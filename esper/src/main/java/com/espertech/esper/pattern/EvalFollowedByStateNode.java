@@ -14,7 +14,6 @@ package com.espertech.esper.pattern;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
-import java.util.HashMap;
 import java.util.Set;
 
 /**
@@ -22,7 +21,7 @@ import java.util.Set;
  */
 public class EvalFollowedByStateNode extends EvalStateNode implements Evaluator {
     protected final EvalFollowedByNode evalFollowedByNode;
-    protected final HashMap<EvalStateNode, Integer> nodes;
+    protected final EvalStateNodeIndexMap nodes;
 
     /**
      * Constructor.
@@ -35,11 +34,11 @@ public class EvalFollowedByStateNode extends EvalStateNode implements Evaluator
         super(parentNode);
 
         this.evalFollowedByNode = evalFollowedByNode;
-        this.nodes = new HashMap<EvalStateNode, Integer>();
+        this.nodes = new EvalStateNodeIndexMap();
     }
 
     public void removeMatch(Set<EventBean> matchEvent) {
-        PatternConsumptionUtil.childNodeRemoveMatches(matchEvent, nodes.keySet());
+        PatternConsumptionUtil.childNodeRemoveMatches(matchEvent, nodes.toNodeArray());
     }
 
     @Override
@@ -61,9 +60,9 @@ public class EvalFollowedByStateNode extends EvalStateNode implements Evaluator
     }
 
     public final void evaluateTrue(MatchedEventMap matchEvent, EvalStateNode fromNode, boolean isQuitted) {
-        Integer index = nodes.get(fromNode);
+        int index = nodes.get(fromNode);
         if (InstrumentationHelper.ENABLED) {
-            InstrumentationHelper.get().qPatternFollowedByEvaluateTrue(evalFollowedByNode, matchEvent, index);
+            InstrumentationHelper.get().qPatternFollowedByEvaluateTrue(evalFollowedByNode, matchEvent, index == -1 ? null : index);
         }
 
         if (isQuitted) {
@@ -72,7 +71,7 @@ public class EvalFollowedByStateNode extends EvalStateNode implements Evaluator
 
         // the node may already have quit as a result of an outer state quitting this state,
         // however the callback may still be received; It is fine to ignore this callback. 
-        if (index == null) {
+        if (index == -1) {
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aPatternFollowedByEvaluateTrue(false);
             }
@@ -131,8 +130,8 @@ public class EvalFollowedByStateNode extends EvalStateNode implements Evaluator
 
     public final void accept(EvalStateNodeVisitor visitor) {
         visitor.visitFollowedBy(evalFollowedByNode.getFactoryNode(), this, nodes);
-        for (EvalStateNode node : nodes.keySet()) {
-            node.accept(visitor);
+        for (int i = 0; i < nodes.size(); i++) {
+            nodes.getNode(i).accept(visitor);
         }
     }
 
@@ -157,8 +156,8 @@ public class EvalFollowedByStateNode extends EvalStateNode implements Evaluator
     }
 
     private final void quitInternal() {
-        for (EvalStateNode child : nodes.keySet()) {
-            child.quit();
+        for (int i = 0; i < nodes.size(); i++) {
+            nodes.getNode(i).quit();
         }
         nodes.clear();
     }
@@ -15,8 +15,6 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.hook.ConditionPatternSubexpressionMax;
 import com.espertech.esper.pattern.pool.PatternSubexpressionPoolStmtSvc;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -25,7 +23,7 @@ import java.util.Set;
  */
 public class EvalFollowedByWithMaxStateNodeManaged extends EvalStateNode implements Evaluator {
     protected final EvalFollowedByNode evalFollowedByNode;
-    protected final HashMap<EvalStateNode, Integer> nodes;
+    protected final EvalStateNodeIndexMap nodes;
     protected final int[] countActivePerChild;
 
     /**
@@ -39,7 +37,7 @@ public class EvalFollowedByWithMaxStateNodeManaged extends EvalStateNode impleme
         super(parentNode);
 
         this.evalFollowedByNode = evalFollowedByNode;
-        this.nodes = new HashMap<EvalStateNode, Integer>();
+        this.nodes = new EvalStateNodeIndexMap();
         if (evalFollowedByNode.isTrackWithMax()) {
             this.countActivePerChild = new int[evalFollowedByNode.getChildNodes().length - 1];
         } else {
@@ -48,7 +46,7 @@ public class EvalFollowedByWithMaxStateNodeManaged extends EvalStateNode impleme
     }
 
     public void removeMatch(Set<EventBean> matchEvent) {
-        PatternConsumptionUtil.childNodeRemoveMatches(matchEvent, nodes.keySet());
+        PatternConsumptionUtil.childNodeRemoveMatches(matchEvent, nodes.toNodeArray());
     }
 
     @Override
@@ -64,11 +62,11 @@ public class EvalFollowedByWithMaxStateNodeManaged extends EvalStateNode impleme
     }
 
     public final void evaluateTrue(MatchedEventMap matchEvent, EvalStateNode fromNode, boolean isQuitted) {
-        Integer index = nodes.get(fromNode);
+        int index = nodes.get(fromNode);
 
         if (isQuitted) {
             nodes.remove(fromNode);
-            if (index != null && index > 0) {
+            if (index > 0) {
                 if (evalFollowedByNode.isTrackWithMax()) {
                     countActivePerChild[index - 1]--;
                 }
@@ -82,7 +80,7 @@ public class EvalFollowedByWithMaxStateNodeManaged extends EvalStateNode impleme
 
         // the node may already have quit as a result of an outer state quitting this state,
         // however the callback may still be received; It is fine to ignore this callback. 
-        if (index == null) {
+        if (index == -1) {
             return;
         }
 
@@ -129,8 +127,8 @@ public class EvalFollowedByWithMaxStateNodeManaged extends EvalStateNode impleme
 
     public final void evaluateFalse(EvalStateNode fromNode, boolean restartable) {
         fromNode.quit();
-        Integer index = nodes.remove(fromNode);
-        if (index != null && index > 0) {
+        int index = nodes.remove(fromNode);
+        if (index > 0) {
             if (evalFollowedByNode.isTrackWithMax()) {
                 countActivePerChild[index - 1]--;
             }
@@ -164,10 +162,10 @@ public class EvalFollowedByWithMaxStateNodeManaged extends EvalStateNode impleme
     }
 
     public final void quit() {
-        for (Map.Entry<EvalStateNode, Integer> entry : nodes.entrySet()) {
-            entry.getKey().quit();
+        for (int i = 0; i < nodes.size(); i++) {
+            nodes.getNode(i).quit();
             if (evalFollowedByNode.isTrackWithPool()) {
-                if (entry.getValue() > 0) {
+                if (nodes.getIndex(i) > 0) {
                     PatternSubexpressionPoolStmtSvc poolSvc = evalFollowedByNode.getContext().getStatementContext().getPatternSubexpressionPoolSvc();
                     poolSvc.getEngineSvc().decreaseCount(evalFollowedByNode, evalFollowedByNode.getContext().getAgentInstanceContext());
                     poolSvc.getStmtHandler().decreaseCount();
@@ -178,8 +176,8 @@ public class EvalFollowedByWithMaxStateNodeManaged extends EvalStateNode impleme
 
     public final void accept(EvalStateNodeVisitor visitor) {
         visitor.visitFollowedBy(evalFollowedByNode.getFactoryNode(), this, nodes, countActivePerChild);
-        for (EvalStateNode node : nodes.keySet()) {
-            node.accept(visitor);
+        for (int i = 0; i < nodes.size(); i++) {
+            nodes.getNode(i).accept(visitor);
         }
     }
 
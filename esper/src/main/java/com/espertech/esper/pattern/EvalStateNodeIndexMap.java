@@ -0,0 +1,172 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern;
+
+import java.util.HashMap;
+
+/**
+ * Compact association of child state nodes to the index of the sub-expression they represent,
+ * for use by operators that hold a varying number of child state nodes such as followed-by.
+ * <p>
+ * Child state nodes and their indexes are kept in parallel arrays that are allocated on first use.
+ * Lookups scan the arrays while the number of child state nodes is small, and use a position map
+ * only while the number of child state nodes is large.
+ * Removal moves the last child state node into the freed position, therefore positions are not stable across removals.
+ */
+public final class EvalStateNodeIndexMap {
+    private final static int LINEAR_SCAN_MAX = 8;
+    private final static int INITIAL_CAPACITY = 2;
+
+    private EvalStateNode[] nodes;
+    private int[] indexes;
+    private int size;
+    private HashMap<EvalStateNode, Integer> positions;
+
+    /**
+     * Add a child state node that is not already contained.
+     *
+     * @param node  child state node
+     * @param index sub-expression index
+     */
+    public void put(EvalStateNode node, int index) {
+        if (nodes == null) {
+            nodes = new EvalStateNode[INITIAL_CAPACITY];
+            indexes = new int[INITIAL_CAPACITY];
+        } else if (size == nodes.length) {
+            int capacity = size * 2;
+            EvalStateNode[] nodesNew = new EvalStateNode[capacity];
+            int[] indexesNew = new int[capacity];
+            System.arraycopy(nodes, 0, nodesNew, 0, size);
+            System.arraycopy(indexes, 0, indexesNew, 0, size);
+            nodes = nodesNew;
+            indexes = indexesNew;
+        }
+        nodes[size] = node;
+        indexes[size] = index;
+        if (positions != null) {
+            positions.put(node, size);
+        } else if (size == LINEAR_SCAN_MAX) {
+            positions = new HashMap<EvalStateNode, Integer>();
+            for (int i = 0; i <= size; i++) {
+                positions.put(nodes[i], i);
+            }
+        }
+        size++;
+    }
+
+    /**
+     * Returns the sub-expression index of the child state node.
+     *
+     * @param node child state node
+     * @return index or -1 if not contained
+     */
+    public int get(EvalStateNode node) {
+        int position = findPosition(node);
+        return position == -1 ? -1 : indexes[position];
+    }
+
+    /**
+     * Remove the child state node.
+     *
+     * @param node child state node
+     * @return sub-expression index of the removed child state node, or -1 if not contained
+     */
+    public int remove(EvalStateNode node) {
+        int position = findPosition(node);
+        if (position == -1) {
+            return -1;
+        }
+        int index = indexes[position];
+        int last = size - 1;
+        if (positions != null) {
+            positions.remove(node);
+        }
+        if (position != last) {
+            nodes[position] = nodes[last];
+            indexes[position] = indexes[last];
+            if (positions != null) {
+                positions.put(nodes[position], position);
+            }
+        }
+        nodes[last] = null;
+        size = last;
+        if (positions != null && size <= LINEAR_SCAN_MAX / 2) {
+            positions = null;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the number of child state nodes.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the child state node at the position.
+     *
+     * @param position position, between zero and size minus one
+     * @return child state node
+     */
+    public EvalStateNode getNode(int position) {
+        return nodes[position];
+    }
+
+    /**
+     * Returns the sub-expression index of the child state node at the position.
+     *
+     * @param position position, between zero and size minus one
+     * @return sub-expression index
+     */
+    public int getIndex(int position) {
+        return indexes[position];
+    }
+
+    /**
+     * Returns a copy of the child state nodes, for iterating while child state nodes may get removed.
+     *
+     * @return child state nodes
+     */
+    public EvalStateNode[] toNodeArray() {
+        EvalStateNode[] copy = new EvalStateNode[size];
+        if (size > 0) {
+            System.arraycopy(nodes, 0, copy, 0, size);
+        }
+        return copy;
+    }
+
+    public void clear() {
+        nodes = null;
+        indexes = null;
+        positions = null;
+        size = 0;
+    }
+
+    private int findPosition(EvalStateNode node) {
+        if (positions != null) {
+            Integer position = positions.get(node);
+            return position == null ? -1 : position;
+        }
+        for (int i = 0; i < size; i++) {
+            if (nodes[i] == node) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -48,8 +48,11 @@ public class PatternConsumptionUtil {
     }
 
     public static void childNodeRemoveMatches(Set<EventBean> matchEvent, Collection<? extends EvalStateNode> evalStateNodes) {
-        EvalStateNode[] nodesArray = evalStateNodes.toArray(new EvalStateNode[evalStateNodes.size()]);
-        for (EvalStateNode child : nodesArray) {
+        childNodeRemoveMatches(matchEvent, evalStateNodes.toArray(new EvalStateNode[evalStateNodes.size()]));
+    }
+
+    public static void childNodeRemoveMatches(Set<EventBean> matchEvent, EvalStateNode[] evalStateNodes) {
+        for (EvalStateNode child : evalStateNodes) {
             child.removeMatch(matchEvent);
         }
     }
@@ -0,0 +1,56 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern.share;
+
+import com.espertech.esper.filter.FilterSpecCompiled;
+
+/**
+ * Result of analyzing a pattern for prefix sharing: the key of the shared prefix and the statement-specific remainder.
+ */
+public class PatternPrefixShareDesc {
+    private final PatternPrefixShareKey key;
+    private final int everyTagNumber;
+    private final int followedByTagNumber;
+    private final FilterSpecCompiled residualFilterSpec;
+
+    public PatternPrefixShareDesc(PatternPrefixShareKey key, int everyTagNumber, int followedByTagNumber, FilterSpecCompiled residualFilterSpec) {
+        this.key = key;
+        this.everyTagNumber = everyTagNumber;
+        this.followedByTagNumber = followedByTagNumber;
+        this.residualFilterSpec = residualFilterSpec;
+    }
+
+    public PatternPrefixShareKey getKey() {
+        return key;
+    }
+
+    public int getEveryTagNumber() {
+        return everyTagNumber;
+    }
+
+    /**
+     * Returns the tag number of the followed-by filter, or -1 when the followed-by filter is not tagged
+     *
+     * @return tag number
+     */
+    public int getFollowedByTagNumber() {
+        return followedByTagNumber;
+    }
+
+    /**
+     * Returns the constant criteria of the followed-by filter that are specific to the statement.
+     *
+     * @return filter spec
+     */
+    public FilterSpecCompiled getResidualFilterSpec() {
+        return residualFilterSpec;
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern.share;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
+import com.espertech.esper.core.service.EPStatementHandle;
+import com.espertech.esper.core.service.EPStatementHandleCallback;
+import com.espertech.esper.core.service.StatementAgentInstanceFilterVersion;
+import com.espertech.esper.core.service.StatementNoLockImpl;
+import com.espertech.esper.core.service.StatementType;
+import com.espertech.esper.core.service.multimatch.MultiMatchHandler;
+import com.espertech.esper.epl.metric.StatementMetricHandle;
+import com.espertech.esper.filter.*;
+import com.espertech.esper.pattern.MatchedEventMap;
+import com.espertech.esper.pattern.MatchedEventMapImpl;
+import com.espertech.esper.pattern.MatchedEventMapMeta;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Evaluates a shared pattern prefix "every a=A -&gt; b=B" on behalf of all subscribed statements.
+ * <p>
+ * The group registers the every-filter once and, for each event matching it, registers the correlated criteria
+ * of the followed-by filter once. The constant criteria of each subscriber are kept in a separate filter service
+ * that is consulted only when the followed-by filter matches.
+ * <p>
+ * The group state is guarded by the group's monitor. Statement locks are acquired before the monitor and never
+ * the other way around.
+ */
+public class PatternPrefixShareGroup implements FilterHandleCallback {
+    private final PatternPrefixShareKey key;
+    private final int everyTagNumber;
+    private final MatchedEventMapMeta matchedEventMapMeta;
+    private final FilterService filterService;
+    private final FilterServiceSPI residualFilterService;
+    private final EPStatementHandleCallback everyHandle;
+    private final Set<PatternPrefixShareInstance> instances = new HashSet<PatternPrefixShareInstance>();
+    private final Set<PatternPrefixShareStateNode> subscribers = new HashSet<PatternPrefixShareStateNode>();
+    private FilterServiceEntry everyFilterServiceEntry;
+    private long nextSequence;
+    private volatile ResidualMatches lastResidualMatches;
+
+    /**
+     * Ctor.
+     *
+     * @param statementId          statement id for the group, not assigned to any statement
+     * @param desc                 analysis result
+     * @param matchedEventMapMeta  tag information
+     * @param filterService        engine filter service
+     * @param filterServiceProfile filter service profile for the constant criteria of subscribers
+     * @param multiMatchHandler    handler for multiple matches
+     */
+    public PatternPrefixShareGroup(int statementId, PatternPrefixShareDesc desc, MatchedEventMapMeta matchedEventMapMeta, FilterService filterService, ConfigurationEngineDefaults.FilterServiceProfile filterServiceProfile, MultiMatchHandler multiMatchHandler) {
+        this.key = desc.getKey();
+        this.everyTagNumber = desc.getEveryTagNumber();
+        this.matchedEventMapMeta = matchedEventMapMeta;
+        this.filterService = filterService;
+        this.residualFilterService = FilterServiceProvider.newService(filterServiceProfile, false);
+
+        String name = "pattern-prefix-share-" + (-statementId);
+        StatementMetricHandle metricHandle = new StatementMetricHandle(-1, -1);
+        metricHandle.setEnabled(false);
+        EPStatementHandle statementHandle = new EPStatementHandle(statementId, name, name, StatementType.SELECT, name, false, metricHandle, 0, false, false, multiMatchHandler);
+        EPStatementAgentInstanceHandle agentInstanceHandle = new EPStatementAgentInstanceHandle(statementHandle, new StatementNoLockImpl(name), -1, new StatementAgentInstanceFilterVersion(), null);
+        this.everyHandle = new EPStatementHandleCallback(agentInstanceHandle, this);
+    }
+
+    public PatternPrefixShareKey getKey() {
+        return key;
+    }
+
+    public int getStatementId() {
+        return everyHandle.getStatementId();
+    }
+
+    public boolean isSubSelect() {
+        return false;
+    }
+
+    /**
+     * Add a subscriber, registering the every-filter for the first subscriber.
+     *
+     * @param subscriber    subscriber
+     * @param residualSpec  constant criteria of the followed-by filter for the subscriber
+     */
+    public synchronized void subscribe(PatternPrefixShareStateNode subscriber, FilterSpecCompiled residualSpec) {
+        subscriber.setSubscribeSequence(nextSequence++);
+        subscriber.setResidualFilterServiceEntry(residualFilterService.add(residualSpec.getValueSet(null, null, null), subscriber));
+        subscribers.add(subscriber);
+        lastResidualMatches = null;
+        if (everyFilterServiceEntry == null) {
+            everyFilterServiceEntry = filterService.add(key.getEveryFilterSpec().getValueSet(null, null, null), everyHandle);
+        }
+    }
+
+    /**
+     * Remove a subscriber, removing all filters when no subscribers remain.
+     *
+     * @param subscriber subscriber
+     * @return indicator whether no subscribers remain
+     */
+    public synchronized boolean unsubscribe(PatternPrefixShareStateNode subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return subscribers.isEmpty();
+        }
+        residualFilterService.remove(subscriber, subscriber.getResidualFilterServiceEntry());
+        lastResidualMatches = null;
+
+        if (subscribers.isEmpty()) {
+            filterService.remove(everyHandle, everyFilterServiceEntry);
+            everyFilterServiceEntry = null;
+            for (PatternPrefixShareInstance instance : instances) {
+                instance.setRemoved();
+                filterService.remove(instance, instance.getFilterServiceEntry());
+            }
+            instances.clear();
+            return true;
+        }
+
+        List<PatternPrefixShareInstance> completed = null;
+        for (PatternPrefixShareInstance instance : instances) {
+            if (instance.markDone(subscriber) && instance.isComplete()) {
+                if (completed == null) {
+                    completed = new ArrayList<PatternPrefixShareInstance>(2);
+                }
+                completed.add(instance);
+            }
+        }
+        if (completed != null) {
+            for (PatternPrefixShareInstance instance : completed) {
+                removeInstance(instance);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indicates a match of the every-filter, starts an instance that registers the followed-by filter.
+     *
+     * @param theEvent       event
+     * @param allStmtMatches not used
+     */
+    public synchronized void matchFound(EventBean theEvent, Collection<FilterHandleCallback> allStmtMatches) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        MatchedEventMap matchedEvents = new MatchedEventMapImpl(matchedEventMapMeta);
+        matchedEvents.add(everyTagNumber, theEvent);
+        FilterValueSet filterValues = key.getFollowedBySharedFilterSpec().getValueSet(matchedEvents, null, null);
+        PatternPrefixShareInstance instance = new PatternPrefixShareInstance(this, theEvent, nextSequence, subscribers.size());
+        instance.setFilterServiceEntry(filterService.add(filterValues, instance));
+        instances.add(instance);
+    }
+
+    /**
+     * Indicates that a subscriber received the match of an instance.
+     *
+     * @param instance   instance
+     * @param subscriber subscriber
+     * @return true if the subscriber is to process the match, false if it already received a match from the instance
+     */
+    protected synchronized boolean deliver(PatternPrefixShareInstance instance, PatternPrefixShareStateNode subscriber) {
+        if (!instance.markDone(subscriber)) {
+            return false;
+        }
+        if (instance.isComplete()) {
+            removeInstance(instance);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the subscribers whose constant criteria the event satisfies.
+     * <p>
+     * The result for the last event is retained as all instances that the same event completes share it.
+     *
+     * @param theEvent event
+     * @return subscribers
+     */
+    protected Collection<FilterHandle> getResidualMatches(EventBean theEvent) {
+        ResidualMatches last = lastResidualMatches;
+        if (last != null && last.theEvent == theEvent) {
+            return last.matches;
+        }
+        List<FilterHandle> matches = new ArrayList<FilterHandle>(2);
+        residualFilterService.evaluate(theEvent, matches);
+        lastResidualMatches = new ResidualMatches(theEvent, matches);
+        return matches;
+    }
+
+    /**
+     * Returns the number of outstanding instances.
+     *
+     * @return count
+     */
+    public synchronized int getNumInstances() {
+        return instances.size();
+    }
+
+    /**
+     * Returns the number of subscribers.
+     *
+     * @return count
+     */
+    public synchronized int getNumSubscribers() {
+        return subscribers.size();
+    }
+
+    private void removeInstance(PatternPrefixShareInstance instance) {
+        instance.setRemoved();
+        instances.remove(instance);
+        filterService.remove(instance, instance.getFilterServiceEntry());
+    }
+
+    private static class ResidualMatches {
+        private final EventBean theEvent;
+        private final Collection<FilterHandle> matches;
+
+        private ResidualMatches(EventBean theEvent, Collection<FilterHandle> matches) {
+            this.theEvent = theEvent;
+            this.matches = matches;
+        }
+    }
+}
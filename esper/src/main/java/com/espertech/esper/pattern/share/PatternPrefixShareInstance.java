@@ -0,0 +1,147 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern.share;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.service.EPStatementHandleCallback;
+import com.espertech.esper.filter.FilterHandle;
+import com.espertech.esper.filter.FilterHandleCallback;
+import com.espertech.esper.filter.FilterHandleFanout;
+import com.espertech.esper.filter.FilterServiceEntry;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A single outstanding match of the every-filter of a shared pattern prefix, registered once in the filter service
+ * with the correlated criteria of the followed-by filter, on behalf of all subscribed statements.
+ * <p>
+ * When the followed-by filter matches, the instance contributes one callback for each subscribed statement
+ * whose constant criteria the event satisfies and that has not yet received a match from this instance.
+ */
+public class PatternPrefixShareInstance implements FilterHandleFanout {
+    private final PatternPrefixShareGroup group;
+    private final EventBean everyEvent;
+    private final long sequence;
+    private int remaining;
+    private Set<PatternPrefixShareStateNode> done;
+    private FilterServiceEntry filterServiceEntry;
+    private boolean removed;
+
+    /**
+     * Ctor.
+     *
+     * @param group      the group
+     * @param everyEvent the event matching the every-filter
+     * @param sequence   subscribers with a lower subscription sequence receive matches from this instance
+     * @param remaining  number of such subscribers
+     */
+    public PatternPrefixShareInstance(PatternPrefixShareGroup group, EventBean everyEvent, long sequence, int remaining) {
+        this.group = group;
+        this.everyEvent = everyEvent;
+        this.sequence = sequence;
+        this.remaining = remaining;
+    }
+
+    public int getStatementId() {
+        return group.getStatementId();
+    }
+
+    public EventBean getEveryEvent() {
+        return everyEvent;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public FilterServiceEntry getFilterServiceEntry() {
+        return filterServiceEntry;
+    }
+
+    public void setFilterServiceEntry(FilterServiceEntry filterServiceEntry) {
+        this.filterServiceEntry = filterServiceEntry;
+    }
+
+    public void addMatches(EventBean theEvent, Collection<FilterHandle> matches) {
+        // the event that started the instance cannot also complete it
+        if (theEvent == everyEvent) {
+            return;
+        }
+        Collection<FilterHandle> subscribers = group.getResidualMatches(theEvent);
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            if (removed) {
+                return;
+            }
+            for (FilterHandle handle : subscribers) {
+                PatternPrefixShareStateNode subscriber = (PatternPrefixShareStateNode) handle;
+                if (subscriber.getSubscribeSequence() >= sequence || (done != null && done.contains(subscriber))) {
+                    continue;
+                }
+                matches.add(new EPStatementHandleCallback(subscriber.getAgentInstanceHandle(), new Delivery(this, subscriber)));
+            }
+        }
+    }
+
+    /**
+     * Mark the subscriber as having received its match.
+     *
+     * @param subscriber subscriber
+     * @return true if the subscriber had not yet received a match and the instance is still active
+     */
+    protected synchronized boolean markDone(PatternPrefixShareStateNode subscriber) {
+        if (removed || subscriber.getSubscribeSequence() >= sequence) {
+            return false;
+        }
+        if (done == null) {
+            done = new HashSet<PatternPrefixShareStateNode>();
+        }
+        if (!done.add(subscriber)) {
+            return false;
+        }
+        remaining--;
+        return true;
+    }
+
+    protected synchronized boolean isComplete() {
+        return remaining <= 0;
+    }
+
+    protected synchronized void setRemoved() {
+        removed = true;
+    }
+
+    private static class Delivery implements FilterHandleCallback {
+        private final PatternPrefixShareInstance instance;
+        private final PatternPrefixShareStateNode subscriber;
+
+        private Delivery(PatternPrefixShareInstance instance, PatternPrefixShareStateNode subscriber) {
+            this.instance = instance;
+            this.subscriber = subscriber;
+        }
+
+        public void matchFound(EventBean theEvent, Collection<FilterHandleCallback> allStmtMatches) {
+            subscriber.matchFound(instance, theEvent);
+        }
+
+        public boolean isSubSelect() {
+            return false;
+        }
+
+        public int getStatementId() {
+            return subscriber.getStatementId();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern.share;
+
+import com.espertech.esper.filter.FilterSpecCompiled;
+
+/**
+ * Identifies a shareable pattern prefix: the filter of the every-operator, the correlated part of the
+ * followed-by filter and the tags of both.
+ */
+public class PatternPrefixShareKey {
+    private final FilterSpecCompiled everyFilterSpec;
+    private final String everyTag;
+    private final FilterSpecCompiled followedBySharedFilterSpec;
+    private final String followedByTag;
+
+    public PatternPrefixShareKey(FilterSpecCompiled everyFilterSpec, String everyTag, FilterSpecCompiled followedBySharedFilterSpec, String followedByTag) {
+        this.everyFilterSpec = everyFilterSpec;
+        this.everyTag = everyTag;
+        this.followedBySharedFilterSpec = followedBySharedFilterSpec;
+        this.followedByTag = followedByTag;
+    }
+
+    public FilterSpecCompiled getEveryFilterSpec() {
+        return everyFilterSpec;
+    }
+
+    public String getEveryTag() {
+        return everyTag;
+    }
+
+    public FilterSpecCompiled getFollowedBySharedFilterSpec() {
+        return followedBySharedFilterSpec;
+    }
+
+    public String getFollowedByTag() {
+        return followedByTag;
+    }
+
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        PatternPrefixShareKey that = (PatternPrefixShareKey) o;
+
+        if (!everyTag.equals(that.everyTag)) return false;
+        if (followedByTag != null ? !followedByTag.equals(that.followedByTag) : that.followedByTag != null)
+            return false;
+        if (!everyFilterSpec.equals(that.everyFilterSpec)) return false;
+        return followedBySharedFilterSpec.equals(that.followedBySharedFilterSpec);
+    }
+
+    public int hashCode() {
+        int result = everyFilterSpec.hashCode();
+        result = 31 * result + everyTag.hashCode();
+        result = 31 * result + followedBySharedFilterSpec.hashCode();
+        return result;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern.share;
+
+import com.espertech.esper.pattern.EvalNode;
+import com.espertech.esper.pattern.EvalStateNode;
+import com.espertech.esper.pattern.EvalStateNodeNumber;
+import com.espertech.esper.pattern.Evaluator;
+import com.espertech.esper.pattern.PatternAgentInstanceContext;
+
+/**
+ * Evaluation node standing in for the "every a=A -&gt; b=B" pattern of a statement that subscribes to a shared prefix.
+ */
+public class PatternPrefixShareNode implements EvalNode {
+    private final PatternAgentInstanceContext context;
+    private final PatternPrefixShareDesc desc;
+    private final PatternPrefixShareService shareService;
+
+    public PatternPrefixShareNode(PatternAgentInstanceContext context, PatternPrefixShareDesc desc, PatternPrefixShareService shareService) {
+        this.context = context;
+        this.desc = desc;
+        this.shareService = shareService;
+    }
+
+    public PatternAgentInstanceContext getContext() {
+        return context;
+    }
+
+    public PatternPrefixShareDesc getDesc() {
+        return desc;
+    }
+
+    public PatternPrefixShareService getShareService() {
+        return shareService;
+    }
+
+    public EvalStateNode newState(Evaluator parentNode, EvalStateNodeNumber stateNodeNumber, long stateNodeId) {
+        return new PatternPrefixShareStateNode(parentNode, this);
+    }
+}
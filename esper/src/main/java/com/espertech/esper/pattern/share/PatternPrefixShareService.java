@@ -0,0 +1,88 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern.share;
+
+import com.espertech.esper.client.ConfigurationEngineDefaults;
+import com.espertech.esper.filter.FilterService;
+import com.espertech.esper.pattern.PatternAgentInstanceContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Engine-level registry of shared pattern prefixes.
+ */
+public class PatternPrefixShareService {
+    private final FilterService filterService;
+    private final ConfigurationEngineDefaults.FilterServiceProfile filterServiceProfile;
+    private final Map<PatternPrefixShareKey, PatternPrefixShareGroup> groups = new HashMap<PatternPrefixShareKey, PatternPrefixShareGroup>();
+    private int lastGroupStatementId;
+
+    public PatternPrefixShareService(FilterService filterService, ConfigurationEngineDefaults.FilterServiceProfile filterServiceProfile) {
+        this.filterService = filterService;
+        this.filterServiceProfile = filterServiceProfile;
+    }
+
+    /**
+     * Subscribe to the group for the prefix, allocating the group if none exists.
+     *
+     * @param desc       analysis result
+     * @param subscriber subscriber
+     * @param context    pattern context of the subscriber
+     * @return group
+     */
+    public synchronized PatternPrefixShareGroup subscribe(PatternPrefixShareDesc desc, PatternPrefixShareStateNode subscriber, PatternAgentInstanceContext context) {
+        PatternPrefixShareGroup group = groups.get(desc.getKey());
+        if (group == null) {
+            // groups use negative statement ids that are never assigned to statements
+            lastGroupStatementId--;
+            group = new PatternPrefixShareGroup(lastGroupStatementId, desc, context.getPatternContext().getMatchedEventMapMeta(), filterService, filterServiceProfile,
+                    context.getAgentInstanceContext().getEpStatementAgentInstanceHandle().getStatementHandle().getMultiMatchHandler());
+            groups.put(desc.getKey(), group);
+        }
+        group.subscribe(subscriber, desc.getResidualFilterSpec());
+        return group;
+    }
+
+    /**
+     * Unsubscribe from a group, releasing the group if no subscribers remain.
+     *
+     * @param group      group
+     * @param subscriber subscriber
+     */
+    public synchronized void unsubscribe(PatternPrefixShareGroup group, PatternPrefixShareStateNode subscriber) {
+        if (group.unsubscribe(subscriber)) {
+            groups.remove(group.getKey());
+        }
+    }
+
+    /**
+     * Returns the number of shared prefixes.
+     *
+     * @return count
+     */
+    public synchronized int getNumGroups() {
+        return groups.size();
+    }
+
+    /**
+     * Returns the total number of outstanding instances of all shared prefixes.
+     *
+     * @return count
+     */
+    public synchronized int getNumInstances() {
+        int count = 0;
+        for (PatternPrefixShareGroup group : groups.values()) {
+            count += group.getNumInstances();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern.share;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
+import com.espertech.esper.filter.FilterHandle;
+import com.espertech.esper.filter.FilterServiceEntry;
+import com.espertech.esper.pattern.*;
+
+import java.util.Set;
+
+/**
+ * State of a statement subscribed to a shared pattern prefix: receives the matches of the shared prefix
+ * that satisfy the statement's constant criteria and hands them to the pattern root.
+ * <p>
+ * The state node serves as the filter handle of the statement's constant criteria in the group.
+ */
+public class PatternPrefixShareStateNode extends EvalStateNode implements FilterHandle {
+    private final PatternPrefixShareNode shareNode;
+    private MatchedEventMap beginState;
+    private PatternPrefixShareGroup group;
+    private boolean isStarted;
+    private long subscribeSequence;
+    private FilterServiceEntry residualFilterServiceEntry;
+
+    /**
+     * Ctor.
+     *
+     * @param parentNode parent evaluator
+     * @param shareNode  evaluation node
+     */
+    public PatternPrefixShareStateNode(Evaluator parentNode, PatternPrefixShareNode shareNode) {
+        super(parentNode);
+        this.shareNode = shareNode;
+    }
+
+    public EvalNode getFactoryNode() {
+        return shareNode;
+    }
+
+    public int getStatementId() {
+        return shareNode.getContext().getPatternContext().getStatementId();
+    }
+
+    public EPStatementAgentInstanceHandle getAgentInstanceHandle() {
+        return shareNode.getContext().getAgentInstanceContext().getEpStatementAgentInstanceHandle();
+    }
+
+    public long getSubscribeSequence() {
+        return subscribeSequence;
+    }
+
+    public void setSubscribeSequence(long subscribeSequence) {
+        this.subscribeSequence = subscribeSequence;
+    }
+
+    public FilterServiceEntry getResidualFilterServiceEntry() {
+        return residualFilterServiceEntry;
+    }
+
+    public void setResidualFilterServiceEntry(FilterServiceEntry residualFilterServiceEntry) {
+        this.residualFilterServiceEntry = residualFilterServiceEntry;
+    }
+
+    public void start(MatchedEventMap beginState) {
+        if (isStarted) {
+            throw new IllegalStateException("Shared prefix state node already active");
+        }
+        this.beginState = beginState;
+        isStarted = true;
+        group = shareNode.getShareService().subscribe(shareNode.getDesc(), this, shareNode.getContext());
+    }
+
+    public void quit() {
+        if (!isStarted) {
+            return;
+        }
+        isStarted = false;
+        shareNode.getShareService().unsubscribe(group, this);
+        group = null;
+    }
+
+    /**
+     * Indicates a match of the followed-by filter for an instance of the shared prefix, invoked under the statement lock.
+     *
+     * @param instance instance
+     * @param theEvent event matching the followed-by filter
+     */
+    public void matchFound(PatternPrefixShareInstance instance, EventBean theEvent) {
+        if (!isStarted || !group.deliver(instance, this)) {
+            return;
+        }
+        PatternPrefixShareDesc desc = shareNode.getDesc();
+        MatchedEventMap passUp = beginState.shallowCopy();
+        passUp.add(desc.getEveryTagNumber(), instance.getEveryEvent());
+        if (desc.getFollowedByTagNumber() != -1) {
+            passUp.add(desc.getFollowedByTagNumber(), theEvent);
+        }
+        getParentEvaluator().evaluateTrue(passUp, this, false);
+    }
+
+    public void accept(EvalStateNodeVisitor visitor) {
+        // the shared prefix state is not owned by the statement
+    }
+
+    public boolean isNotOperator() {
+        return false;
+    }
+
+    public boolean isFilterStateNode() {
+        return false;
+    }
+
+    public boolean isObserverStateNodeNonRestarting() {
+        return false;
+    }
+
+    public void removeMatch(Set<EventBean> matchEvent) {
+        // not applicable, statements that remove matches do not share prefixes
+    }
+
+    public final String toString() {
+        return "PatternPrefixShareStateNode";
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern.share;
+
+import com.espertech.esper.filter.*;
+import com.espertech.esper.pattern.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Determines whether a pattern is of the shareable form "every a=A(constants) -&gt; b=B(criteria)" and
+ * separates the criteria of B into those correlated to the tagged event of A and constant criteria.
+ */
+public class PatternPrefixShareUtil {
+    /**
+     * Analyze a pattern, for use when there is no engine-wide subexpression limit.
+     *
+     * @param rootFactoryNode pattern root
+     * @return descriptor or null if the pattern does not qualify for sharing
+     */
+    public static PatternPrefixShareDesc analyze(EvalRootFactoryNode rootFactoryNode) {
+        if (rootFactoryNode.getChildNodes().size() != 1 || !(rootFactoryNode.getChildNodes().get(0) instanceof EvalFollowedByFactoryNode)) {
+            return null;
+        }
+        EvalFollowedByFactoryNode followedBy = (EvalFollowedByFactoryNode) rootFactoryNode.getChildNodes().get(0);
+        boolean hasMax = followedBy.getOptionalMaxExpressions() != null && !followedBy.getOptionalMaxExpressions().isEmpty();
+        if (hasMax || followedBy.getChildNodes().size() != 2) {
+            return null;
+        }
+        if (!(followedBy.getChildNodes().get(0) instanceof EvalEveryFactoryNode) || !(followedBy.getChildNodes().get(1) instanceof EvalFilterFactoryNode)) {
+            return null;
+        }
+        EvalEveryFactoryNode every = (EvalEveryFactoryNode) followedBy.getChildNodes().get(0);
+        if (!(every.getChildNodes().get(0) instanceof EvalFilterFactoryNode)) {
+            return null;
+        }
+        EvalFilterFactoryNode everyFilter = (EvalFilterFactoryNode) every.getChildNodes().get(0);
+        EvalFilterFactoryNode followedByFilter = (EvalFilterFactoryNode) followedBy.getChildNodes().get(1);
+        if (everyFilter.getEventAsName() == null || !isPlainFilter(everyFilter) || !isPlainFilter(followedByFilter)) {
+            return null;
+        }
+
+        // the every-filter must only have constant criteria
+        FilterSpecCompiled everySpec = everyFilter.getFilterSpec();
+        for (FilterSpecParam param : getParameters(everySpec)) {
+            if (!isConstant(param)) {
+                return null;
+            }
+        }
+
+        // split the followed-by filter into correlated and constant criteria
+        FilterSpecCompiled followedBySpec = followedByFilter.getFilterSpec();
+        List<FilterSpecParam> shared = new ArrayList<FilterSpecParam>();
+        List<FilterSpecParam> residual = new ArrayList<FilterSpecParam>();
+        for (FilterSpecParam param : getParameters(followedBySpec)) {
+            if (isConstant(param)) {
+                residual.add(param);
+            } else if (param instanceof FilterSpecParamEventProp) {
+                shared.add(param);
+            } else {
+                return null;
+            }
+        }
+
+        FilterSpecCompiled sharedSpec = new FilterSpecCompiled(followedBySpec.getFilterForEventType(), followedBySpec.getFilterForEventTypeName(), toArray(shared), null);
+        FilterSpecCompiled residualSpec = new FilterSpecCompiled(followedBySpec.getFilterForEventType(), followedBySpec.getFilterForEventTypeName(), toArray(residual), null);
+        PatternPrefixShareKey key = new PatternPrefixShareKey(everySpec, everyFilter.getEventAsName(), sharedSpec, followedByFilter.getEventAsName());
+        int followedByTagNumber = followedByFilter.getEventAsName() == null ? -1 : followedByFilter.getEventAsTagNumber();
+        return new PatternPrefixShareDesc(key, everyFilter.getEventAsTagNumber(), followedByTagNumber, residualSpec);
+    }
+
+    private static boolean isPlainFilter(EvalFilterFactoryNode filterNode) {
+        FilterSpecCompiled spec = filterNode.getFilterSpec();
+        return filterNode.getConsumptionLevel() == null && spec.getOptionalPropertyEvaluator() == null && spec.getParameters().length <= 1;
+    }
+
+    /**
+     * Returns indicator whether the filter parameter value does not depend on prior matching events.
+     *
+     * @param param filter parameter
+     * @return constant indicator
+     */
+    public static boolean isConstant(FilterSpecParam param) {
+        if (param instanceof FilterSpecParamConstant) {
+            return true;
+        }
+        if (param instanceof FilterSpecParamRange) {
+            FilterSpecParamRange range = (FilterSpecParamRange) param;
+            return isConstantEndpoint(range.getMin()) && isConstantEndpoint(range.getMax());
+        }
+        return false;
+    }
+
+    private static boolean isConstantEndpoint(FilterSpecParamFilterForEval endpoint) {
+        return endpoint instanceof FilterForEvalConstantDouble || endpoint instanceof FilterForEvalConstantString;
+    }
+
+    private static FilterSpecParam[] getParameters(FilterSpecCompiled spec) {
+        return spec.getParameters().length == 0 ? FilterSpecParam.EMPTY_PARAM_ARRAY : spec.getParameters()[0];
+    }
+
+    private static List<FilterSpecParam>[] toArray(List<FilterSpecParam> params) {
+        if (params.isEmpty()) {
+            return (List<FilterSpecParam>[]) new List[0];
+        }
+        List<FilterSpecParam>[] result = (List<FilterSpecParam>[]) new List[1];
+        result[0] = params;
+        return result;
+    }
+}
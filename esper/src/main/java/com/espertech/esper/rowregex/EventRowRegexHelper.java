@@ -359,4 +359,29 @@ public class EventRowRegexHelper {
             recursiveCollectAtomsWExclude(child, identifiers, excludedTag);
         }
     }
+
+    /**
+     * Returns the states of a pattern that is a sequence of single-row variables that each match exactly one row,
+     * or null if the pattern is not such a sequence or is longer than can be represented as a bit vector.
+     *
+     * @param startStates start states
+     * @return states in sequence or null
+     */
+    public static RegexNFAState[] getBitParallelSequence(RegexNFAState[] startStates) {
+        if (startStates.length != 1) {
+            return null;
+        }
+        List<RegexNFAState> sequence = new ArrayList<RegexNFAState>();
+        Set<Integer> streams = new HashSet<Integer>();
+        RegexNFAState state = startStates[0];
+        while (!(state instanceof RegexNFAStateEnd)) {
+            if (!(state instanceof RegexNFAStateFilter || state instanceof RegexNFAStateAnyOne) ||
+                state.isMultiple() || state.getNextStates().size() != 1 || sequence.size() == 64 || !streams.add(state.getStreamNum())) {
+                return null;
+            }
+            sequence.add(state);
+            state = state.getNextStates().get(0);
+        }
+        return sequence.toArray(new RegexNFAState[sequence.size()]);
+    }
 }
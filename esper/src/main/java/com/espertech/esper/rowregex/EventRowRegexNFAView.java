@@ -65,6 +65,8 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
 
     private final RegexNFAState[] startStates;
     protected final RegexNFAState[] allStates;
+    private final RegexNFAState[] bitParallelSequence;
+    private final EventBean[] bitParallelEventsPerStream;
 
     private final String[] multimatchVariablesArray;
     private final int[] multimatchStreamNumToVariable;
@@ -174,6 +176,14 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
         startStates = strand.getStartStates().toArray(new RegexNFAState[strand.getStartStates().size()]);
         allStates = strand.getAllStates().toArray(new RegexNFAState[strand.getAllStates().size()]);
 
+        // a sequence of single-row variables over an unbound stream steps partial matches as a bit vector per partition
+        if (isUnbound && !isTrackMaxStates && matchRecognizeSpec.getInterval() == null && !isCollectMultimatches) {
+            bitParallelSequence = EventRowRegexHelper.getBitParallelSequence(startStates);
+        } else {
+            bitParallelSequence = null;
+        }
+        bitParallelEventsPerStream = bitParallelSequence == null ? null : new EventBean[numEventsEventsPerStreamDefine];
+
         if (log.isDebugEnabled() || IS_DEBUG) {
             log.info("NFA tree:\n" + EventRowRegexNFAViewUtil.print(startStates));
         }
@@ -297,12 +307,10 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
         List<RegexNFAStateEntry> terminationStatesAll = null;
 
         for (EventBean newEvent : newData) {
-            List<RegexNFAStateEntry> nextStates = new ArrayList<RegexNFAStateEntry>(2);
             int eventSequenceNumber = regexPartitionStateRepo.incrementAndGetEventSequenceNum();
 
             // get state holder for this event
             RegexPartitionState partitionState = regexPartitionStateRepo.getState(newEvent, true);
-            Iterator<RegexNFAStateEntry> currentStatesIterator = partitionState.getCurrentStatesIterator();
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().qRegEx(newEvent, partitionState);
             }
@@ -311,6 +319,17 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                 partitionState.getRandomAccess().newEventPrepare(newEvent);
             }
 
+            if (bitParallelSequence != null) {
+                stepBitParallel(partitionState, newEvent, endStates, eventSequenceNumber);
+                if (InstrumentationHelper.ENABLED) {
+                    InstrumentationHelper.get().aRegEx(partitionState, endStates, null);
+                }
+                continue;
+            }
+
+            List<RegexNFAStateEntry> nextStates = new ArrayList<RegexNFAStateEntry>(2);
+            Iterator<RegexNFAStateEntry> currentStatesIterator = partitionState.getCurrentStatesIterator();
+
             if ((ExecutionPathDebugLog.isDebugEnabled) && (log.isDebugEnabled()) || IS_DEBUG) {
                 log.info("Evaluating event " + newEvent.getUnderlying() + "\n" +
                         "current : " + EventRowRegexNFAViewUtil.printStates(partitionState.getCurrentStatesForPrint(), streamsVariables, variableStreams, multimatchStreamNumToVariable));
@@ -451,6 +470,9 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                         stateIter.remove();
                     }
                 }
+                if (partitionState.getBitParallelState() != null) {
+                    partitionState.getBitParallelState().removeBeginUpTo(endState.getMatchEndEventSeqNo());
+                }
             }
         } else if (matchRecognizeSpec.getSkip().getSkip() == MatchRecognizeSkipEnum.TO_NEXT_ROW) {
             Iterator<RegexNFAStateEntry> endStateIter = endStates.iterator();
@@ -469,6 +491,9 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
                         stateIter.remove();
                     }
                 }
+                if (partitionState.getBitParallelState() != null) {
+                    partitionState.getBitParallelState().removeBeginUpTo(endState.getMatchBeginEventSeqNo());
+                }
             }
         }
 
@@ -969,6 +994,48 @@ public class EventRowRegexNFAView extends ViewSupport implements StopCallback, E
         return terminationStates;   // only for immediate use, not for scheduled use as no copy of state
     }
 
+    private void stepBitParallel(RegexPartitionState partitionState, EventBean theEvent, List<RegexNFAStateEntry> endStates, int currentEventSequenceNumber) {
+        RegexPartitionStateBitParallel state = partitionState.getBitParallelState();
+        if (state == null) {
+            state = new RegexPartitionStateBitParallel(bitParallelSequence.length);
+            partitionState.setBitParallelState(state);
+        }
+
+        // variable i is evaluated for the partial match of the first i variables, and variable 0 for starting a match
+        int last = bitParallelSequence.length - 1;
+        long candidates = (state.getMask() << 1) | 1L;
+        long next = 0;
+        EventBean[] eventsPerStream = bitParallelEventsPerStream;
+        while (candidates != 0) {
+            int i = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+
+            for (int j = 0; j < bitParallelSequence.length; j++) {
+                eventsPerStream[bitParallelSequence[j].getStreamNum()] = j < i ? state.getEvent(i - 1 - j) : null;
+            }
+            eventsPerStream[bitParallelSequence[i].getStreamNum()] = theEvent;
+            if (!bitParallelSequence[i].matches(eventsPerStream, agentInstanceContext)) {
+                continue;
+            }
+
+            if (i == last) {
+                EventBean[] eventsForState = new EventBean[eventsPerStream.length];
+                System.arraycopy(eventsPerStream, 0, eventsForState, 0, eventsPerStream.length);
+                int beginSequenceNumber = i == 0 ? currentEventSequenceNumber : state.getSequenceNum(i - 1);
+                RegexNFAStateEntry entry = new RegexNFAStateEntry(beginSequenceNumber, 0, bitParallelSequence[i], eventsForState, new int[allStates.length], null, partitionState.getOptionalKeys());
+                entry.setMatchEndEventSeqNo(currentEventSequenceNumber);
+                endStates.add(entry);
+            } else {
+                next |= 1L << i;
+            }
+        }
+
+        state.setMask(next);
+        if (last > 0) {
+            state.push(theEvent, currentEventSequenceNumber);
+        }
+    }
+
     private ObjectArrayBackedEventBean getMultimatchState(RegexNFAStateEntry currentState) {
         if (currentState.getOptionalMultiMatches() == null || !currentState.getState().isExprRequiresMultimatchState()) {
             return null;
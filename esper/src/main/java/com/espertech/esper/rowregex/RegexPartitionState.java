@@ -27,4 +27,8 @@ public interface RegexPartitionState {
     public List<RegexNFAStateEntry> getCurrentStatesForPrint();
 
     public boolean isEmptyCurrentState();
+
+    public RegexPartitionStateBitParallel getBitParallelState();
+
+    public void setBitParallelState(RegexPartitionStateBitParallel bitParallelState);
 }
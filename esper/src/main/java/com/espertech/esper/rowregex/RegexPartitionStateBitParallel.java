@@ -0,0 +1,113 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.rowregex;
+
+import com.espertech.esper.client.EventBean;
+
+/**
+ * Partial matches of a partition for patterns that are a sequence of single-row variables, held as a bit vector.
+ * <p>
+ * Bit i is set when the last i+1 events of the partition match the first i+1 variables of the pattern.
+ * Since matched rows are contiguous, the events of any partial match are the most recent events of the partition,
+ * which are kept in a ring along with their sequence numbers. Stepping an event therefore does not allocate.
+ */
+public class RegexPartitionStateBitParallel {
+    private final EventBean[] events;
+    private final int[] sequenceNums;
+    private int head;
+    private long mask;
+
+    /**
+     * Ctor.
+     *
+     * @param numVariables number of variables of the pattern sequence, at most 64
+     */
+    public RegexPartitionStateBitParallel(int numVariables) {
+        int capacity = Math.max(numVariables - 1, 1);
+        this.events = new EventBean[capacity];
+        this.sequenceNums = new int[capacity];
+    }
+
+    /**
+     * Returns the bit vector of partial matches.
+     *
+     * @return bits
+     */
+    public long getMask() {
+        return mask;
+    }
+
+    public void setMask(long mask) {
+        this.mask = mask;
+    }
+
+    /**
+     * Returns a previous event of the partition.
+     *
+     * @param back zero for the most recent event, one for the one before and so on
+     * @return event
+     */
+    public EventBean getEvent(int back) {
+        return events[position(back)];
+    }
+
+    /**
+     * Returns the sequence number of a previous event of the partition.
+     *
+     * @param back zero for the most recent event, one for the one before and so on
+     * @return sequence number
+     */
+    public int getSequenceNum(int back) {
+        return sequenceNums[position(back)];
+    }
+
+    /**
+     * Retain an event as the most recent event of the partition.
+     *
+     * @param theEvent    event
+     * @param sequenceNum event sequence number
+     */
+    public void push(EventBean theEvent, int sequenceNum) {
+        head = head + 1 == events.length ? 0 : head + 1;
+        events[head] = theEvent;
+        sequenceNums[head] = sequenceNum;
+    }
+
+    /**
+     * Remove the partial matches that begin at or before the event sequence number.
+     *
+     * @param sequenceNum event sequence number
+     */
+    public void removeBeginUpTo(int sequenceNum) {
+        long remaining = mask;
+        while (remaining != 0) {
+            int bit = 63 - Long.numberOfLeadingZeros(remaining);
+            if (getSequenceNum(bit) > sequenceNum) {
+                break;
+            }
+            mask &= ~(1L << bit);
+            remaining &= ~(1L << bit);
+        }
+    }
+
+    public boolean isEmpty() {
+        return mask == 0;
+    }
+
+    public int getNumStates() {
+        return Long.bitCount(mask);
+    }
+
+    private int position(int back) {
+        int pos = head - back;
+        return pos < 0 ? pos + events.length : pos;
+    }
+}
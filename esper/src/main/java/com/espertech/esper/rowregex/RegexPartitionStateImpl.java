@@ -23,6 +23,8 @@ public class RegexPartitionStateImpl implements RegexPartitionState {
     private RegexPartitionStateRandomAccess randomAccess;
     private List<RegexNFAStateEntry> currentStates = new ArrayList<RegexNFAStateEntry>();
     private Object optionalKeys;
+    private RegexPartitionStateBitParallel bitParallelState;
+    private boolean collectCandidate;
 
     /**
      * Ctor.
@@ -138,11 +140,14 @@ public class RegexPartitionStateImpl implements RegexPartitionState {
     }
 
     public int getNumStates() {
-        return currentStates.size();
+        return bitParallelState == null ? currentStates.size() : currentStates.size() + bitParallelState.getNumStates();
     }
 
     public void clearCurrentStates() {
         currentStates.clear();
+        if (bitParallelState != null) {
+            bitParallelState.setMask(0);
+        }
     }
 
     public List<RegexNFAStateEntry> getCurrentStatesForPrint() {
@@ -150,7 +155,33 @@ public class RegexPartitionStateImpl implements RegexPartitionState {
     }
 
     public boolean isEmptyCurrentState() {
-        return currentStates.isEmpty();
+        return currentStates.isEmpty() && (bitParallelState == null || bitParallelState.isEmpty());
+    }
+
+    /**
+     * Returns partial matches for patterns executed bit-parallel, if any.
+     *
+     * @return state or null
+     */
+    public RegexPartitionStateBitParallel getBitParallelState() {
+        return bitParallelState;
+    }
+
+    public void setBitParallelState(RegexPartitionStateBitParallel bitParallelState) {
+        this.bitParallelState = bitParallelState;
+    }
+
+    /**
+     * Returns indicator whether the state is listed for collection by the repository.
+     *
+     * @return indicator
+     */
+    public boolean isCollectCandidate() {
+        return collectCandidate;
+    }
+
+    public void setCollectCandidate(boolean collectCandidate) {
+        this.collectCandidate = collectCandidate;
     }
 
     public static List<RegexNFAStateEntry> removeEventFromState(EventBean oldEvent, Iterator<RegexNFAStateEntry> states) {
@@ -12,6 +12,8 @@ package com.espertech.esper.rowregex;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.MultiKeyUntypedHashMap;
+import com.espertech.esper.collection.SingleKeyHashMap;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
@@ -32,6 +34,9 @@ public class RegexPartitionStateRepoGroup implements RegexPartitionStateRepo {
     private final Map<Object, RegexPartitionStateImpl> states;
     private final RegexPartitionStateRepoScheduleStateImpl optionalIntervalSchedules;
 
+    // states accessed since the last collection, only these can have become unused
+    private final Set<RegexPartitionStateImpl> collectCandidates = Collections.newSetFromMap(new IdentityHashMap<RegexPartitionStateImpl, Boolean>());
+
     private int currentCollectionSize = INITIAL_COLLECTION_MIN;
     private int eventSequenceNumber;
 
@@ -41,7 +46,11 @@ public class RegexPartitionStateRepoGroup implements RegexPartitionStateRepo {
                                         RegexPartitionTerminationStateComparator terminationStateCompare) {
         this.getter = getter;
         this.meta = meta;
-        this.states = new HashMap<Object, RegexPartitionStateImpl>();
+        if (meta.getPartitionExpressions().length == 1) {
+            this.states = new SingleKeyHashMap<RegexPartitionStateImpl>();
+        } else {
+            this.states = new MultiKeyUntypedHashMap<RegexPartitionStateImpl>();
+        }
         this.optionalIntervalSchedules = keepScheduleState ? new RegexPartitionStateRepoScheduleStateImpl(terminationStateCompare) : null;
     }
 
@@ -59,13 +68,27 @@ public class RegexPartitionStateRepoGroup implements RegexPartitionStateRepo {
     }
 
     public void removeState(Object partitionKey) {
-        states.remove(partitionKey);
+        RegexPartitionStateImpl state = states.remove(partitionKey);
+        if (state != null) {
+            removeCollectCandidate(state);
+        }
+    }
+
+    /**
+     * Returns the number of states accessed since the last collection of unused states.
+     *
+     * @return count of collection candidates
+     */
+    public int getCollectCandidateCount() {
+        return collectCandidates.size();
     }
 
     public RegexPartitionStateRepo copyForIterate(boolean forOutOfOrderReprocessing) {
         RegexPartitionStateRepoGroup copy = new RegexPartitionStateRepoGroup(getter, meta, false, null);
         for (Map.Entry<Object, RegexPartitionStateImpl> entry : states.entrySet()) {
-            copy.states.put(entry.getKey(), new RegexPartitionStateImpl(entry.getValue().getRandomAccess(), entry.getKey()));
+            RegexPartitionStateImpl state = new RegexPartitionStateImpl(entry.getValue().getRandomAccess(), entry.getKey());
+            copy.states.put(entry.getKey(), state);
+            copy.addCollectCandidate(state);
         }
         return copy;
     }
@@ -77,11 +100,13 @@ public class RegexPartitionStateRepoGroup implements RegexPartitionStateRepo {
                 // no "prev" used, clear all state
                 countRemoved = getStateCount();
                 states.clear();
+                clearCollectCandidates();
             } else {
                 countRemoved = 0;
                 for (Map.Entry<Object, RegexPartitionStateImpl> entry : states.entrySet()) {
                     countRemoved += entry.getValue().getNumStates();
                     entry.getValue().setCurrentStates(Collections.<RegexNFAStateEntry>emptyList());
+                    addCollectCandidate(entry.getValue());
                 }
             }
 
@@ -114,6 +139,7 @@ public class RegexPartitionStateRepoGroup implements RegexPartitionStateRepo {
                 if (cleared) {
                     if (getter == null) {
                         states.remove(partitionState.getOptionalKeys());
+                        removeCollectCandidate(partitionState);
                     }
                 }
             }
@@ -124,7 +150,11 @@ public class RegexPartitionStateRepoGroup implements RegexPartitionStateRepo {
     }
 
     public RegexPartitionState getState(Object key) {
-        return states.get(key);
+        RegexPartitionStateImpl state = states.get(key);
+        if (state != null) {
+            addCollectCandidate(state);
+        }
+        return state;
     }
 
     public RegexPartitionStateImpl getState(EventBean theEvent, boolean isCollect) {
@@ -134,19 +164,8 @@ public class RegexPartitionStateRepoGroup implements RegexPartitionStateRepo {
 
         // collect unused states
         if (isCollect && (states.size() >= currentCollectionSize)) {
-            List<Object> removeList = new ArrayList<Object>();
-            for (Map.Entry<Object, RegexPartitionStateImpl> entry : states.entrySet()) {
-                if ((entry.getValue().isEmptyCurrentState()) &&
-                        (entry.getValue().getRandomAccess() == null || entry.getValue().getRandomAccess().isEmpty())) {
-                    removeList.add(entry.getKey());
-                }
-            }
-
-            for (Object removeKey : removeList) {
-                states.remove(removeKey);
-            }
-
-            if (removeList.size() < (currentCollectionSize / 5)) {
+            int countRemoved = collectUnused();
+            if (countRemoved < (currentCollectionSize / 5)) {
                 currentCollectionSize *= 2;
             }
         }
@@ -155,6 +174,7 @@ public class RegexPartitionStateRepoGroup implements RegexPartitionStateRepo {
 
         RegexPartitionStateImpl state = states.get(key);
         if (state != null) {
+            addCollectCandidate(state);
             if (InstrumentationHelper.ENABLED) {
                 InstrumentationHelper.get().aRegExPartition(true, state);
             }
@@ -163,6 +183,7 @@ public class RegexPartitionStateRepoGroup implements RegexPartitionStateRepo {
 
         state = new RegexPartitionStateImpl(getter, new ArrayList<RegexNFAStateEntry>(), key);
         states.put(key, state);
+        addCollectCandidate(state);
 
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().aRegExPartition(false, state);
@@ -224,4 +245,41 @@ public class RegexPartitionStateRepoGroup implements RegexPartitionStateRepo {
 
     public void destroy() {
     }
+
+    private int collectUnused() {
+        // a state not accessed since the last collection still has partial matches or "prev" events
+        int countRemoved = 0;
+        for (RegexPartitionStateImpl candidate : collectCandidates) {
+            candidate.setCollectCandidate(false);
+            if ((candidate.isEmptyCurrentState()) &&
+                    (candidate.getRandomAccess() == null || candidate.getRandomAccess().isEmpty()) &&
+                    (states.get(candidate.getOptionalKeys()) == candidate)) {
+                states.remove(candidate.getOptionalKeys());
+                countRemoved++;
+            }
+        }
+        collectCandidates.clear();
+        return countRemoved;
+    }
+
+    private void addCollectCandidate(RegexPartitionStateImpl state) {
+        if (!state.isCollectCandidate()) {
+            state.setCollectCandidate(true);
+            collectCandidates.add(state);
+        }
+    }
+
+    private void removeCollectCandidate(RegexPartitionStateImpl state) {
+        if (state.isCollectCandidate()) {
+            state.setCollectCandidate(false);
+            collectCandidates.remove(state);
+        }
+    }
+
+    private void clearCollectCandidates() {
+        for (RegexPartitionStateImpl candidate : collectCandidates) {
+            candidate.setCollectCandidate(false);
+        }
+        collectCandidates.clear();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,433 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.client.util.DateTime;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.metrics.jmx.JmxGetter;
+import com.espertech.esper.timer.TimeSourceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Implements the schedule service as a hierarchical timing wheel, providing constant-time add and remove.
+ * <p>
+ * The wheel has {@link #NUM_LEVELS} levels of {@link #NUM_BUCKETS} buckets each, every level covering
+ * {@link #LEVEL_BITS} bits of the trigger time. A schedule is placed into the level of the highest bit in which its
+ * trigger time differs from the wheel time, and into the bucket given by its trigger time bits for that level.
+ * Advancing the wheel collects all lower levels entirely plus the passed buckets of the level in which the old and
+ * new wheel time differ, and cascades the single bucket matching the new wheel time into lower levels.
+ * Each level keeps a bit mask of non-empty buckets so that advancing by any amount of time only visits non-empty buckets.
+ * <p>
+ * Triggered schedules are handed out ordered by trigger time and, within the same trigger time, by schedule slot,
+ * the same as {@link SchedulingServiceImpl}.
+ * <p>
+ * Synchronized since statement creation and event evaluation by multiple (event send) threads
+ * can lead to callbacks added/removed asynchronously.
+ */
+public final class SchedulingServiceTimingWheel implements SchedulingServiceSPI {
+    /**
+     * Number of time bits covered by one level.
+     */
+    protected static final int LEVEL_BITS = 6;
+
+    /**
+     * Number of buckets per level.
+     */
+    protected static final int NUM_BUCKETS = 1 << LEVEL_BITS;
+
+    /**
+     * Number of levels, sufficient to cover a long value.
+     */
+    protected static final int NUM_LEVELS = (Long.SIZE + LEVEL_BITS - 1) / LEVEL_BITS;
+
+    private static final long BUCKET_MASK = NUM_BUCKETS - 1;
+
+    private static final Comparator<Entry> TRIGGER_ORDER = new Comparator<Entry>() {
+        public int compare(Entry o1, Entry o2) {
+            int compared = Long.compare(o1.triggerTime, o2.triggerTime);
+            if (compared != 0) {
+                return compared;
+            }
+            return Long.compare(o1.slot, o2.slot);
+        }
+    };
+
+    // Buckets per level, each bucket is the head of a doubly-linked list of entries
+    private final Entry[][] wheel;
+
+    // Bit mask of non-empty buckets per level
+    private final long[] occupied;
+
+    // Entries that are due at or before the wheel time
+    private final ArrayList<Entry> due;
+
+    // Map of handle and entry for constant-time removal
+    private final Map<ScheduleHandle, Entry> handleEntryMap;
+
+    // Time up to which the wheel has been advanced
+    private long wheelTime;
+
+    // Current time - used for evaluation as well as for adding new handles
+    private volatile long currentTime;
+
+    /**
+     * Constructor.
+     *
+     * @param timeSourceService time source provider
+     */
+    public SchedulingServiceTimingWheel(TimeSourceService timeSourceService) {
+        this.wheel = new Entry[NUM_LEVELS][NUM_BUCKETS];
+        this.occupied = new long[NUM_LEVELS];
+        this.due = new ArrayList<Entry>();
+        this.handleEntryMap = new HashMap<ScheduleHandle, Entry>();
+        // initialize time to just before now as there is a check for duplicate external time events
+        this.currentTime = timeSourceService.getTimeMillis() - 1;
+        this.wheelTime = currentTime;
+    }
+
+    public void destroy() {
+        log.debug("Destroying scheduling service");
+        handleEntryMap.clear();
+        for (int level = 0; level < NUM_LEVELS; level++) {
+            Arrays.fill(wheel[level], null);
+            occupied[level] = 0;
+        }
+        due.clear();
+    }
+
+    public long getTime() {
+        // note that this.currentTime is volatile
+        return this.currentTime;
+    }
+
+    public synchronized final void setTime(long currentTime) {
+        this.currentTime = currentTime;
+        if (currentTime < wheelTime) {
+            // time moved backwards, re-place all schedules relative to the new time
+            List<Entry> entries = new ArrayList<Entry>(handleEntryMap.values());
+            for (int level = 0; level < NUM_LEVELS; level++) {
+                Arrays.fill(wheel[level], null);
+                occupied[level] = 0;
+            }
+            due.clear();
+            wheelTime = currentTime;
+            for (Entry entry : entries) {
+                place(entry);
+            }
+        }
+    }
+
+    public synchronized final void add(long afterTime, ScheduleHandle handle, long slot)
+            throws ScheduleServiceException {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleAdd(currentTime, afterTime, handle, slot);
+        }
+        Entry existing = handleEntryMap.remove(handle);
+        if (existing != null) {
+            unlink(existing);
+        }
+
+        Entry entry = new Entry(handle, slot, currentTime + afterTime);
+        handleEntryMap.put(handle, entry);
+        place(entry);
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleAdd();
+        }
+    }
+
+    public synchronized final void remove(ScheduleHandle handle, long slot) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleRemove(handle, slot);
+        }
+        Entry entry = handleEntryMap.remove(handle);
+        if (entry != null) {
+            // If it already has been removed then that's fine;
+            // Such could be the case when 2 timers fireStatementStopped at the same time, and one stops the other
+            unlink(entry);
+        }
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleRemove();
+        }
+    }
+
+    public synchronized final void evaluate(Collection<ScheduleHandle> handles) {
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().qScheduleEval(currentTime);
+        }
+        if (currentTime > wheelTime) {
+            advance(currentTime);
+        }
+
+        if (due.isEmpty()) {
+            if (InstrumentationHelper.ENABLED) {
+                InstrumentationHelper.get().aScheduleEval(Collections.<ScheduleHandle>emptyList());
+            }
+            return;
+        }
+
+        if (due.size() > 1) {
+            Collections.sort(due, TRIGGER_ORDER);
+        }
+        for (Entry entry : due) {
+            entry.level = -1;
+            handleEntryMap.remove(entry.handle);
+            handles.add(entry.handle);
+        }
+        due.clear();
+
+        if (InstrumentationHelper.ENABLED) {
+            InstrumentationHelper.get().aScheduleEval(handles);
+        }
+    }
+
+    public synchronized ScheduleSet take(Set<Integer> statementIds) {
+        List<Entry> entries = new ArrayList<Entry>();
+        for (Entry entry : handleEntryMap.values()) {
+            if (statementIds.contains(entry.handle.getStatementId())) {
+                entries.add(entry);
+            }
+        }
+        Collections.sort(entries, TRIGGER_ORDER);
+
+        long currentTime = getTime();
+        List<ScheduleSetEntry> list = new ArrayList<ScheduleSetEntry>(entries.size());
+        for (Entry entry : entries) {
+            list.add(new ScheduleSetEntry(entry.triggerTime - currentTime, entry.slot, entry.handle));
+            remove(entry.handle, entry.slot);
+        }
+        return new ScheduleSet(list);
+    }
+
+    public void apply(ScheduleSet scheduleSet) {
+        for (ScheduleSetEntry entry : scheduleSet.getList()) {
+            add(entry.getTime(), entry.getHandle(), entry.getScheduleSlot());
+        }
+    }
+
+    public void init() {
+        // no action required
+    }
+
+    @JmxGetter(name = "TimeHandleCount", description = "Number of outstanding time evaluations")
+    public synchronized int getTimeHandleCount() {
+        Set<Long> times = new HashSet<Long>();
+        for (Entry entry : handleEntryMap.values()) {
+            times.add(entry.triggerTime);
+        }
+        return times.size();
+    }
+
+    @JmxGetter(name = "FurthestTimeHandle", description = "Furthest outstanding time evaluation")
+    public String getFurthestTimeHandleDate() {
+        Long handle = getFurthestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    @JmxGetter(name = "NearestTimeHandle", description = "Nearest outstanding time evaluation")
+    public String getNearestTimeHandleDate() {
+        Long handle = getNearestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    public synchronized Long getFurthestTimeHandle() {
+        // entries at a higher level always trigger later than entries at a lower level or due entries
+        for (int level = NUM_LEVELS - 1; level >= 0; level--) {
+            if (occupied[level] != 0) {
+                int bucket = 63 - Long.numberOfLeadingZeros(occupied[level]);
+                long furthest = Long.MIN_VALUE;
+                for (Entry entry = wheel[level][bucket]; entry != null; entry = entry.next) {
+                    furthest = Math.max(furthest, entry.triggerTime);
+                }
+                return furthest;
+            }
+        }
+        if (due.isEmpty()) {
+            return null;
+        }
+        long furthest = Long.MIN_VALUE;
+        for (Entry entry : due) {
+            furthest = Math.max(furthest, entry.triggerTime);
+        }
+        return furthest;
+    }
+
+    public int getScheduleHandleCount() {
+        return handleEntryMap.size();
+    }
+
+    public boolean isScheduled(ScheduleHandle handle) {
+        return handleEntryMap.containsKey(handle);
+    }
+
+    @Override
+    public synchronized Long getNearestTimeHandle() {
+        if (!due.isEmpty()) {
+            long nearest = Long.MAX_VALUE;
+            for (Entry entry : due) {
+                nearest = Math.min(nearest, entry.triggerTime);
+            }
+            return nearest;
+        }
+        // entries at a lower level always trigger earlier than entries at a higher level
+        for (int level = 0; level < NUM_LEVELS; level++) {
+            if (occupied[level] != 0) {
+                int bucket = Long.numberOfTrailingZeros(occupied[level]);
+                long nearest = Long.MAX_VALUE;
+                for (Entry entry = wheel[level][bucket]; entry != null; entry = entry.next) {
+                    nearest = Math.min(nearest, entry.triggerTime);
+                }
+                return nearest;
+            }
+        }
+        return null;
+    }
+
+    public synchronized void visitSchedules(ScheduleVisitor visitor) {
+        List<Entry> entries = new ArrayList<Entry>(handleEntryMap.values());
+        Collections.sort(entries, TRIGGER_ORDER);
+        ScheduleVisit visit = new ScheduleVisit();
+        for (Entry entry : entries) {
+            visit.setTimestamp(entry.triggerTime);
+            visit.setStatementId(entry.handle.getStatementId());
+            visit.setAgentInstanceId(entry.handle.getAgentInstanceId());
+            visitor.visit(visit);
+        }
+    }
+
+    private void advance(long newTime) {
+        int highestLevel = levelOf(wheelTime ^ newTime);
+
+        // all entries of lower levels share the old wheel time digits above their level and are therefore due
+        for (int level = 0; level < highestLevel; level++) {
+            long mask = occupied[level];
+            while (mask != 0) {
+                int bucket = Long.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                collectBucket(level, bucket);
+            }
+        }
+
+        // buckets passed over at the highest level are due, the bucket of the new time cascades down
+        int oldBucket = bucketOf(wheelTime, highestLevel);
+        int newBucket = bucketOf(newTime, highestLevel);
+        long passed = bucketsBetween(oldBucket, newBucket) & occupied[highestLevel];
+        while (passed != 0) {
+            int bucket = Long.numberOfTrailingZeros(passed);
+            passed &= passed - 1;
+            collectBucket(highestLevel, bucket);
+        }
+
+        Entry cascade = wheel[highestLevel][newBucket];
+        if (cascade != null) {
+            wheel[highestLevel][newBucket] = null;
+            occupied[highestLevel] &= ~(1L << newBucket);
+        }
+        wheelTime = newTime;
+        while (cascade != null) {
+            Entry next = cascade.next;
+            place(cascade);
+            cascade = next;
+        }
+    }
+
+    private void collectBucket(int level, int bucket) {
+        for (Entry entry = wheel[level][bucket]; entry != null; entry = entry.next) {
+            entry.level = -1;
+            due.add(entry);
+        }
+        wheel[level][bucket] = null;
+        occupied[level] &= ~(1L << bucket);
+    }
+
+    private void place(Entry entry) {
+        entry.prev = null;
+        entry.next = null;
+        if (entry.triggerTime <= wheelTime) {
+            entry.level = -1;
+            due.add(entry);
+            return;
+        }
+        int level = levelOf(entry.triggerTime ^ wheelTime);
+        int bucket = bucketOf(entry.triggerTime, level);
+        Entry head = wheel[level][bucket];
+        if (head != null) {
+            head.prev = entry;
+            entry.next = head;
+        }
+        wheel[level][bucket] = entry;
+        occupied[level] |= 1L << bucket;
+        entry.level = level;
+        entry.bucket = bucket;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.level == -1) {
+            due.remove(entry);
+            return;
+        }
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            wheel[entry.level][entry.bucket] = entry.next;
+            if (entry.next == null) {
+                occupied[entry.level] &= ~(1L << entry.bucket);
+            }
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private static int levelOf(long differingBits) {
+        return (63 - Long.numberOfLeadingZeros(differingBits)) / LEVEL_BITS;
+    }
+
+    private static int bucketOf(long time, int level) {
+        // flip the sign bit so that the unsigned order of bucket digits follows the signed order of time values
+        return (int) (((time ^ Long.MIN_VALUE) >>> (level * LEVEL_BITS)) & BUCKET_MASK);
+    }
+
+    /**
+     * Returns the mask of buckets strictly after the old bucket and strictly before the new bucket.
+     */
+    private static long bucketsBetween(int oldBucket, int newBucket) {
+        return ((1L << newBucket) - 1) & ~((2L << oldBucket) - 1);
+    }
+
+    private static class Entry {
+        private final ScheduleHandle handle;
+        private final long slot;
+        private final long triggerTime;
+        private Entry prev;
+        private Entry next;
+        private int level;
+        private int bucket;
+
+        Entry(ScheduleHandle handle, long slot, long triggerTime) {
+            this.handle = handle;
+            this.slot = slot;
+            this.triggerTime = triggerTime;
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SchedulingServiceTimingWheel.class);
+}
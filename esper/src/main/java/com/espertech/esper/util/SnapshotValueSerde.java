@@ -0,0 +1,283 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact tagged binary format for the values held by variable and row snapshots, without use of Java serialization.
+ * <p>
+ * Each value is written as a one-byte type tag followed by its fixed-size or length-prefixed representation.
+ * Supported are null, the boxed primitive types, strings, big integers and decimals and arrays of these.
+ */
+public class SnapshotValueSerde {
+    private final static byte TAG_NULL = 0;
+    private final static byte TAG_BOOLEAN = 1;
+    private final static byte TAG_BYTE = 2;
+    private final static byte TAG_SHORT = 3;
+    private final static byte TAG_INT = 4;
+    private final static byte TAG_LONG = 5;
+    private final static byte TAG_FLOAT = 6;
+    private final static byte TAG_DOUBLE = 7;
+    private final static byte TAG_CHAR = 8;
+    private final static byte TAG_STRING = 9;
+    private final static byte TAG_BIGINTEGER = 10;
+    private final static byte TAG_BIGDECIMAL = 11;
+    private final static byte TAG_OBJECTARRAY = 12;
+    private final static byte TAG_INTARRAY = 13;
+    private final static byte TAG_LONGARRAY = 14;
+    private final static byte TAG_DOUBLEARRAY = 15;
+    private final static byte TAG_BOOLEANARRAY = 16;
+    private final static byte TAG_BYTEARRAY = 17;
+
+    /**
+     * Returns indicator whether a value is supported by the format.
+     *
+     * @param value to check
+     * @return indicator
+     */
+    public static boolean isSupported(Object value) {
+        if (value == null || value instanceof Boolean || value instanceof Byte || value instanceof Short ||
+                value instanceof Integer || value instanceof Long || value instanceof Float || value instanceof Double ||
+                value instanceof Character || value instanceof String || value instanceof BigInteger || value instanceof BigDecimal ||
+                value instanceof int[] || value instanceof long[] || value instanceof double[] || value instanceof boolean[] || value instanceof byte[]) {
+            return true;
+        }
+        if (value.getClass() == Object[].class || value.getClass() == String[].class || value.getClass() == Integer[].class) {
+            for (Object item : (Object[]) value) {
+                if (!isSupported(item)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Write a value.
+     *
+     * @param value to write
+     * @param output destination
+     * @throws IOException              when the write failed
+     * @throws IllegalArgumentException when the value type is not supported
+     */
+    public static void write(Object value, DataOutput output) throws IOException {
+        if (value == null) {
+            output.writeByte(TAG_NULL);
+        } else if (value instanceof Integer) {
+            output.writeByte(TAG_INT);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(TAG_LONG);
+            output.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            output.writeByte(TAG_DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (value instanceof String) {
+            output.writeByte(TAG_STRING);
+            writeString((String) value, output);
+        } else if (value instanceof Boolean) {
+            output.writeByte(TAG_BOOLEAN);
+            output.writeBoolean((Boolean) value);
+        } else if (value instanceof Float) {
+            output.writeByte(TAG_FLOAT);
+            output.writeFloat((Float) value);
+        } else if (value instanceof Short) {
+            output.writeByte(TAG_SHORT);
+            output.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            output.writeByte(TAG_BYTE);
+            output.writeByte((Byte) value);
+        } else if (value instanceof Character) {
+            output.writeByte(TAG_CHAR);
+            output.writeChar((Character) value);
+        } else if (value instanceof BigInteger) {
+            output.writeByte(TAG_BIGINTEGER);
+            writeBytes(((BigInteger) value).toByteArray(), output);
+        } else if (value instanceof BigDecimal) {
+            BigDecimal decimal = (BigDecimal) value;
+            output.writeByte(TAG_BIGDECIMAL);
+            output.writeInt(decimal.scale());
+            writeBytes(decimal.unscaledValue().toByteArray(), output);
+        } else if (value instanceof int[]) {
+            int[] array = (int[]) value;
+            output.writeByte(TAG_INTARRAY);
+            output.writeInt(array.length);
+            for (int item : array) {
+                output.writeInt(item);
+            }
+        } else if (value instanceof long[]) {
+            long[] array = (long[]) value;
+            output.writeByte(TAG_LONGARRAY);
+            output.writeInt(array.length);
+            for (long item : array) {
+                output.writeLong(item);
+            }
+        } else if (value instanceof double[]) {
+            double[] array = (double[]) value;
+            output.writeByte(TAG_DOUBLEARRAY);
+            output.writeInt(array.length);
+            for (double item : array) {
+                output.writeDouble(item);
+            }
+        } else if (value instanceof boolean[]) {
+            boolean[] array = (boolean[]) value;
+            output.writeByte(TAG_BOOLEANARRAY);
+            output.writeInt(array.length);
+            for (boolean item : array) {
+                output.writeBoolean(item);
+            }
+        } else if (value instanceof byte[]) {
+            output.writeByte(TAG_BYTEARRAY);
+            writeBytes((byte[]) value, output);
+        } else if (isSupported(value)) {
+            Object[] array = (Object[]) value;
+            output.writeByte(TAG_OBJECTARRAY);
+            writeString(array.getClass().getComponentType().getName(), output);
+            output.writeInt(array.length);
+            for (Object item : array) {
+                write(item, output);
+            }
+        } else {
+            throw new IllegalArgumentException("Snapshot of values of type '" + value.getClass().getName() + "' is not supported");
+        }
+    }
+
+    /**
+     * Read a value.
+     *
+     * @param input source
+     * @return value
+     * @throws IOException when the read failed or the input is not in the format
+     */
+    public static Object read(DataInput input) throws IOException {
+        byte tag = input.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_BOOLEAN:
+                return input.readBoolean();
+            case TAG_BYTE:
+                return input.readByte();
+            case TAG_SHORT:
+                return input.readShort();
+            case TAG_INT:
+                return input.readInt();
+            case TAG_LONG:
+                return input.readLong();
+            case TAG_FLOAT:
+                return input.readFloat();
+            case TAG_DOUBLE:
+                return input.readDouble();
+            case TAG_CHAR:
+                return input.readChar();
+            case TAG_STRING:
+                return readString(input);
+            case TAG_BIGINTEGER:
+                return new BigInteger(readBytes(input));
+            case TAG_BIGDECIMAL: {
+                int scale = input.readInt();
+                return new BigDecimal(new BigInteger(readBytes(input)), scale);
+            }
+            case TAG_INTARRAY: {
+                int[] array = new int[input.readInt()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = input.readInt();
+                }
+                return array;
+            }
+            case TAG_LONGARRAY: {
+                long[] array = new long[input.readInt()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = input.readLong();
+                }
+                return array;
+            }
+            case TAG_DOUBLEARRAY: {
+                double[] array = new double[input.readInt()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = input.readDouble();
+                }
+                return array;
+            }
+            case TAG_BOOLEANARRAY: {
+                boolean[] array = new boolean[input.readInt()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = input.readBoolean();
+                }
+                return array;
+            }
+            case TAG_BYTEARRAY:
+                return readBytes(input);
+            case TAG_OBJECTARRAY: {
+                String componentType = readString(input);
+                int length = input.readInt();
+                Object[] array;
+                if (componentType.equals(String.class.getName())) {
+                    array = new String[length];
+                } else if (componentType.equals(Integer.class.getName())) {
+                    array = new Integer[length];
+                } else {
+                    array = new Object[length];
+                }
+                for (int i = 0; i < length; i++) {
+                    array[i] = read(input);
+                }
+                return array;
+            }
+            default:
+                throw new IOException("Unrecognized value tag " + tag + " in snapshot");
+        }
+    }
+
+    /**
+     * Write a string of any length, as a length-prefixed UTF-8 representation.
+     *
+     * @param value to write, not null
+     * @param output destination
+     * @throws IOException when the write failed
+     */
+    public static void writeString(String value, DataOutput output) throws IOException {
+        writeBytes(value.getBytes(StandardCharsets.UTF_8), output);
+    }
+
+    /**
+     * Read a string written by {@link #writeString(String, DataOutput)}.
+     *
+     * @param input source
+     * @return value
+     * @throws IOException when the read failed
+     */
+    public static String readString(DataInput input) throws IOException {
+        return new String(readBytes(input), StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(byte[] bytes, DataOutput output) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInput input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid length " + length + " in snapshot");
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return bytes;
+    }
+}
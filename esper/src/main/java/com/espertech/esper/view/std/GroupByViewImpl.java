@@ -14,6 +14,7 @@ import com.espertech.esper.client.EPException;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.MultiKeyUntypedHashMap;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
@@ -51,7 +52,11 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
     private EventBean[] eventsPerStream = new EventBean[1];
 
     protected String[] propertyNames;
-    protected final Map<Object, Object> subViewsPerKey = new HashMap<Object, Object>();
+    protected final Map<Object, Object> subViewsPerKey;
+
+    // for multiple criteria, the same map probed by key values read into a reusable buffer
+    private final MultiKeyUntypedHashMap<Object> subViewsPerMultiKey;
+    private final Object[] groupByValues;
 
     private final HashMap<Object, Pair<Object, Object>> groupedEvents = new HashMap<Object, Pair<Object, Object>>();
 
@@ -71,6 +76,16 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
         for (int i = 0; i < criteriaExpressions.length; i++) {
             propertyNames[i] = ExprNodeUtility.toExpressionStringMinPrecedenceSafe(criteriaExpressions[i]);
         }
+
+        if (criteriaExpressions.length == 1) {
+            subViewsPerKey = new HashMap<Object, Object>();
+            subViewsPerMultiKey = null;
+            groupByValues = null;
+        } else {
+            subViewsPerMultiKey = new MultiKeyUntypedHashMap<Object>();
+            subViewsPerKey = subViewsPerMultiKey;
+            groupByValues = new Object[criteriaExpressions.length];
+        }
     }
 
     public View cloneView() {
@@ -101,16 +116,8 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
             EventBean theEvent = newData[0];
             EventBean[] newDataToPost = new EventBean[]{theEvent};
 
-            Object groupByValuesKey = getGroupKey(theEvent);
-
             // Get child views that belong to this group-by value combination
-            Object subViews = this.subViewsPerKey.get(groupByValuesKey);
-
-            // If this is a new group-by value, the list of subviews is null and we need to make clone sub-views
-            if (subViews == null) {
-                subViews = makeSubViews(this, propertyNames, groupByValuesKey, agentInstanceContext);
-                subViewsPerKey.put(groupByValuesKey, subViews);
-            }
+            Object subViews = getAddSubViews(theEvent);
 
             updateChildViews(subViews, newDataToPost, null);
         } else {
@@ -274,16 +281,8 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
     }
 
     private void handleEvent(EventBean theEvent, boolean isNew) {
-        Object groupByValuesKey = getGroupKey(theEvent);
-
         // Get child views that belong to this group-by value combination
-        Object subViews = this.subViewsPerKey.get(groupByValuesKey);
-
-        // If this is a new group-by value, the list of subviews is null and we need to make clone sub-views
-        if (subViews == null) {
-            subViews = makeSubViews(this, propertyNames, groupByValuesKey, agentInstanceContext);
-            subViewsPerKey.put(groupByValuesKey, subViews);
-        }
+        Object subViews = getAddSubViews(theEvent);
 
         // Construct a pair of lists to hold the events for the grouped value if not already there
         Pair<Object, Object> pair = groupedEvents.get(subViews);
@@ -366,17 +365,32 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
         }
     }
 
-    private Object getGroupKey(EventBean theEvent) {
+    private Object getAddSubViews(EventBean theEvent) {
         eventsPerStream[0] = theEvent;
-        if (criteriaEvaluators.length == 1) {
-            return criteriaEvaluators[0].evaluate(eventsPerStream, true, agentInstanceContext);
+        if (subViewsPerMultiKey == null) {
+            Object groupByValuesKey = criteriaEvaluators[0].evaluate(eventsPerStream, true, agentInstanceContext);
+            Object subViews = subViewsPerKey.get(groupByValuesKey);
+
+            // If this is a new group-by value, the list of subviews is null and we need to make clone sub-views
+            if (subViews == null) {
+                subViews = makeSubViews(this, propertyNames, groupByValuesKey, agentInstanceContext);
+                subViewsPerKey.put(groupByValuesKey, subViews);
+            }
+            return subViews;
         }
 
-        Object[] values = new Object[criteriaEvaluators.length];
         for (int i = 0; i < criteriaEvaluators.length; i++) {
-            values[i] = criteriaEvaluators[i].evaluate(eventsPerStream, true, agentInstanceContext);
+            groupByValues[i] = criteriaEvaluators[i].evaluate(eventsPerStream, true, agentInstanceContext);
+        }
+        Object subViews = subViewsPerMultiKey.getByValues(groupByValues);
+
+        // The multi-key is only allocated for a new group-by value combination
+        if (subViews == null) {
+            MultiKeyUntyped groupByValuesKey = new MultiKeyUntyped(groupByValues.clone());
+            subViews = makeSubViews(this, propertyNames, groupByValuesKey, agentInstanceContext);
+            subViewsPerMultiKey.put(groupByValuesKey, subViews);
         }
-        return new MultiKeyUntyped(values);
+        return subViews;
     }
 
     protected static Object addUpgradeToDequeIfPopulated(Object holder, EventBean theEvent) {
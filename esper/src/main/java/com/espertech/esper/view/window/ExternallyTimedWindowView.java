@@ -22,7 +22,6 @@ import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.util.CollectionUtil;
 import com.espertech.esper.view.*;
 
-import java.util.ArrayDeque;
 import java.util.Iterator;
 
 /**
@@ -120,14 +119,14 @@ public class ExternallyTimedWindowView extends ViewSupport implements DataWindow
         }
 
         // Remove from the window any events that have an older timestamp then the last event's timestamp
-        ArrayDeque<EventBean> expired = null;
+        EventBean[] expired = null;
         if (timestamp != -1) {
             expired = timeWindow.expireEvents(timestamp - timeDeltaComputation.deltaSubtract(timestamp) + 1);
         }
 
         EventBean[] oldDataUpdate = null;
-        if ((expired != null) && (!expired.isEmpty())) {
-            oldDataUpdate = expired.toArray(new EventBean[expired.size()]);
+        if ((expired != null) && (expired.length != 0)) {
+            oldDataUpdate = expired;
         }
 
         if ((oldData != null) && (agentInstanceViewFactoryContext.isRemoveStream())) {
@@ -56,6 +56,7 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolInboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolRouteExecSharded());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
         assertFalse(config.getEngineDefaults().getThreading().isEngineFairlock());
         assertFalse(config.getEngineDefaults().getMetricsReporting().isJmxEngineMetrics());
@@ -84,6 +85,7 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(15000, config.getEngineDefaults().getVariables().getMsecVersionRelease());
         assertEquals(null, config.getEngineDefaults().getPatterns().getMaxSubexpressions());
         assertEquals(true, config.getEngineDefaults().getPatterns().isMaxSubexpressionPreventStart());
+        assertFalse(config.getEngineDefaults().getPatterns().isPrefixSharing());
         assertEquals(null, config.getEngineDefaults().getMatchRecognize().getMaxStates());
         assertEquals(true, config.getEngineDefaults().getMatchRecognize().isMaxStatesPreventStart());
         assertEquals(ConfigurationEngineDefaults.TimeSourceType.MILLI, config.getEngineDefaults().getTimeSource().getTimeSourceType());
@@ -93,6 +95,7 @@ public class TestConfigurationParser extends TestCase {
         assertFalse(config.getEngineDefaults().getExecution().isAllowIsolatedService());
         assertEquals(ConfigurationEngineDefaults.ThreadingProfile.NORMAL, config.getEngineDefaults().getExecution().getThreadingProfile());
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY, config.getEngineDefaults().getExecution().getFilterServiceProfile());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.SORTED, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
         assertEquals(16, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
         assertEquals(1, config.getEngineDefaults().getExecution().getDeclaredExprValueCacheSize());
 
@@ -110,6 +113,10 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(ConfigurationEngineDefaults.ExceptionHandling.UndeployRethrowPolicy.WARN, config.getEngineDefaults().getExceptionHandling().getUndeployRethrowPolicy());
         assertNull(config.getEngineDefaults().getConditionHandling().getHandlerFactories());
         assertEquals("js", config.getEngineDefaults().getScripts().getDefaultDialect());
+        assertNull(config.getEngineDefaults().getWriteAheadLog().getDirectory());
+        assertEquals(64 * 1024 * 1024, config.getEngineDefaults().getWriteAheadLog().getSegmentSize());
+        assertEquals(1000, config.getEngineDefaults().getWriteAheadLog().getGroupCommitEvents());
+        assertEquals(100, config.getEngineDefaults().getWriteAheadLog().getGroupCommitMsec());
 
         ConfigurationEventTypeXMLDOM domType = new ConfigurationEventTypeXMLDOM();
         assertFalse(domType.isXPathPropertyExpr());
@@ -407,6 +414,7 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(1500, (int) config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
         assertEquals(2000, (int) config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
+        assertTrue(config.getEngineDefaults().getThreading().isThreadPoolRouteExecSharded());
 
         assertFalse(config.getEngineDefaults().getThreading().isInternalTimerEnabled());
         assertEquals(1234567, config.getEngineDefaults().getThreading().getInternalTimerMsecResolution());
@@ -430,6 +438,7 @@ public class TestConfigurationParser extends TestCase {
         assertEquals(30000, config.getEngineDefaults().getVariables().getMsecVersionRelease());
         assertEquals(3L, (long) config.getEngineDefaults().getPatterns().getMaxSubexpressions());
         assertEquals(false, config.getEngineDefaults().getPatterns().isMaxSubexpressionPreventStart());
+        assertTrue(config.getEngineDefaults().getPatterns().isPrefixSharing());
         assertEquals(3L, (long) config.getEngineDefaults().getMatchRecognize().getMaxStates());
         assertEquals(false, config.getEngineDefaults().getMatchRecognize().isMaxStatesPreventStart());
         assertEquals(StreamSelector.RSTREAM_ISTREAM_BOTH, config.getEngineDefaults().getStreamSelection().getDefaultStreamSelector());
@@ -442,6 +451,7 @@ public class TestConfigurationParser extends TestCase {
         assertTrue(config.getEngineDefaults().getExecution().isAllowIsolatedService());
         assertEquals(ConfigurationEngineDefaults.ThreadingProfile.LARGE, config.getEngineDefaults().getExecution().getThreadingProfile());
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READWRITE, config.getEngineDefaults().getExecution().getFilterServiceProfile());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.TIMINGWHEEL, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
         assertEquals(100, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
         assertEquals(101, config.getEngineDefaults().getExecution().getDeclaredExprValueCacheSize());
 
@@ -487,6 +497,10 @@ public class TestConfigurationParser extends TestCase {
         assertEquals("my.company.cep.LoggingConditionHandlerFactory", config.getEngineDefaults().getConditionHandling().getHandlerFactories().get(0));
         assertEquals("my.company.cep.AlertConditionHandlerFactory", config.getEngineDefaults().getConditionHandling().getHandlerFactories().get(1));
         assertEquals("abc", config.getEngineDefaults().getScripts().getDefaultDialect());
+        assertEquals("/var/esper/wal", config.getEngineDefaults().getWriteAheadLog().getDirectory());
+        assertEquals(1048576, config.getEngineDefaults().getWriteAheadLog().getSegmentSize());
+        assertEquals(10, config.getEngineDefaults().getWriteAheadLog().getGroupCommitEvents());
+        assertEquals(20, config.getEngineDefaults().getWriteAheadLog().getGroupCommitMsec());
 
         // variables
         assertEquals(3, config.getVariables().size());
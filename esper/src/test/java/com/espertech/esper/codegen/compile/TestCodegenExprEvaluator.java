@@ -0,0 +1,154 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.codegen.compile;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.support.SupportEngineImportServiceFactory;
+import com.espertech.esper.epl.core.StreamTypeService;
+import com.espertech.esper.epl.core.StreamTypeServiceImpl;
+import com.espertech.esper.epl.expression.core.*;
+import com.espertech.esper.epl.expression.funcs.ExprCastNode;
+import com.espertech.esper.epl.expression.ops.*;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventTypeFactory;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.type.MathArithTypeEnum;
+import com.espertech.esper.type.RelationalOpEnum;
+import com.espertech.esper.util.support.SupportExprEvaluatorContext;
+import junit.framework.TestCase;
+
+public class TestCodegenExprEvaluator extends TestCase {
+
+    public void testCompilableRoot() throws Exception {
+        assertTrue(CodegenExprNode.isCompilableRoot(makeMath(MathArithTypeEnum.ADD, ident("intPrimitive"), ident("longBoxed"))));
+        assertTrue(CodegenExprNode.isCompilableRoot(makeMath(MathArithTypeEnum.DIVIDE, ident("intPrimitive"), ident("intBoxed"))));
+        assertFalse(CodegenExprNode.isCompilableRoot(makeMath(MathArithTypeEnum.ADD, ident("intPrimitive"), ident("bigDecimal"))));
+        assertFalse(CodegenExprNode.isCompilableRoot(ident("intPrimitive")));
+        ExprNode isCoercing = makeEquals(false, true, ident("intBoxed"), ident("doubleBoxed"));
+        validate(isCoercing);
+        assertFalse(CodegenExprNode.isCompilableRoot(isCoercing));
+    }
+
+    public void testCompileAndEvaluate() throws Exception {
+        // (intPrimitive * 2 + longBoxed) > 10.5 and theString = 'E1'
+        ExprNode math = makeMath(MathArithTypeEnum.ADD, makeMath(MathArithTypeEnum.MULTIPLY, ident("intPrimitive"), constant(2)), ident("longBoxed"));
+        ExprNode relational = makeRelational(RelationalOpEnum.GT, math, constant(10.5));
+        ExprNode equals = makeEquals(false, false, ident("theString"), constant("E1"));
+        ExprNode and = new ExprAndNodeImpl();
+        and.addChildNode(relational);
+        and.addChildNode(equals);
+        validate(and);
+
+        // not(intBoxed != doubleBoxed) or boolBoxed
+        ExprNode not = new ExprNotNode();
+        not.addChildNode(makeEquals(true, false, ident("intBoxed"), ident("doubleBoxed")));
+        ExprNode or = new ExprOrNode();
+        or.addChildNode(not);
+        or.addChildNode(ident("boolBoxed"));
+        validate(or);
+
+        // doublePrimitive / intBoxed
+        ExprNode divide = makeMath(MathArithTypeEnum.DIVIDE, ident("doublePrimitive"), ident("intBoxed"));
+
+        // cast(doubleBoxed, int) % 3
+        ExprNode cast = new ExprCastNode("int");
+        cast.addChildNode(ident("doubleBoxed"));
+        ExprNode modulo = makeMath(MathArithTypeEnum.MODULO, cast, constant(3));
+
+        // theString is null
+        ExprNode isNull = makeEquals(false, true, ident("theString"), new ExprConstantNodeImpl(null, String.class));
+        validate(isNull);
+
+        SupportBean[] beans = new SupportBean[]{
+            makeBean("E1", 5, 1L, 5, 5d, null, 2.5),
+            makeBean("E1", 1, 1L, null, null, false, 0),
+            makeBean("E2", 10, null, 0, 0d, true, -1),
+            makeBean(null, 3, 10L, 3, 7.9d, null, 9)
+        };
+        ExprEvaluatorNullFlag nullFlag = new ExprEvaluatorNullFlag();
+        for (ExprNode node : new ExprNode[]{and, or, divide, modulo, isNull}) {
+            String text = ExprNodeUtility.toExpressionStringMinPrecedenceSafe(node);
+            ExprEvaluatorPrimitive compiled = CodegenExprEvaluator.compile("default", SupportEngineImportServiceFactory.make(), node, text);
+            Class type = node.getExprEvaluator().getType();
+            assertEquals(type, compiled.getType());
+            for (SupportBean bean : beans) {
+                EventBean[] eps = new EventBean[]{SupportEventBeanFactory.createObject(bean)};
+                Object expected = node.getExprEvaluator().evaluate(eps, true, null);
+                assertEquals(text, expected, compiled.evaluate(eps, true, null));
+
+                // primitive-typed evaluation unboxes the same result
+                if (type == Boolean.class) {
+                    boolean result = compiled.evaluateBoolean(eps, true, null, nullFlag);
+                    assertEquals(text, expected == null, nullFlag.isNull());
+                    if (expected != null) {
+                        assertEquals(text, expected, result);
+                    }
+                } else {
+                    double result = compiled.evaluateDouble(eps, true, null, nullFlag);
+                    assertEquals(text, expected == null, nullFlag.isNull());
+                    if (expected != null) {
+                        assertEquals(text, ((Number) expected).doubleValue(), result);
+                        assertEquals(text, ((Number) expected).longValue(), compiled.evaluateLong(eps, true, null, nullFlag));
+                    }
+                }
+            }
+        }
+    }
+
+    private static ExprNode makeMath(MathArithTypeEnum type, ExprNode left, ExprNode right) throws Exception {
+        ExprMathNode node = new ExprMathNode(type, false, false);
+        node.addChildNode(left);
+        node.addChildNode(right);
+        validate(node);
+        return node;
+    }
+
+    private static ExprNode makeRelational(RelationalOpEnum type, ExprNode left, ExprNode right) throws Exception {
+        ExprRelationalOpNodeImpl node = new ExprRelationalOpNodeImpl(type);
+        node.addChildNode(left);
+        node.addChildNode(right);
+        validate(node);
+        return node;
+    }
+
+    private static ExprNode makeEquals(boolean isNotEquals, boolean isIs, ExprNode left, ExprNode right) {
+        ExprEqualsNodeImpl node = new ExprEqualsNodeImpl(isNotEquals, isIs);
+        node.addChildNode(left);
+        node.addChildNode(right);
+        return node;
+    }
+
+    private static ExprNode ident(String property) throws Exception {
+        ExprNode node = new ExprIdentNodeImpl(property);
+        validate(node);
+        return node;
+    }
+
+    private static void validate(ExprNode node) throws Exception {
+        StreamTypeService streamTypeService = new StreamTypeServiceImpl(SupportEventTypeFactory.createBeanType(SupportBean.class), "s0", false, "default");
+        ExprValidationContext validationContext = new ExprValidationContext(streamTypeService, SupportEngineImportServiceFactory.make(), null, null, null, null, null, new SupportExprEvaluatorContext(null), null, null, -1, null, null, false, false, false, false, null, false);
+        ExprNodeUtility.getValidatedSubtree(ExprNodeOrigin.SELECT, node, validationContext);
+    }
+
+    private static ExprNode constant(Object value) {
+        return new ExprConstantNodeImpl(value);
+    }
+
+    private static SupportBean makeBean(String theString, int intPrimitive, Long longBoxed, Integer intBoxed, Double doubleBoxed, Boolean boolBoxed, double doublePrimitive) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setLongBoxed(longBoxed);
+        bean.setIntBoxed(intBoxed);
+        bean.setDoubleBoxed(doubleBoxed);
+        bean.setBoolBoxed(boolBoxed);
+        bean.setDoublePrimitive(doublePrimitive);
+        return bean;
+    }
+}
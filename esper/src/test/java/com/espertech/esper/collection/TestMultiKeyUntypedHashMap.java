@@ -0,0 +1,100 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class TestMultiKeyUntypedHashMap extends TestCase {
+    private MultiKeyUntypedHashMap<String> map;
+
+    public void setUp() {
+        map = new MultiKeyUntypedHashMap<String>();
+    }
+
+    public void testPutGetRemove() {
+        assertNull(map.put(new MultiKeyUntyped("a", 1), "v1"));
+        assertNull(map.put(new MultiKeyUntyped("a", null), "v2"));
+        assertNull(map.put(new MultiKeyUntyped(null, null), "v3"));
+        assertEquals(3, map.size());
+
+        assertEquals("v1", map.get(new MultiKeyUntyped("a", 1)));
+        assertEquals("v1", map.getByValues(new Object[]{"a", 1}));
+        assertEquals("v2", map.getByValues(new Object[]{"a", null}));
+        assertEquals("v3", map.getByValues(new Object[]{null, null}));
+        assertNull(map.getByValues(new Object[]{"a", 2}));
+        assertNull(map.get("a"));
+        assertTrue(map.containsKey(new MultiKeyUntyped("a", 1)));
+
+        assertEquals("v1", map.put(new MultiKeyUntyped("a", 1), "v4"));
+        assertEquals(3, map.size());
+        assertEquals("v4", map.getByValues(new Object[]{"a", 1}));
+
+        assertEquals("v4", map.removeByValues(new Object[]{"a", 1}));
+        assertNull(map.removeByValues(new Object[]{"a", 1}));
+        assertEquals("v2", map.remove(new MultiKeyUntyped("a", null)));
+        assertEquals(1, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.getByValues(new Object[]{null, null}));
+
+        try {
+            map.put("a", "v");
+            fail();
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    public void testIterate() {
+        for (int i = 0; i < 100; i++) {
+            map.put(new MultiKeyUntyped("k", i), "v" + i);
+        }
+        assertEquals(100, map.keySet().size());
+        for (int i = 0; i < 100; i += 3) {
+            map.removeByValues(new Object[]{"k", i});
+        }
+
+        // iterates in insertion order
+        int expected = 1;
+        for (Map.Entry<Object, String> entry : map.entrySet()) {
+            MultiKeyUntyped key = (MultiKeyUntyped) entry.getKey();
+            assertEquals(expected, key.get(1));
+            assertEquals("v" + expected, entry.getValue());
+            expected += expected % 3 == 1 ? 1 : 2;
+        }
+        assertEquals(100, expected);
+        assertEquals(66, map.values().size());
+    }
+
+    public void testCompareHashMap() {
+        Random random = new Random(1);
+        Map<MultiKeyUntyped, String> reference = new HashMap<MultiKeyUntyped, String>();
+        for (int i = 0; i < 20000; i++) {
+            Object[] values = new Object[]{random.nextInt(50), "s" + random.nextInt(20)};
+            if (random.nextBoolean()) {
+                String value = "v" + i;
+                assertEquals(reference.put(new MultiKeyUntyped(values), value), map.put(new MultiKeyUntyped(values.clone()), value));
+            } else {
+                assertEquals(reference.remove(new MultiKeyUntyped(values)), map.removeByValues(values));
+            }
+            assertEquals(reference.size(), map.size());
+        }
+        for (Map.Entry<MultiKeyUntyped, String> entry : reference.entrySet()) {
+            assertEquals(entry.getValue(), map.getByValues(entry.getKey().getKeys()));
+        }
+        assertEquals(reference, map);
+    }
+}
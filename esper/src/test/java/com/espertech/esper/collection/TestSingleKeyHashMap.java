@@ -0,0 +1,97 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class TestSingleKeyHashMap extends TestCase {
+    private SingleKeyHashMap<String> map;
+
+    public void setUp() {
+        map = new SingleKeyHashMap<String>();
+    }
+
+    public void testPutGetRemove() {
+        assertNull(map.put("a", "v1"));
+        assertNull(map.put(1, "v2"));
+        assertNull(map.put(null, "v3"));
+        assertEquals(3, map.size());
+
+        assertEquals("v1", map.get("a"));
+        assertEquals("v2", map.get(1));
+        assertEquals("v3", map.get(null));
+        assertNull(map.get("b"));
+        assertTrue(map.containsKey(null));
+        assertTrue(map.keySet().contains(null));
+
+        assertEquals("v1", map.put("a", "v4"));
+        assertEquals(3, map.size());
+        assertEquals("v4", map.get("a"));
+
+        assertEquals("v4", map.remove("a"));
+        assertNull(map.remove("a"));
+        assertEquals("v3", map.remove(null));
+        assertFalse(map.containsKey(null));
+        assertEquals(1, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1));
+    }
+
+    public void testIterate() {
+        for (int i = 0; i < 100; i++) {
+            map.put(i, "v" + i);
+        }
+        map.put(null, "vnull");
+        for (int i = 0; i < 100; i += 3) {
+            map.remove(i);
+        }
+
+        // iterates in insertion order
+        int expected = 1;
+        for (Map.Entry<Object, String> entry : map.entrySet()) {
+            if (expected == 100) {
+                assertNull(entry.getKey());
+                assertEquals("vnull", entry.getValue());
+                continue;
+            }
+            assertEquals(expected, entry.getKey());
+            assertEquals("v" + expected, entry.getValue());
+            expected += expected % 3 == 1 ? 1 : 2;
+        }
+        assertEquals(100, expected);
+        assertEquals(67, map.values().size());
+    }
+
+    public void testCompareHashMap() {
+        Random random = new Random(1);
+        Map<Object, String> reference = new HashMap<Object, String>();
+        for (int i = 0; i < 20000; i++) {
+            Object key = random.nextInt(10) == 0 ? null : "s" + random.nextInt(500);
+            if (random.nextBoolean()) {
+                String value = "v" + i;
+                assertEquals(reference.put(key, value), map.put(key, value));
+            } else {
+                assertEquals(reference.remove(key), map.remove(key));
+            }
+            assertEquals(reference.size(), map.size());
+        }
+        for (Map.Entry<Object, String> entry : reference.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        assertEquals(reference, map);
+    }
+}
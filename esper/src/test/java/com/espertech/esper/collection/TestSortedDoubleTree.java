@@ -0,0 +1,100 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class TestSortedDoubleTree extends TestCase {
+    private SortedDoubleTree tree;
+
+    public void setUp() {
+        tree = new SortedDoubleTree();
+    }
+
+    public void testAddRemove() {
+        assertEquals(0, tree.size());
+
+        tree.add(10);
+        tree.add(0);
+        tree.add(5);
+        tree.add(Double.NaN);
+        compare(new double[]{0, 5, 10}, tree);
+
+        tree.add(10);
+        tree.add(1);
+        tree.add(5.5);
+        compare(new double[]{0, 1, 5, 5.5, 10, 10}, tree);
+
+        tree.remove(10);
+        tree.remove(0);
+        tree.remove(Double.NaN);
+        compare(new double[]{1, 5, 5.5, 10}, tree);
+
+        try {
+            tree.remove(2);
+            fail();
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+
+        try {
+            tree.getValue(4);
+            fail();
+        } catch (IndexOutOfBoundsException ex) {
+            // expected
+        }
+
+        tree.clear();
+        compare(new double[0], tree);
+        tree.add(-1);
+        compare(new double[]{-1}, tree);
+    }
+
+    public void testRandomAgainstList() {
+        Random random = new Random(1234);
+        List<Double> expected = new ArrayList<Double>();
+        for (int i = 0; i < 20000; i++) {
+            if (expected.isEmpty() || random.nextInt(3) != 0) {
+                double value = random.nextInt(500) / 4d;
+                tree.add(value);
+                expected.add(value);
+            } else {
+                Double value = expected.remove(random.nextInt(expected.size()));
+                tree.remove(value);
+            }
+            if (i % 1000 == 0) {
+                Collections.sort(expected);
+                compare(expected, tree);
+            }
+        }
+        Collections.sort(expected);
+        compare(expected, tree);
+    }
+
+    private static void compare(double[] expected, SortedDoubleTree tree) {
+        assertEquals(expected.length, tree.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], tree.getValue(i));
+        }
+    }
+
+    private static void compare(List<Double> expected, SortedDoubleTree tree) {
+        assertEquals(expected.size(), tree.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), tree.getValue(i));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestSortedLongObjectMap extends TestCase {
+
+    public void testPutGetRemove() {
+        SortedLongObjectMap map = new SortedLongObjectMap(true);
+        assertTrue(map.isEmpty());
+        assertNull(map.firstValue());
+        assertNull(map.lastValue());
+        assertFalse(map.valueIterator(false).hasNext());
+
+        assertNull(map.put(5, "E5"));
+        assertNull(map.put(-3, "E-3"));
+        assertEquals("E5", map.put(5, "F5"));
+        assertNull(map.putNullKey("N"));
+        assertEquals(3, map.size());
+        assertEquals("F5", map.get(5));
+        assertNull(map.get(4));
+        assertEquals("N", map.firstValue());
+        assertEquals("F5", map.lastValue());
+        assertValues(map, false, "N", "E-3", "F5");
+        assertValues(map, true, "F5", "E-3", "N");
+
+        assertEquals("N", map.removeNullKey());
+        assertNull(map.removeNullKey());
+        assertEquals("E-3", map.firstValue());
+        assertNull(map.remove(4));
+        assertEquals("E-3", map.remove(-3));
+        assertEquals(1, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(5));
+    }
+
+    public void testNullsLast() {
+        SortedLongObjectMap map = new SortedLongObjectMap(false);
+        map.putNullKey("N");
+        assertEquals("N", map.firstValue());
+        assertEquals("N", map.lastValue());
+        map.put(Long.MIN_VALUE, "MIN");
+        map.put(Long.MAX_VALUE, "MAX");
+        assertEquals("MIN", map.firstValue());
+        assertEquals("N", map.lastValue());
+        assertValues(map, false, "MIN", "MAX", "N");
+        assertValues(map, true, "N", "MAX", "MIN");
+    }
+
+    public void testRandomAgainstTreeMap() {
+        Random random = new Random(4321);
+        SortedLongObjectMap map = new SortedLongObjectMap(true);
+        TreeMap<Long, Object> expected = new TreeMap<Long, Object>();
+        for (int i = 0; i < 50000; i++) {
+            long key = random.nextInt(5000) - 2500;
+            if (random.nextInt(5) < 3) {
+                Object value = "V" + i;
+                assertEquals(expected.put(key, value), map.put(key, value));
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            assertEquals(expected.size(), map.size());
+            if (i % 5000 == 0) {
+                compare(expected, map);
+            }
+        }
+        compare(expected, map);
+
+        // remove all, leaves merge and empty out
+        for (Long key : new ArrayList<Long>(expected.keySet())) {
+            assertEquals(expected.remove(key), map.remove(key));
+        }
+        assertTrue(map.isEmpty());
+        assertFalse(map.valueIterator(true).hasNext());
+    }
+
+    private static void compare(TreeMap<Long, Object> expected, SortedLongObjectMap map) {
+        for (Map.Entry<Long, Object> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        assertEquals(expected.isEmpty() ? null : expected.firstEntry().getValue(), map.firstValue());
+        assertEquals(expected.isEmpty() ? null : expected.lastEntry().getValue(), map.lastValue());
+        assertEquals(new ArrayList<Object>(expected.values()), toList(map.valueIterator(false)));
+        assertEquals(new ArrayList<Object>(expected.descendingMap().values()), toList(map.valueIterator(true)));
+    }
+
+    private static void assertValues(SortedLongObjectMap map, boolean reverse, Object... expected) {
+        assertEquals(Arrays.asList(expected), toList(map.valueIterator(reverse)));
+    }
+
+    private static List<Object> toList(Iterator<Object> it) {
+        List<Object> result = new ArrayList<Object>();
+        while (it.hasNext()) {
+            result.add(it.next());
+        }
+        return result;
+    }
+}
@@ -17,7 +17,7 @@ import junit.framework.TestCase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayDeque;
+import java.util.Iterator;
 
 public class TestTimeWindow extends TestCase {
     private final TimeWindow window = new TimeWindow(false);
@@ -46,30 +46,30 @@ public class TestTimeWindow extends TestCase {
         window.add(22, beans[5]);
         assertTrue(window.getOldestTimestamp() == 19L);
 
-        ArrayDeque<EventBean> beanList = window.expireEvents(19);
+        EventBean[] beanList = window.expireEvents(19);
         assertTrue(beanList == null);
 
         beanList = window.expireEvents(20);
-        assertTrue(beanList.size() == 2);
-        assertTrue(beanList.poll() == beans[0]);
-        assertTrue(beanList.poll() == beans[1]);
+        assertTrue(beanList.length == 2);
+        assertTrue(beanList[0] == beans[0]);
+        assertTrue(beanList[1] == beans[1]);
 
         beanList = window.expireEvents(21);
-        assertTrue(beanList.size() == 2);
-        assertTrue(beanList.poll() == beans[2]);
-        assertTrue(beanList.poll() == beans[3]);
+        assertTrue(beanList.length == 2);
+        assertTrue(beanList[0] == beans[2]);
+        assertTrue(beanList[1] == beans[3]);
         assertFalse(window.isEmpty());
         assertTrue(window.getOldestTimestamp() == 21);
 
         beanList = window.expireEvents(22);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.poll() == beans[4]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[4]);
         assertFalse(window.isEmpty());
         assertTrue(window.getOldestTimestamp() == 22);
 
         beanList = window.expireEvents(23);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.poll() == beans[5]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[5]);
         assertTrue(window.isEmpty());
         assertTrue(window.getOldestTimestamp() == null);
 
@@ -99,25 +99,25 @@ public class TestTimeWindow extends TestCase {
         windowRemovable.remove(beans[0]);
         windowRemovable.remove(beans[3]);
 
-        ArrayDeque<EventBean> beanList = windowRemovable.expireEvents(19);
+        EventBean[] beanList = windowRemovable.expireEvents(19);
         assertTrue(beanList == null);
 
         beanList = windowRemovable.expireEvents(20);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.getFirst() == beans[1]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[1]);
 
         beanList = windowRemovable.expireEvents(21);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.getFirst() == beans[2]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[2]);
         assertFalse(windowRemovable.isEmpty());
         assertTrue(windowRemovable.getOldestTimestamp() == 22);
 
         beanList = windowRemovable.expireEvents(22);
-        assertTrue(beanList.size() == 0);
+        assertTrue(beanList == null);
 
         beanList = windowRemovable.expireEvents(23);
-        assertTrue(beanList.size() == 1);
-        assertTrue(beanList.getFirst() == beans[5]);
+        assertTrue(beanList.length == 1);
+        assertTrue(beanList[0] == beans[5]);
         assertTrue(windowRemovable.isEmpty());
         assertTrue(windowRemovable.getOldestTimestamp() == null);
 
@@ -129,6 +129,52 @@ public class TestTimeWindow extends TestCase {
         assertEquals(0, windowRemovable.getReverseIndex().size());
     }
 
+    public void testChunks() {
+        EventBean[] events = new EventBean[1000];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = createBean();
+            windowRemovable.add(i / 2, events[i]);
+        }
+        assertEquals(1000, windowRemovable.size());
+
+        for (int i = 0; i < 10; i++) {
+            windowRemovable.remove(events[i]);
+        }
+        windowRemovable.remove(events[500]);
+        assertEquals(5L, (long) windowRemovable.getOldestTimestamp());
+        assertEquals(989, windowRemovable.size());
+
+        windowRemovable.adjust(100);
+        assertEquals(105L, (long) windowRemovable.getOldestTimestamp());
+
+        Iterator<EventBean> it = windowRemovable.iterator();
+        for (int i = 10; i < events.length; i++) {
+            if (i != 500) {
+                assertSame(events[i], it.next());
+            }
+        }
+        assertFalse(it.hasNext());
+
+        EventBean[] expired = windowRemovable.expireEvents(400);
+        assertEquals(589, expired.length);
+        assertSame(events[10], expired[0]);
+        assertSame(events[599], expired[588]);
+        assertEquals(400L, (long) windowRemovable.getOldestTimestamp());
+        assertEquals(400, windowRemovable.size());
+        assertEquals(400, windowRemovable.getReverseIndex().size());
+
+        expired = windowRemovable.expireEvents(1000);
+        assertEquals(400, expired.length);
+        assertTrue(windowRemovable.isEmpty());
+        assertFalse(windowRemovable.iterator().hasNext());
+        assertEquals(0, windowRemovable.getReverseIndex().size());
+
+        // emptied chunks are reused
+        windowRemovable.add(2000, events[0]);
+        assertEquals(2000L, (long) windowRemovable.getOldestTimestamp());
+        assertSame(events[0], windowRemovable.iterator().next());
+    }
+
     public void testTimeWindowPerformance() {
         log.info(".testTimeWindowPerformance Starting");
 
@@ -0,0 +1,121 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.agg;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.support.SupportStatementContextFactory;
+import com.espertech.esper.epl.agg.aggregator.*;
+import com.espertech.esper.epl.agg.service.*;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.supportunit.epl.SupportAggregatorFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestAggSvcGroupByColumnarImpl extends TestCase {
+    private final Object[] currentValues = new Object[6];
+    private ExprEvaluator[] evaluators;
+    private AggregationMethodFactory[] prototypes;
+
+    public void setUp() {
+        evaluators = new ExprEvaluator[currentValues.length];
+        for (int i = 0; i < evaluators.length; i++) {
+            final int index = i;
+            evaluators[i] = new ExprEvaluator() {
+                public Object evaluate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+                    return currentValues[index];
+                }
+
+                public Class getType() {
+                    return Object.class;
+                }
+            };
+        }
+        prototypes = new AggregationMethodFactory[]{
+            makeFactory(AggregatorCount.class), makeFactory(AggregatorCountNonNull.class), makeFactory(AggregatorSumInteger.class),
+            makeFactory(AggregatorSumLong.class), makeFactory(AggregatorSumDouble.class), makeFactory(AggregatorAvg.class)};
+    }
+
+    public void testColumnKinds() {
+        assertNotNull(AggSvcGroupByColumnarFactory.getColumnKinds(prototypes));
+        assertNull(AggSvcGroupByColumnarFactory.getColumnKinds(new AggregationMethodFactory[]{prototypes[0], new SupportAggregatorFactory()}));
+        assertNull(AggSvcGroupByColumnarFactory.getColumnKinds(new AggregationMethodFactory[]{makeFactory(AggregatorSumDoubleFilter.class)}));
+        assertNull(AggSvcGroupByColumnarFactory.getColumnKinds(new AggregationMethodFactory[0]));
+    }
+
+    public void testCompareRefcounted() {
+        int[] kinds = AggSvcGroupByColumnarFactory.getColumnKinds(prototypes);
+        runCompare(new AggSvcGroupByColumnarImpl(evaluators, prototypes, kinds, true), new AggSvcGroupByRefcountedNoAccessImpl(evaluators, prototypes));
+    }
+
+    public void testCompareNoReclaim() {
+        int[] kinds = AggSvcGroupByColumnarFactory.getColumnKinds(prototypes);
+        runCompare(new AggSvcGroupByColumnarImpl(evaluators, prototypes, kinds, false), new AggSvcGroupByNoAccessImpl(evaluators, prototypes));
+    }
+
+    private void runCompare(AggregationService columnar, AggregationService expected) {
+        ExprEvaluatorContext context = SupportStatementContextFactory.makeEvaluatorContext();
+        Random random = new Random(1);
+        Map<Object, List<Object[]>> entered = new HashMap<Object, List<Object[]>>();
+        EventBean[] eventsPerStream = new EventBean[1];
+
+        for (int i = 0; i < 20000; i++) {
+            Object key = random.nextInt(50) == 0 ? null : "K" + random.nextInt(i < 10000 ? 100 : 10);
+            List<Object[]> rows = entered.get(key);
+            boolean enter = rows == null || rows.isEmpty() || random.nextInt(3) != 0 || i >= 15000;
+            if (enter && i < 15000) {
+                Integer intValue = random.nextInt(5) == 0 ? null : random.nextInt(1000) - 500;
+                Double doubleValue = random.nextInt(5) == 0 ? null : random.nextDouble() * 100;
+                Object[] values = new Object[]{null, intValue, intValue, intValue == null ? null : (long) intValue * 1000000L, doubleValue, doubleValue};
+                System.arraycopy(values, 0, currentValues, 0, values.length);
+                if (rows == null) {
+                    rows = new ArrayList<Object[]>();
+                    entered.put(key, rows);
+                }
+                rows.add(values);
+                columnar.applyEnter(eventsPerStream, key, context);
+                expected.applyEnter(eventsPerStream, key, context);
+            } else if (rows != null && !rows.isEmpty()) {
+                Object[] values = rows.remove(random.nextInt(rows.size()));
+                System.arraycopy(values, 0, currentValues, 0, values.length);
+                columnar.applyLeave(eventsPerStream, key, context);
+                expected.applyLeave(eventsPerStream, key, context);
+            }
+
+            Object queried = random.nextInt(10) == 0 ? "K" + random.nextInt(200) : key;
+            columnar.setCurrentAccess(queried, -1, null);
+            expected.setCurrentAccess(queried, -1, null);
+            for (int column = 0; column < prototypes.length; column++) {
+                assertEquals("column " + column + " at " + i, expected.getValue(column, -1, null, true, null), columnar.getValue(column, -1, null, true, null));
+            }
+            if (i % 1000 == 0) {
+                assertEquals(new HashSet<Object>(expected.getGroupKeys(context)), new HashSet<Object>(columnar.getGroupKeys(context)));
+            }
+        }
+        assertEquals(new HashSet<Object>(expected.getGroupKeys(context)), new HashSet<Object>(columnar.getGroupKeys(context)));
+
+        columnar.clearResults(context);
+        assertTrue(columnar.getGroupKeys(context).isEmpty());
+    }
+
+    private static AggregationMethodFactory makeFactory(final Class<? extends AggregationMethod> methodClass) {
+        return new SupportAggregatorFactory() {
+            public AggregationMethod make() {
+                try {
+                    return methodClass.newInstance();
+                } catch (Exception ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+        };
+    }
+}
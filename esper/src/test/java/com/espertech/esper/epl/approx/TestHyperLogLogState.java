@@ -0,0 +1,58 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.approx;
+
+import junit.framework.TestCase;
+
+public class TestHyperLogLogState extends TestCase {
+
+    public void testExactWhenSmall() {
+        HyperLogLogState state = new HyperLogLogState();
+        assertEquals(0, state.estimate());
+        state.add(null);
+        assertEquals(0, state.estimate());
+        for (int i = 0; i < 200; i++) {
+            state.add("E" + (i % 100));
+            state.add((long) (i % 50));
+            state.add(i % 50); // same as long value
+        }
+        assertEquals(150, state.estimate());
+
+        state.clear();
+        assertEquals(0, state.estimate());
+    }
+
+    public void testEstimate() {
+        for (int cardinality : new int[]{300, 2000, 10000, 100000, 1000000}) {
+            HyperLogLogState state = new HyperLogLogState();
+            for (int i = 0; i < cardinality; i++) {
+                state.add("value" + i);
+                state.add("value" + (i / 2));
+            }
+            double error = Math.abs(state.estimate() - cardinality) / (double) cardinality;
+            assertTrue("error " + error + " for cardinality " + cardinality, error < 0.05);
+        }
+    }
+
+    public void testHashNumbers() {
+        assertEquals(HyperLogLogState.hash(10L), HyperLogLogState.hash(10));
+        assertEquals(HyperLogLogState.hash(1.5d), HyperLogLogState.hash(1.5f));
+        assertFalse(HyperLogLogState.hash(1L) == HyperLogLogState.hash(2L));
+        assertFalse(HyperLogLogState.hash(1L) == HyperLogLogState.hash(1d));
+    }
+
+    public void testHashStrings() {
+        // same 32-bit hash code
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertFalse(HyperLogLogState.hash("Aa") == HyperLogLogState.hash("BB"));
+        assertEquals(HyperLogLogState.hash("Aa"), HyperLogLogState.hash(new String("Aa")));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.approx;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class TestTDigestState extends TestCase {
+
+    public void testSmall() {
+        TDigestState state = new TDigestState();
+        assertNull(state.quantile(0.5));
+        state.add(Double.NaN);
+        assertNull(state.quantile(0.5));
+
+        state.add(10);
+        assertEquals(10d, state.quantile(0.1));
+        assertEquals(10d, state.quantile(0.9));
+
+        state.add(20);
+        state.add(30);
+        assertEquals(10d, state.quantile(0));
+        assertEquals(20d, state.quantile(0.5));
+        assertEquals(30d, state.quantile(1));
+
+        state.clear();
+        assertNull(state.quantile(0.5));
+    }
+
+    public void testAccuracyAndBoundedSize() {
+        Random random = new Random(42);
+        int count = 200000;
+        double[] values = new double[count];
+        TDigestState state = new TDigestState();
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextGaussian() * 100 + (i % 7 == 0 ? 1000 : 0);
+            state.add(values[i]);
+        }
+        Arrays.sort(values);
+        assertTrue(state.getNumCentroids() <= 210);
+
+        for (double percentile : new double[]{0.001, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999}) {
+            double estimate = state.quantile(percentile);
+            // compare the rank of the estimate with the percentile
+            int rank = Arrays.binarySearch(values, estimate);
+            rank = rank < 0 ? -(rank + 1) : rank;
+            double rankError = Math.abs(rank / (double) count - percentile);
+            double allowed = percentile < 0.02 || percentile > 0.98 ? 0.001 : 0.01;
+            assertTrue("rank error " + rankError + " for percentile " + percentile, rankError < allowed);
+        }
+        assertEquals(values[0], state.quantile(0));
+        assertEquals(values[count - 1], state.quantile(1));
+    }
+
+    public void testQuantileDoesNotChangeDigest() {
+        Random random = new Random(7);
+        TDigestState read = new TDigestState();
+        TDigestState unread = new TDigestState();
+        for (int i = 0; i < 1000; i++) {
+            double value = random.nextGaussian();
+            read.add(value);
+            unread.add(value);
+            if (i % 3 == 0) {
+                // reading with buffered values must not merge them into the centroids
+                read.quantile(0.5);
+            }
+        }
+        for (double percentile : new double[]{0, 0.01, 0.5, 0.99, 1}) {
+            assertEquals(unread.quantile(percentile), read.quantile(percentile));
+        }
+    }
+}
@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.epl.expression.ops;
 
+import com.espertech.esper.epl.expression.core.ExprEvaluatorNullFlag;
 import com.espertech.esper.epl.expression.core.ExprNodeOrigin;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
@@ -19,6 +20,8 @@ import com.espertech.esper.type.MathArithTypeEnum;
 import com.espertech.esper.util.support.SupportExprValidationContextFactory;
 import junit.framework.TestCase;
 
+import java.util.Arrays;
+
 public class TestExprMathNode extends TestCase {
     private ExprMathNode arithNode;
 
@@ -82,6 +85,55 @@ public class TestExprMathNode extends TestCase {
         assertNull(arithNode.evaluate(null, false, null));
     }
 
+    public void testEvaluatePrimitive() throws Exception {
+        ExprEvaluatorNullFlag nullFlag = new ExprEvaluatorNullFlag();
+        Object[][] operands = new Object[][]{
+            {10, Integer.class, 1.5d, Double.class},
+            {Integer.MAX_VALUE, Integer.class, 2, Integer.class},
+            {7L, Long.class, 3, Integer.class},
+            {7, Integer.class, 0, Integer.class},
+            {7d, Double.class, 0d, Double.class},
+            {null, Integer.class, 5d, Double.class},
+            {5L, Long.class, null, Long.class},
+        };
+        for (MathArithTypeEnum type : MathArithTypeEnum.values()) {
+            for (boolean isIntegerDivision : new boolean[]{false, true}) {
+                for (boolean isDivisionByZeroReturnsNull : new boolean[]{false, true}) {
+                    for (Object[] operand : operands) {
+                        ExprMathNode node = new ExprMathNode(type, isIntegerDivision, isDivisionByZeroReturnsNull);
+                        node.addChildNode(new SupportExprNode(operand[0], (Class) operand[1]));
+                        node.addChildNode(new SupportExprNode(operand[2], (Class) operand[3]));
+                        SupportExprNodeUtil.validate(node);
+                        String message = type + " " + Arrays.toString(operand) + " " + isIntegerDivision + " " + isDivisionByZeroReturnsNull;
+
+                        Number expected;
+                        try {
+                            expected = (Number) node.evaluate(null, false, null);
+                        } catch (ArithmeticException ex) {
+                            try {
+                                node.evaluateLong(null, false, null, nullFlag);
+                                fail(message);
+                            } catch (ArithmeticException expectedEx) {
+                                // expected, integer modulo by zero
+                            }
+                            continue;
+                        }
+                        double resultDouble = node.evaluateDouble(null, false, null, nullFlag);
+                        assertEquals(message, expected == null, nullFlag.isNull());
+                        if (expected != null) {
+                            assertEquals(message, expected.doubleValue(), resultDouble);
+                        }
+                        long resultLong = node.evaluateLong(null, false, null, nullFlag);
+                        assertEquals(message, expected == null, nullFlag.isNull());
+                        if (expected != null) {
+                            assertEquals(message, expected.longValue(), resultLong);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     public void testEqualsNode() throws Exception {
         assertTrue(arithNode.equalsNode(arithNode, false));
         assertFalse(arithNode.equalsNode(new ExprMathNode(MathArithTypeEnum.DIVIDE, false, false), false));
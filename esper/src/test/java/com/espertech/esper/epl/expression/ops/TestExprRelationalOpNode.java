@@ -10,6 +10,7 @@
  */
 package com.espertech.esper.epl.expression.ops;
 
+import com.espertech.esper.epl.expression.core.ExprEvaluatorNullFlag;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
 import com.espertech.esper.supportunit.epl.SupportExprNode;
@@ -18,6 +19,8 @@ import com.espertech.esper.type.RelationalOpEnum;
 import com.espertech.esper.util.support.SupportExprValidationContextFactory;
 import junit.framework.TestCase;
 
+import java.util.Arrays;
+
 public class TestExprRelationalOpNode extends TestCase {
     private ExprRelationalOpNode opNode;
 
@@ -91,6 +94,35 @@ public class TestExprRelationalOpNode extends TestCase {
         assertEquals(null, opNode.evaluate(null, false, null));
     }
 
+    public void testEvaluatePrimitive() throws Exception {
+        ExprEvaluatorNullFlag nullFlag = new ExprEvaluatorNullFlag();
+        Object[][] operands = new Object[][]{
+            {1, Integer.class, 2, Integer.class},
+            {2L, Long.class, 2, Integer.class},
+            {2.5d, Double.class, 2, Integer.class},
+            {1.5f, Float.class, 1.5d, Double.class},
+            {"a", String.class, "b", String.class},
+            {null, Integer.class, 2, Integer.class},
+            {1d, Double.class, null, Double.class},
+        };
+        for (RelationalOpEnum type : RelationalOpEnum.values()) {
+            for (Object[] operand : operands) {
+                ExprRelationalOpNodeImpl node = new ExprRelationalOpNodeImpl(type);
+                node.addChildNode(new SupportExprNode(operand[0], (Class) operand[1]));
+                node.addChildNode(new SupportExprNode(operand[2], (Class) operand[3]));
+                SupportExprNodeUtil.validate(node);
+                String message = type + " " + Arrays.toString(operand);
+
+                Boolean expected = (Boolean) node.evaluate(null, false, null);
+                boolean result = node.evaluateBoolean(null, false, null, nullFlag);
+                assertEquals(message, expected == null, nullFlag.isNull());
+                if (expected != null) {
+                    assertEquals(message, expected.booleanValue(), result);
+                }
+            }
+        }
+    }
+
     public void testToExpressionString() throws Exception {
         opNode.addChildNode(new SupportExprNode(10));
         opNode.addChildNode(new SupportExprNode(5));
@@ -0,0 +1,135 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.epl.named;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestNamedWindowVersionedStore extends TestCase {
+    private NamedWindowVersionedStore store;
+    private EventBean[] events;
+
+    public void setUp() {
+        store = new NamedWindowVersionedStore();
+        events = SupportEventBeanFactory.makeEvents(new String[]{"a", "b", "c", "d"});
+    }
+
+    public void testAddRemove() {
+        assertTrue(store.snapshot().isEmpty());
+
+        store.update(new EventBean[]{events[0], events[1]}, null);
+        assertSnapshot(events[0], events[1]);
+
+        Collection<EventBean> before = store.snapshot();
+        store.update(new EventBean[]{events[2]}, new EventBean[]{events[0]});
+        assertSnapshot(events[1], events[2]);
+        EPAssertionUtil.assertEqualsExactOrder(new Object[]{events[0], events[1]}, before.toArray());
+
+        // an event added and removed by the same update is not visible
+        store.update(new EventBean[]{events[3]}, new EventBean[]{events[3]});
+        assertSnapshot(events[1], events[2]);
+
+        // removing an unknown event has no effect
+        store.update(null, new EventBean[]{events[0]});
+        assertSnapshot(events[1], events[2]);
+
+        store.update(null, new EventBean[]{events[2], events[1]});
+        assertTrue(store.snapshot().isEmpty());
+    }
+
+    public void testSameEventMultipleTimes() {
+        store.update(new EventBean[]{events[0]}, null);
+        store.update(new EventBean[]{events[1]}, null);
+        store.update(new EventBean[]{events[0]}, null);
+        assertSnapshot(events[0], events[1], events[0]);
+
+        // removes the earliest occurrence
+        store.update(null, new EventBean[]{events[0]});
+        assertSnapshot(events[1], events[0]);
+
+        store.update(null, new EventBean[]{events[0]});
+        assertSnapshot(events[1]);
+    }
+
+    public void testConcurrentReaders() throws Exception {
+        final int windowSize = 50;
+        final int numUpdates = 20000;
+        final EventBean[] stream = new EventBean[numUpdates];
+        for (int i = 0; i < numUpdates; i++) {
+            stream[i] = SupportEventBeanFactory.createObject(i);
+        }
+        final AtomicReference<String> failure = new AtomicReference<String>();
+
+        Thread writer = new Thread(new Runnable() {
+            public void run() {
+                for (int i = 0; i < numUpdates; i++) {
+                    EventBean[] oldData = i >= windowSize ? new EventBean[]{stream[i - windowSize]} : null;
+                    store.update(new EventBean[]{stream[i]}, oldData);
+                }
+            }
+        });
+        Thread[] readers = new Thread[3];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(new Runnable() {
+                public void run() {
+                    int last = -1;
+                    while (last < numUpdates - 1 && failure.get() == null) {
+                        Collection<EventBean> snapshot = store.snapshot();
+                        if (snapshot.isEmpty()) {
+                            continue;
+                        }
+                        // each snapshot must be a contiguous run of the stream ending at the latest event of its version
+                        int expected = -1;
+                        for (EventBean theEvent : snapshot) {
+                            int value = (Integer) theEvent.getUnderlying();
+                            if (expected != -1 && value != expected) {
+                                failure.set("Non-contiguous snapshot at " + value + " expected " + expected);
+                                return;
+                            }
+                            expected = value + 1;
+                        }
+                        int first = (Integer) snapshot.iterator().next().getUnderlying();
+                        int size = snapshot.size();
+                        if (size != Math.min(windowSize, expected) || first != expected - size) {
+                            failure.set("Unexpected snapshot size " + size + " starting at " + first);
+                            return;
+                        }
+                        if (expected - 1 < last) {
+                            failure.set("Snapshot went backwards");
+                            return;
+                        }
+                        last = expected - 1;
+                    }
+                }
+            });
+        }
+
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        writer.start();
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join(10000);
+        }
+        assertNull(failure.get(), failure.get());
+        assertEquals(windowSize, store.snapshot().size());
+    }
+
+    private void assertSnapshot(EventBean... expected) {
+        EPAssertionUtil.assertEqualsExactOrder(expected, store.snapshot().toArray());
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.event.arr;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.support.SupportEventAdapterService;
+import com.espertech.esper.event.EventTypeMetadata;
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TestObjectArrayOffHeapStore extends TestCase {
+    private ObjectArrayEventType eventType;
+    private ObjectArrayOffHeapStore store;
+
+    public void setUp() {
+        Map<String, Object> typeRep = new LinkedHashMap<String, Object>();
+        typeRep.put("s", String.class);
+        typeRep.put("i", int.class);
+        typeRep.put("l", Long.class);
+        typeRep.put("d", double.class);
+        typeRep.put("f", Float.class);
+        typeRep.put("sh", Short.class);
+        typeRep.put("b", Byte.class);
+        typeRep.put("z", Boolean.class);
+        typeRep.put("c", Character.class);
+        eventType = makeType(typeRep);
+        store = new ObjectArrayOffHeapStore(eventType);
+    }
+
+    public void testStoreRelease() {
+        Object[] values = new Object[]{"abc\u00e9", 1, 2L, 3.5d, 4.5f, (short) 5, (byte) 6, true, 'x'};
+        Object[] nulls = new Object[9];
+        EventBean[] stored = store.store(new EventBean[]{new ObjectArrayEventBean(values, eventType), new ObjectArrayEventBean(nulls, eventType)});
+
+        assertTrue(stored[0] instanceof ObjectArrayOffHeapEventBean);
+        assertTrue(Arrays.equals(values, (Object[]) stored[0].getUnderlying()));
+        assertTrue(Arrays.equals(nulls, (Object[]) stored[1].getUnderlying()));
+        assertEquals("abc\u00e9", stored[0].get("s"));
+        assertEquals(3.5d, stored[0].get("d"));
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], ((ObjectArrayOffHeapEventBean) stored[0]).getProperty(i));
+            assertNull(((ObjectArrayOffHeapEventBean) stored[1]).getProperty(i));
+        }
+        assertSame(stored[0], store.store(stored[0]));
+
+        store.release(stored);
+        store.release(stored);
+        assertTrue(Arrays.equals(values, (Object[]) stored[0].getUnderlying()));
+
+        // reuse of released storage does not affect released events
+        for (int i = 0; i < 10000; i++) {
+            Object[] other = new Object[]{"s" + i, i, (long) i, (double) i, null, null, null, false, 'y'};
+            EventBean event = store.store(new ObjectArrayEventBean(other, eventType));
+            assertEquals(i, event.get("i"));
+            store.release(new EventBean[]{event});
+        }
+        assertTrue(Arrays.equals(values, (Object[]) stored[0].getUnderlying()));
+        assertTrue(Arrays.equals(nulls, (Object[]) stored[1].getUnderlying()));
+        assertEquals("abc\u00e9", stored[0].get("s"));
+    }
+
+    public void testUnsupportedType() {
+        Map<String, Object> typeRep = new LinkedHashMap<String, Object>();
+        typeRep.put("s", String.class);
+        typeRep.put("o", BigDecimal.class);
+        assertNull(ObjectArrayOffHeapCodec.getUnsupportedProperty(eventType));
+        assertEquals("o", ObjectArrayOffHeapCodec.getUnsupportedProperty(makeType(typeRep)));
+        try {
+            new ObjectArrayOffHeapStore(makeType(typeRep));
+            fail();
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    private static ObjectArrayEventType makeType(Map<String, Object> typeRep) {
+        EventTypeMetadata metadata = EventTypeMetadata.createNonPojoApplicationType(EventTypeMetadata.ApplicationType.OBJECTARR, "testtype", true, true, true, false, false);
+        return new ObjectArrayEventType(metadata, "", 1, SupportEventAdapterService.getService(), typeRep, null, null, null);
+    }
+}
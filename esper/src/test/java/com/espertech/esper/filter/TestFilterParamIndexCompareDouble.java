@@ -0,0 +1,182 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.supportunit.filter.SupportEventEvaluator;
+import junit.framework.TestCase;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class TestFilterParamIndexCompareDouble extends TestCase {
+    private SupportEventEvaluator testEvaluator;
+    private SupportBean testBean;
+    private EventBean testEventBean;
+    private EventType testEventType;
+    private List<FilterHandle> matchesList;
+
+    public void setUp() {
+        testEvaluator = new SupportEventEvaluator();
+        testBean = new SupportBean();
+        testEventBean = SupportEventBeanFactory.createObject(testBean);
+        testEventType = testEventBean.getEventType();
+        matchesList = new LinkedList<FilterHandle>();
+    }
+
+    public void testMatchDoubleAndGreater() {
+        FilterParamIndexCompareDouble index = makeOne("doublePrimitive", FilterOperator.GREATER);
+
+        index.put(Double.valueOf(1.5), testEvaluator);
+        index.put(Double.valueOf(2.1), testEvaluator);
+        index.put(Double.valueOf(2.2), testEvaluator);
+
+        verifyDoublePrimitive(index, 1.5, 0);
+        verifyDoublePrimitive(index, 1.7, 1);
+        verifyDoublePrimitive(index, 2.2, 2);
+        verifyDoublePrimitive(index, 2.1999999, 2);
+        verifyDoublePrimitive(index, -1, 0);
+        verifyDoublePrimitive(index, 99, 3);
+
+        assertEquals(testEvaluator, index.get(1.5d));
+        assertEquals(3, index.sizeExpensive());
+        assertTrue(index.getReadWriteLock() != null);
+        index.remove(1.5d);
+        index.remove(1.5d);
+        assertEquals(null, index.get(1.5d));
+        assertEquals(2, index.sizeExpensive());
+
+        try {
+            index.put("a", testEvaluator);
+            assertTrue(false);
+        } catch (ClassCastException ex) {
+            // Expected
+        }
+    }
+
+    public void testMatchIntAndGreaterEquals() {
+        FilterParamIndexCompareDouble index = makeOne("intBoxed", FilterOperator.GREATER_OR_EQUAL);
+
+        index.put(1, testEvaluator);
+        index.put(2, testEvaluator);
+        index.put(4, testEvaluator);
+
+        verifyIntBoxed(index, null, 0);
+        verifyIntBoxed(index, 0, 0);
+        verifyIntBoxed(index, 1, 1);
+        verifyIntBoxed(index, 2, 2);
+        verifyIntBoxed(index, 3, 2);
+        verifyIntBoxed(index, 4, 3);
+        verifyIntBoxed(index, 10, 3);
+    }
+
+    public void testMatchIntAndLessThan() {
+        FilterParamIndexCompareDouble index = makeOne("intPrimitive", FilterOperator.LESS);
+
+        index.put(1, testEvaluator);
+        index.put(10, testEvaluator);
+        index.put(100, testEvaluator);
+
+        verifyIntPrimitive(index, 100, 0);
+        verifyIntPrimitive(index, 101, 0);
+        verifyIntPrimitive(index, 99, 1);
+        verifyIntPrimitive(index, 10, 1);
+        verifyIntPrimitive(index, 9, 2);
+        verifyIntPrimitive(index, 1, 2);
+        verifyIntPrimitive(index, 0, 3);
+
+        index.remove(10);
+        verifyIntPrimitive(index, 9, 1);
+        index.remove(1);
+        index.remove(100);
+        assertTrue(index.isEmpty());
+        verifyIntPrimitive(index, 0, 0);
+    }
+
+    public void testMatchDoubleAndLessOrEqualThan() {
+        FilterParamIndexCompareDouble index = makeOne("doubleBoxed", FilterOperator.LESS_OR_EQUAL);
+
+        index.put(7.4D, testEvaluator);
+        index.put(7.5D, testEvaluator);
+        index.put(7.6D, testEvaluator);
+
+        verifyDoubleBoxed(index, 7.39, 3);
+        verifyDoubleBoxed(index, 7.4, 3);
+        verifyDoubleBoxed(index, 7.41, 2);
+        verifyDoubleBoxed(index, 7.5, 2);
+        verifyDoubleBoxed(index, 7.51, 1);
+        verifyDoubleBoxed(index, 7.6, 1);
+        verifyDoubleBoxed(index, 7.61, 0);
+    }
+
+    public void testRandomAgainstSortedMapIndex() {
+        Random random = new Random(1);
+        FilterOperator[] operators = new FilterOperator[]{FilterOperator.GREATER, FilterOperator.GREATER_OR_EQUAL, FilterOperator.LESS, FilterOperator.LESS_OR_EQUAL};
+        for (FilterOperator op : operators) {
+            FilterParamIndexCompareDouble index = makeOne("doubleBoxed", op);
+            FilterParamIndexCompare expected = new FilterParamIndexCompare(makeLookupable("doubleBoxed"), new ReentrantReadWriteLock(), op);
+            for (int i = 0; i < 500; i++) {
+                Double constant = (double) random.nextInt(100);
+                if (random.nextInt(4) == 0) {
+                    index.remove(constant);
+                    expected.remove(constant);
+                } else {
+                    index.put(constant, testEvaluator);
+                    expected.put(constant, testEvaluator);
+                }
+
+                testBean.setDoubleBoxed((double) random.nextInt(110) - 5);
+                expected.matchEvent(testEventBean, matchesList);
+                int countExpected = testEvaluator.getAndResetCountInvoked();
+                index.matchEvent(testEventBean, matchesList);
+                assertEquals(countExpected, testEvaluator.getAndResetCountInvoked());
+            }
+            assertEquals(expected.sizeExpensive(), index.sizeExpensive());
+        }
+    }
+
+    private FilterParamIndexCompareDouble makeOne(String field, FilterOperator op) {
+        return new FilterParamIndexCompareDouble(makeLookupable(field), new ReentrantReadWriteLock(), op);
+    }
+
+    private void verifyDoublePrimitive(FilterParamIndexBase index, double testValue, int numExpected) {
+        testBean.setDoublePrimitive(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private void verifyDoubleBoxed(FilterParamIndexBase index, Double testValue, int numExpected) {
+        testBean.setDoubleBoxed(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private void verifyIntBoxed(FilterParamIndexBase index, Integer testValue, int numExpected) {
+        testBean.setIntBoxed(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private void verifyIntPrimitive(FilterParamIndexBase index, int testValue, int numExpected) {
+        testBean.setIntPrimitive(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private FilterSpecLookupable makeLookupable(String fieldName) {
+        return new FilterSpecLookupable(fieldName, testEventType.getGetter(fieldName), testEventType.getPropertyType(fieldName), false);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import com.espertech.esper.supportunit.filter.SupportEventEvaluator;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestFilterParamIndexConcurrent extends TestCase {
+    private SupportEventEvaluator testEvaluator;
+    private SupportBean testBean;
+    private EventBean testEventBean;
+    private EventType testEventType;
+    private List<FilterHandle> matchesList;
+    private FilterServiceGranularLockFactory lockFactory = new FilterServiceGranularLockFactoryReentrant();
+
+    public void setUp() {
+        testEvaluator = new SupportEventEvaluator();
+        testBean = new SupportBean();
+        testEventBean = SupportEventBeanFactory.createObject(testBean);
+        testEventType = testEventBean.getEventType();
+        matchesList = new LinkedList<FilterHandle>();
+    }
+
+    public void testEquals() {
+        FilterParamIndexEqualsConcurrent index = new FilterParamIndexEqualsConcurrent(makeLookupable("theString"), lockFactory.obtainNew());
+        assertEquals(FilterOperator.EQUAL, index.getFilterOperator());
+        assertTrue(index.isEmpty());
+
+        index.put("a", testEvaluator);
+        index.put(null, testEvaluator);
+        assertEquals(2, index.sizeExpensive());
+        assertSame(testEvaluator, index.get("a"));
+        assertSame(testEvaluator, index.get(null));
+
+        verifyString(index, "a", 1);
+        verifyString(index, "b", 0);
+        verifyString(index, null, 0);
+
+        index.remove("a");
+        index.remove(null);
+        verifyString(index, "a", 0);
+        assertTrue(index.isEmpty());
+    }
+
+    public void testNotEquals() {
+        FilterParamIndexNotEqualsConcurrent index = new FilterParamIndexNotEqualsConcurrent(makeLookupable("theString"), lockFactory.obtainNew());
+        assertEquals(FilterOperator.NOT_EQUAL, index.getFilterOperator());
+
+        index.put("hello", testEvaluator);
+        index.put("test", testEvaluator);
+        index.put(null, testEvaluator);
+
+        verifyString(index, null, 0);
+        verifyString(index, "dudu", 2);
+        verifyString(index, "hello", 1);
+        verifyString(index, "test", 1);
+
+        index.remove("test");
+        verifyString(index, "hello", 0);
+        verifyString(index, "dudu", 1);
+    }
+
+    public void testIn() {
+        FilterParamIndexInConcurrent index = new FilterParamIndexInConcurrent(makeLookupable("longBoxed"), lockFactory.obtainNew());
+        assertEquals(FilterOperator.IN_LIST_OF_VALUES, index.getFilterOperator());
+
+        MultiKeyUntyped inList = new MultiKeyUntyped(new Object[]{2L, 5L});
+        index.put(inList, testEvaluator);
+        inList = new MultiKeyUntyped(new Object[]{10L, 5L});
+        index.put(inList, testEvaluator);
+
+        verifyLong(index, 1L, 0);
+        verifyLong(index, 2L, 1);
+        verifyLong(index, 5L, 2);
+        verifyLong(index, 10L, 1);
+        verifyLong(index, null, 0);
+
+        // replacing the evaluator for the same in-list keeps a single entry per value
+        SupportEventEvaluator otherEvaluator = new SupportEventEvaluator();
+        index.put(inList, otherEvaluator);
+        verifyLong(index, 10L, 0);
+        assertEquals(1, otherEvaluator.getAndResetCountInvoked());
+
+        assertEquals(otherEvaluator, index.get(inList));
+        index.remove(inList);
+        index.remove(inList);
+        assertEquals(null, index.get(inList));
+        verifyLong(index, 5L, 1);
+        verifyLong(index, 10L, 0);
+        assertEquals(0, otherEvaluator.getAndResetCountInvoked());
+    }
+
+    public void testMatchDuringWrites() throws Exception {
+        final FilterParamIndexEqualsConcurrent index = new FilterParamIndexEqualsConcurrent(makeLookupable("theString"), lockFactory.obtainNew());
+        final SupportEventEvaluator stable = new SupportEventEvaluator();
+        index.put("stable", stable);
+
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread writer = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    for (int i = 0; i < 20000; i++) {
+                        index.getReadWriteLock().writeLock().lock();
+                        try {
+                            index.put("v" + i, new SupportEventEvaluator());
+                            if (i > 10) {
+                                index.remove("v" + (i - 10));
+                            }
+                        } finally {
+                            index.getReadWriteLock().writeLock().unlock();
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.set(t);
+                } finally {
+                    done.countDown();
+                }
+            }
+        });
+
+        writer.start();
+
+        // match continuously while the writer adds and removes other constants
+
+        SupportBean bean = new SupportBean("stable", 0);
+        EventBean event = SupportEventBeanFactory.createObject(bean);
+        List<FilterHandle> matches = new ArrayList<FilterHandle>();
+        int count = 0;
+        while (done.getCount() > 0) {
+            index.matchEvent(event, matches);
+            count++;
+        }
+        writer.join();
+        assertNull(failure.get());
+        assertEquals(count, stable.getAndResetCountInvoked());
+    }
+
+    private void verifyString(FilterParamIndexBase index, String testValue, int numExpected) {
+        testBean.setTheString(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private void verifyLong(FilterParamIndexBase index, Long testValue, int numExpected) {
+        testBean.setLongBoxed(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private FilterSpecLookupable makeLookupable(String fieldName) {
+        return new FilterSpecLookupable(fieldName, testEventType.getGetter(fieldName), testEventType.getPropertyType(fieldName), false);
+    }
+}
@@ -27,6 +27,7 @@ public class TestFilterServiceMT extends TestCase {
     public void testFilterService() throws Exception {
         runAssertionAddRemoveFilter(new FilterServiceLockCoarse(false));
         runAssertionAddRemoveFilter(new FilterServiceLockFine(false));
+        runAssertionAddRemoveFilter(new FilterServiceLockFine(false, true));
     }
 
     private void runAssertionAddRemoveFilter(final FilterService service) throws Exception {
@@ -28,7 +28,7 @@ public class TestIndexFactory extends TestCase {
         FilterParamIndexBase index = IndexFactory.createIndex(makeLookupable("intPrimitive"), lockFactory, FilterOperator.GREATER);
 
         assertTrue(index != null);
-        assertTrue(index instanceof FilterParamIndexCompare);
+        assertTrue(index instanceof FilterParamIndexCompareDouble);
         assertTrue(getPropName(index).equals("intPrimitive"));
         assertTrue(index.getFilterOperator() == FilterOperator.GREATER);
 
@@ -48,6 +48,10 @@ public class TestIndexFactory extends TestCase {
         assertTrue(getPropName(index).equals("string"));
         assertTrue(index.getFilterOperator() == FilterOperator.NOT_EQUAL);
 
+        // Create a "greater" index for a type that does not convert to double exactly
+        index = IndexFactory.createIndex(makeLookupable("longBoxed"), lockFactory, FilterOperator.GREATER);
+        assertTrue(index instanceof FilterParamIndexCompare);
+
         // Create a range index
         index = IndexFactory.createIndex(makeLookupable("doubleBoxed"), lockFactory, FilterOperator.RANGE_CLOSED);
         assertTrue(index instanceof FilterParamIndexDoubleRange);
@@ -67,6 +71,25 @@ public class TestIndexFactory extends TestCase {
         assertTrue(index instanceof FilterParamIndexBooleanExpr);
     }
 
+    public void testCreateIndexConcurrent() {
+        FilterParamIndexBase index = IndexFactory.createIndex(makeLookupable("string"), lockFactory, FilterOperator.EQUAL, true);
+        assertTrue(index instanceof FilterParamIndexEqualsConcurrent);
+        assertTrue(index.getFilterOperator() == FilterOperator.EQUAL);
+
+        index = IndexFactory.createIndex(makeLookupable("string"), lockFactory, FilterOperator.NOT_EQUAL, true);
+        assertTrue(index instanceof FilterParamIndexNotEqualsConcurrent);
+        assertTrue(index.getFilterOperator() == FilterOperator.NOT_EQUAL);
+
+        index = IndexFactory.createIndex(makeLookupable("doubleBoxed"), lockFactory, FilterOperator.IN_LIST_OF_VALUES, true);
+        assertTrue(index instanceof FilterParamIndexInConcurrent);
+
+        // operators without a concurrent variant use the regular index
+        index = IndexFactory.createIndex(makeLookupable("doubleBoxed"), lockFactory, FilterOperator.NOT_IN_LIST_OF_VALUES, true);
+        assertTrue(index instanceof FilterParamIndexNotIn);
+        index = IndexFactory.createIndex(makeLookupable("longPrimitive"), lockFactory, FilterOperator.GREATER, true);
+        assertTrue(index instanceof FilterParamIndexCompare);
+    }
+
     private String getPropName(FilterParamIndexBase index) {
         FilterParamIndexLookupableBase propIndex = (FilterParamIndexLookupableBase) index;
         return propIndex.getLookupable().getExpression();
@@ -0,0 +1,77 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.pattern;
+
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestEvalStateNodeIndexMap extends TestCase {
+
+    public void testPutGetRemove() {
+        EvalStateNodeIndexMap map = new EvalStateNodeIndexMap();
+        EvalStateNode nodeOne = makeNode();
+        EvalStateNode nodeTwo = makeNode();
+        assertTrue(map.isEmpty());
+        assertEquals(-1, map.get(nodeOne));
+        assertEquals(-1, map.remove(nodeOne));
+
+        map.put(nodeOne, 0);
+        map.put(nodeTwo, 1);
+        assertEquals(2, map.size());
+        assertEquals(0, map.get(nodeOne));
+        assertEquals(1, map.get(nodeTwo));
+
+        assertEquals(0, map.remove(nodeOne));
+        assertEquals(-1, map.get(nodeOne));
+        assertEquals(1, map.size());
+        assertSame(nodeTwo, map.getNode(0));
+        assertEquals(1, map.getIndex(0));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.toNodeArray().length);
+    }
+
+    public void testCompareToHashMap() {
+        Random random = new Random(1);
+        EvalStateNodeIndexMap map = new EvalStateNodeIndexMap();
+        Map<EvalStateNode, Integer> reference = new HashMap<EvalStateNode, Integer>();
+        List<EvalStateNode> contained = new ArrayList<EvalStateNode>();
+
+        for (int i = 0; i < 5000; i++) {
+            // grow and shrink across the size at which lookups use the position map
+            boolean grow = (i / 500) % 2 == 0;
+            if (contained.isEmpty() || random.nextInt(10) < (grow ? 7 : 3)) {
+                EvalStateNode node = makeNode();
+                int index = random.nextInt(3);
+                map.put(node, index);
+                reference.put(node, index);
+                contained.add(node);
+            } else {
+                EvalStateNode node = contained.remove(random.nextInt(contained.size()));
+                assertEquals((int) reference.remove(node), map.remove(node));
+                assertEquals(-1, map.get(node));
+            }
+
+            assertEquals(reference.size(), map.size());
+            for (Map.Entry<EvalStateNode, Integer> entry : reference.entrySet()) {
+                assertEquals((int) entry.getValue(), map.get(entry.getKey()));
+            }
+            Set<EvalStateNode> nodes = new HashSet<EvalStateNode>(Arrays.asList(map.toNodeArray()));
+            assertEquals(reference.keySet(), nodes);
+        }
+    }
+
+    private static EvalStateNode makeNode() {
+        return new EvalFilterStateNode(null, null);
+    }
+}
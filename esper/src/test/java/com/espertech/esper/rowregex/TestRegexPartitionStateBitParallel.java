@@ -0,0 +1,46 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.rowregex;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+public class TestRegexPartitionStateBitParallel extends TestCase {
+    public void testRingAndRemove() {
+        RegexPartitionStateBitParallel state = new RegexPartitionStateBitParallel(4);
+        EventBean[] events = new EventBean[5];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = SupportEventBeanFactory.createObject(new SupportBean("E" + i, i));
+            state.push(events[i], 10 + i);
+        }
+
+        // capacity is one less than the number of variables
+        assertSame(events[4], state.getEvent(0));
+        assertSame(events[3], state.getEvent(1));
+        assertSame(events[2], state.getEvent(2));
+        assertEquals(14, state.getSequenceNum(0));
+        assertEquals(12, state.getSequenceNum(2));
+
+        assertTrue(state.isEmpty());
+        state.setMask(7);
+        assertEquals(3, state.getNumStates());
+
+        // partial match at bit 2 begins at 12, at bit 1 at 13, at bit 0 at 14
+        state.removeBeginUpTo(11);
+        assertEquals(7, state.getMask());
+        state.removeBeginUpTo(13);
+        assertEquals(1, state.getMask());
+        state.removeBeginUpTo(14);
+        assertTrue(state.isEmpty());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.rowregex;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.supportunit.bean.SupportBean;
+import com.espertech.esper.supportunit.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.util.Collections;
+
+public class TestRegexPartitionStateRepoGroup extends TestCase {
+    private RegexPartitionStateRepoGroup repo;
+
+    public void setUp() {
+        ExprEvaluator partitionExpression = new ExprEvaluator() {
+            public Object evaluate(EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+                return eventsPerStream[0].get("intPrimitive");
+            }
+
+            public Class getType() {
+                return Integer.class;
+            }
+        };
+        RegexPartitionStateRepoGroupMeta meta = new RegexPartitionStateRepoGroupMeta(false, new ExprNode[1], new ExprEvaluator[]{partitionExpression}, null);
+        repo = new RegexPartitionStateRepoGroup(null, meta, false, null);
+    }
+
+    public void testCollectOnlyAccessed() {
+        int count = RegexPartitionStateRepoGroup.INITIAL_COLLECTION_MIN;
+        for (int i = 0; i < count; i++) {
+            RegexPartitionState state = repo.getState(makeEvent(i), true);
+            if (i % 2 == 0) {
+                state.setCurrentStates(Collections.<RegexNFAStateEntry>singletonList(null));
+            }
+        }
+        assertEquals(count, repo.getCollectCandidateCount());
+
+        // reaching the threshold collects the accessed states that have no partial matches
+        repo.getState(makeEvent(count), true);
+        assertEquals(count / 2 + 1, repo.getStates().size());
+        assertEquals(1, repo.getCollectCandidateCount());
+        assertNotNull(repo.getStates().get(0));
+        assertNull(repo.getStates().get(1));
+
+        // states not accessed since are not visited again
+        assertNotNull(repo.getState(0));
+        repo.getState(makeEvent(2), true).setCurrentStates(Collections.<RegexNFAStateEntry>emptyList());
+        assertEquals(3, repo.getCollectCandidateCount());
+    }
+
+    public void testRemovedStatesLeaveCandidates() {
+        EventBean eventOne = makeEvent(1);
+        RegexPartitionStateImpl stateOne = repo.getState(eventOne, true);
+        RegexPartitionStateImpl stateTwo = repo.getState(makeEvent(2), true);
+        assertEquals(2, repo.getCollectCandidateCount());
+
+        // a partition without partial matches that is removed by an old event is no longer a candidate
+        repo.removeOld(new EventBean[]{eventOne}, false, new boolean[]{true});
+        assertNull(repo.getStates().get(1));
+        assertFalse(stateOne.isCollectCandidate());
+        assertEquals(1, repo.getCollectCandidateCount());
+
+        repo.removeState(2);
+        assertFalse(stateTwo.isCollectCandidate());
+        assertEquals(0, repo.getCollectCandidateCount());
+        assertTrue(repo.getStates().isEmpty());
+    }
+
+    private static EventBean makeEvent(int intPrimitive) {
+        return SupportEventBeanFactory.createObject(new SupportBean("E", intPrimitive));
+    }
+}
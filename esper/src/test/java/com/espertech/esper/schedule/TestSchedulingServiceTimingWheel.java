@@ -0,0 +1,154 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.supportunit.schedule.SupportScheduleCallback;
+import com.espertech.esper.timer.TimeSourceServiceImpl;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestSchedulingServiceTimingWheel extends TestCase {
+    private SchedulingServiceTimingWheel service;
+    private SupportScheduleCallback callbacks[];
+
+    public void setUp() {
+        service = new SchedulingServiceTimingWheel(new TimeSourceServiceImpl());
+        callbacks = new SupportScheduleCallback[5];
+        for (int i = 0; i < callbacks.length; i++) {
+            callbacks[i] = new SupportScheduleCallback();
+        }
+    }
+
+    public void testTrigger() {
+        service.setTime(0);
+
+        service.add(20, callbacks[3], 4);
+        service.add(20, callbacks[2], 3);
+        service.add(20, callbacks[1], 2);
+        service.add(21, callbacks[0], 1);
+        assertTrue(service.isScheduled(callbacks[3]));
+        assertEquals(4, service.getScheduleHandleCount());
+        assertEquals(2, service.getTimeHandleCount());
+        assertEquals(20L, (long) service.getNearestTimeHandle());
+        assertEquals(21L, (long) service.getFurthestTimeHandle());
+
+        service.setTime(19);
+        assertEvaluate();
+
+        // same trigger time is ordered by slot
+        service.setTime(20);
+        assertEvaluate(callbacks[1], callbacks[2], callbacks[3]);
+        assertFalse(service.isScheduled(callbacks[3]));
+
+        service.setTime(21);
+        assertEvaluate(callbacks[0]);
+        assertNull(service.getNearestTimeHandle());
+
+        // re-adding replaces, remove removes
+        service.add(20, callbacks[0], 1);
+        service.add(28, callbacks[0], 1);
+        service.add(25, callbacks[1], 2);
+        service.remove(callbacks[1], 2);
+        service.remove(callbacks[1], 2);
+        service.setTime(41);
+        assertEvaluate();
+        service.setTime(49);
+        assertEvaluate(callbacks[0]);
+
+        // schedule for the current time triggers on the next evaluation
+        service.add(0, callbacks[4], 5);
+        assertEquals(49L, (long) service.getNearestTimeHandle());
+        assertEvaluate(callbacks[4]);
+
+        // large jump triggers in time order
+        service.add(5000000000L, callbacks[2], 3);
+        service.add(70, callbacks[3], 4);
+        service.add(4096, callbacks[1], 2);
+        service.setTime(49 + Integer.MAX_VALUE * 4L);
+        assertEvaluate(callbacks[3], callbacks[1], callbacks[2]);
+    }
+
+    public void testTimeBackwards() {
+        service.setTime(1000);
+        service.add(100, callbacks[0], 1);
+        service.setTime(1050);
+        assertEvaluate();
+        service.setTime(500);
+        assertEvaluate();
+        service.setTime(1099);
+        assertEvaluate();
+        service.setTime(1100);
+        assertEvaluate(callbacks[0]);
+    }
+
+    public void testTakeApply() {
+        service.setTime(0);
+        service.add(10, callbacks[0], 1);
+        service.add(20, callbacks[1], 2);
+        ScheduleSet set = service.take(Collections.singleton(1));
+        assertEquals(2, set.getList().size());
+        assertEquals(0, service.getScheduleHandleCount());
+        service.setTime(5);
+        service.apply(set);
+        service.setTime(15);
+        assertEvaluate(callbacks[0]);
+        service.setTime(25);
+        assertEvaluate(callbacks[1]);
+    }
+
+    public void testRandomAgainstSortedImpl() {
+        Random random = new Random(1234);
+        long[] startTimes = new long[]{0, -1000000, 1488000000000L, Long.MAX_VALUE / 2};
+        for (long startTime : startTimes) {
+            SchedulingServiceImpl expected = new SchedulingServiceImpl(new TimeSourceServiceImpl());
+            SchedulingServiceTimingWheel actual = new SchedulingServiceTimingWheel(new TimeSourceServiceImpl());
+            List<ScheduleHandle> handles = new ArrayList<ScheduleHandle>();
+            for (int i = 0; i < 500; i++) {
+                handles.add(new SupportScheduleCallback());
+            }
+
+            long time = startTime;
+            expected.setTime(time);
+            actual.setTime(time);
+            for (int step = 0; step < 5000; step++) {
+                int action = random.nextInt(10);
+                if (action < 5) {
+                    int index = random.nextInt(handles.size());
+                    long after = random.nextInt(4) == 0 ? random.nextInt(100000000) : random.nextInt(200);
+                    expected.add(after, handles.get(index), index);
+                    actual.add(after, handles.get(index), index);
+                } else if (action < 7) {
+                    int index = random.nextInt(handles.size());
+                    expected.remove(handles.get(index), index);
+                    actual.remove(handles.get(index), index);
+                } else {
+                    time += random.nextInt(20) == 0 ? random.nextInt(200000000) : random.nextInt(50);
+                    expected.setTime(time);
+                    actual.setTime(time);
+                    List<ScheduleHandle> expectedHandles = new ArrayList<ScheduleHandle>();
+                    List<ScheduleHandle> actualHandles = new ArrayList<ScheduleHandle>();
+                    expected.evaluate(expectedHandles);
+                    actual.evaluate(actualHandles);
+                    assertEquals(expectedHandles, actualHandles);
+                }
+                assertEquals(expected.getScheduleHandleCount(), actual.getScheduleHandleCount());
+                assertEquals(expected.getNearestTimeHandle(), actual.getNearestTimeHandle());
+            }
+        }
+    }
+
+    private void assertEvaluate(ScheduleHandle... expected) {
+        List<ScheduleHandle> handles = new ArrayList<ScheduleHandle>();
+        service.evaluate(handles);
+        assertEquals(Arrays.asList(expected), handles);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ ***************************************************************************************
+ *  Copyright (C) 2006 EsperTech, Inc. All rights reserved.                            *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ ***************************************************************************************
+ */
+package com.espertech.esper.util;
+
+import junit.framework.TestCase;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class TestSnapshotValueSerde extends TestCase {
+
+    public void testRoundTrip() throws Exception {
+        Object[] values = new Object[]{null, true, (byte) 1, (short) 2, 3, 4L, 5.5f, 6.5d, 'c', "", "text \u00e9",
+            new BigInteger("-123456789012345678901234567890"), new BigDecimal("12345.678900"),
+            new int[]{1, 2}, new long[]{3}, new double[]{}, new boolean[]{true, false}, new byte[]{9, 8},
+            new Object[]{1, "a", null, new String[]{"b"}}, new String[]{"x", null}, new Integer[]{7}};
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        for (Object value : values) {
+            assertTrue(SnapshotValueSerde.isSupported(value));
+            SnapshotValueSerde.write(value, output);
+        }
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        for (Object value : values) {
+            Object read = SnapshotValueSerde.read(input);
+            assertTrue(Arrays.deepEquals(new Object[]{value}, new Object[]{read}));
+            if (value != null) {
+                assertEquals(value.getClass(), read.getClass());
+            }
+        }
+        assertEquals(-1, input.read());
+    }
+
+    public void testLongString() throws Exception {
+        char[] chars = new char[100000];
+        Arrays.fill(chars, 'x');
+        String value = new String(chars);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SnapshotValueSerde.write(value, new DataOutputStream(bytes));
+        assertEquals(value, SnapshotValueSerde.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+    }
+
+    public void testUnsupported() throws Exception {
+        assertFalse(SnapshotValueSerde.isSupported(Collections.emptyList()));
+        assertFalse(SnapshotValueSerde.isSupported(new Object[]{new Object()}));
+        try {
+            SnapshotValueSerde.write(new Object(), new DataOutputStream(new ByteArrayOutputStream()));
+            fail();
+        } catch (IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            SnapshotValueSerde.read(new DataInputStream(new ByteArrayInputStream(new byte[]{99})));
+            fail();
+        } catch (IOException ex) {
+            // expected
+        }
+    }
+}
@@ -41,6 +41,12 @@ public class AxionEventSender implements EventSender {
         processEvent(theEvent, false);
     }
 
+    public void sendEvents(Object[] events) {
+        for (Object theEvent : events) {
+            processEvent(theEvent, false);
+        }
+    }
+
     public void route(Object theEvent) {
         processEvent(theEvent, true);
     }